@@ -0,0 +1,27 @@
+#!/bin/bash
+# Hands the compare to a comparator daemon that is already running, instead of starting a JVM.  Takes the same options as compare.sh.
+# Start the daemon once with: ./compare.sh -ds /tmp/sbom-comparator.sock
+# ./compare-client.sh -f1 ./test/OrgSbom.xml -f2 ./test/ModifiedSbom.xml -o ./test/output -f xml -t ./test/quickOutput
+
+SOCKET=${SBOM_COMPARATOR_SOCKET:-/tmp/sbom-comparator.sock}
+
+if [ ! -S "$SOCKET" ]
+then
+	echo "No comparator daemon is listening on $SOCKET." >&2
+	exit 2
+fi
+
+ANSWER=$(printf '%s\0' "$#" "$PWD" "$@" | socat -t 3600 - "UNIX-CONNECT:$SOCKET")
+if [ $? -ne 0 ] || [[ "$ANSWER" != *"exit "* ]]
+then
+	echo "The comparator daemon on $SOCKET did not answer." >&2
+	exit 2
+fi
+
+STATUS=${ANSWER##*exit }
+OUTPUT=${ANSWER%exit *}
+if [ -n "$OUTPUT" ]
+then
+	printf '%s' "$OUTPUT"
+fi
+exit $STATUS
@@ -10,7 +10,35 @@
 package com.lmco.efoss.sbom.comparator;
 
 import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Date;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
 
 import org.apache.commons.cli.CommandLine;
 import org.apache.commons.cli.CommandLineParser;
@@ -20,22 +48,41 @@ import org.apache.commons.cli.Option;
 import org.apache.commons.cli.Options;
 import org.apache.log4j.Logger;
 import org.cyclonedx.model.Bom;
+import org.cyclonedx.model.Component;
 import org.springframework.boot.ApplicationArguments;
 import org.springframework.boot.ApplicationRunner;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.lmco.efoss.sbom.commons.utils.DateUtils;
-import com.lmco.efoss.sbom.commons.utils.FileOutputUtils;
 import com.lmco.efoss.sbom.commons.utils.SBomCommons;
 import com.lmco.efoss.sbom.commons.utils.SBomCommonsException;
 import com.lmco.efoss.sbom.commons.utils.SBomFileUtils;
 import com.lmco.efoss.sbom.comparator.builder.HtmlBuilder;
+import com.lmco.efoss.sbom.comparator.dtos.CompareJob;
+import com.lmco.efoss.sbom.comparator.dtos.CompareSummary;
+import com.lmco.efoss.sbom.comparator.dtos.ComponentKey;
+import com.lmco.efoss.sbom.comparator.dtos.CorpusMatch;
+import com.lmco.efoss.sbom.comparator.dtos.HistoryBuild;
+import com.lmco.efoss.sbom.comparator.dtos.HistoryEntry;
+import com.lmco.efoss.sbom.comparator.dtos.IndexedBom;
 import com.lmco.efoss.sbom.comparator.dtos.SBomDiff;
 import com.lmco.efoss.sbom.comparator.exceptions.SBomComparatorException;
 import com.lmco.efoss.sbom.comparator.generator.SBomGenerator;
+import com.lmco.efoss.sbom.comparator.server.AdmissionController;
+import com.lmco.efoss.sbom.comparator.server.CompareDaemon;
+import com.lmco.efoss.sbom.comparator.server.CompareServer;
+import com.lmco.efoss.sbom.comparator.server.JobStore;
+import com.lmco.efoss.sbom.comparator.utils.CompareManifest;
+import com.lmco.efoss.sbom.comparator.utils.CorpusIndex;
+import com.lmco.efoss.sbom.comparator.utils.DiffHistoryStore;
+import com.lmco.efoss.sbom.comparator.utils.MinHashSketch;
+import com.lmco.efoss.sbom.comparator.utils.ParsedBomCache;
 import com.lmco.efoss.sbom.comparator.utils.SBomCompareUtils;
+import com.lmco.efoss.sbom.comparator.utils.SBomDiffCounter;
 import com.lmco.efoss.sbom.comparator.utils.SBomDiffFileUtils;
+import com.lmco.efoss.sbom.comparator.utils.SBomDiffTee;
 
 /**
  * (U) This is the main driver class for the Software Bill of Materials (SBom) comparator. Used to
@@ -49,16 +96,62 @@ public class SbomcomparatorApplication implements ApplicationRunner
 {
 	private enum AVAILABLE_FORMATS
 	{
-		JSON, XML
+		JSON, NDJSON, XML
 	}
 	
+	/**
+	 * (U) This interface is how a run that compares many SBoms reads each of them: through the
+	 * parsed SBom cache when SBoms may be read again, or straight from the file when they are
+	 * not.
+	 */
+	private interface BomReader
+	{
+		IndexedBom read(String fileName) throws SBomComparatorException;
+	}
+	
+	private static final String BASELINE = "baseline";
+	private static final String CACHE_MB = "cache-mb";
+	private static final String MANIFEST = "manifest";
 	private static final String OUTPUT = "output";
+	private static final String HISTORY = "history";
+	private static final String HISTORY_BUILDS = "history-builds";
+	private static final String HISTORY_PRODUCT = "history-product";
+	private static final String HISTORY_QUERY = "history-query";
+	private static final String HTMLGZIP = "htmlgzip";
+	private static final String HTMLMODE = "htmlmode";
 	private static final String HTMLOUTPUT = "htmloutput";
+	private static final String COMPOSE = "compose";
+	private static final String DAEMON = "daemon";
+	private static final String CORPUS = "corpus";
+	private static final String CORPUS_INDEX = "corpus-index";
+	private static final String CORPUS_QUERY = "corpus-query";
+	private static final String CORPUS_VERSION = "corpus-version";
 	private static final String FORMAT = "format";
+	private static final String HEAP_BUDGET = "heap-budget";
 	private static final String OUTPUT_BOM_FILE = "outputBomFile";
+	private static final String RELEASES = "releases";
+	private static final String RESULT_DIR = "result-dir";
+	private static final String RESULT_HOURS = "result-hours";
+	private static final String SERVE = "serve";
+	private static final String SERVER_HOST = "server-host";
+	private static final String SERVER_ROOT = "server-root";
+	private static final String SIMILARITY = "similarity";
+	private static final String SKETCH_SIZE = "sketch-size";
+	private static final String TARGETS = "targets";
+	private static final String VIRTUAL_THREADS = "virtual-threads";
+	private static final String WORKERS = "workers";
+	private static final String REPORT_PROPERTIES = "report-properties";
+	
+	// Options naming files or directories, resolved against a daemon client's directory.
+	private static final Set<String> PATH_OPTIONS = new HashSet<>(Arrays.asList("orgsbom",
+			"newsbom", OUTPUT, OUTPUT_BOM_FILE, HTMLOUTPUT, RELEASES, BASELINE, TARGETS, MANIFEST,
+			COMPOSE, SIMILARITY, HISTORY, CORPUS_INDEX, CORPUS));
 	private static final Logger logger = Logger
 			.getLogger(SbomcomparatorApplication.class.getName());
 	
+	// Parsed SBoms, shared by every compare this JVM runs, created by the first one that needs it.
+	private static ParsedBomCache bomCache = null;
+	
 	/**
 	 * (U) This method is used to create the valid options for command line usage.
 	 * 
@@ -76,44 +169,149 @@ public class SbomcomparatorApplication implements ApplicationRunner
 		cliOptions.addOption(new Option("ob", OUTPUT_BOM_FILE, true,
 				"(Optional) output file name of the diff bom, default is diffBom.json or diffBom.xml"));
 		cliOptions.addOption(new Option("f", FORMAT, true,
-				"(Optional) output file format, Valid values json, xml.  Default is xml"));
+				"(Optional) output file format(s), a comma separated list of json, ndjson, " +
+						"xml, all written in one pass.  Default is xml"));
 		cliOptions.addOption(new Option("t", HTMLOUTPUT, true,
 				"(Optional) output html file name, default name is sbomcompared"));
+		cliOptions.addOption(new Option("hm", HTMLMODE, true,
+				"(Optional) html report mode, table (one HTML table), css (one HTML table " +
+						"colored by stylesheet classes, much smaller), chunked (HTML shell " +
+						"plus data files, for large diffs) or grouped (summary per group, " +
+						"with each group's rows expanded on demand).  Default is table"));
+		cliOptions.addOption(new Option("hz", HTMLGZIP, false,
+				"(Optional) gzip the html report, written as .html.gz (table, css and " +
+						"grouped modes)"));
+		cliOptions.addOption(new Option("rp", REPORT_PROPERTIES, true,
+				"(Optional) comma separated list of component properties to show in the html " +
+						"report, each in its own column, e.g. efossStatus,team,tier.  Names are " +
+						"matched ignoring case, spaces, underscores and dashes.  The EFoss " +
+						"Status is always shown"));
+		cliOptions.addOption(new Option("hs", HISTORY, true,
+				"(Optional) diff history directory, each compare's changes are appended to it"));
+		cliOptions.addOption(new Option("hp", HISTORY_PRODUCT, true,
+				"(Optional) product the compares are recorded, or queried, under.  Default " +
+						"is the new SBom's metadata component"));
+		cliOptions.addOption(new Option("hq", HISTORY_QUERY, true,
+				"(Optional) component, group:name, to list the recorded changes of from the " +
+						"diff history (-hs), instead of comparing.  Written to the output " +
+						"file name with -history.json appended"));
+		cliOptions.addOption(new Option("hn", HISTORY_BUILDS, true,
+				"(Optional) only query the last this many recorded compares, default is all"));
+		
+		Option releases = new Option("r", RELEASES, true,
+				"(Optional) release train, two or more SBom files in release order, instead " +
+						"of -f1 and -f2.  Each release is compared to the one before it, and " +
+						"the first to the last; each SBom is read once");
+		releases.setArgs(Option.UNLIMITED_VALUES);
+		cliOptions.addOption(releases);
+		
+		cliOptions.addOption(new Option("b", BASELINE, true,
+				"(Optional) baseline SBom file to compare each of the targets (-tg) to, " +
+						"instead of -f1 and -f2.  The baseline is read once"));
+		Option targets = new Option("tg", TARGETS, true,
+				"(Optional) SBom files to compare to the baseline (-b), compared in parallel");
+		targets.setArgs(Option.UNLIMITED_VALUES);
+		cliOptions.addOption(targets);
+		cliOptions.addOption(new Option("w", WORKERS, true,
+				"(Optional) number of targets compared, SBoms sketched, or corpus SBoms " +
+						"read, at the same time, default is the number of processors"));
+		cliOptions.addOption(new Option("cm", CACHE_MB, true,
+				"(Optional) megabytes of parsed SBoms kept, by content, so an SBom read again " +
+						"(by a manifest, the server or the daemon) is not parsed again, 0 " +
+						"for none, default is " + (ParsedBomCache.DEFAULT_MAX_BYTES /
+								(1024 * 1024))));
+		
+		cliOptions.addOption(new Option("m", MANIFEST, true,
+				"(Optional) CSV or JSon file listing the compares to run, orgSbom,newSbom" +
+						"[,output] per line, instead of -f1 and -f2.  The compares run on -w " +
+						"workers"));
+		
+		Option compose = new Option("cd", COMPOSE, true,
+				"(Optional) diff files written by this application, A to B, B to C, ..., to " +
+						"compose into the diff of the first SBom to the last, instead of " +
+						"comparing.  No SBom is read");
+		compose.setArgs(Option.UNLIMITED_VALUES);
+		cliOptions.addOption(compose);
+		
+		Option similarity = new Option("sm", SIMILARITY, true,
+				"(Optional) SBom files to estimate the similarity of, every one to every " +
+						"other, instead of comparing.  Written as a matrix to the output file " +
+						"name with -similarity.csv appended");
+		similarity.setArgs(Option.UNLIMITED_VALUES);
+		cliOptions.addOption(similarity);
+		cliOptions.addOption(new Option("sk", SKETCH_SIZE, true,
+				"(Optional) number of hashes kept per SBom for the similarity (-sm), the " +
+						"error is about 1 / sqrt of it.  Default is " +
+						MinHashSketch.DEFAULT_SIZE));
+		
+		cliOptions.addOption(new Option("ci", CORPUS_INDEX, true,
+				"(Optional) corpus index directory, of which SBoms hold which components, " +
+						"for -cs and -cq"));
+		Option corpus = new Option("cs", CORPUS, true,
+				"(Optional) directories of SBom files to add to the corpus index (-ci), " +
+						"instead of comparing.  Only new and changed files are read, on -w " +
+						"workers, and deleted files are dropped");
+		corpus.setArgs(Option.UNLIMITED_VALUES);
+		cliOptions.addOption(corpus);
+		cliOptions.addOption(new Option("cq", CORPUS_QUERY, true,
+				"(Optional) component, group:name, to list the SBoms holding it from the " +
+						"corpus index (-ci), instead of comparing.  Written to the output " +
+						"file name with -corpus.json appended"));
+		cliOptions.addOption(new Option("cv", CORPUS_VERSION, true,
+				"(Optional) only list the SBoms holding this version of the component (-cq)"));
+		
+		cliOptions.addOption(new Option("sv", SERVE, true,
+				"(Optional) port to serve compares on over HTTP, 0 for any free port, instead " +
+						"of comparing.  Runs until stopped, handling -w requests at a time"));
+		cliOptions.addOption(new Option("sh", SERVER_HOST, true,
+				"(Optional) host name or address the server (-sv) listens on, default is " +
+						CompareServer.DEFAULT_HOST));
+		cliOptions.addOption(new Option("sr", SERVER_ROOT, true,
+				"(Optional) directory the server (-sv) reads the SBom files named in a request " +
+						"from, named relative to it; no file outside it is read.  Without it, " +
+						"named files are only read when the server listens on a loopback address"));
+		cliOptions.addOption(new Option("hb", HEAP_BUDGET, true,
+				"(Optional) megabytes of heap the compares the server (-sv) runs at once may " +
+						"need, estimated from the size of their SBoms.  A compare that does " +
+						"not fit waits, or is refused.  Default is 3/4 of the heap less the " +
+						"cache (-cm)"));
+		cliOptions.addOption(new Option("rd", RESULT_DIR, true,
+				"(Optional) directory the server (-sv) keeps compares submitted to /jobs, and " +
+						"their outputs, in.  Only the jobs' own directories in it are ever deleted.  " +
+						"Without it the server does not take jobs"));
+		cliOptions.addOption(new Option("rh", RESULT_HOURS, true,
+				"(Optional) hours a finished job is kept in the result directory (-rd), " +
+						"default is " + JobStore.DEFAULT_RETENTION_HOURS));
+		cliOptions.addOption(new Option("vt", VIRTUAL_THREADS, false,
+				"(Optional) handle each request to the server (-sv) on its own virtual " +
+						"thread, when the JVM has them (Java 21+).  Parsing and comparing " +
+						"still run on -w threads"));
+		cliOptions.addOption(new Option("ds", DAEMON, true,
+				"(Optional) Unix domain socket to run command lines sent by compare-client.sh " +
+						"on, instead of comparing.  Runs until stopped, running -w commands at " +
+						"a time (Java 16+)"));
 		return cliOptions;
 	}
 	
 	/**
 	 * (U) This method is used to read the argument for a Software Bill of Materials (SBom) file,
-	 * and read it into a Bom Object.
+	 * and read it into an IndexedBom.
 	 * 
 	 * @param cli        CommandLine object to read the command line arguments from.
 	 * @param sbomOption SBom option that indicates the SBom file to read in.
-	 * @return Bom CycloneDx Bom object the file has been read into.
+	 * @return IndexedBom the SBom the file has been read into.
 	 * @throws SBomComparatorException in the event the file can not be read into a Bom object.
-	 * @throws SBomCommonsException    in the event we fail to create an SBom from the file's data.
 	 */
-	private static Bom getBomFile(CommandLine cli, String sbomOption)
-			throws SBomComparatorException, SBomCommonsException
+	private static IndexedBom getBomFile(CommandLine cli, String sbomOption)
+			throws SBomComparatorException
 	{
-		Bom bom = null;
+		IndexedBom bom = null;
 		if (cli.hasOption(sbomOption))
 		{
 			String fileName = cli.getOptionValue(sbomOption);
 			
-			if (logger.isDebugEnabled())
-				logger.debug("Attempting to load SBom (" + fileName + ")");
-			
 			if ((fileName != null) && (fileName.trim().length() > 0))
-			{
-				File file = new File(fileName);
-				if ((file.exists()) && (file.canRead()))
-					bom = SBomFileUtils.processFile(file);
-				else if (file.exists())
-					throw new SBomComparatorException("Unable to read SBom from file(" +
-							fileName + ").");
-				else
-					throw new SBomComparatorException("File(" + fileName + ") does NOT exist!");
-			}
+				bom = readBom(fileName);
 			else
 				throw new SBomComparatorException("No file name priveded for " + sbomOption + ".");
 		}
@@ -124,6 +322,1145 @@ public class SbomcomparatorApplication implements ApplicationRunner
 		return bom;
 	}
 	
+	/**
+	 * (U) This method is used to read a Software Bill of Materials (SBom) file into a Bom Object.
+	 * 
+	 * @param fileName String name of the SBom file to read.
+	 * @return Bom CycloneDx Bom object the file has been read into.
+	 * @throws SBomComparatorException in the event the file can not be read into a Bom object.
+	 * @throws SBomCommonsException    in the event we fail to create an SBom from the file's data.
+	 */
+	private static Bom readBomFile(String fileName)
+			throws SBomComparatorException, SBomCommonsException
+	{
+		if (logger.isDebugEnabled())
+			logger.debug("Attempting to load SBom (" + fileName + ")");
+		
+		File file = new File(fileName);
+		if ((file.exists()) && (file.canRead()))
+			return SBomFileUtils.processFile(file);
+		else if (file.exists())
+			throw new SBomComparatorException("Unable to read SBom from file(" + fileName +
+					").");
+		else
+			throw new SBomComparatorException("File(" + fileName + ") does NOT exist!");
+	}
+	
+	/**
+	 * (U) This method is used to read a Software Bill of Materials (SBom) file for a run that
+	 * reads each SBom once: a single compare, a baseline or a release train. Run by the daemon,
+	 * which keeps a parsed SBom cache, it is read through the cache; otherwise, as the cache could
+	 * never be hit, the file is read straight into a Bom, without hashing it or holding its bytes.
+	 * 
+	 * @param fileName String name of the SBom file to read.
+	 * @return IndexedBom the SBom, indexed for comparing.
+	 * @throws SBomComparatorException in the event the file can not be read into a Bom object.
+	 */
+	private static IndexedBom readBom(String fileName) throws SBomComparatorException
+	{
+		ParsedBomCache cache = getExistingBomCache();
+		if (cache != null)
+			return cache.read(fileName);
+		
+		try
+		{
+			return new IndexedBom(fileName, readBomFile(fileName));
+		}
+		catch (SBomCommonsException e)
+		{
+			String error = "Unable to read SBom from file(" + fileName + ").";
+			logger.error(error, e);
+			throw new SBomComparatorException(error, e);
+		}
+	}
+	
+	/**
+	 * (U) This method is used to read a Software Bill of Materials (SBom) file, through the parsed
+	 * SBom cache, so an SBom already read by this JVM, from any file, is not parsed again.
+	 * 
+	 * @param cli      CommandLine to pull the size of the cache from, when it is created.
+	 * @param fileName String name of the SBom file to read.
+	 * @return IndexedBom the SBom, indexed for comparing.
+	 * @throws SBomComparatorException in the event the file can not be read into a Bom object.
+	 */
+	private static IndexedBom readIndexedBom(CommandLine cli, String fileName)
+			throws SBomComparatorException
+	{
+		if (logger.isDebugEnabled())
+			logger.debug("Attempting to load SBom (" + fileName + ")");
+		
+		return getBomCache(cli).read(fileName);
+	}
+	
+	/**
+	 * (U) This method is used to get the cache of parsed SBoms, creating it the first time.
+	 * 
+	 * @param cli CommandLine to pull the size of the cache from, in megabytes.
+	 * @return ParsedBomCache the cache shared by every compare in this JVM.
+	 * @throws SBomComparatorException in the event the size is NOT a number, or is negative.
+	 */
+	private static synchronized ParsedBomCache getBomCache(CommandLine cli)
+			throws SBomComparatorException
+	{
+		if (bomCache == null)
+			bomCache = new ParsedBomCache(getCacheBytes(cli));
+		return bomCache;
+	}
+	
+	/**
+	 * (U) This method is used to get the cache of parsed SBoms, if a batch, or the daemon, has
+	 * created it.
+	 * 
+	 * @return ParsedBomCache the cache shared by every compare in this JVM, null if there is none.
+	 */
+	private static synchronized ParsedBomCache getExistingBomCache()
+	{
+		return bomCache;
+	}
+	
+	/**
+	 * (U) This method is used to get the most the parsed SBom cache may hold.
+	 * 
+	 * @param cli CommandLine to pull the size of the cache from, in megabytes.
+	 * @return long the size of the cache, in bytes.
+	 * @throws SBomComparatorException in the event the size is NOT a number, or is negative.
+	 */
+	private static long getCacheBytes(CommandLine cli) throws SBomComparatorException
+	{
+		if (!cli.hasOption(CACHE_MB))
+			return ParsedBomCache.DEFAULT_MAX_BYTES;
+		
+		try
+		{
+			long megabytes = Long.parseLong(cli.getOptionValue(CACHE_MB).trim());
+			if (megabytes >= 0)
+				return megabytes * 1024 * 1024;
+		}
+		catch (NumberFormatException e)
+		{
+			logger.debug("Cache size is NOT a number.", e);
+		}
+		throw new SBomComparatorException("The cache size must be 0 or more megabytes, NOT " +
+				cli.getOptionValue(CACHE_MB) + ".");
+	}
+	
+	/**
+	 * (U) This method is used to pull a list of SBom files from the command line arguments. The
+	 * files may be separated by spaces or commas.
+	 * 
+	 * @param cli    CommandLine to pull the files from.
+	 * @param option String name of the option holding the files.
+	 * @return List of the SBom file names, in the order given.
+	 */
+	private static List<String> getFileNames(CommandLine cli, String option)
+	{
+		List<String> fileNames = new ArrayList<>();
+		String[] values = cli.getOptionValues(option);
+		if (values == null)
+			return fileNames;
+		
+		for (String value : values)
+		{
+			for (String fileName : value.split(","))
+			{
+				if (fileName.trim().length() > 0)
+					fileNames.add(fileName.trim());
+			}
+		}
+		return fileNames;
+	}
+	
+	/**
+	 * (U) This method is used to pull the release train, the SBom files to compare in order,
+	 * from the command line arguments. The files may be separated by spaces or commas.
+	 * 
+	 * @param cli CommandLine to pull the release train from.
+	 * @return List of the SBom file names, in release order.
+	 * @throws SBomComparatorException in the event fewer than two files are given, or -f1 or -f2
+	 *                                 are given as well.
+	 */
+	private static List<String> getReleases(CommandLine cli) throws SBomComparatorException
+	{
+		if ((cli.hasOption("orgsbom")) || (cli.hasOption("newsbom")))
+			throw new SBomComparatorException("Use either a release train (-r) or two SBom " +
+					"files (-f1 and -f2), NOT both.");
+		
+		List<String> releases = getFileNames(cli, RELEASES);
+		if (releases.size() < 2)
+			throw new SBomComparatorException("A release train needs at least two SBom " +
+					"files, " + releases.size() + " given.");
+		return releases;
+	}
+	
+	/**
+	 * (U) This method is used to compare a release train: each release to the one before it,
+	 * then the first to the last. Each SBom is read and indexed once, and only the first, the
+	 * previous and the current release are held in memory. The outputs of each compare are named
+	 * with the positions of the releases (counting from 1), e.g. diff-1-2.xml, diff-2-3.xml and
+	 * the cumulative diff-1-3.xml, and likewise for the diff SBom and HTML report. Only the
+	 * compares of each release to the one before it are recorded in the diff history.
+	 * 
+	 * @param cli           CommandLine to pull the releases and output file names from.
+	 * @param outputFormats Set of AVAILABLE_FORMATS to write the diffs in.
+	 * @param history       DiffHistoryStore to record the compares in, null for none.
+	 * @return int the number of SBoms compared.
+	 * @throws SBomComparatorException in the event an SBom can not be read, or we are unable to
+	 *                                 write one of the outputs.
+	 */
+	private static int compareReleases(CommandLine cli, Set<AVAILABLE_FORMATS> outputFormats,
+			DiffHistoryStore history) throws SBomComparatorException
+	{
+		List<String> releases = getReleases(cli);
+		
+		IndexedBom first = readBom(releases.get(0));
+		IndexedBom previous = first;
+		for (int i = 1; i < releases.size(); i++)
+		{
+			IndexedBom current = readBom(releases.get(i));
+			writeOutputs(previous, current, cli, outputFormats, "-" + i + "-" + (i + 1),
+					history);
+			previous = current;
+		}
+		
+		if (releases.size() > 2)
+			writeOutputs(first, previous, cli, outputFormats, "-1-" + releases.size(), null);
+		
+		return releases.size();
+	}
+	
+	/**
+	 * (U) This method is used to compare a baseline SBom to each of the targets. The baseline is
+	 * read and indexed once and shared, read-only, by all of the compares, which run on a pool of
+	 * workers (-w, default the number of processors); each worker reads its own target. The
+	 * outputs of each compare are named with the position of the target (counting from 1), e.g.
+	 * diff-1.xml, diff-2.xml, and a summary of every compare is written to diff-summary.json. A
+	 * target that fails does not stop the others.
+	 * 
+	 * @param cli           CommandLine to pull the baseline, targets, workers and output file
+	 *                      names from.
+	 * @param outputFormats Set of AVAILABLE_FORMATS to write the diffs in.
+	 * @param history       DiffHistoryStore to record the compares in, null for none.
+	 * @return int the number of SBoms compared, the baseline and the targets.
+	 * @throws SBomComparatorException in the event the baseline can not be read, the summary can
+	 *                                 not be written, or any of the targets failed.
+	 */
+	private static int compareBaseline(CommandLine cli, Set<AVAILABLE_FORMATS> outputFormats,
+			DiffHistoryStore history) throws SBomComparatorException
+	{
+		if ((cli.hasOption("orgsbom")) || (cli.hasOption("newsbom")) || (cli.hasOption(RELEASES)))
+			throw new SBomComparatorException("Use one of a baseline (-b), a release train " +
+					"(-r) or two SBom files (-f1 and -f2).");
+		
+		List<String> targets = getFileNames(cli, TARGETS);
+		if (targets.isEmpty())
+			throw new SBomComparatorException("A baseline (-b) needs at least one target (-tg).");
+		int workers = Math.min(getWorkers(cli), targets.size());
+		
+		String baselineName = cli.getOptionValue(BASELINE);
+		IndexedBom baseline = readBom(baselineName);
+		
+		if (logger.isInfoEnabled())
+			logger.info("Comparing " + baselineName + " to " + targets.size() + " targets on " +
+					workers + " workers.");
+		
+		String htmlFileName = new HtmlBuilder().getHtmlFileName(cli, "");
+		List<Callable<CompareSummary>> compares = new ArrayList<>(targets.size());
+		for (int i = 0; i < targets.size(); i++)
+		{
+			String target = targets.get(i);
+			String nameSuffix = "-" + (i + 1);
+			// Each target is read once, so never through the cache.
+			compares.add(() -> compareJob(baseline, new CompareJob(baselineName, target,
+					getOutputFileName(cli) + nameSuffix), SbomcomparatorApplication::readBom,
+					getOutputBomFileName(cli) + nameSuffix, htmlFileName + nameSuffix, cli,
+					outputFormats, history));
+		}
+		
+		runCompares(cli, compares, workers);
+		return targets.size() + 1;
+	}
+	
+	/**
+	 * (U) This method is used to run each compare of a manifest, a CSV or JSon file listing the
+	 * SBoms to compare and where to write their outputs (see CompareManifest), on a pool of
+	 * workers (-w, default the number of processors), in one run. A compare with an output, P,
+	 * writes its diff to P, its diff SBom to P-bom and its html report to P; one without is named
+	 * like the others, with its position in the manifest (counting from 1) appended, e.g.
+	 * diff-3.xml. A compare that fails does not stop the others, and a summary of every compare
+	 * is written to diff-summary.json.
+	 * 
+	 * @param cli           CommandLine to pull the manifest, workers and output file names from.
+	 * @param directory     String directory to resolve the file names in the manifest against,
+	 *                      null for the working directory.
+	 * @param outputFormats Set of AVAILABLE_FORMATS to write the diffs in.
+	 * @param history       DiffHistoryStore to record the compares in, null for none.
+	 * @return int the number of compares in the manifest.
+	 * @throws SBomComparatorException in the event the manifest can not be read, the summary can
+	 *                                 not be written, or any of the compares failed.
+	 */
+	private static int compareManifest(CommandLine cli, String directory,
+			Set<AVAILABLE_FORMATS> outputFormats, DiffHistoryStore history)
+			throws SBomComparatorException
+	{
+		if ((cli.hasOption("orgsbom")) || (cli.hasOption("newsbom")) || (cli.hasOption(RELEASES)) ||
+				(cli.hasOption(BASELINE)))
+			throw new SBomComparatorException("Use a manifest (-m) on its own, NOT with a " +
+					"baseline (-b), release train (-r) or two SBom files (-f1 and -f2).");
+		
+		List<CompareJob> jobs = CompareManifest.read(cli.getOptionValue(MANIFEST), (directory ==
+				null) ? null : Paths.get(directory));
+		if (jobs.isEmpty())
+			throw new SBomComparatorException("The manifest (" + cli.getOptionValue(MANIFEST) +
+					") does NOT list any compares.");
+		int workers = Math.min(getWorkers(cli), jobs.size());
+		
+		if (logger.isInfoEnabled())
+			logger.info("Running " + jobs.size() + " compares from " +
+					cli.getOptionValue(MANIFEST) + " on " + workers + " workers.");
+		
+		String htmlFileName = new HtmlBuilder().getHtmlFileName(cli, "");
+		List<Callable<CompareSummary>> compares = new ArrayList<>(jobs.size());
+		for (int i = 0; i < jobs.size(); i++)
+		{
+			CompareJob job = jobs.get(i);
+			String outputBomFileName;
+			String jobHtmlFileName;
+			if (job.getOutput() == null)
+			{
+				String nameSuffix = "-" + (i + 1);
+				job.setOutput(getOutputFileName(cli) + nameSuffix);
+				outputBomFileName = getOutputBomFileName(cli) + nameSuffix;
+				jobHtmlFileName = htmlFileName + nameSuffix;
+			}
+			else
+			{
+				outputBomFileName = job.getOutput() + "-bom";
+				jobHtmlFileName = job.getOutput();
+			}
+			compares.add(() -> compareJob(null, job, fileName -> readIndexedBom(cli, fileName),
+					outputBomFileName, jobHtmlFileName, cli, outputFormats, history));
+		}
+		
+		runCompares(cli, compares, workers);
+		if (logger.isInfoEnabled())
+			logger.info("Parsed SBom cache: " + getBomCache(cli).getStats() + ".");
+		return jobs.size();
+	}
+	
+	/**
+	 * (U) This method is used to run compares on a pool of workers, then write a summary of them
+	 * to the output file name with "-summary.json" appended. The compares never throw, a compare
+	 * that fails is only marked as failed in its summary, so one failure does not stop the
+	 * others.
+	 * 
+	 * @param cli      CommandLine to pull the output file name from.
+	 * @param compares List of the compares to run, in order.
+	 * @param workers  int number of compares to run at the same time.
+	 * @return List of CompareSummary, one for each compare, in the same order.
+	 * @throws SBomComparatorException in the event the summary can not be written, or any of the
+	 *                                 compares failed.
+	 */
+	private static List<CompareSummary> runCompares(CommandLine cli,
+			List<Callable<CompareSummary>> compares, int workers) throws SBomComparatorException
+	{
+		List<CompareSummary> summaries = new ArrayList<>(compares.size());
+		ExecutorService pool = Executors.newFixedThreadPool(workers);
+		try
+		{
+			List<Future<CompareSummary>> futures = new ArrayList<>(compares.size());
+			for (Callable<CompareSummary> compare : compares)
+				futures.add(pool.submit(compare));
+			
+			for (Future<CompareSummary> future : futures)
+				summaries.add(future.get());
+		}
+		catch (InterruptedException e)
+		{
+			Thread.currentThread().interrupt();
+			throw new SBomComparatorException("Interrupted while comparing!", e);
+		}
+		catch (ExecutionException e)
+		{
+			String error = "Failed to run a compare!";
+			logger.error(error, e);
+			throw new SBomComparatorException(error, e.getCause());
+		}
+		finally
+		{
+			pool.shutdownNow();
+		}
+		
+		String summaryFileName = writeSummary(cli, summaries);
+		
+		long failed = summaries.stream().filter(
+				summary -> summary.getStatus() == CompareSummary.STATUS.FAILED).count();
+		if (failed > 0)
+			throw new SBomComparatorException(failed + " of " + summaries.size() +
+					" compares failed, see " + summaryFileName + ".");
+		return summaries;
+	}
+	
+	/**
+	 * (U) This method is used to run one compare, on a worker. Failures are recorded in the
+	 * summary returned, never thrown, so one bad compare does not stop the others.
+	 * 
+	 * @param original          IndexedBom of the original SBom when it is shared by all of the
+	 *                          workers, null to read the job's original SBom.
+	 * @param job               CompareJob naming the SBoms, and the diff output file name.
+	 * @param reader            BomReader to read the job's SBoms with.
+	 * @param outputBomFileName String name of the diff SBom, without its extension.
+	 * @param htmlFileName      String name of the html report, without its extension.
+	 * @param cli               CommandLine to pull the html options from.
+	 * @param outputFormats     Set of AVAILABLE_FORMATS to write the diff in.
+	 * @param history           DiffHistoryStore to record the compare in, null for none.
+	 * @return CompareSummary the outcome of the compare.
+	 */
+	private static CompareSummary compareJob(IndexedBom original, CompareJob job,
+			BomReader reader, String outputBomFileName, String htmlFileName, CommandLine cli,
+			Set<AVAILABLE_FORMATS> outputFormats, DiffHistoryStore history)
+	{
+		CompareSummary summary = new CompareSummary(job.getOrgSbom(), job.getNewSbom(),
+				job.getOutput());
+		try
+		{
+			IndexedBom orgBom = original;
+			if (orgBom == null)
+				orgBom = reader.read(job.getOrgSbom());
+			IndexedBom newBom = reader.read(job.getNewSbom());
+			
+			SBomDiffCounter counter = writeOutputs(orgBom, newBom, cli, outputFormats,
+					job.getOutput(), outputBomFileName, htmlFileName, history);
+			summary.setAdded(counter.getAdded());
+			summary.setRemoved(counter.getRemoved());
+			summary.setModified(counter.getModified());
+			summary.setStatus(CompareSummary.STATUS.COMPARED);
+		}
+		catch (SBomComparatorException | RuntimeException e)
+		{
+			logger.error("Failed to compare " + job.getOrgSbom() + " to " + job.getNewSbom() +
+					"!", e);
+			summary.setStatus(CompareSummary.STATUS.FAILED);
+			summary.setError(e.getMessage());
+		}
+		return summary;
+	}
+	
+	/**
+	 * (U) This method is used to get the number of workers to compare targets on.
+	 * 
+	 * @param cli CommandLine to pull the number of workers from.
+	 * @return int the number of workers, the number of processors if not given.
+	 * @throws SBomComparatorException in the event the number of workers is NOT a positive
+	 *                                 number.
+	 */
+	private static int getWorkers(CommandLine cli) throws SBomComparatorException
+	{
+		if (!cli.hasOption(WORKERS))
+			return Runtime.getRuntime().availableProcessors();
+		
+		try
+		{
+			int workers = Integer.parseInt(cli.getOptionValue(WORKERS).trim());
+			if (workers > 0)
+				return workers;
+		}
+		catch (NumberFormatException e)
+		{
+			logger.debug("Workers is NOT a number.", e);
+		}
+		throw new SBomComparatorException("The number of workers must be a positive number, " +
+				"NOT " + cli.getOptionValue(WORKERS) + ".");
+	}
+	
+	/**
+	 * (U) This method is used to write the summary of a run that compared many SBoms, as JSon,
+	 * to the output file name with "-summary.json" appended.
+	 * 
+	 * @param cli       CommandLine to pull the output file name from.
+	 * @param summaries List of CompareSummary, one for each compare.
+	 * @return String the name of the summary file.
+	 * @throws SBomComparatorException in the event we are unable to write the summary.
+	 */
+	private static String writeSummary(CommandLine cli, List<CompareSummary> summaries)
+			throws SBomComparatorException
+	{
+		String summaryFileName = getOutputFileName(cli) + "-summary.json";
+		
+		long failed = 0;
+		for (CompareSummary summary : summaries)
+		{
+			if (summary.getStatus() == CompareSummary.STATUS.FAILED)
+				failed++;
+		}
+		
+		Map<String, Object> document = new LinkedHashMap<>();
+		document.put("compared", summaries.size() - failed);
+		document.put("failed", failed);
+		document.put("compares", summaries);
+		
+		try
+		{
+			new ObjectMapper().writerWithDefaultPrettyPrinter().writeValue(
+					new File(summaryFileName), document);
+		}
+		catch (IOException e)
+		{
+			String error = "Failed to write the summary (" + summaryFileName + ").";
+			logger.error(error, e);
+			throw new SBomComparatorException(error, e);
+		}
+		
+		if (logger.isInfoEnabled())
+			logger.info("Compared " + (summaries.size() - failed) + " of " + summaries.size() +
+					", " + failed + " failed, summary written to " + summaryFileName + ".");
+		return summaryFileName;
+	}
+	
+	/**
+	 * (U) This method is used to compose a chain of diffs, A to B, B to C and so on, into the
+	 * diff of the first SBom to the last, without reading any SBom. The composed diff is written
+	 * in each output format, and as the HTML report, but there is no diff SBom, as that needs the
+	 * SBoms.
+	 * 
+	 * @param cli           CommandLine to pull the diff files and output file names from.
+	 * @param outputFormats Set of AVAILABLE_FORMATS to write the composed diff in.
+	 * @return int the number of diffs composed.
+	 * @throws SBomComparatorException in the event a diff can not be read, or we are unable to
+	 *                                 write one of the outputs.
+	 */
+	private static int composeDiffs(CommandLine cli, Set<AVAILABLE_FORMATS> outputFormats)
+			throws SBomComparatorException
+	{
+		if ((cli.hasOption("orgsbom")) || (cli.hasOption("newsbom")) || (cli.hasOption(RELEASES)) ||
+				(cli.hasOption(BASELINE)) || (cli.hasOption(MANIFEST)))
+			throw new SBomComparatorException("Compose diffs (-cd) on its own, NOT with SBoms " +
+					"to compare.");
+		
+		List<String> diffFileNames = getFileNames(cli, COMPOSE);
+		if (diffFileNames.size() < 2)
+			throw new SBomComparatorException("Composing needs at least two diff files, NOT " +
+					diffFileNames.size() + ".");
+		
+		SBomDiff composed = SBomDiffFileUtils.readDiff(diffFileNames.get(0));
+		for (int i = 1; i < diffFileNames.size(); i++)
+			composed = SBomCompareUtils.composeDiffs(composed, SBomDiffFileUtils.readDiff(
+					diffFileNames.get(i)));
+		
+		String outputFileName = getOutputFileName(cli);
+		HtmlBuilder htmlBuilder = new HtmlBuilder();
+		SBomDiffCounter counter = new SBomDiffCounter();
+		SBomDiffTee tee = new SBomDiffTee();
+		try
+		{
+			for (AVAILABLE_FORMATS outputFormat : outputFormats)
+				tee.add(SBomDiffFileUtils.openDiffWriter(outputFormat.toString(),
+						outputFileName));
+			tee.add(htmlBuilder.openNamedHtmlWriter(cli, htmlBuilder.getHtmlFileName(cli, ""),
+					diffFileNames.get(0), diffFileNames.get(diffFileNames.size() - 1)));
+			tee.add(counter);
+			
+			SBomCompareUtils.replayDiff(composed, tee);
+			tee.close();
+		}
+		catch (IOException e)
+		{
+			tee.abort(e);
+			String error = "Failed to write the outputs of the composed diff!";
+			logger.error(error, e);
+			throw new SBomComparatorException(error, e);
+		}
+		catch (SBomComparatorException | RuntimeException e)
+		{
+			tee.abort(e);
+			throw e;
+		}
+		
+		if (logger.isInfoEnabled())
+			logger.info("Composed " + diffFileNames.size() + " diffs: " + counter + ".");
+		return diffFileNames.size();
+	}
+	
+	/**
+	 * (U) This method is used to estimate how similar each SBom is to every other, without
+	 * comparing them. Each SBom is read, on a pool of workers (-w), and reduced to a MinHash
+	 * sketch of its components (-sk hashes), and only the sketches are kept. The estimated Jaccard
+	 * similarity of every pair is written as a matrix to the output file name with
+	 * "-similarity.csv" appended, with the mean similarity of each SBom to the others in the last
+	 * column; an SBom with a low mean is an outlier.
+	 * 
+	 * @param cli CommandLine to pull the SBoms, sketch size, workers and output file name from.
+	 * @return int the number of SBoms sketched.
+	 * @throws SBomComparatorException in the event an SBom can not be read, or we are unable to
+	 *                                 write the matrix.
+	 */
+	private static int compareSimilarity(CommandLine cli) throws SBomComparatorException
+	{
+		if ((cli.hasOption("orgsbom")) || (cli.hasOption("newsbom")) || (cli.hasOption(RELEASES)) ||
+				(cli.hasOption(BASELINE)))
+			throw new SBomComparatorException("Use the similarity (-sm) on its own, NOT with a " +
+					"baseline (-b), release train (-r) or two SBom files (-f1 and -f2).");
+		
+		List<String> fileNames = getFileNames(cli, SIMILARITY);
+		if (fileNames.size() < 2)
+			throw new SBomComparatorException("The similarity (-sm) needs at least two SBom " +
+					"files, NOT " + fileNames.size() + ".");
+		
+		int sketchSize = MinHashSketch.DEFAULT_SIZE;
+		if (cli.hasOption(SKETCH_SIZE))
+		{
+			try
+			{
+				sketchSize = Integer.parseInt(cli.getOptionValue(SKETCH_SIZE).trim());
+			}
+			catch (NumberFormatException e)
+			{
+				logger.debug("Sketch size is NOT a number.", e);
+				sketchSize = 0;
+			}
+			if (sketchSize <= 0)
+				throw new SBomComparatorException("The sketch size must be a positive number, " +
+						"NOT " + cli.getOptionValue(SKETCH_SIZE) + ".");
+		}
+		
+		List<MinHashSketch> sketches = sketchSboms(fileNames, sketchSize,
+				Math.min(getWorkers(cli), fileNames.size()));
+		
+		String matrixFileName = getOutputFileName(cli) + "-similarity.csv";
+		int lowest = 0;
+		double lowestMean = Double.MAX_VALUE;
+		try (Writer writer = new OutputStreamWriter(new FileOutputStream(matrixFileName),
+				StandardCharsets.UTF_8))
+		{
+			writer.write("sbom");
+			for (String fileName : fileNames)
+				writer.write("," + toCsvValue(fileName));
+			writer.write(",mean\n");
+			
+			for (int row = 0; row < sketches.size(); row++)
+			{
+				writer.write(toCsvValue(fileNames.get(row)));
+				double total = 0;
+				for (int column = 0; column < sketches.size(); column++)
+				{
+					double similarity = sketches.get(row).similarity(sketches.get(column));
+					if (column != row)
+						total += similarity;
+					writer.write("," + String.format(Locale.ENGLISH, "%.4f", similarity));
+				}
+				double mean = total / (sketches.size() - 1);
+				writer.write("," + String.format(Locale.ENGLISH, "%.4f", mean) + "\n");
+				
+				if (mean < lowestMean)
+				{
+					lowestMean = mean;
+					lowest = row;
+				}
+			}
+		}
+		catch (IOException e)
+		{
+			String error = "Failed to write the similarity matrix (" + matrixFileName + ").";
+			logger.error(error, e);
+			throw new SBomComparatorException(error, e);
+		}
+		
+		if (logger.isInfoEnabled())
+			logger.info("Wrote the similarity of " + fileNames.size() + " SBoms to " +
+					matrixFileName + ", the least like the others is " + fileNames.get(lowest) +
+					String.format(Locale.ENGLISH, " (mean %.4f).", lowestMean));
+		return fileNames.size();
+	}
+	
+	/**
+	 * (U) This method is used to read each SBom, on a pool of workers, and sketch its
+	 * components. Each SBom is let go of as soon as it is sketched.
+	 * 
+	 * @param fileNames  List of the SBom file names.
+	 * @param sketchSize int number of hashes per sketch.
+	 * @param workers    int number of SBoms to read at the same time.
+	 * @return List of MinHashSketch, in the same order as the file names.
+	 * @throws SBomComparatorException in the event an SBom can not be read.
+	 */
+	private static List<MinHashSketch> sketchSboms(List<String> fileNames, int sketchSize,
+			int workers) throws SBomComparatorException
+	{
+		List<MinHashSketch> sketches = new ArrayList<>(fileNames.size());
+		ExecutorService pool = Executors.newFixedThreadPool(workers);
+		try
+		{
+			List<Future<MinHashSketch>> futures = new ArrayList<>(fileNames.size());
+			for (String fileName : fileNames)
+			{
+				futures.add(pool.submit(() -> {
+					Bom bom = readBomFile(fileName);
+					List<ComponentKey> keys = new ArrayList<>();
+					if (bom.getComponents() != null)
+					{
+						for (Component component : bom.getComponents())
+							keys.add(ComponentKey.of(component));
+					}
+					return new MinHashSketch(keys, sketchSize);
+				}));
+			}
+			
+			for (int i = 0; i < futures.size(); i++)
+			{
+				try
+				{
+					sketches.add(futures.get(i).get());
+				}
+				catch (ExecutionException e)
+				{
+					String error = "Failed to sketch " + fileNames.get(i) + "!";
+					logger.error(error, e);
+					throw new SBomComparatorException(error, e.getCause());
+				}
+			}
+		}
+		catch (InterruptedException e)
+		{
+			Thread.currentThread().interrupt();
+			throw new SBomComparatorException("Interrupted while sketching the SBoms!", e);
+		}
+		finally
+		{
+			pool.shutdownNow();
+		}
+		return sketches;
+	}
+	
+	/**
+	 * (U) This method is used to quote a value for a CSV file, if it needs it.
+	 * 
+	 * @param value String to write.
+	 * @return String the value, quoted if it holds a comma, quote or end of line.
+	 */
+	private static String toCsvValue(String value)
+	{
+		if ((value.indexOf(',') < 0) && (value.indexOf('"') < 0) && (value.indexOf('\n') < 0))
+			return value;
+		return "\"" + value.replace("\"", "\"\"") + "\"";
+	}
+	
+	/**
+	 * (U) This method is used to open the diff history, if one was asked for.
+	 * 
+	 * @param cli CommandLine to pull the history directory from.
+	 * @return DiffHistoryStore the history, null if none was asked for.
+	 * @throws SBomComparatorException in the event we are unable to open the history.
+	 */
+	private static DiffHistoryStore getHistory(CommandLine cli) throws SBomComparatorException
+	{
+		if (!cli.hasOption(HISTORY))
+			return null;
+		return new DiffHistoryStore(cli.getOptionValue(HISTORY));
+	}
+	
+	/**
+	 * (U) This method is used to list the recorded changes of a component, from the diff
+	 * history, without comparing any SBoms. The changes are written, oldest first, as JSon to the
+	 * output file name with "-history.json" appended.
+	 * 
+	 * @param cli CommandLine to pull the history, component, product and number of compares
+	 *            from.
+	 * @throws SBomComparatorException in the event there is no history, or we are unable to read
+	 *                                 it or write the changes.
+	 */
+	private static void queryHistory(CommandLine cli) throws SBomComparatorException
+	{
+		DiffHistoryStore history = getHistory(cli);
+		if (history == null)
+			throw new SBomComparatorException("A history query (-hq) needs the diff history " +
+					"(-hs) to query.");
+		
+		int lastBuilds = 0;
+		if (cli.hasOption(HISTORY_BUILDS))
+		{
+			try
+			{
+				lastBuilds = Integer.parseInt(cli.getOptionValue(HISTORY_BUILDS).trim());
+			}
+			catch (NumberFormatException e)
+			{
+				throw new SBomComparatorException("The number of compares to query must be a " +
+						"number, NOT " + cli.getOptionValue(HISTORY_BUILDS) + ".", e);
+			}
+		}
+		
+		String component = cli.getOptionValue(HISTORY_QUERY);
+		List<HistoryEntry> changes = history.query(cli.getOptionValue(HISTORY_PRODUCT), component,
+				lastBuilds);
+		
+		String queryFileName = getOutputFileName(cli) + "-history.json";
+		try
+		{
+			new ObjectMapper().writerWithDefaultPrettyPrinter().writeValue(
+					new File(queryFileName), changes);
+		}
+		catch (IOException e)
+		{
+			String error = "Failed to write the history of " + component + " (" +
+					queryFileName + ").";
+			logger.error(error, e);
+			throw new SBomComparatorException(error, e);
+		}
+		
+		if (logger.isInfoEnabled())
+			logger.info("Found " + changes.size() + " changes of " + component + ", written to " +
+					queryFileName + ".");
+	}
+	
+	/**
+	 * (U) This method is used to open the corpus index.
+	 * 
+	 * @param cli CommandLine to pull the corpus index directory from.
+	 * @return CorpusIndex the index.
+	 * @throws SBomComparatorException in the event no index was given, or we are unable to open
+	 *                                 it.
+	 */
+	private static CorpusIndex getCorpusIndex(CommandLine cli) throws SBomComparatorException
+	{
+		if (!cli.hasOption(CORPUS_INDEX))
+			throw new SBomComparatorException("The corpus (-cs) and corpus query (-cq) need " +
+					"the corpus index (-ci) to use.");
+		return new CorpusIndex(cli.getOptionValue(CORPUS_INDEX));
+	}
+	
+	/**
+	 * (U) This method is used to bring the corpus index up to date with the SBom files (.xml and
+	 * .json) under the corpus directories. Files already indexed with the same size and modified
+	 * time are not read again, new and changed files are read on a pool of workers (-w), and
+	 * indexed files no longer under a directory are dropped. A file that is not an SBom we can read
+	 * is logged and skipped.
+	 * 
+	 * @param cli   CommandLine to pull the corpus directories and workers from.
+	 * @param index CorpusIndex to update.
+	 * @return int the number of SBoms read.
+	 * @throws SBomComparatorException in the event a directory can not be walked, or we are
+	 *                                 unable to write to the index.
+	 */
+	private static int indexCorpus(CommandLine cli, CorpusIndex index)
+			throws SBomComparatorException
+	{
+		Path indexDirectory = Paths.get(cli.getOptionValue(CORPUS_INDEX)).toAbsolutePath()
+				.normalize();
+		List<Path> roots = new ArrayList<>();
+		Set<String> found = new HashSet<>();
+		Map<Path, BasicFileAttributes> changed = new LinkedHashMap<>();
+		for (String directory : getFileNames(cli, CORPUS))
+		{
+			Path root = Paths.get(directory).toAbsolutePath().normalize();
+			if (!Files.isDirectory(root))
+				throw new SBomComparatorException("Corpus directory (" + directory +
+						") does NOT exist!");
+			roots.add(root);
+			
+			try (Stream<Path> files = Files.walk(root))
+			{
+				for (Path file : (Iterable<Path>) files::iterator)
+				{
+					String name = file.getFileName().toString().toLowerCase(Locale.ENGLISH);
+					if ((file.startsWith(indexDirectory)) || ((!name.endsWith(".xml")) &&
+							(!name.endsWith(".json"))))
+						continue;
+					
+					BasicFileAttributes attributes = Files.readAttributes(file,
+							BasicFileAttributes.class);
+					if ((!attributes.isRegularFile()) || (!found.add(CorpusIndex.toIndexPath(
+							file))))
+						continue;
+					if (!index.isCurrent(file, attributes.size(),
+							attributes.lastModifiedTime().toMillis()))
+						changed.put(file, attributes);
+				}
+			}
+			catch (IOException | UncheckedIOException e)
+			{
+				String error = "Failed to walk the corpus directory (" + directory + ")!";
+				logger.error(error, e);
+				throw new SBomComparatorException(error, e);
+			}
+		}
+		
+		int removed = 0;
+		for (String path : index.getPaths())
+		{
+			if (found.contains(path))
+				continue;
+			for (Path root : roots)
+			{
+				if (Paths.get(path).startsWith(root))
+				{
+					index.remove(path);
+					removed++;
+					break;
+				}
+			}
+		}
+		
+		int indexed = 0;
+		ExecutorService pool = Executors.newFixedThreadPool(Math.max(1, Math.min(getWorkers(cli),
+				changed.size())));
+		try
+		{
+			List<Future<Boolean>> futures = new ArrayList<>(changed.size());
+			for (Map.Entry<Path, BasicFileAttributes> entry : changed.entrySet())
+			{
+				futures.add(pool.submit(() -> {
+					Bom bom;
+					try
+					{
+						bom = readBomFile(entry.getKey().toString());
+					}
+					catch (Exception e)
+					{
+						logger.warn("Skipping " + entry.getKey() + ", it is NOT an SBom we can " +
+								"read.", e);
+						return false;
+					}
+					index.add(entry.getKey(), entry.getValue().size(),
+							entry.getValue().lastModifiedTime().toMillis(), bom);
+					return true;
+				}));
+			}
+			
+			for (Future<Boolean> future : futures)
+			{
+				try
+				{
+					if (future.get())
+						indexed++;
+				}
+				catch (ExecutionException e)
+				{
+					String error = "Failed to update the corpus index!";
+					logger.error(error, e);
+					throw new SBomComparatorException(error, e.getCause());
+				}
+			}
+		}
+		catch (InterruptedException e)
+		{
+			Thread.currentThread().interrupt();
+			throw new SBomComparatorException("Interrupted while indexing the corpus!", e);
+		}
+		finally
+		{
+			pool.shutdownNow();
+		}
+		index.flush();
+		
+		if (logger.isInfoEnabled())
+			logger.info("Indexed " + indexed + " new or changed SBoms, skipped " +
+					(changed.size() - indexed) + ", dropped " + removed + " deleted and left " +
+					(found.size() - changed.size()) + " unchanged; the corpus index holds " +
+					index.size() + " SBoms.");
+		return indexed;
+	}
+	
+	/**
+	 * (U) This method is used to list the SBoms in the corpus index holding a component, and
+	 * optionally one version of it, without reading any SBom. The SBoms are written as JSon to the
+	 * output file name with "-corpus.json" appended.
+	 * 
+	 * @param cli   CommandLine to pull the component, version and output file name from.
+	 * @param index CorpusIndex to query.
+	 * @throws SBomComparatorException in the event we are unable to read the index or write the
+	 *                                 SBoms.
+	 */
+	private static void queryCorpus(CommandLine cli, CorpusIndex index)
+			throws SBomComparatorException
+	{
+		String component = cli.getOptionValue(CORPUS_QUERY);
+		List<CorpusMatch> matches = index.query(component, cli.getOptionValue(CORPUS_VERSION));
+		
+		String queryFileName = getOutputFileName(cli) + "-corpus.json";
+		try
+		{
+			new ObjectMapper().writerWithDefaultPrettyPrinter().writeValue(
+					new File(queryFileName), matches);
+		}
+		catch (IOException e)
+		{
+			String error = "Failed to write the SBoms holding " + component + " (" +
+					queryFileName + ").";
+			logger.error(error, e);
+			throw new SBomComparatorException(error, e);
+		}
+		
+		if (logger.isInfoEnabled())
+			logger.info("Found " + matches.size() + " SBoms holding " + component + ", written " +
+					"to " + queryFileName + ".");
+	}
+	
+	/**
+	 * (U) This method is used to serve compares over HTTP, until the JVM is stopped, so each
+	 * compare is answered by a warm JVM rather than a new one.
+	 * 
+	 * @param cli CommandLine to pull the port, host, workers, thread, cache, heap budget and
+	 *            result directory options from.
+	 * @throws SBomComparatorException in the event the port is invalid or can NOT be listened on.
+	 * @throws InterruptedException    in the event we are interrupted while serving.
+	 */
+	private static void serve(CommandLine cli) throws SBomComparatorException, InterruptedException
+	{
+		int port;
+		try
+		{
+			port = Integer.parseInt(cli.getOptionValue(SERVE).trim());
+		}
+		catch (NumberFormatException e)
+		{
+			throw new SBomComparatorException("The server port must be a number, NOT " +
+					cli.getOptionValue(SERVE) + ".", e);
+		}
+		
+		long cacheBytes = getCacheBytes(cli);
+		long heapBudget = AdmissionController.getDefaultBudget(cacheBytes);
+		if (cli.hasOption(HEAP_BUDGET))
+		{
+			try
+			{
+				heapBudget = Long.parseLong(cli.getOptionValue(HEAP_BUDGET).trim()) * 1024 * 1024;
+			}
+			catch (NumberFormatException e)
+			{
+				throw new SBomComparatorException("The heap budget must be a number of " +
+						"megabytes, NOT " + cli.getOptionValue(HEAP_BUDGET) + ".", e);
+			}
+			if (heapBudget <= 0)
+				throw new SBomComparatorException("The heap budget must be a positive number " +
+						"of megabytes, NOT " + cli.getOptionValue(HEAP_BUDGET) + ".");
+		}
+		
+		JobStore jobs = null;
+		if (cli.hasOption(RESULT_DIR))
+		{
+			long hours = JobStore.DEFAULT_RETENTION_HOURS;
+			if (cli.hasOption(RESULT_HOURS))
+			{
+				try
+				{
+					hours = Long.parseLong(cli.getOptionValue(RESULT_HOURS).trim());
+				}
+				catch (NumberFormatException e)
+				{
+					throw new SBomComparatorException("The result retention must be a number " +
+							"of hours, NOT " + cli.getOptionValue(RESULT_HOURS) + ".", e);
+				}
+				if (hours < 0)
+					throw new SBomComparatorException("The result retention must be zero or " +
+							"more hours, NOT " + cli.getOptionValue(RESULT_HOURS) + ".");
+			}
+			jobs = new JobStore(cli.getOptionValue(RESULT_DIR), TimeUnit.HOURS.toMillis(hours));
+		}
+		
+		CompareServer server = new CompareServer(cli.getOptionValue(SERVER_HOST,
+				CompareServer.DEFAULT_HOST), port, getWorkers(cli), cli.hasOption(
+						VIRTUAL_THREADS), cacheBytes, heapBudget, jobs, cli.getOptionValue(
+								SERVER_ROOT));
+		Runtime.getRuntime().addShutdownHook(new Thread(server::close));
+		server.start();
+		server.awaitStop();
+	}
+	
+	/**
+	 * (U) This method is used to run command lines sent over a Unix domain socket, until the JVM
+	 * is stopped, so each is run by a warm JVM rather than a new one.
+	 * 
+	 * @param cli CommandLine to pull the socket and workers from.
+	 * @throws SBomComparatorException in the event the socket can NOT be listened on.
+	 * @throws InterruptedException    in the event we are interrupted while running.
+	 */
+	private static void daemon(CommandLine cli) throws SBomComparatorException,
+			InterruptedException
+	{
+		// Created now, so its size is the daemon's, not that of the first command sent to it.
+		getBomCache(cli);
+		CompareDaemon daemon = new CompareDaemon(Paths.get(cli.getOptionValue(DAEMON)),
+				getWorkers(cli), SbomcomparatorApplication::runDaemonCommand);
+		Runtime.getRuntime().addShutdownHook(new Thread(daemon::close));
+		daemon.start();
+		daemon.awaitStop();
+	}
+	
+	/**
+	 * (U) This method is used to run a command line sent to the daemon, as its CommandRunner.
+	 * File names, on the command line and in a manifest, are resolved against the client's
+	 * directory, and the default output names are given explicitly so they are too, so the
+	 * outputs land where they would without the daemon.
+	 * 
+	 * @param directory String working directory of the client.
+	 * @param arguments String array of the command line arguments.
+	 * @param out       PrintWriter to print anything meant for the client to.
+	 * @throws Exception in the event the command fails.
+	 */
+	public static void runDaemonCommand(String directory, String[] arguments, PrintWriter out)
+			throws Exception
+	{
+		CommandLine cli = new DefaultParser().parse(createCliOptions(), arguments);
+		if ((cli.hasOption(DAEMON)) || (cli.hasOption(SERVE)))
+			throw new SBomComparatorException("The daemon can NOT start a daemon (-ds) or " +
+					"server (-sv).");
+		
+		Path base = Paths.get(directory);
+		List<String> resolved = new ArrayList<>();
+		for (Option option : cli.getOptions())
+		{
+			resolved.add("--" + option.getLongOpt());
+			if (option.hasArg())
+			{
+				for (String value : option.getValues())
+				{
+					if (PATH_OPTIONS.contains(option.getLongOpt()))
+						value = resolvePaths(base, value);
+					resolved.add(value);
+				}
+			}
+		}
+		
+		String[][] defaults = new String[][]
+		{
+				{ OUTPUT, getOutputFileName(cli) },
+				{ OUTPUT_BOM_FILE, getOutputBomFileName(cli) },
+				{ HTMLOUTPUT, new HtmlBuilder().getHtmlFileName(cli, "") } };
+		for (String[] name : defaults)
+		{
+			if (!cli.hasOption(name[0]))
+			{
+				resolved.add("--" + name[0]);
+				resolved.add(resolvePaths(base, name[1]));
+			}
+		}
+		resolved.addAll(cli.getArgList());
+		
+		runCommand(resolved.toArray(new String[0]), directory, out);
+		if (logger.isDebugEnabled())
+			logger.debug("Parsed SBom cache: " + getBomCache(cli).getStats() + ".");
+	}
+	
+	/**
+	 * (U) This method is used to resolve the file names in an option's value against a directory.
+	 * 
+	 * @param directory Path to resolve against.
+	 * @param value     String value of the option, one or more comma separated file names.
+	 * @return String the value with each relative file name resolved.
+	 */
+	private static String resolvePaths(Path directory, String value)
+	{
+		StringBuilder resolved = new StringBuilder();
+		for (String fileName : value.split(",", -1))
+		{
+			if (resolved.length() > 0)
+				resolved.append(',');
+			if (fileName.trim().isEmpty())
+				resolved.append(fileName);
+			else
+				resolved.append(directory.resolve(fileName.trim()).toString());
+		}
+		return resolved.toString();
+	}
+	
 	/**
 	 * (U) This method is used to pull the output file name from the command line arguments.
 	 * 
@@ -158,38 +1495,174 @@ public class SbomcomparatorApplication implements ApplicationRunner
 	}
 	
 	/**
-	 * (U) This method is used to get the output format the user wants. If the user didn't specify
-	 * we return XML.
+	 * (U) This method is used to get the diff SBom formats to write for the output formats the
+	 * user wants. The diff SBom is written in XML for XML, and in JSon for JSon or NDJSON.
+	 * 
+	 * @param outputFormats Set of AVAILABLE_FORMATS the user wants.
+	 * @return Set of SBomCommons.AVAILABLE_FORMATS to write the diff SBom in.
+	 */
+	private static Set<SBomCommons.AVAILABLE_FORMATS> getDiffBomFormats(
+			Set<AVAILABLE_FORMATS> outputFormats)
+	{
+		Set<SBomCommons.AVAILABLE_FORMATS> formats = new LinkedHashSet<>();
+		for (AVAILABLE_FORMATS outputFormat : outputFormats)
+		{
+			if (outputFormat.equals(AVAILABLE_FORMATS.XML))
+				formats.add(SBomCommons.AVAILABLE_FORMATS.XML);
+			else
+				formats.add(SBomCommons.AVAILABLE_FORMATS.JSON);
+		}
+		return formats;
+	}
+	
+	/**
+	 * (U) This method is used to get the output formats the user wants, a comma separated list
+	 * such as "xml,json,ndjson". If the user didn't specify we return XML.
 	 * 
 	 * @param cli CommandLine arguments to read in what the user wants.
-	 * @return AVAILABLE_FORMATS enumeration that tell us what the format of the output file will be
-	 *         in.
+	 * @return Set of AVAILABLE_FORMATS enumerations that tell us what formats the output files
+	 *         will be in, in the order the user gave them.
 	 * @throws SBomComparatorException in the event the user supplied a format we do NOT support.
 	 */
-	private static AVAILABLE_FORMATS getOutputFormat(CommandLine cli) throws SBomComparatorException
+	private static Set<AVAILABLE_FORMATS> getOutputFormats(CommandLine cli)
+			throws SBomComparatorException
 	{
-		AVAILABLE_FORMATS format = AVAILABLE_FORMATS.XML;
+		Set<AVAILABLE_FORMATS> formats = new LinkedHashSet<>();
 		
-		String formatString = null;
 		if (cli.hasOption(FORMAT))
 		{
-			formatString = cli.getOptionValue(FORMAT);
-			if (formatString.equalsIgnoreCase("xml"))
-				format = AVAILABLE_FORMATS.XML;
-			else if (formatString.equalsIgnoreCase("json"))
-				format = AVAILABLE_FORMATS.JSON;
-			else
+			for (String formatString : cli.getOptionValue(FORMAT).split(","))
 			{
-				String error = "Unrecognized or unsupported output file format.  Valid values " +
-						"are xml, json.";
-				logger.error("User provided a format of " + formatString + ", which is invalid.");
-				throw new SBomComparatorException(error);
+				formatString = formatString.trim();
+				if (formatString.equalsIgnoreCase("xml"))
+					formats.add(AVAILABLE_FORMATS.XML);
+				else if (formatString.equalsIgnoreCase("json"))
+					formats.add(AVAILABLE_FORMATS.JSON);
+				else if (formatString.equalsIgnoreCase("ndjson"))
+					formats.add(AVAILABLE_FORMATS.NDJSON);
+				else
+				{
+					String error = "Unrecognized or unsupported output file format.  Valid " +
+							"values are xml, json, ndjson.";
+					logger.error("User provided a format of " + formatString +
+							", which is invalid.");
+					throw new SBomComparatorException(error);
+				}
 			}
 		}
 		else
+		{
 			logger.info("User didn't supply a format, returning XML");
+			formats.add(AVAILABLE_FORMATS.XML);
+		}
+		return formats;
+	}
+	
+	/**
+	 * (U) This method is used to compare the two SBoms once, handing each difference to every
+	 * output as it is found: the diff in each format wanted, the diff SBom and the HTML report.
+	 * No SBomDiff is kept in memory. Once the compare has finished it is recorded in the diff
+	 * history, if there is one.
+	 * 
+	 * @param originalBom   IndexedBom of the original SBom.
+	 * @param newBom        IndexedBom of the new SBom.
+	 * @param cli           CommandLine to pull the output file names from.
+	 * @param outputFormats Set of AVAILABLE_FORMATS to write the diff in.
+	 * @param nameSuffix    String appended to each output file name, empty for a single compare.
+	 * @param history       DiffHistoryStore to record the compare in, null for none.
+	 * @return SBomDiffCounter holding the number of components added, removed and modified.
+	 * @throws SBomComparatorException in the event we are unable to write one of the outputs.
+	 */
+	private static SBomDiffCounter writeOutputs(IndexedBom originalBom, IndexedBom newBom, CommandLine cli,
+			Set<AVAILABLE_FORMATS> outputFormats, String nameSuffix, DiffHistoryStore history)
+			throws SBomComparatorException
+	{
+		return writeOutputs(originalBom, newBom, cli, outputFormats, getOutputFileName(cli) +
+				nameSuffix, getOutputBomFileName(cli) + nameSuffix, new HtmlBuilder()
+						.getHtmlFileName(cli, nameSuffix), history);
+	}
+	
+	/**
+	 * (U) This method is used to compare the two SBoms once, writing the outputs to the names
+	 * passed in, rather than ones from the command line.
+	 * 
+	 * @param originalBom       IndexedBom of the original SBom.
+	 * @param newBom            IndexedBom of the new SBom.
+	 * @param cli               CommandLine to pull the html options from.
+	 * @param outputFormats     Set of AVAILABLE_FORMATS to write the diff in.
+	 * @param outputFileName    String name of the diff, without its extension.
+	 * @param outputBomFileName String name of the diff SBom, without its extension.
+	 * @param htmlFileName      String name of the html report, without its extension.
+	 * @param history           DiffHistoryStore to record the compare in, null for none.
+	 * @return SBomDiffCounter holding the number of components added, removed and modified.
+	 * @throws SBomComparatorException in the event we are unable to write one of the outputs.
+	 */
+	private static SBomDiffCounter writeOutputs(IndexedBom originalBom, IndexedBom newBom,
+			CommandLine cli, Set<AVAILABLE_FORMATS> outputFormats, String outputFileName,
+			String outputBomFileName, String htmlFileName, DiffHistoryStore history)
+			throws SBomComparatorException
+	{
+		DiffHistoryStore.Recorder recorder = null;
+		if (history != null)
+		{
+			String product = cli.getOptionValue(HISTORY_PRODUCT,
+					DiffHistoryStore.getProduct(newBom.getBom()));
+			recorder = history.newRecorder(product, DiffHistoryStore.getBuildId(newBom.getBom(),
+					newBom.getName()), DiffHistoryStore.getBuildId(originalBom.getBom(),
+							originalBom.getName()));
+		}
+		
+		SBomGenerator sbomGenerator = new SBomGenerator();
+		HtmlBuilder htmlBuilder = new HtmlBuilder();
+		SBomDiffCounter counter = new SBomDiffCounter();
+		
+		// Should the compare fail, the outputs are aborted rather than closed, so none of them is
+		// left finished as if it had succeeded.
+		SBomDiffTee tee = new SBomDiffTee();
+		try
+		{
+			for (AVAILABLE_FORMATS outputFormat : outputFormats)
+				tee.add(SBomDiffFileUtils.openDiffWriter(outputFormat.toString(),
+						outputFileName));
+			
+			for (SBomCommons.AVAILABLE_FORMATS bomFormat : getDiffBomFormats(outputFormats))
+				tee.add(sbomGenerator.openDiffBomWriter(originalBom.getBom(), newBom.getBom(),
+						outputBomFileName, bomFormat));
+			
+			tee.add(htmlBuilder.openNamedHtmlWriter(cli, htmlFileName, originalBom.getName(),
+					newBom.getName()));
+			tee.add(counter);
+			if (recorder != null)
+				tee.add(recorder);
+			
+			SBomCompareUtils.compareComponents(originalBom, newBom, tee);
+			tee.close();
+		}
+		catch (IOException e)
+		{
+			tee.abort(e);
+			String error = "Failed to write the outputs of the compare!";
+			logger.error(error, e);
+			throw new SBomComparatorException(error, e);
+		}
+		catch (SBomComparatorException | RuntimeException e)
+		{
+			tee.abort(e);
+			throw e;
+		}
 		
-		return format;
+		if (recorder != null)
+		{
+			HistoryBuild build = recorder.commit();
+			if (logger.isDebugEnabled())
+				logger.debug("Recorded " + build.getBuild() + " of " + build.getProduct() +
+						" as compare " + build.getSequence() + " in the diff history.");
+		}
+		
+		if (logger.isInfoEnabled())
+			logger.info("Compared " + originalBom.getName() + " to " + newBom.getName() + ": " +
+					counter + ".");
+		return counter;
 	}
 	
 	/**
@@ -208,6 +1681,31 @@ public class SbomcomparatorApplication implements ApplicationRunner
 	 */
 	@Override
 	public void run(ApplicationArguments args) throws Exception
+	{
+		PrintWriter out = new PrintWriter(new OutputStreamWriter(System.out,
+				Charset.defaultCharset()));
+		try
+		{
+			runCommand(args.getSourceArgs(), null, out);
+		}
+		finally
+		{
+			out.flush();
+		}
+	}
+	
+	/**
+	 * (U) This method runs the Comparator for one command line, from the JVM's own or one sent to
+	 * the daemon.
+	 * 
+	 * @param arguments String array of the command line arguments.
+	 * @param directory String working directory of the daemon's client, to resolve the file
+	 *                  names in a manifest against, null for the JVM's own.
+	 * @param out       PrintWriter to print the usage to.
+	 * @throws Exception in the event the command fails.
+	 */
+	private static void runCommand(String[] arguments, String directory, PrintWriter out)
+			throws Exception
 	{
 		Date startDate = DateUtils.rightNowDate();
 		boolean failed = false;
@@ -215,42 +1713,77 @@ public class SbomcomparatorApplication implements ApplicationRunner
 		CommandLineParser cliParser = new DefaultParser();
 		Options cliOptions = createCliOptions();
 		boolean runningHelp = false;
+		boolean runningQuery = false;
+		boolean runningSimilarity = false;
+		boolean runningCompose = false;
+		boolean runningCorpus = false;
+		boolean runningServer = false;
+		boolean runningDaemon = false;
+		int sbomCount = 2;
 		try
 		{
-			CommandLine cli = cliParser.parse(cliOptions, args.getSourceArgs());
+			CommandLine cli = cliParser.parse(cliOptions, arguments);
 			if (cli.hasOption("help"))
 			{
 				runningHelp = true;
 				HelpFormatter formatter = new HelpFormatter();
-				formatter.printHelp("help", cliOptions);
+				formatter.printHelp(out, formatter.getWidth(), "help", null, cliOptions,
+						formatter.getLeftPadding(), formatter.getDescPadding(), null);
+				out.flush();
+			}
+			else if (cli.hasOption(HISTORY_QUERY))
+			{
+				runningQuery = true;
+				queryHistory(cli);
+			}
+			else if (cli.hasOption(DAEMON))
+			{
+				runningDaemon = true;
+				daemon(cli);
+			}
+			else if (cli.hasOption(SERVE))
+			{
+				runningServer = true;
+				serve(cli);
+			}
+			else if ((cli.hasOption(CORPUS)) || (cli.hasOption(CORPUS_QUERY)))
+			{
+				runningCorpus = true;
+				CorpusIndex corpus = getCorpusIndex(cli);
+				sbomCount = 0;
+				if (cli.hasOption(CORPUS))
+					sbomCount = indexCorpus(cli, corpus);
+				if (cli.hasOption(CORPUS_QUERY))
+					queryCorpus(cli, corpus);
+			}
+			else if (cli.hasOption(COMPOSE))
+			{
+				runningCompose = true;
+				sbomCount = composeDiffs(cli, getOutputFormats(cli));
+			}
+			else if (cli.hasOption(SIMILARITY))
+			{
+				runningSimilarity = true;
+				sbomCount = compareSimilarity(cli);
 			}
 			else
 			{
-				AVAILABLE_FORMATS outputFormat = getOutputFormat(cli);
-				String outputFileName = getOutputFileName(cli);
-				
-				Bom originalBom = getBomFile(cli, "orgsbom");
-				Bom newBom = getBomFile(cli, "newsbom");
-				
-				SBomDiff diff = SBomCompareUtils.compareComponents(originalBom, newBom);
-				
-				HtmlBuilder htmlBuilder = new HtmlBuilder();
-				htmlBuilder.generateHTMLFile(diff, cli);
-				SBomDiffFileUtils.generateOutputFile(diff, outputFormat.toString(),
-						outputFileName);
+				Set<AVAILABLE_FORMATS> outputFormats = getOutputFormats(cli);
+				DiffHistoryStore history = getHistory(cli);
 				
-				SBomGenerator sbomGenerator = new SBomGenerator();
-				Bom diffBom = sbomGenerator.geneateDiffBom(originalBom, newBom, diff);
-				
-				String output;
-				SBomCommons.AVAILABLE_FORMATS format = SBomCommons.AVAILABLE_FORMATS.XML;
-				
-				if (outputFormat.equals(AVAILABLE_FORMATS.JSON))
-					format = SBomCommons.AVAILABLE_FORMATS.JSON;
-				
-				output = SBomCommons.generateOutputString(diffBom, format);
-				
-				FileOutputUtils.generateOutputFile(output, "XML", getOutputBomFileName(cli));
+				if (cli.hasOption(MANIFEST))
+					sbomCount = compareManifest(cli, directory, outputFormats, history) * 2;
+				else if (cli.hasOption(BASELINE))
+					sbomCount = compareBaseline(cli, outputFormats, history);
+				else if (cli.hasOption(RELEASES))
+					sbomCount = compareReleases(cli, outputFormats, history);
+				else
+				{
+					IndexedBom originalBom = getBomFile(cli, "orgsbom");
+					IndexedBom newBom = getBomFile(cli, "newsbom");
+					
+					writeOutputs(originalBom, newBom, cli, outputFormats, "", history);
+				}
 			}
 		}
 		catch (Exception e)
@@ -272,8 +1805,22 @@ public class SbomcomparatorApplication implements ApplicationRunner
 				
 				if (runningHelp)
 					msg.append("to show the usage.");
-				else
+				else if (runningQuery)
+					msg.append("query the diff history.");
+				else if (runningDaemon)
+					msg.append("run the compare daemon.");
+				else if (runningServer)
+					msg.append("serve compares.");
+				else if (runningCorpus)
+					msg.append("use the corpus index, reading " + sbomCount + " SBoms.");
+				else if (runningCompose)
+					msg.append("compose " + sbomCount + " diffs.");
+				else if (runningSimilarity)
+					msg.append("estimate the similarity of " + sbomCount + " SBoms.");
+				else if (sbomCount == 2)
 					msg.append("compare two SBom.");
+				else
+					msg.append("compare " + sbomCount + " SBoms.");
 				logger.info(msg.toString());
 			}
 		}
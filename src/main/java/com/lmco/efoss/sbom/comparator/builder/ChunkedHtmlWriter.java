@@ -0,0 +1,316 @@
+/*
+ * Copyright (c) 2018,2019 Lockheed Martin Corporation.
+ *
+ * This work is owned by Lockheed Martin Corporation. Lockheed Martin personnel are permitted to use and
+ * modify this software.  Lockheed Martin personnel may also deliver this source code to any US Government
+ * customer Agency under a "US Government Purpose Rights" license.
+ *
+ * See the LICENSE file distributed with this work for licensing and distribution terms
+ */
+package com.lmco.efoss.sbom.comparator.builder;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.apache.log4j.Logger;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.json.JsonWriteFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.lmco.efoss.sbom.commons.utils.StringUtils;
+import com.lmco.efoss.sbom.comparator.dtos.CompareComponent;
+import com.lmco.efoss.sbom.comparator.dtos.HtmlTableValue;
+import com.lmco.efoss.sbom.comparator.dtos.ModifiedComponent;
+import com.lmco.efoss.sbom.comparator.exceptions.SBomComparatorException;
+import com.lmco.efoss.sbom.comparator.utils.SBomDiffAbortable;
+import com.lmco.efoss.sbom.comparator.utils.SBomDiffListener;
+
+/**
+ * (U) This listener is used to build the chunked HTML report, for diffs too large for one HTML
+ * table. The rows are streamed, as they are reported, into static data files (chunk-00000.js,
+ * chunk-00001.js, ...) in a directory next to the report, and are never held in memory. On close a
+ * small HTML shell is written that loads the chunks with script tags, so it works from local disk
+ * with no server, and only draws the rows scrolled into view. Sorting and filtering are done in
+ * the browser.
+ *
+ * @author wrgoff
+ * @since 19 October 2026
+ */
+public class ChunkedHtmlWriter implements SBomDiffListener, Closeable, SBomDiffAbortable
+{
+	private static final Logger logger = Logger.getLogger(ChunkedHtmlWriter.class.getName());
+
+	public static final int DEFAULT_CHUNK_SIZE = 5000;
+	public static final String DATA_DIR_SUFFIX = "_files";
+
+	private static final String CONFIG_MARKER = "{{CONFIG}}";
+	private static final String HEADER_MARKER = "{{HEADER}}";
+	private static final String TEMPLATE = "/html/chunkedReport.html";
+
+	private static final int ADDED = 0;
+	private static final int REMOVED = 1;
+	private static final int MODIFIED = 2;
+
+	private final HtmlBuilder htmlBuilder;
+	private final File htmlFile;
+	private final File dataDir;
+	private final String orgSbomName;
+	private final String newSbomName;
+	private final int chunkSize;
+
+	// Non-ASCII is escaped, so the data files load whatever encoding the browser assumes.
+	private final JsonFactory jsonFactory = JsonFactory.builder().enable(
+			JsonWriteFeature.ESCAPE_NON_ASCII).build();
+	private final long[] statusCounts = new long[3];
+
+	private JsonGenerator chunk = null;
+	private int chunkRows = 0;
+	private int chunks = 0;
+	private long rows = 0;
+	private boolean closed = false;
+
+	/**
+	 * (U) Constructor.
+	 *
+	 * @param htmlBuilder HtmlBuilder used to build the rows.
+	 * @param fileName    String name of the HTML file to write, the data directory is named after
+	 *                    it with "_files" in place of ".html".
+	 * @param orgSbomName String path of the original SBom file, shown in the header.
+	 * @param newSbomName String path of the new SBom file, shown in the header.
+	 * @param chunkSize   int maximum number of rows in each data file.
+	 */
+	public ChunkedHtmlWriter(HtmlBuilder htmlBuilder, String fileName, String orgSbomName,
+			String newSbomName, int chunkSize)
+	{
+		this.htmlBuilder = htmlBuilder;
+		this.htmlFile = new File(fileName);
+		this.orgSbomName = orgSbomName;
+		this.newSbomName = newSbomName;
+		this.chunkSize = Math.max(1, chunkSize);
+
+		String baseName = htmlFile.getName();
+		if (baseName.endsWith(".html"))
+			baseName = baseName.substring(0, baseName.length() - ".html".length());
+		this.dataDir = new File(htmlFile.getAbsoluteFile().getParentFile(),
+				baseName + DATA_DIR_SUFFIX);
+	}
+
+	/**
+	 * (U) This method is used to give up the report: the data file being written is closed
+	 * unfinished, and the data files written are deleted, with the data directory once it is
+	 * empty. Any HTML shell of the same name is deleted, so an older report is NOT taken for the
+	 * one that failed.
+	 */
+	@Override
+	public void abort() throws IOException
+	{
+		closed = true;
+		
+		int written = chunks;
+		if (chunk != null)
+		{
+			written++;
+			chunk.disable(JsonGenerator.Feature.AUTO_CLOSE_JSON_CONTENT);
+			chunk.close();
+			chunk = null;
+		}
+		
+		for (int i = 0; i < written; i++)
+			Files.deleteIfExists(new File(dataDir, getChunkFileName(i)).toPath());
+		
+		String[] left = dataDir.list();
+		if ((left != null) && (left.length == 0))
+			Files.deleteIfExists(dataDir.toPath());
+		Files.deleteIfExists(htmlFile.toPath());
+	}
+
+	/**
+	 * (U) This method is used to finish the last data file and write the HTML shell.
+	 */
+	@Override
+	public void close() throws IOException
+	{
+		if (closed)
+			return;
+		closed = true;
+
+		if (chunk != null)
+			endChunk();
+
+		if (logger.isDebugEnabled())
+			logger.debug("Wrote " + rows + " rows in " + chunks + " chunks to " + dataDir + ".");
+
+		writeShell();
+	}
+
+	@Override
+	public void componentAdded(CompareComponent component) throws SBomComparatorException
+	{
+		writeRow(htmlBuilder.adaptComponent(component, HtmlBuilder.ADDED), ADDED);
+	}
+
+	@Override
+	public void componentModified(ModifiedComponent component) throws SBomComparatorException
+	{
+		writeRow(htmlBuilder.adaptComponent(component), MODIFIED);
+	}
+
+	@Override
+	public void componentRemoved(CompareComponent component) throws SBomComparatorException
+	{
+		writeRow(htmlBuilder.adaptComponent(component, HtmlBuilder.REMOVED), REMOVED);
+	}
+
+	/**
+	 * (U) This method is used to get the directory the data files are written to.
+	 *
+	 * @return File the data directory.
+	 */
+	public File getDataDir()
+	{
+		return dataDir;
+	}
+
+	/**
+	 * (U) This method is used to get the number of data files written.
+	 *
+	 * @return int the number of chunks.
+	 */
+	public int getChunks()
+	{
+		return chunks;
+	}
+
+	/**
+	 * (U) This method is used to get the number of rows written.
+	 *
+	 * @return long the number of rows.
+	 */
+	public long getRows()
+	{
+		return rows;
+	}
+
+	/**
+	 * (U) This method is used to get the name of the data file for the chunk passed in.
+	 *
+	 * @param index int index of the chunk.
+	 * @return String the data file name.
+	 */
+	public static String getChunkFileName(int index)
+	{
+		return String.format("chunk-%05d.js", index);
+	}
+
+	/**
+	 * (U) This method is used to finish the current data file.
+	 *
+	 * @throws IOException in the event we are unable to write the data file.
+	 */
+	private void endChunk() throws IOException
+	{
+		chunk.writeEndArray();
+		chunk.writeRaw(");\n");
+		chunk.close();
+		chunk = null;
+		chunkRows = 0;
+		chunks++;
+	}
+
+	/**
+	 * (U) This method is used to start a new data file.
+	 *
+	 * @throws IOException in the event we are unable to create the data file.
+	 */
+	private void startChunk() throws IOException
+	{
+		if (chunks == 0)
+			Files.createDirectories(dataDir.toPath());
+
+		Writer writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(
+				new File(dataDir, getChunkFileName(chunks))), StandardCharsets.UTF_8),
+				HtmlBuilder.BUFFER_SIZE);
+
+		chunk = jsonFactory.createGenerator(writer);
+		chunk.writeRaw("sbomReport.addChunk(" + chunks + ",");
+		chunk.writeStartArray();
+	}
+
+	/**
+	 * (U) This method is used to write the HTML shell, which loads the data files.
+	 *
+	 * @throws IOException in the event we are unable to write the HTML.
+	 */
+	private void writeShell() throws IOException
+	{
+		Map<String, Object> config = new LinkedHashMap<>();
+		config.put("dataDir", dataDir.getName());
+		config.put("chunks", chunks);
+		config.put("rows", rows);
+		config.put("properties", htmlBuilder.getReportProperties());
+
+		// The config sits in a script tag, so it must never close the tag.
+		String configJson = new ObjectMapper().writeValueAsString(config).replace("</", "<\\/");
+
+		String header = HtmlBuilder.buildCountsHeader(orgSbomName, newSbomName,
+				statusCounts[ADDED], statusCounts[REMOVED], statusCounts[MODIFIED]);
+		String shell = HtmlBuilder.readTemplate(TEMPLATE).replace(HEADER_MARKER, header)
+				.replace(CONFIG_MARKER, configJson);
+
+		try (Writer out = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(htmlFile),
+				StandardCharsets.UTF_8)))
+		{
+			out.write(shell);
+		}
+	}
+
+	/**
+	 * (U) This method is used to write one row to the current data file, starting a new one when
+	 * the current one is full.
+	 *
+	 * @param value  HtmlTableValue holding the row's values.
+	 * @param status int index of the row's status.
+	 * @throws SBomComparatorException in the event we are unable to write the row.
+	 */
+	private void writeRow(HtmlTableValue value, int status) throws SBomComparatorException
+	{
+		try
+		{
+			if (chunk == null)
+				startChunk();
+
+			chunk.writeStartArray();
+			chunk.writeString(value.getName());
+			chunk.writeString(StringUtils.isValid(value.getGroup()) ? value.getGroup() : "");
+			chunk.writeString(value.getVersionOld());
+			chunk.writeString(value.getVersionNew());
+			chunk.writeNumber(status);
+			chunk.writeString(value.getEfossStatus());
+			for (String property : value.getProperties())
+				chunk.writeString(property);
+			chunk.writeEndArray();
+
+			statusCounts[status]++;
+			rows++;
+			chunkRows++;
+			if (chunkRows >= chunkSize)
+				endChunk();
+		}
+		catch (IOException e)
+		{
+			String error = "Failed to write the HTML report data to " + dataDir + ".";
+			logger.error(error, e);
+			throw new SBomComparatorException(error, e);
+		}
+	}
+}
@@ -0,0 +1,349 @@
+/*
+ * Copyright (c) 2018,2019 Lockheed Martin Corporation.
+ *
+ * This work is owned by Lockheed Martin Corporation. Lockheed Martin personnel are permitted to use and
+ * modify this software.  Lockheed Martin personnel may also deliver this source code to any US Government
+ * customer Agency under a "US Government Purpose Rights" license.
+ *
+ * See the LICENSE file distributed with this work for licensing and distribution terms
+ */
+package com.lmco.efoss.sbom.comparator.builder;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.regex.Pattern;
+
+import org.apache.log4j.Logger;
+
+import com.lmco.efoss.sbom.comparator.dtos.CompareComponent;
+import com.lmco.efoss.sbom.comparator.dtos.GroupSummary;
+import com.lmco.efoss.sbom.comparator.dtos.HtmlTableValue;
+import com.lmco.efoss.sbom.comparator.dtos.ModifiedComponent;
+import com.lmco.efoss.sbom.comparator.exceptions.SBomComparatorException;
+import com.lmco.efoss.sbom.comparator.utils.SBomDiffAbortable;
+import com.lmco.efoss.sbom.comparator.utils.SBomDiffListener;
+
+/**
+ * (U) This listener is used to build the grouped HTML report. The report opens with a summary
+ * table, one line per group (namespace), with the number of components added, removed and
+ * modified and the licenses and EFoss statuses among them. Each group's rows follow in a
+ * collapsed section; they are kept as unparsed text in the page and only turned into table rows
+ * when the section is opened, so the summary shows at once however large the diff is.
+ *
+ * @author wrgoff
+ * @since 19 October 2026
+ */
+public class GroupedHtmlWriter implements SBomDiffListener, Closeable, SBomDiffAbortable
+{
+	private static final Logger logger = Logger.getLogger(GroupedHtmlWriter.class.getName());
+
+	public static final String NO_GROUP = "(no group)";
+
+	private static final String END_TD = "</td>";
+	private static final String END_TD_TD = "</td><td>";
+	private static final String GROUPS_MARKER = "{{GROUPS}}";
+	private static final String HEADER_MARKER = "{{HEADER}}";
+	private static final String SUMMARY_MARKER = "{{SUMMARY}}";
+	private static final String TEMPLATE = "/html/groupedReport.html";
+
+	private static final String ROWS_HEADING = "<thead><tr class=\"heading\"><td>Name" +
+			END_TD_TD + "Group" + END_TD_TD + "Version Old" + END_TD_TD + "Version New" +
+			END_TD_TD + "Status" + END_TD_TD + "EFoss Status</td>";
+	private static final String SUMMARY_HEADING = "<tr class=\"heading\"><td>Group" + END_TD_TD +
+			"Added" + END_TD_TD + "Removed" + END_TD_TD + "Modified" + END_TD_TD + "Licenses" +
+			END_TD_TD + "EFoss Status</td></tr>";
+
+	// The rows sit in a script tag, so they must never close it.
+	private static final Pattern END_SCRIPT = Pattern.compile("</script",
+			Pattern.CASE_INSENSITIVE);
+
+	private final HtmlBuilder htmlBuilder;
+	private final String fileName;
+	private final String orgSbomName;
+	private final String newSbomName;
+	private final boolean gzip;
+
+	private final Map<String, GroupSummary> groups = new HashMap<>();
+	private boolean closed = false;
+
+	/**
+	 * (U) Constructor.
+	 *
+	 * @param htmlBuilder HtmlBuilder used to build the rows, it should use stylesheet classes.
+	 * @param fileName    String name of the HTML file to write.
+	 * @param orgSbomName String path of the original SBom file, shown in the header.
+	 * @param newSbomName String path of the new SBom file, shown in the header.
+	 * @param gzip        boolean true to write the HTML gzipped, ".gz" is appended to the file
+	 *                    name.
+	 */
+	public GroupedHtmlWriter(HtmlBuilder htmlBuilder, String fileName, String orgSbomName,
+			String newSbomName, boolean gzip)
+	{
+		this.htmlBuilder = htmlBuilder;
+		this.fileName = (gzip) ? fileName + ".gz" : fileName;
+		this.orgSbomName = orgSbomName;
+		this.newSbomName = newSbomName;
+		this.gzip = gzip;
+	}
+
+	/**
+	 * (U) This method is used to give up the HTML, the groups are dropped and nothing is written.
+	 * Any file of the same name is deleted, so an older report is NOT taken for the one that
+	 * failed.
+	 */
+	@Override
+	public void abort() throws IOException
+	{
+		closed = true;
+		groups.clear();
+		Files.deleteIfExists(Paths.get(fileName));
+	}
+
+	/**
+	 * (U) This method is used to write the HTML file, the summary followed by each group.
+	 */
+	@Override
+	public void close() throws IOException
+	{
+		if (closed)
+			return;
+		closed = true;
+
+		List<GroupSummary> sorted = getGroups();
+
+		String template = HtmlBuilder.readTemplate(TEMPLATE);
+		int groupsAt = template.indexOf(GROUPS_MARKER);
+		String top = template.substring(0, groupsAt)
+				.replace(HEADER_MARKER, buildHeader(sorted))
+				.replace(SUMMARY_MARKER, buildSummary(sorted));
+
+		try (OutputStream fos = HtmlDiffWriter.openStream(fileName, gzip);
+				Writer out = new BufferedWriter(new OutputStreamWriter(fos,
+						StandardCharsets.UTF_8), HtmlBuilder.BUFFER_SIZE))
+		{
+			out.write(top);
+			for (int i = 0; i < sorted.size(); i++)
+				writeGroup(i, sorted.get(i), out);
+			out.write(template.substring(groupsAt + GROUPS_MARKER.length()));
+		}
+		catch (SBomComparatorException e)
+		{
+			String error = "Failed to write output to file (HTML).";
+			logger.error(error, e);
+			throw new IOException(error, e);
+		}
+
+		if (logger.isDebugEnabled())
+			logger.debug("Wrote " + sorted.size() + " groups to " + fileName + ".");
+	}
+
+	@Override
+	public void componentAdded(CompareComponent component)
+	{
+		add(htmlBuilder.adaptComponent(component, HtmlBuilder.ADDED));
+	}
+
+	@Override
+	public void componentModified(ModifiedComponent component)
+	{
+		add(htmlBuilder.adaptComponent(component));
+	}
+
+	@Override
+	public void componentRemoved(CompareComponent component)
+	{
+		add(htmlBuilder.adaptComponent(component, HtmlBuilder.REMOVED));
+	}
+
+	/**
+	 * (U) This method is used to get the name of the HTML file written.
+	 *
+	 * @return String the HTML file name.
+	 */
+	public String getFileName()
+	{
+		return fileName;
+	}
+
+	/**
+	 * (U) This method is used to get the groups, in the order they are shown in the report.
+	 *
+	 * @return List of GroupSummary, ordered by group ignoring case.
+	 */
+	public List<GroupSummary> getGroups()
+	{
+		List<GroupSummary> sorted = new ArrayList<>(groups.values());
+		sorted.sort(Comparator.comparing(GroupSummary::getGroup, String.CASE_INSENSITIVE_ORDER)
+				.thenComparing(GroupSummary::getGroup));
+		return sorted;
+	}
+
+	/**
+	 * (U) This method is used to add a row to its group.
+	 *
+	 * @param value HtmlTableValue the row to add.
+	 */
+	private void add(HtmlTableValue value)
+	{
+		String group = (value.getGroup() == null) ? "" : value.getGroup();
+		groups.computeIfAbsent(group, GroupSummary::new).add(value);
+	}
+
+	/**
+	 * (U) This method is used to build the header table, with the total counts.
+	 *
+	 * @param sorted List of GroupSummary to total.
+	 * @return String the header HTML.
+	 */
+	private String buildHeader(List<GroupSummary> sorted)
+	{
+		long added = 0;
+		long removed = 0;
+		long modified = 0;
+		for (GroupSummary summary : sorted)
+		{
+			added += summary.getAdded();
+			removed += summary.getRemoved();
+			modified += summary.getModified();
+		}
+		return HtmlBuilder.buildCountsHeader(orgSbomName, newSbomName, added, removed, modified);
+	}
+
+	/**
+	 * (U) This method is used to build the summary table, one line per group, linked to the
+	 * group's section, and a line of totals.
+	 *
+	 * @param sorted List of GroupSummary to summarize.
+	 * @return String the summary HTML.
+	 */
+	private static String buildSummary(List<GroupSummary> sorted)
+	{
+		StringBuilder summary = new StringBuilder("<table class=\"center summary\">");
+		summary.append(SUMMARY_HEADING);
+
+		long added = 0;
+		long removed = 0;
+		long modified = 0;
+		Map<String, Long> licenses = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+		Map<String, Long> efossStatuses = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+
+		for (int i = 0; i < sorted.size(); i++)
+		{
+			GroupSummary group = sorted.get(i);
+			summary.append("<tr><td><a href=\"#group-").append(i).append("\">");
+			summary.append(HtmlBuilder.escapeHtml(getDisplayName(group))).append("</a>");
+			appendCounts(summary, group.getAdded(), group.getRemoved(), group.getModified(),
+					group.getLicenses(), group.getEfossStatuses());
+			summary.append("</tr>");
+
+			added += group.getAdded();
+			removed += group.getRemoved();
+			modified += group.getModified();
+			group.getLicenses().forEach((key, count) -> licenses.merge(key, count, Long::sum));
+			group.getEfossStatuses().forEach((key, count) -> efossStatuses.merge(key, count,
+					Long::sum));
+		}
+
+		summary.append("<tr class=\"heading\"><td>Total");
+		appendCounts(summary, added, removed, modified, licenses, efossStatuses);
+		summary.append("</tr></table>");
+		return summary.toString();
+	}
+
+	/**
+	 * (U) This method is used to append the count cells of a summary line.
+	 *
+	 * @param summary       StringBuilder to append to, the group cell is still open.
+	 * @param added         long number of components added.
+	 * @param removed       long number of components removed.
+	 * @param modified      long number of components modified.
+	 * @param licenses      Map of license to the number of components.
+	 * @param efossStatuses Map of EFoss status to the number of components.
+	 */
+	private static void appendCounts(StringBuilder summary, long added, long removed,
+			long modified, Map<String, Long> licenses, Map<String, Long> efossStatuses)
+	{
+		summary.append(END_TD_TD).append(added);
+		summary.append(END_TD_TD).append(removed);
+		summary.append(END_TD_TD).append(modified);
+		summary.append("</td><td class=\"breakdown\">").append(formatBreakdown(licenses));
+		summary.append("</td><td class=\"breakdown\">").append(formatBreakdown(efossStatuses));
+		summary.append(END_TD);
+	}
+
+	/**
+	 * (U) This method is used to format counts as "key (count), key (count)".
+	 *
+	 * @param counts Map of the counts.
+	 * @return String the escaped HTML of the counts.
+	 */
+	private static String formatBreakdown(Map<String, Long> counts)
+	{
+		StringBuilder breakdown = new StringBuilder();
+		for (Map.Entry<String, Long> entry : counts.entrySet())
+		{
+			if (breakdown.length() > 0)
+				breakdown.append(", ");
+			breakdown.append(HtmlBuilder.escapeHtml(entry.getKey())).append(" (")
+					.append(entry.getValue()).append(')');
+		}
+		return breakdown.toString();
+	}
+
+	/**
+	 * (U) This method is used to get the name a group is shown under.
+	 *
+	 * @param group GroupSummary to get the name of.
+	 * @return String the group, or "(no group)" for components without one.
+	 */
+	private static String getDisplayName(GroupSummary group)
+	{
+		return (group.getGroup().isEmpty()) ? NO_GROUP : group.getGroup();
+	}
+
+	/**
+	 * (U) This method is used to write one group's collapsed section. The rows are written as
+	 * the text of a script tag the browser does not run, and are added to the table the first
+	 * time the section is opened.
+	 *
+	 * @param index int index of the group, used for its anchor.
+	 * @param group GroupSummary to write.
+	 * @param out   Writer to write the section to.
+	 * @throws IOException             in the event we are unable to write the section.
+	 * @throws SBomComparatorException if a row's status is invalid.
+	 */
+	private void writeGroup(int index, GroupSummary group, Writer out)
+			throws IOException, SBomComparatorException
+	{
+		List<HtmlTableValue> rows = group.getRows();
+		HtmlBuilder.sortValues(rows);
+
+		out.write("<details id=\"group-" + index + "\"><summary>");
+		out.write(HtmlBuilder.escapeHtml(getDisplayName(group)));
+		out.write(" <span class=\"counts\">" + group.getAdded() + " added, " +
+				group.getRemoved() + " removed, " + group.getModified() + " modified</span>");
+		out.write("</summary><table class=\"rows\">" + ROWS_HEADING +
+				htmlBuilder.getPropertyHeadings() + "</tr></thead><tbody></tbody></table>");
+
+		StringWriter rowsHtml = new StringWriter();
+		htmlBuilder.writeRows(rows, rowsHtml);
+
+		out.write("<script type=\"text/html\">");
+		out.write(END_SCRIPT.matcher(rowsHtml.toString()).replaceAll("&lt;/script"));
+		out.write("</script></details>\n");
+	}
+}
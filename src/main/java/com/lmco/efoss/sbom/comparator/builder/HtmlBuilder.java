@@ -10,26 +10,37 @@
 
 package com.lmco.efoss.sbom.comparator.builder;
 
-import java.io.FileOutputStream;
+import java.io.Closeable;
 import java.io.IOException;
-import java.io.OutputStreamWriter;
+import java.io.InputStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Date;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Set;
 
 import org.apache.commons.cli.CommandLine;
 import org.apache.commons.cli.Option;
 import org.apache.log4j.Logger;
-import org.cyclonedx.model.Property;
+import org.cyclonedx.model.License;
+import org.cyclonedx.model.LicenseChoice;
 
 import com.lmco.efoss.sbom.commons.utils.StringUtils;
 import com.lmco.efoss.sbom.comparator.dtos.CompareComponent;
 import com.lmco.efoss.sbom.comparator.dtos.HtmlTableValue;
 import com.lmco.efoss.sbom.comparator.dtos.ModifiedComponent;
 import com.lmco.efoss.sbom.comparator.dtos.SBomDiff;
+import com.lmco.efoss.sbom.comparator.dtos.VersionSegment;
 import com.lmco.efoss.sbom.comparator.exceptions.SBomComparatorException;
+import com.lmco.efoss.sbom.comparator.utils.SBomCompareUtils;
+import com.lmco.efoss.sbom.comparator.utils.SBomDiffListener;
+import com.lmco.efoss.sbom.comparator.utils.VersionTokenizer;
 
 /**
  * (U) This class is used to build the static HTML which shows the differences between the two
@@ -43,17 +54,111 @@ public class HtmlBuilder
 {
 	private static final Logger logger = Logger.getLogger(HtmlBuilder.class.getName());
 	
-	private static final String ADDED = "Added";
+	static final String ADDED = "Added";
 	private static final String END_TD_TD = "</td><td>";
+	private static final String HTMLGZIP = "htmlgzip";
+	private static final String HTMLMODE = "htmlmode";
 	private static final String HTMLOUTPUT = "htmloutput";
+	private static final String REPORT_PROPERTIES = "report-properties";
+	public static final String EFOSS_STATUS = "efossStatus";
+	public static final String HTML_MODE_CHUNKED = "chunked";
+	public static final String HTML_MODE_CSS = "css";
+	public static final String HTML_MODE_GROUPED = "grouped";
+	public static final String HTML_MODE_TABLE = "table";
 	private static final String MODIFIED = "Modified";
-	private static final String REMOVED = "Removed";
+	static final String REMOVED = "Removed";
+	
+	static final int BUFFER_SIZE = 64 * 1024;
+	
+	// Below this many rows a parallel sort costs more in setup than it saves.
+	static final int PARALLEL_SORT_THRESHOLD = 10000;
+	
+	// Constant fragments of each row, so no strings are built per row.
+	private static final String END_FONT_TD = "</font></td>";
+	private static final String END_TD = "</td>";
+	private static final String END_MARK = "</mark>";
+	private static final String END_ROW = "</tr>";
+	private static final String START_MARK = "<mark>";
+	private static final String START_ROW = "<tr><td>";
+	private static final String START_TD = "<td>";
+	private static final String TABLE_END = "</table></body></html>";
+	
+	private static final String ADDED_CELL =
+			"</td> <td bgcolor=\"#03AC13\"><font color=\"black\">" + ADDED + END_FONT_TD;
+	private static final String MODIFIED_CELL =
+			"</td> <td bgcolor=\"white\"><font color=\"black\">" + MODIFIED + END_FONT_TD;
+	private static final String REMOVED_CELL =
+			"</td> <td bgcolor=\"red\"><font color=\"white\">" + REMOVED + END_FONT_TD;
+	
+	private static final String CSS_ADDED_CELL = "</td><td class=\"added\">" + ADDED + END_TD;
+	private static final String CSS_MODIFIED_CELL = "</td><td class=\"modified\">" + MODIFIED +
+			END_TD;
+	private static final String CSS_REMOVED_CELL = "</td><td class=\"removed\">" + REMOVED +
+			END_TD;
+	
+	private static final String CSS_EFOSS_APPROVED_TD = "<td class=\"efoss-approved\">";
+	private static final String CSS_EFOSS_DENIED_TD = "<td class=\"efoss-denied\">";
+	private static final String CSS_EFOSS_OTHER_TD = "<td>";
+	private static final String CSS_EFOSS_REVIEW_TD = "<td class=\"efoss-review\">";
+	
+	private static final String CSS_STYLE = "<style>table, td {border: 1px solid black;" +
+			"border-collapse: collapse;}table.center {margin-left:auto;margin-right:auto;}" +
+			"body{padding: 3%;}h1 {text-align: center;}tr.heading {background-color: #e6e6e6;}" +
+			".added, .efoss-approved {background-color: #03AC13;}" +
+			".removed, .efoss-denied {background-color: red; color: white;}" +
+			".efoss-review {background-color: yellow;}</style>";
+	
+	private static final String EFOSS_APPROVED_TD =
+			"<td bgcolor=\"#03AC13\"><font color=\"black\">";
+	private static final String EFOSS_DENIED_TD =
+			"<td bgcolor=\"red\"><font color=\"white\">";
+	private static final String EFOSS_OTHER_TD =
+			"<td bgcolor=\"white\"><font color=\"black\">";
+	private static final String EFOSS_REVIEW_TD =
+			"<td bgcolor=\"yellow\"><font color=\"black\">";
+	
+	private final boolean cssClasses;
+	private final List<String> reportProperties;
+	private final String propertyHeadings;
 	
 	/**
 	 * (U) Hidden base constructor.
 	 */
 	public HtmlBuilder()
-	{}
+	{
+		this(false);
+	}
+	
+	/**
+	 * (U) Constructor.
+	 * 
+	 * @param cssClasses boolean true to color the status and efoss status cells with stylesheet
+	 *                   classes, false for the inline bgcolor and font attributes.
+	 */
+	public HtmlBuilder(boolean cssClasses)
+	{
+		this(cssClasses, Collections.emptyList());
+	}
+	
+	/**
+	 * (U) Constructor.
+	 * 
+	 * @param cssClasses       boolean true to color the status and efoss status cells with
+	 *                         stylesheet classes, false for the inline bgcolor and font
+	 *                         attributes.
+	 * @param reportProperties List of the names of the component properties to show, each in its
+	 *                         own column after the EFoss Status, which is always shown.
+	 */
+	public HtmlBuilder(boolean cssClasses, List<String> reportProperties)
+	{
+		this.cssClasses = cssClasses;
+		this.reportProperties = Collections.unmodifiableList(new ArrayList<>(reportProperties));
+		
+		StringBuilder headings = new StringBuilder();
+		for (String property : this.reportProperties)
+			headings.append(START_TD).append(escapeHtml(property)).append(END_TD);
+		this.propertyHeadings = headings.toString();
+	}
 	
 	/**
 	 * (U) This method is used to calculate the HTML table's values which will be set later.
@@ -70,44 +175,168 @@ public class HtmlBuilder
 		List<ModifiedComponent> modifiedComponents = diffs.getModifiedComponents();
 		
 		for (CompareComponent addedComponent : addedComponents)
+			values.add(adaptComponent(addedComponent, ADDED));
+		
+		for (CompareComponent removedComponent : removedComponents)
+			values.add(adaptComponent(removedComponent, REMOVED));
+		
+		for (ModifiedComponent modifiedComponent : modifiedComponents)
+			values.add(adaptComponent(modifiedComponent));
+		
+		sortValues(values);
+		return values;
+	}
+	
+	/**
+	 * (U) This method is used to calculate the HTML table's value for an added or removed
+	 * component.
+	 * 
+	 * @param component CompareComponent that was added or removed.
+	 * @param status    String status of the row, either "Added" or "Removed".
+	 * @return HtmlTableValue the row of the HTML table for the component.
+	 */
+	HtmlTableValue adaptComponent(CompareComponent component, String status)
+	{
+		HtmlTableValue value = new HtmlTableValue();
+		value.setEfossStatus(getComponentEfossStatus(component));
+		value.setLicense(getComponentLicense(component));
+		value.setProperties(getComponentProperties(component));
+		value.setName(component.getComponent().getName());
+		value.setGroup(component.getComponent().getGroup());
+		value.setStatus(status);
+		if (ADDED.equals(status))
 		{
-			HtmlTableValue value = new HtmlTableValue();
-			value.setEfossStatus(getComponentEfossStatus(addedComponent));
-			value.setName(addedComponent.getComponent().getName());
-			value.setGroup(addedComponent.getComponent().getGroup());
-			value.setStatus(ADDED);
-			value.setVersionNew(addedComponent.getComponent().getVersion());
+			value.setVersionNew(component.getComponent().getVersion());
 			value.setVersionOld("");
-			values.add(value);
 		}
-		
-		for (CompareComponent removedComponent : removedComponents)
+		else
 		{
-			HtmlTableValue value = new HtmlTableValue();
-			value.setEfossStatus(getComponentEfossStatus(removedComponent));
-			value.setName(removedComponent.getComponent().getName());
-			value.setGroup(removedComponent.getComponent().getGroup());
-			value.setStatus(REMOVED);
 			value.setVersionNew("");
-			value.setVersionOld(removedComponent.getComponent().getVersion());
-			values.add(value);
+			value.setVersionOld(component.getComponent().getVersion());
 		}
+		return value;
+	}
+	
+	/**
+	 * (U) This method is used to calculate the HTML table's value for a modified component.
+	 * 
+	 * @param modifiedComponent ModifiedComponent whose version changed.
+	 * @return HtmlTableValue the row of the HTML table for the component.
+	 */
+	HtmlTableValue adaptComponent(ModifiedComponent modifiedComponent)
+	{
+		HtmlTableValue value = new HtmlTableValue();
+		value.setEfossStatus(getComponentEfossStatus(modifiedComponent.getNewComponent()));
+		value.setLicense(getComponentLicense(modifiedComponent.getNewComponent()));
+		value.setProperties(getComponentProperties(modifiedComponent.getNewComponent()));
+		value.setName(modifiedComponent.getNewComponent().getComponent().getName());
+		value.setGroup(modifiedComponent.getNewComponent().getComponent().getGroup());
+		value.setStatus(MODIFIED);
+		value.setVersionNew(
+				modifiedComponent.getNewComponent().getComponent().getVersion().trim());
+		value.setVersionOld(
+				modifiedComponent.getPreviousComponent().getComponent().getVersion().trim());
+		return value;
+	}
+	
+	/**
+	 * (U) This method is used to create a listener that builds the static HTML as the differences
+	 * are reported, so the HTML can be written in the same pass as the other outputs. The HTML
+	 * file is written when the listener is closed, gzipped to .html.gz if asked to. In the chunked
+	 * html mode the rows are written to data files as they are reported instead, and in the
+	 * grouped html mode the rows are summarized per group.
+	 * 
+	 * @param cli CommandLine object to read the html output file name, the html mode, gzip and the
+	 *            file names of the compared SBOMs from.
+	 * @return SBomDiffListener the listener to report the differences to, which is also Closeable.
+	 * @throws SBomComparatorException in the event the html mode is invalid, or gzip is asked for
+	 *                                 in the chunked mode.
+	 */
+	public SBomDiffListener openHtmlWriter(CommandLine cli) throws SBomComparatorException
+	{
+		return openHtmlWriter(cli, cli.getOptionValue("orgsbom", ""),
+				cli.getOptionValue("newsbom", ""), "");
+	}
+	
+	/**
+	 * (U) This method is used to create a listener that builds the HTML report for two SBoms
+	 * other than the ones named on the command line, as when several are compared in one run.
+	 * 
+	 * @param cli         CommandLine object to read the html output file name, the html mode and
+	 *                    gzip from.
+	 * @param orgSbomName String path of the original SBom file, shown in the header.
+	 * @param newSbomName String path of the new SBom file, shown in the header.
+	 * @param nameSuffix  String appended to the html output file name, before ".html", so each
+	 *                    compare gets its own report.
+	 * @return SBomDiffListener the listener to report the differences to, which is also Closeable.
+	 * @throws SBomComparatorException in the event the html mode is invalid, or gzip is asked for
+	 *                                 in the chunked mode.
+	 */
+	public SBomDiffListener openHtmlWriter(CommandLine cli, String orgSbomName,
+			String newSbomName, String nameSuffix) throws SBomComparatorException
+	{
+		return openNamedHtmlWriter(cli, getHtmlFileName(cli, nameSuffix), orgSbomName,
+				newSbomName);
+	}
+	
+	/**
+	 * (U) This method is used to get the name of the html report, without its extension, for a
+	 * compare whose outputs are named with the suffix passed in.
+	 * 
+	 * @param cli        CommandLine object to read the html output file name from.
+	 * @param nameSuffix String appended to the html output file name.
+	 * @return String the name of the html report, without ".html".
+	 */
+	public String getHtmlFileName(CommandLine cli, String nameSuffix)
+	{
+		String htmloutputFileName = getHtmlOutputFileName(cli);
 		
-		for (ModifiedComponent modifiedComponent : modifiedComponents)
+		if (!StringUtils.isValid(htmloutputFileName))
+			htmloutputFileName = "sbomcompared";
+		return htmloutputFileName + nameSuffix;
+	}
+	
+	/**
+	 * (U) This method is used to create a listener that builds the HTML report to the file name
+	 * passed in, rather than one from the command line, as when each compare of a manifest names
+	 * its own outputs.
+	 * 
+	 * @param cli                CommandLine object to read the html mode and gzip from.
+	 * @param htmloutputFileName String name of the html report, without ".html".
+	 * @param orgSbomName        String path of the original SBom file, shown in the header.
+	 * @param newSbomName        String path of the new SBom file, shown in the header.
+	 * @return SBomDiffListener the listener to report the differences to, which is also Closeable.
+	 * @throws SBomComparatorException in the event the html mode is invalid, or gzip is asked for
+	 *                                 in the chunked mode.
+	 */
+	public SBomDiffListener openNamedHtmlWriter(CommandLine cli, String htmloutputFileName,
+			String orgSbomName, String newSbomName) throws SBomComparatorException
+	{
+		String mode = getHtmlMode(cli);
+		boolean gzip = cli.hasOption(HTMLGZIP);
+		List<String> properties = getReportProperties(cli);
+		
+		SBomDiffListener writer;
+		if (HTML_MODE_CHUNKED.equals(mode))
 		{
-			HtmlTableValue value = new HtmlTableValue();
-			value.setEfossStatus(getComponentEfossStatus(modifiedComponent.getNewComponent()));
-			value.setName(modifiedComponent.getNewComponent().getComponent().getName());
-			value.setGroup(modifiedComponent.getNewComponent().getComponent().getGroup());
-			value.setStatus(MODIFIED);
-			value.setVersionNew(
-					modifiedComponent.getNewComponent().getComponent().getVersion().trim());
-			value.setVersionOld(
-					modifiedComponent.getPreviousComponent().getComponent().getVersion().trim());
-			values.add(value);
+			if (gzip)
+				throw new SBomComparatorException("The " + HTML_MODE_CHUNKED + " html mode " +
+						"can NOT be gzipped, browsers will not load gzipped data files from disk.");
+			writer = new ChunkedHtmlWriter(withStyle(cssClasses, properties),
+					htmloutputFileName + ".html", orgSbomName,
+					newSbomName, ChunkedHtmlWriter.DEFAULT_CHUNK_SIZE);
 		}
-		Collections.sort(values);
-		return values;
+		else if (HTML_MODE_GROUPED.equals(mode))
+		{
+			writer = new GroupedHtmlWriter(withStyle(true, properties),
+					htmloutputFileName + ".html", orgSbomName, newSbomName, gzip);
+		}
+		else
+		{
+			writer = new HtmlDiffWriter(withStyle(HTML_MODE_CSS.equals(mode), properties),
+					htmloutputFileName + ".html", orgSbomName, newSbomName, gzip);
+		}
+		return writer;
 	}
 	
 	/**
@@ -123,27 +352,27 @@ public class HtmlBuilder
 	public void generateHTMLFile(SBomDiff diffs, CommandLine cli)
 			throws SBomComparatorException
 	{
-		List<HtmlTableValue> values = adaptComponents(diffs);
-		
-		Option[] splitCli = cli.getOptions();
-		String encoding = "UTF-8";
-		
-		String htmloutputFileName = getHtmlOutputFileName(cli);
-		
-		if (!StringUtils.isValid(htmloutputFileName))
-			htmloutputFileName = "sbomcompared";
-		
-		try (FileOutputStream fos = new FileOutputStream(htmloutputFileName + ".html");
-				OutputStreamWriter out = new OutputStreamWriter(fos, encoding);)
+		SBomDiffListener writer = openHtmlWriter(cli);
+		try
 		{
-			writeHeaderHTML(splitCli, out);
-			writeTableHTML(values, out);
+			SBomCompareUtils.replayDiff(diffs, writer);
 		}
-		catch (Exception e)
+		finally
 		{
-			String error = "Failed to write output to file (HTML).";
-			logger.error(error, e);
-			throw new SBomComparatorException(error, e);
+			// The HTML file is written as the writer is closed.
+			if (writer instanceof Closeable)
+			{
+				try
+				{
+					((Closeable) writer).close();
+				}
+				catch (IOException e)
+				{
+					String error = "Failed to write output to file (HTML).";
+					logger.error(error, e);
+					throw new SBomComparatorException(error, e);
+				}
+			}
 		}
 	}
 	
@@ -152,28 +381,57 @@ public class HtmlBuilder
 	 * table headers, date of compare, and the two files being compared.
 	 * 
 	 * @param splitCli the options of the cli down to access the file names
-	 * @param out      OutputStreamWriter used to write the content static HTML
+	 * @param out      Writer used to write the content static HTML
 	 * @throws SBomComparatorException if we are unable to produce the JSon String from the Object
 	 *                                 passed in.
 	 */
-	public void writeHeaderHTML(Option[] splitCli, OutputStreamWriter out)
+	public void writeHeaderHTML(Option[] splitCli, Writer out)
+			throws SBomComparatorException
+	{
+		writeHeaderHTML(splitCli[0].getValue(), splitCli[1].getValue(), out);
+	}
+	
+	/**
+	 * (U) This method is used to write the HTML data that is not the table rows, to include the
+	 * table headers, date of compare, and the two files being compared.
+	 * 
+	 * @param fristLongName  String path of the original SBom file.
+	 * @param secondLongName String path of the new SBom file.
+	 * @param out            Writer used to write the content static HTML
+	 * @throws SBomComparatorException if we are unable to write the HTML.
+	 */
+	public void writeHeaderHTML(String fristLongName, String secondLongName, Writer out)
 			throws SBomComparatorException
 	{
 		try
 		{
-			String fristLongName = splitCli[0].getValue();
 			String[] arrOfStr = fristLongName.split("/");
 			String originalName = arrOfStr[arrOfStr.length - 1];
 			
-			String secondLongName = splitCli[1].getValue();
 			arrOfStr = secondLongName.split("/");
 			String secondName = arrOfStr[arrOfStr.length - 1];
 			
-			String headingColor = "<tr bgcolor=\"#e6e6e6\">";
 			SimpleDateFormat formatter = new SimpleDateFormat("dd/MM/yyyy HH:mm:ss");
 			Date date = new Date();
 			String dateFormatted = formatter.format(date);
 			
+			if (cssClasses)
+			{
+				out.write("<html><head>" +
+						"<meta name=\"viewport\" content=\"width=device-width, initial-scale=1\">" +
+						CSS_STYLE + "</head><body><h1>Compared Sbom Results</h1>" +
+						"<table class=\"center\"><tr class=\"heading\">" +
+						"<td>Date Created" + END_TD_TD + "First SBom" + END_TD_TD +
+						"Second SBom</td></tr><tr><td>" + dateFormatted + END_TD_TD +
+						originalName + END_TD_TD + secondName + "</td></tr></table><br><br>" +
+						"<table class=\"center\"><tr class=\"heading\">" +
+						"<td>Name" + END_TD_TD + "Group" + END_TD_TD + "Version Old" + END_TD_TD +
+						"Version New" + END_TD_TD + "Status" + END_TD_TD + "EFoss Status</td>" +
+						propertyHeadings + END_ROW);
+				return;
+			}
+			
+			String headingColor = "<tr bgcolor=\"#e6e6e6\">";
 			out.write("<html><head>" +
 					"<meta name=\"viewport\" content=\"width=device-width, initial-scale=1\">" +
 					"<style>table, th, td {border: 1px solid black;" +
@@ -187,7 +445,8 @@ public class HtmlBuilder
 					originalName + END_TD_TD + secondName + "</td></tr></table><br><br>" +
 					"<table class=\"center\" border ='1'>" + headingColor +
 					"<td>Name" + END_TD_TD + "Group" + END_TD_TD + "Version Old" + END_TD_TD +
-					"Version New" + END_TD_TD + "Status" + END_TD_TD + "EFoss Status</td></tr>");
+					"Version New" + END_TD_TD + "Status" + END_TD_TD + "EFoss Status</td>" +
+					propertyHeadings + END_ROW);
 		}
 		catch (IOException e)
 		{
@@ -199,64 +458,21 @@ public class HtmlBuilder
 	
 	/**
 	 * (U) This method sets the HTML table values of the actual SBOM differences from the data
-	 * transformed off of the DTO.
+	 * transformed off of the DTO. Each row is written straight to the writer from constant
+	 * fragments, so pass in a buffered writer.
 	 * 
 	 * @param values List of HtmlTableValue DTO which contains the SBOM diff information for the
 	 *               HTML
-	 * @param out    OutputStreamWriter used to write the content static HTML
-	 * @throws SBomComparatorException if we are unable to produce the JSon String from the Object
-	 *                                 passed in.
+	 * @param out    Writer used to write the content static HTML
+	 * @throws SBomComparatorException if we are unable to write the HTML.
 	 */
-	public void writeTableHTML(List<HtmlTableValue> values, OutputStreamWriter out)
+	public void writeTableHTML(List<HtmlTableValue> values, Writer out)
 			throws SBomComparatorException
 	{
 		try
 		{
-			String rowcolor = null;
-			String name = null;
-			String group = null;
-			String versionNew = null;
-			String versionOld = null;
-			String status = null;
-			String efossStatus = null;
-			
-			for (HtmlTableValue value : values)
-			{
-				name = value.getName();
-				
-				group = "";
-				if (StringUtils.isValid(value.getGroup()))
-					group = value.getGroup();
-				
-				versionNew = value.getVersionNew();
-				versionOld = value.getVersionOld();
-				status = value.getStatus();
-				efossStatus = value.getEfossStatus();
-				rowcolor = getRowColor(status);
-				
-				out.write("<tr><td>");
-				out.write(name);
-				out.write(END_TD_TD);
-				out.write(group);
-				out.write(END_TD_TD);
-				out.write(versionOld);
-				out.write(END_TD_TD);
-				if (status.equalsIgnoreCase(MODIFIED))
-				{
-					out.write(buildModifiedString(versionOld, versionNew));
-				}
-				else
-				{
-					out.write(versionNew);
-				}
-				out.write("</td>" + rowcolor);
-				out.write(status + "</font></td>");
-				out.write(generateEfossRow(efossStatus));
-				
-				out.write("</tr>");
-			}
-			out.write("</table>" + "</body>" + "</html>");
-			
+			writeRows(values, out);
+			out.write(TABLE_END);
 		}
 		catch (IOException e)
 		{
@@ -267,78 +483,110 @@ public class HtmlBuilder
 	}
 	
 	/**
-	 * (U) This method is used to high light the changes in the version.
+	 * (U) This method is used to write the rows of the HTML table, without ending the table.
 	 * 
-	 * @param versionOld String value of the old version.
-	 * @param versionNew String value of the new version.
-	 * @return String to appear in the HTML table highlighting the differences in the old versus new
-	 *         versions.
+	 * @param values List of HtmlTableValue to write a row for each of.
+	 * @param out    Writer to write the rows to.
+	 * @throws IOException             in the event we are unable to write the rows.
+	 * @throws SBomComparatorException if a status is invalid.
 	 */
-	private String buildModifiedString(String versionOld, String versionNew)
+	void writeRows(List<HtmlTableValue> values, Writer out)
+			throws IOException, SBomComparatorException
 	{
-		StringBuilder sb = new StringBuilder();
-		
-		for (int i = 0; i < versionNew.length(); i++)
-		{
-			if (getCharAt(versionNew, i) == getCharAt(versionOld, i))
-			{
-				sb.append("<l>" + versionNew.charAt(i) + "</l>");
-			}
-			else
-			{
-				sb.append("<l><mark>" + versionNew.charAt(i) + "</mark></l>");
-			}
-		}
-		return sb.toString();
+		for (HtmlTableValue value : values)
+			writeRow(value, out);
 	}
 	
 	/**
-	 * (U) This method is used to generate the EFoss Status Row of the HTML.
+	 * (U) This method is used to write the EFoss Status cell of a row.
 	 * 
 	 * @param efossStatus String value of the EFoss Status.
-	 * @return String the html used to show the efoss status.
+	 * @param out         Writer to write the cell to.
+	 * @throws IOException in the event we are unable to write the cell.
 	 */
-	private String generateEfossRow(String efossStatus)
+	private void writeEfossCell(String efossStatus, Writer out) throws IOException
 	{
-		StringBuilder htmlRow = new StringBuilder("<td ");
-		
 		switch (efossStatus)
 		{
 			case "APPROVAL_RECOMMENDED":
 			case "APPROVED":
-				htmlRow.append("bgcolor=\"#03AC13\"><font color=\"black\">");
+				out.write(cssClasses ? CSS_EFOSS_APPROVED_TD : EFOSS_APPROVED_TD);
 				break;
 			case "UNDER_REVIEW":
 			case "LEGAL_REVIEW_HOLD":
-				htmlRow.append("bgcolor=\"yellow\"><font color=\"black\">");
+				out.write(cssClasses ? CSS_EFOSS_REVIEW_TD : EFOSS_REVIEW_TD);
 				break;
 			case "DENIED":
-				htmlRow.append("bgcolor=\"red\"><font color=\"white\">");
+				out.write(cssClasses ? CSS_EFOSS_DENIED_TD : EFOSS_DENIED_TD);
 				break;
 			default:
-				htmlRow.append("bgcolor=\"white\"><font color=\"black\">");
+				out.write(cssClasses ? CSS_EFOSS_OTHER_TD : EFOSS_OTHER_TD);
 				break;
 		}
-		htmlRow.append(efossStatus + "</font></td>");
-		
-		return htmlRow.toString();
+		out.write(efossStatus);
+		out.write(cssClasses ? END_TD : END_FONT_TD);
 	}
 	
 	/**
-	 * (U) This method is used to return the character at a specific position.  It will either return an empty character to the
-	 * character from the string passed in.
-	 * @param str String to get the character at a specific position.
-	 * @param index integer that the character within the string that we want.
-	 * @return char either an empty character or the character at the position identified by the index passed in.
+	 * (U) This method is used to write the new version of a modified component, high lighting
+	 * each segment (see VersionTokenizer) that differs from the old version with one mark.
+	 * 
+	 * @param versionOld String value of the old version.
+	 * @param versionNew String value of the new version.
+	 * @param out        Writer to write the version to.
+	 * @throws IOException in the event we are unable to write the version.
 	 */
-	private char getCharAt(String str, int index)
+	private void writeModifiedVersion(String versionOld, String versionNew, Writer out)
+			throws IOException
 	{
-		char myChar = ' ';
-		
-		if(str.length() >= (index + 1))
-			myChar = str.charAt(index);
+		for (VersionSegment segment : VersionTokenizer.diff(versionOld, versionNew))
+		{
+			if (segment.isChanged())
+			{
+				out.write(START_MARK);
+				out.write(segment.getText());
+				out.write(END_MARK);
+			}
+			else
+				out.write(segment.getText());
+		}
+	}
+	
+	/**
+	 * (U) This method is used to write one row of the HTML table.
+	 * 
+	 * @param value HtmlTableValue holding the row's values.
+	 * @param out   Writer to write the row to.
+	 * @throws IOException             in the event we are unable to write the row.
+	 * @throws SBomComparatorException if the status is invalid.
+	 */
+	private void writeRow(HtmlTableValue value, Writer out)
+			throws IOException, SBomComparatorException
+	{
+		String status = value.getStatus();
+		String statusCell = getStatusCell(status);
 		
-		return myChar;
+		out.write(START_ROW);
+		out.write(value.getName());
+		out.write(END_TD_TD);
+		if (StringUtils.isValid(value.getGroup()))
+			out.write(value.getGroup());
+		out.write(END_TD_TD);
+		out.write(value.getVersionOld());
+		out.write(END_TD_TD);
+		if (status.equalsIgnoreCase(MODIFIED))
+			writeModifiedVersion(value.getVersionOld(), value.getVersionNew(), out);
+		else
+			out.write(value.getVersionNew());
+		out.write(statusCell);
+		writeEfossCell(value.getEfossStatus(), out);
+		for (String property : value.getProperties())
+		{
+			out.write(START_TD);
+			out.write(escapeHtml(property));
+			out.write(END_TD);
+		}
+		out.write(END_ROW);
 	}
 	
 	/**
@@ -349,51 +597,287 @@ public class HtmlBuilder
 	 */
 	private String getComponentEfossStatus(CompareComponent comp)
 	{
-		String efossStatus = "";
+		String efossStatus = comp.getPropertyValue(EFOSS_STATUS);
+		return (efossStatus == null) ? "" : efossStatus;
+	}
+	
+	/**
+	 * (U) This method is used to get the values of the report properties of the component passed
+	 * in, in the order they are shown.
+	 * 
+	 * @param comp Component to get the property values for.
+	 * @return List of the values, empty for the properties the component does not have.
+	 */
+	private List<String> getComponentProperties(CompareComponent comp)
+	{
+		if (reportProperties.isEmpty())
+			return Collections.emptyList();
+		
+		List<String> values = new ArrayList<>(reportProperties.size());
+		for (String property : reportProperties)
+		{
+			String value = comp.getPropertyValue(property);
+			values.add((value == null) ? "" : value);
+		}
+		return values;
+	}
+	
+	/**
+	 * (U) This method is used to get the license of the component passed in, its license
+	 * expression, or the ids (or names) of its licenses separated by slashes.
+	 * 
+	 * @param comp Component to get the license for.
+	 * @return String the license of the component, empty if it has none.
+	 */
+	private String getComponentLicense(CompareComponent comp)
+	{
+		LicenseChoice licenseChoice = comp.getComponent().getLicenseChoice();
+		if (licenseChoice == null)
+			return "";
 		
-		List<Property> properties = comp.getComponent().getProperties();
+		if (StringUtils.isValid(licenseChoice.getExpression()))
+			return licenseChoice.getExpression();
 		
-		if ((properties != null) && (!properties.isEmpty()))
+		StringBuilder licenses = new StringBuilder();
+		if (licenseChoice.getLicenses() != null)
 		{
-			for (Property property : properties)
+			for (License license : licenseChoice.getLicenses())
 			{
-				if ((property.getName().equalsIgnoreCase("efossStatus")) ||
-						(property.getName().equalsIgnoreCase("efoss status")))
-				{
-					efossStatus = property.getValue();
-					break;
-				}
+				String id = StringUtils.isValid(license.getId()) ? license.getId() :
+						license.getName();
+				if (!StringUtils.isValid(id))
+					continue;
+				if (licenses.length() > 0)
+					licenses.append(" / ");
+				licenses.append(id);
 			}
 		}
-		return efossStatus;
+		return licenses.toString();
 	}
 	
 	/**
-	 * (U) Get the color for the row based on the status.
+	 * (U) Get the status cell, holding the color for the row, based on the status.
 	 * 
 	 * @param status String value of the status.
-	 * @return String to contain the HTML that will determine the color of the row.
+	 * @return String the HTML that ends the version cell and holds the status cell.
 	 * @throws SBomComparatorException if the status is invalid.
 	 */
-	private String getRowColor(String status) throws SBomComparatorException
+	private String getStatusCell(String status) throws SBomComparatorException
 	{
-		String rowColor = "";
+		String statusCell = "";
 		
 		switch (status)
 		{
 			case ADDED:
-				rowColor = " <td bgcolor=\"#03AC13\"><font color=\"black\">";
+				statusCell = cssClasses ? CSS_ADDED_CELL : ADDED_CELL;
 				break;
 			case REMOVED:
-				rowColor = " <td bgcolor=\"red\"><font color=\"white\">";
+				statusCell = cssClasses ? CSS_REMOVED_CELL : REMOVED_CELL;
 				break;
 			case MODIFIED:
-				rowColor = " <td bgcolor=\"white\"><font color=\"black\">";
+				statusCell = cssClasses ? CSS_MODIFIED_CELL : MODIFIED_CELL;
 				break;
 			default:
 				throw new SBomComparatorException("Unknown status field: " + status);
 		}
-		return rowColor;
+		return statusCell;
+	}
+	
+	/**
+	 * (U) This method is used to read the html mode from the command line arguments. The default,
+	 * "table", writes one HTML table with inline colors; "css" writes the same table colored by
+	 * stylesheet classes, which is much smaller; "chunked" writes a small HTML shell plus data
+	 * files, for large diffs.
+	 * 
+	 * @param cli CommandLine to pull the html mode from.
+	 * @return String the html mode, one of HTML_MODE_TABLE, HTML_MODE_CSS, HTML_MODE_CHUNKED or
+	 *         HTML_MODE_GROUPED.
+	 * @throws SBomComparatorException in the event the html mode is invalid.
+	 */
+	protected String getHtmlMode(CommandLine cli) throws SBomComparatorException
+	{
+		String mode = cli.getOptionValue(HTMLMODE, HTML_MODE_TABLE).toLowerCase(Locale.ENGLISH);
+		
+		if ((!mode.equals(HTML_MODE_TABLE)) && (!mode.equals(HTML_MODE_CSS)) &&
+				(!mode.equals(HTML_MODE_CHUNKED)) && (!mode.equals(HTML_MODE_GROUPED)))
+		{
+			logger.error("User provided an html mode of " + mode + ", which is invalid.");
+			throw new SBomComparatorException("Unrecognized html mode.  Valid values are " +
+					HTML_MODE_TABLE + ", " + HTML_MODE_CSS + ", " + HTML_MODE_CHUNKED + ", " +
+					HTML_MODE_GROUPED + ".");
+		}
+		return mode;
+	}
+	
+	/**
+	 * (U) This method is used to build the header table of the chunked and grouped reports, with
+	 * the date, the two SBoms compared, and the number of components in each status.
+	 * 
+	 * @param orgSbomName String path of the original SBom file.
+	 * @param newSbomName String path of the new SBom file.
+	 * @param added       long number of components added.
+	 * @param removed     long number of components removed.
+	 * @param modified    long number of components modified.
+	 * @return String the header HTML.
+	 */
+	static String buildCountsHeader(String orgSbomName, String newSbomName, long added,
+			long removed, long modified)
+	{
+		SimpleDateFormat formatter = new SimpleDateFormat("dd/MM/yyyy HH:mm:ss");
+		
+		StringBuilder header = new StringBuilder("<table class=\"center\"><tr class=\"heading\">" +
+				"<td>Date Created" + END_TD_TD + "First SBom" + END_TD_TD + "Second SBom" +
+				END_TD_TD + ADDED + END_TD_TD + REMOVED + END_TD_TD + MODIFIED + "</td></tr>");
+		header.append(START_ROW).append(formatter.format(new Date())).append(END_TD_TD);
+		header.append(escapeHtml(getBaseName(orgSbomName))).append(END_TD_TD);
+		header.append(escapeHtml(getBaseName(newSbomName))).append(END_TD_TD);
+		header.append(added).append(END_TD_TD);
+		header.append(removed).append(END_TD_TD);
+		header.append(modified).append("</td></tr></table>");
+		return header.toString();
+	}
+	
+	/**
+	 * (U) This method is used to escape text for use in HTML.
+	 * 
+	 * @param text String to escape.
+	 * @return String the escaped text.
+	 */
+	static String escapeHtml(String text)
+	{
+		StringBuilder escaped = new StringBuilder(text.length());
+		for (int i = 0; i < text.length(); i++)
+		{
+			char ch = text.charAt(i);
+			switch (ch)
+			{
+				case '&':
+					escaped.append("&amp;");
+					break;
+				case '<':
+					escaped.append("&lt;");
+					break;
+				case '>':
+					escaped.append("&gt;");
+					break;
+				case '"':
+					escaped.append("&quot;");
+					break;
+				default:
+					escaped.append(ch);
+					break;
+			}
+		}
+		return escaped.toString();
+	}
+	
+	/**
+	 * (U) This method is used to get the file name, without its directories.
+	 * 
+	 * @param path String path of the file.
+	 * @return String the file name.
+	 */
+	private static String getBaseName(String path)
+	{
+		String[] arrOfStr = path.split("/");
+		return arrOfStr[arrOfStr.length - 1];
+	}
+	
+	/**
+	 * (U) This method is used to read an HTML template from the class path.
+	 * 
+	 * @param name String resource name of the template.
+	 * @return String the template.
+	 * @throws IOException in the event the template can not be read.
+	 */
+	static String readTemplate(String name) throws IOException
+	{
+		try (InputStream in = HtmlBuilder.class.getResourceAsStream(name))
+		{
+			if (in == null)
+				throw new IOException("Unable to find the HTML template (" + name + ").");
+			return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+		}
+	}
+	
+	/**
+	 * (U) This method is used to sort the rows of the HTML table, in parallel when there are many
+	 * of them.
+	 * 
+	 * @param values List of HtmlTableValue to sort in place.
+	 */
+	static void sortValues(List<HtmlTableValue> values)
+	{
+		if (values.size() < PARALLEL_SORT_THRESHOLD)
+		{
+			Collections.sort(values);
+			return;
+		}
+		
+		HtmlTableValue[] sorted = values.toArray(new HtmlTableValue[values.size()]);
+		Arrays.parallelSort(sorted);
+		for (int i = 0; i < sorted.length; i++)
+			values.set(i, sorted[i]);
+	}
+	
+	/**
+	 * (U) This method is used to get the names of the component properties to show in the report,
+	 * from the comma separated list given with --report-properties. The EFoss Status is always
+	 * shown in its own column, so it is left out of the list.
+	 * 
+	 * @param cli CommandLine to pull the report properties from.
+	 * @return List of the property names, in the order given, without duplicates.
+	 */
+	protected List<String> getReportProperties(CommandLine cli)
+	{
+		List<String> properties = new ArrayList<>();
+		Set<String> seen = new HashSet<>();
+		seen.add(CompareComponent.normalizePropertyName(EFOSS_STATUS));
+		
+		for (String property : cli.getOptionValue(REPORT_PROPERTIES, "").split(","))
+		{
+			property = property.trim();
+			if ((!property.isEmpty()) &&
+					(seen.add(CompareComponent.normalizePropertyName(property))))
+				properties.add(property);
+		}
+		return properties;
+	}
+	
+	/**
+	 * (U) This method is used to get the names of the component properties shown in their own
+	 * columns, after the EFoss Status.
+	 * 
+	 * @return List of the property names.
+	 */
+	public List<String> getReportProperties()
+	{
+		return reportProperties;
+	}
+	
+	/**
+	 * (U) This method is used to get the heading cells of the report property columns.
+	 * 
+	 * @return String the heading cells, empty when no report properties are shown.
+	 */
+	String getPropertyHeadings()
+	{
+		return propertyHeadings;
+	}
+	
+	/**
+	 * (U) This method is used to get a builder with the style and report properties passed in,
+	 * this one if it already has them.
+	 * 
+	 * @param css        boolean true for stylesheet classes.
+	 * @param properties List of the report property names.
+	 * @return HtmlBuilder with the style and report properties.
+	 */
+	private HtmlBuilder withStyle(boolean css, List<String> properties)
+	{
+		if ((css == cssClasses) && (properties.equals(reportProperties)))
+			return this;
+		return new HtmlBuilder(css, properties);
 	}
 	
 	/**
@@ -0,0 +1,210 @@
+/*
+ * Copyright (c) 2018,2019 Lockheed Martin Corporation.
+ *
+ * This work is owned by Lockheed Martin Corporation. Lockheed Martin personnel are permitted to use and
+ * modify this software.  Lockheed Martin personnel may also deliver this source code to any US Government
+ * customer Agency under a "US Government Purpose Rights" license.
+ *
+ * See the LICENSE file distributed with this work for licensing and distribution terms
+ */
+package com.lmco.efoss.sbom.comparator.builder;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+import org.apache.log4j.Logger;
+
+import com.lmco.efoss.sbom.comparator.dtos.CompareComponent;
+import com.lmco.efoss.sbom.comparator.dtos.HtmlTableValue;
+import com.lmco.efoss.sbom.comparator.dtos.ModifiedComponent;
+import com.lmco.efoss.sbom.comparator.exceptions.SBomComparatorException;
+import com.lmco.efoss.sbom.comparator.utils.SBomDiffAbortable;
+import com.lmco.efoss.sbom.comparator.utils.SBomDiffListener;
+
+/**
+ * (U) This listener is used to build the static HTML report as the differences are reported. Only
+ * the table rows are kept, since the rows must be sorted before they are written; the HTML file is
+ * written, optionally gzipped, when the listener is closed.
+ *
+ * @author wrgoff
+ * @since 19 October 2026
+ */
+public class HtmlDiffWriter implements SBomDiffListener, Closeable, SBomDiffAbortable
+{
+	private static final Logger logger = Logger.getLogger(HtmlDiffWriter.class.getName());
+
+	private final HtmlBuilder htmlBuilder;
+	private final String fileName;
+	private final OutputStream out;
+	private final String orgSbomName;
+	private final String newSbomName;
+	private final boolean gzip;
+
+	private final List<HtmlTableValue> values = new ArrayList<>();
+	private boolean closed = false;
+
+	/**
+	 * (U) Constructor.
+	 *
+	 * @param htmlBuilder HtmlBuilder used to build the rows and write the HTML.
+	 * @param fileName    String name of the HTML file to write.
+	 * @param orgSbomName String path of the original SBom file, shown in the header.
+	 * @param newSbomName String path of the new SBom file, shown in the header.
+	 */
+	public HtmlDiffWriter(HtmlBuilder htmlBuilder, String fileName, String orgSbomName,
+			String newSbomName)
+	{
+		this(htmlBuilder, fileName, orgSbomName, newSbomName, false);
+	}
+	
+	/**
+	 * (U) Constructor.
+	 *
+	 * @param htmlBuilder HtmlBuilder used to build the rows and write the HTML.
+	 * @param fileName    String name of the HTML file to write.
+	 * @param orgSbomName String path of the original SBom file, shown in the header.
+	 * @param newSbomName String path of the new SBom file, shown in the header.
+	 * @param gzip        boolean true to write the HTML gzipped, ".gz" is appended to the file
+	 *                    name.
+	 */
+	public HtmlDiffWriter(HtmlBuilder htmlBuilder, String fileName, String orgSbomName,
+			String newSbomName, boolean gzip)
+	{
+		this.htmlBuilder = htmlBuilder;
+		this.fileName = (gzip) ? fileName + ".gz" : fileName;
+		this.out = null;
+		this.orgSbomName = orgSbomName;
+		this.newSbomName = newSbomName;
+		this.gzip = gzip;
+	}
+	
+	/**
+	 * (U) Constructor, for writing the HTML to a stream rather than a file, as when it is sent
+	 * back to a client.
+	 *
+	 * @param htmlBuilder HtmlBuilder used to build the rows and write the HTML.
+	 * @param out         OutputStream to write the HTML to. It will be closed when this writer is
+	 *                    closed.
+	 * @param orgSbomName String path of the original SBom file, shown in the header.
+	 * @param newSbomName String path of the new SBom file, shown in the header.
+	 */
+	public HtmlDiffWriter(HtmlBuilder htmlBuilder, OutputStream out, String orgSbomName,
+			String newSbomName)
+	{
+		this.htmlBuilder = htmlBuilder;
+		this.fileName = null;
+		this.out = out;
+		this.orgSbomName = orgSbomName;
+		this.newSbomName = newSbomName;
+		this.gzip = false;
+	}
+
+	/**
+	 * (U) This method is used to give up the HTML, the rows are dropped and nothing is written.
+	 * Writing to a file, any file of the same name is deleted, so an older report is NOT taken for
+	 * the one that failed.
+	 */
+	@Override
+	public void abort() throws IOException
+	{
+		closed = true;
+		values.clear();
+		
+		if (out != null)
+			out.close();
+		else
+			Files.deleteIfExists(Paths.get(fileName));
+	}
+
+	/**
+	 * (U) This method is used to sort the rows and write the HTML file.
+	 */
+	@Override
+	public void close() throws IOException
+	{
+		if (closed)
+			return;
+		closed = true;
+
+		HtmlBuilder.sortValues(values);
+
+		try (OutputStream fos = (out != null) ? out : openStream(fileName, gzip);
+				Writer out = new BufferedWriter(new OutputStreamWriter(fos,
+						StandardCharsets.UTF_8), HtmlBuilder.BUFFER_SIZE))
+		{
+			htmlBuilder.writeHeaderHTML(orgSbomName, newSbomName, out);
+			htmlBuilder.writeTableHTML(values, out);
+		}
+		catch (SBomComparatorException e)
+		{
+			String error = "Failed to write output to file (HTML).";
+			logger.error(error, e);
+			throw new IOException(error, e);
+		}
+	}
+
+	@Override
+	public void componentAdded(CompareComponent component)
+	{
+		values.add(htmlBuilder.adaptComponent(component, HtmlBuilder.ADDED));
+	}
+
+	@Override
+	public void componentModified(ModifiedComponent component)
+	{
+		values.add(htmlBuilder.adaptComponent(component));
+	}
+
+	@Override
+	public void componentRemoved(CompareComponent component)
+	{
+		values.add(htmlBuilder.adaptComponent(component, HtmlBuilder.REMOVED));
+	}
+
+	/**
+	 * (U) This method is used to open an HTML file, gzipped if asked to.
+	 *
+	 * @param fileName String name of the file to open.
+	 * @param gzip     boolean true to gzip what is written.
+	 * @return OutputStream to write the HTML to.
+	 * @throws IOException in the event we are unable to open the file.
+	 */
+	static OutputStream openStream(String fileName, boolean gzip) throws IOException
+	{
+		OutputStream fos = new FileOutputStream(fileName);
+		if (gzip)
+		{
+			try
+			{
+				fos = new GZIPOutputStream(fos, HtmlBuilder.BUFFER_SIZE);
+			}
+			catch (IOException e)
+			{
+				fos.close();
+				throw e;
+			}
+		}
+		return fos;
+	}
+	
+	/**
+	 * (U) This method is used to get the name of the HTML file written.
+	 *
+	 * @return String the HTML file name, null when written to a stream.
+	 */
+	public String getFileName()
+	{
+		return fileName;
+	}
+}
@@ -0,0 +1,122 @@
+/*
+ * Copyright (c) 2018,2019 Lockheed Martin Corporation.
+ *
+ * This work is owned by Lockheed Martin Corporation. Lockheed Martin personnel are permitted to use and
+ * modify this software.  Lockheed Martin personnel may also deliver this source code to any US Government
+ * customer Agency under a "US Government Purpose Rights" license.
+ *
+ * See the LICENSE file distributed with this work for licensing and distribution terms
+ */
+package com.lmco.efoss.sbom.comparator.dtos;
+
+/**
+ * (U) This Data Transfer Object (DTO) holds the statistics of the compare server's admission
+ * control: its heap budget and how much of it is held now, how many compares are waiting for
+ * room, and how many were admitted, had to wait, or were turned away.
+ *
+ * @author wrgoff
+ * @since 19 October 2026
+ */
+public class AdmissionStats
+{
+	private long budget;
+	private long inUse;
+	private int waiting;
+	private long admitted;
+	private long queued;
+	private long rejected;
+
+	/**
+	 * (U) Base Constructor.
+	 */
+	public AdmissionStats()
+	{}
+
+	/**
+	 * (U) Convenience constructor.
+	 *
+	 * @param budget   long estimated heap, in bytes, the compares may hold at once.
+	 * @param inUse    long estimated heap, in bytes, held by the compares running now.
+	 * @param waiting  int number of compares waiting for room now.
+	 * @param admitted long number of compares admitted.
+	 * @param queued   long number of compares that had to wait for room.
+	 * @param rejected long number of compares turned away.
+	 */
+	public AdmissionStats(long budget, long inUse, int waiting, long admitted, long queued,
+			long rejected)
+	{
+		this.budget = budget;
+		this.inUse = inUse;
+		this.waiting = waiting;
+		this.admitted = admitted;
+		this.queued = queued;
+		this.rejected = rejected;
+	}
+
+	public long getAdmitted()
+	{
+		return admitted;
+	}
+
+	public long getBudget()
+	{
+		return budget;
+	}
+
+	public long getInUse()
+	{
+		return inUse;
+	}
+
+	public long getQueued()
+	{
+		return queued;
+	}
+
+	public long getRejected()
+	{
+		return rejected;
+	}
+
+	public int getWaiting()
+	{
+		return waiting;
+	}
+
+	public void setAdmitted(long admitted)
+	{
+		this.admitted = admitted;
+	}
+
+	public void setBudget(long budget)
+	{
+		this.budget = budget;
+	}
+
+	public void setInUse(long inUse)
+	{
+		this.inUse = inUse;
+	}
+
+	public void setQueued(long queued)
+	{
+		this.queued = queued;
+	}
+
+	public void setRejected(long rejected)
+	{
+		this.rejected = rejected;
+	}
+
+	public void setWaiting(int waiting)
+	{
+		this.waiting = waiting;
+	}
+
+	@Override
+	public String toString()
+	{
+		return admitted + " admitted, " + queued + " queued, " + rejected + " rejected, " +
+				waiting + " waiting, " + (inUse / 1024) + " of " + (budget / 1024) + " KB in use";
+	}
+}
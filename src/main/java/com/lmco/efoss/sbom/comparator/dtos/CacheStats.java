@@ -0,0 +1,122 @@
+/*
+ * Copyright (c) 2018,2019 Lockheed Martin Corporation.
+ *
+ * This work is owned by Lockheed Martin Corporation. Lockheed Martin personnel are permitted to use and
+ * modify this software.  Lockheed Martin personnel may also deliver this source code to any US Government
+ * customer Agency under a "US Government Purpose Rights" license.
+ *
+ * See the LICENSE file distributed with this work for licensing and distribution terms
+ */
+package com.lmco.efoss.sbom.comparator.dtos;
+
+/**
+ * (U) This Data Transfer Object (DTO) holds the statistics of the parsed SBom cache: how often an
+ * SBom was found in it and how often it had to be parsed, how many were dropped to make room,
+ * and how many it holds, and their estimated size, now.
+ *
+ * @author wrgoff
+ * @since 19 October 2026
+ */
+public class CacheStats
+{
+	private long hits;
+	private long misses;
+	private long evictions;
+	private int entries;
+	private long bytes;
+	private long maxBytes;
+
+	/**
+	 * (U) Base Constructor.
+	 */
+	public CacheStats()
+	{}
+
+	/**
+	 * (U) Convenience constructor.
+	 *
+	 * @param hits      long number of SBoms found in the cache.
+	 * @param misses    long number of SBoms parsed.
+	 * @param evictions long number of SBoms dropped to make room.
+	 * @param entries   int number of SBoms in the cache.
+	 * @param bytes     long estimated size of the SBoms in the cache.
+	 * @param maxBytes  long most the SBoms in the cache may take.
+	 */
+	public CacheStats(long hits, long misses, long evictions, int entries, long bytes,
+			long maxBytes)
+	{
+		this.hits = hits;
+		this.misses = misses;
+		this.evictions = evictions;
+		this.entries = entries;
+		this.bytes = bytes;
+		this.maxBytes = maxBytes;
+	}
+
+	public long getBytes()
+	{
+		return bytes;
+	}
+
+	public int getEntries()
+	{
+		return entries;
+	}
+
+	public long getEvictions()
+	{
+		return evictions;
+	}
+
+	public long getHits()
+	{
+		return hits;
+	}
+
+	public long getMaxBytes()
+	{
+		return maxBytes;
+	}
+
+	public long getMisses()
+	{
+		return misses;
+	}
+
+	public void setBytes(long bytes)
+	{
+		this.bytes = bytes;
+	}
+
+	public void setEntries(int entries)
+	{
+		this.entries = entries;
+	}
+
+	public void setEvictions(long evictions)
+	{
+		this.evictions = evictions;
+	}
+
+	public void setHits(long hits)
+	{
+		this.hits = hits;
+	}
+
+	public void setMaxBytes(long maxBytes)
+	{
+		this.maxBytes = maxBytes;
+	}
+
+	public void setMisses(long misses)
+	{
+		this.misses = misses;
+	}
+
+	@Override
+	public String toString()
+	{
+		return hits + " hits, " + misses + " misses, " + evictions + " evictions, " + entries +
+				" SBoms in " + (bytes / 1024) + " of " + (maxBytes / 1024) + " KB";
+	}
+}
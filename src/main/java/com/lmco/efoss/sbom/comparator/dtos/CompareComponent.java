@@ -10,6 +10,13 @@
 package com.lmco.efoss.sbom.comparator.dtos;
 
 import java.io.Serializable;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import org.cyclonedx.model.Property;
 
 /**
  * (U) This Data Transfer Object (DTO) is used so the "component" appears correctly in our XML/JSon.
@@ -21,6 +28,9 @@ public class CompareComponent implements Serializable
 {
 	private static final long serialVersionUID = 7302698178952661549L;
 	private org.cyclonedx.model.Component component;
+	
+	// Property values by normalized name, built the first time a property is looked up.
+	private transient Map<String, String> propertyIndex = null;
 
 	/**
 	 * (U) Base Constructor.
@@ -49,6 +59,65 @@ public class CompareComponent implements Serializable
 		return component;
 	}
 
+	/**
+	 * (U) This method is used to get the value of one of the component's properties. Names are
+	 * matched ignoring case, spaces, underscores and dashes, so "efossStatus" finds "efoss status".
+	 * The component's properties are indexed once, on the first look up.
+	 * 
+	 * @param name String name of the property.
+	 * @return String the value of the first property with that name, null if there is none.
+	 */
+	public String getPropertyValue(String name)
+	{
+		if (propertyIndex == null)
+			propertyIndex = indexProperties(component);
+		return propertyIndex.get(normalizePropertyName(name));
+	}
+	
+	/**
+	 * (U) This method is used to normalize a property name for look ups, lower case without
+	 * spaces, underscores or dashes.
+	 * 
+	 * @param name String property name.
+	 * @return String the normalized name, empty for null.
+	 */
+	public static String normalizePropertyName(String name)
+	{
+		if (name == null)
+			return "";
+		
+		StringBuilder normalized = new StringBuilder(name.length());
+		for (int i = 0; i < name.length(); i++)
+		{
+			char ch = name.charAt(i);
+			if ((!Character.isWhitespace(ch)) && (ch != '_') && (ch != '-'))
+				normalized.append(ch);
+		}
+		return normalized.toString().toLowerCase(Locale.ENGLISH);
+	}
+	
+	/**
+	 * (U) This method is used to index a component's properties by normalized name. When a name
+	 * appears more than once the first value is kept.
+	 * 
+	 * @param component Cyclone DX Component to index the properties of, may be null.
+	 * @return Map of normalized property name to value.
+	 */
+	private static Map<String, String> indexProperties(org.cyclonedx.model.Component component)
+	{
+		List<Property> properties = (component == null) ? null : component.getProperties();
+		if ((properties == null) || (properties.isEmpty()))
+			return Collections.emptyMap();
+		
+		Map<String, String> index = new HashMap<>();
+		for (Property property : properties)
+		{
+			if (property.getName() != null)
+				index.putIfAbsent(normalizePropertyName(property.getName()), property.getValue());
+		}
+		return index;
+	}
+	
 	/**
 	 * (U) This method is used to set the Cyclone DX Component.
 	 * 
@@ -57,5 +126,6 @@ public class CompareComponent implements Serializable
 	public void setComponent(org.cyclonedx.model.Component innerComponent)
 	{
 		this.component = innerComponent;
+		this.propertyIndex = null;
 	}
 }
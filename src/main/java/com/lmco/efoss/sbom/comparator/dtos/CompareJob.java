@@ -0,0 +1,74 @@
+/*
+ * Copyright (c) 2018,2019 Lockheed Martin Corporation.
+ *
+ * This work is owned by Lockheed Martin Corporation. Lockheed Martin personnel are permitted to use and
+ * modify this software.  Lockheed Martin personnel may also deliver this source code to any US Government
+ * customer Agency under a "US Government Purpose Rights" license.
+ *
+ * See the LICENSE file distributed with this work for licensing and distribution terms
+ */
+package com.lmco.efoss.sbom.comparator.dtos;
+
+/**
+ * (U) This Data Transfer Object (DTO) is one line of a manifest: the two SBoms to compare, and the
+ * name to write the outputs of the compare to.
+ *
+ * @author wrgoff
+ * @since 19 October 2026
+ */
+public class CompareJob
+{
+	private String orgSbom;
+	private String newSbom;
+	private String output;
+
+	/**
+	 * (U) Base Constructor.
+	 */
+	public CompareJob()
+	{}
+
+	/**
+	 * (U) Convenience constructor.
+	 *
+	 * @param orgSbom String name of the original SBom file.
+	 * @param newSbom String name of the new SBom file.
+	 * @param output  String name to write the outputs to, without an extension; may be null.
+	 */
+	public CompareJob(String orgSbom, String newSbom, String output)
+	{
+		this.orgSbom = orgSbom;
+		this.newSbom = newSbom;
+		this.output = output;
+	}
+
+	public String getNewSbom()
+	{
+		return newSbom;
+	}
+
+	public String getOrgSbom()
+	{
+		return orgSbom;
+	}
+
+	public String getOutput()
+	{
+		return output;
+	}
+
+	public void setNewSbom(String newSbom)
+	{
+		this.newSbom = newSbom;
+	}
+
+	public void setOrgSbom(String orgSbom)
+	{
+		this.orgSbom = orgSbom;
+	}
+
+	public void setOutput(String output)
+	{
+		this.output = output;
+	}
+}
@@ -0,0 +1,190 @@
+/*
+ * Copyright (c) 2018,2019 Lockheed Martin Corporation.
+ *
+ * This work is owned by Lockheed Martin Corporation. Lockheed Martin personnel are permitted to use and
+ * modify this software.  Lockheed Martin personnel may also deliver this source code to any US Government
+ * customer Agency under a "US Government Purpose Rights" license.
+ *
+ * See the LICENSE file distributed with this work for licensing and distribution terms
+ */
+package com.lmco.efoss.sbom.comparator.dtos;
+
+/**
+ * (U) This Data Transfer Object (DTO) is a compare submitted to the compare server to run in the
+ * background: its id, where it is (queued, running, done or failed), the SBoms it compares and
+ * the formats of its outputs, when it was submitted and finished, and, once done, the number of
+ * components added, removed and modified, or, once failed, the error.
+ *
+ * @author wrgoff
+ * @since 19 October 2026
+ */
+public class CompareJobStatus
+{
+	public enum STATUS
+	{
+		QUEUED, RUNNING, DONE, FAILED
+	}
+	private String id;
+	private STATUS status;
+	private String orgSbom;
+	private String newSbom;
+	private String format;
+	private String bomFormat;
+	private String mode;
+	private String submitted;
+	private String finished;
+	private long added;
+	private long removed;
+	private long modified;
+	private String error;
+
+	/**
+	 * (U) Base Constructor.
+	 */
+	public CompareJobStatus()
+	{}
+
+	/**
+	 * (U) Convenience constructor.
+	 *
+	 * @param id      String id of the job.
+	 * @param orgSbom String name of the original SBom.
+	 * @param newSbom String name of the new SBom.
+	 */
+	public CompareJobStatus(String id, String orgSbom, String newSbom)
+	{
+		this.id = id;
+		this.orgSbom = orgSbom;
+		this.newSbom = newSbom;
+	}
+
+	public long getAdded()
+	{
+		return added;
+	}
+
+	public String getBomFormat()
+	{
+		return bomFormat;
+	}
+
+	public String getError()
+	{
+		return error;
+	}
+
+	public String getFinished()
+	{
+		return finished;
+	}
+
+	public String getFormat()
+	{
+		return format;
+	}
+
+	public String getId()
+	{
+		return id;
+	}
+
+	public String getMode()
+	{
+		return mode;
+	}
+
+	public long getModified()
+	{
+		return modified;
+	}
+
+	public String getNewSbom()
+	{
+		return newSbom;
+	}
+
+	public String getOrgSbom()
+	{
+		return orgSbom;
+	}
+
+	public long getRemoved()
+	{
+		return removed;
+	}
+
+	public STATUS getStatus()
+	{
+		return status;
+	}
+
+	public String getSubmitted()
+	{
+		return submitted;
+	}
+
+	public void setAdded(long added)
+	{
+		this.added = added;
+	}
+
+	public void setBomFormat(String bomFormat)
+	{
+		this.bomFormat = bomFormat;
+	}
+
+	public void setError(String error)
+	{
+		this.error = error;
+	}
+
+	public void setFinished(String finished)
+	{
+		this.finished = finished;
+	}
+
+	public void setFormat(String format)
+	{
+		this.format = format;
+	}
+
+	public void setId(String id)
+	{
+		this.id = id;
+	}
+
+	public void setMode(String mode)
+	{
+		this.mode = mode;
+	}
+
+	public void setModified(long modified)
+	{
+		this.modified = modified;
+	}
+
+	public void setNewSbom(String newSbom)
+	{
+		this.newSbom = newSbom;
+	}
+
+	public void setOrgSbom(String orgSbom)
+	{
+		this.orgSbom = orgSbom;
+	}
+
+	public void setRemoved(long removed)
+	{
+		this.removed = removed;
+	}
+
+	public void setStatus(STATUS status)
+	{
+		this.status = status;
+	}
+
+	public void setSubmitted(String submitted)
+	{
+		this.submitted = submitted;
+	}
+}
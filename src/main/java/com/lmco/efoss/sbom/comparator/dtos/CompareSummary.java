@@ -0,0 +1,135 @@
+/*
+ * Copyright (c) 2018,2019 Lockheed Martin Corporation.
+ *
+ * This work is owned by Lockheed Martin Corporation. Lockheed Martin personnel are permitted to use and
+ * modify this software.  Lockheed Martin personnel may also deliver this source code to any US Government
+ * customer Agency under a "US Government Purpose Rights" license.
+ *
+ * See the LICENSE file distributed with this work for licensing and distribution terms
+ */
+package com.lmco.efoss.sbom.comparator.dtos;
+
+/**
+ * (U) This Data Transfer Object (DTO) holds the outcome of one compare in a run that compares
+ * many SBoms: which SBoms were compared, the name of its output, whether it worked, and
+ * the number of components added, removed and modified.
+ *
+ * @author wrgoff
+ * @since 19 October 2026
+ */
+public class CompareSummary
+{
+	public enum STATUS
+	{
+		COMPARED, FAILED
+	}
+
+	private String orgSbom;
+	private String newSbom;
+	private String output;
+	private STATUS status;
+	private long added;
+	private long removed;
+	private long modified;
+	private String error;
+
+	/**
+	 * (U) Base Constructor.
+	 */
+	public CompareSummary()
+	{}
+
+	/**
+	 * (U) Convenience constructor.
+	 *
+	 * @param orgSbom String name of the original SBom.
+	 * @param newSbom String name of the new SBom.
+	 * @param output  String name of this compare's diff output file, without its extension.
+	 */
+	public CompareSummary(String orgSbom, String newSbom, String output)
+	{
+		this.orgSbom = orgSbom;
+		this.newSbom = newSbom;
+		this.output = output;
+	}
+
+	public long getAdded()
+	{
+		return added;
+	}
+
+	public String getError()
+	{
+		return error;
+	}
+
+	public long getModified()
+	{
+		return modified;
+	}
+
+	public String getNewSbom()
+	{
+		return newSbom;
+	}
+
+	public String getOrgSbom()
+	{
+		return orgSbom;
+	}
+
+	public String getOutput()
+	{
+		return output;
+	}
+
+	public long getRemoved()
+	{
+		return removed;
+	}
+
+	public STATUS getStatus()
+	{
+		return status;
+	}
+
+	public void setAdded(long added)
+	{
+		this.added = added;
+	}
+
+	public void setError(String error)
+	{
+		this.error = error;
+	}
+
+	public void setModified(long modified)
+	{
+		this.modified = modified;
+	}
+
+	public void setNewSbom(String newSbom)
+	{
+		this.newSbom = newSbom;
+	}
+
+	public void setOrgSbom(String orgSbom)
+	{
+		this.orgSbom = orgSbom;
+	}
+
+	public void setOutput(String output)
+	{
+		this.output = output;
+	}
+
+	public void setRemoved(long removed)
+	{
+		this.removed = removed;
+	}
+
+	public void setStatus(STATUS status)
+	{
+		this.status = status;
+	}
+}
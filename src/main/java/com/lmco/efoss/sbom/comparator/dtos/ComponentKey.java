@@ -0,0 +1,152 @@
+/*
+ * Copyright (c) 2018,2019 Lockheed Martin Corporation.
+ *
+ * This work is owned by Lockheed Martin Corporation. Lockheed Martin personnel are permitted to use and
+ * modify this software.  Lockheed Martin personnel may also deliver this source code to any US Government
+ * customer Agency under a "US Government Purpose Rights" license.
+ *
+ * See the LICENSE file distributed with this work for licensing and distribution terms
+ */
+package com.lmco.efoss.sbom.comparator.dtos;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+import org.cyclonedx.model.Component;
+
+/**
+ * (U) This Data Transfer Object (DTO) is the identity of a component within an SBom. Two components
+ * are the same artifact when their Name and Group match, exactly as
+ * SBomCompareUtils.componentsEqual defines it. The version is NOT part of the key.
+ *
+ * @author wrgoff
+ * @since 19 October 2026
+ */
+public final class ComponentKey implements Serializable, Comparable<ComponentKey>
+{
+	private static final long serialVersionUID = -2484016377329957180L;
+
+	private final String group;
+	private final String name;
+	private final int hash;
+
+	/**
+	 * (U) Constructor.
+	 *
+	 * @param group String group (namespace) of the component, may be null.
+	 * @param name  String name of the component, may be null.
+	 */
+	public ComponentKey(String group, String name)
+	{
+		this.group = group;
+		this.name = name;
+		this.hash = Objects.hash(group, name);
+	}
+
+	/**
+	 * (U) Convenience method used to create the key of the component passed in.
+	 *
+	 * @param component Component to build the key for.
+	 * @return ComponentKey the identity of the component passed in.
+	 */
+	public static ComponentKey of(Component component)
+	{
+		return new ComponentKey(component.getGroup(), component.getName());
+	}
+
+	/**
+	 * (U) This method is used to parse a key in the form produced by toString, "group:name" or
+	 * just "name" when the component has no group; ":name" is a component with an empty group.
+	 *
+	 * @param key String value to parse.
+	 * @return ComponentKey the key represented by the String passed in.
+	 */
+	public static ComponentKey parse(String key)
+	{
+		int index = key.lastIndexOf(':');
+		if (index < 0)
+			return new ComponentKey(null, key);
+		return new ComponentKey(key.substring(0, index), key.substring(index + 1));
+	}
+
+	@Override
+	public int compareTo(ComponentKey o)
+	{
+		int result = compareNullable(this.group, o.group);
+		if (result == 0)
+			result = compareNullable(this.name, o.name);
+		return result;
+	}
+
+	@Override
+	public boolean equals(Object o)
+	{
+		boolean same = false;
+
+		if (this == o)
+			same = true;
+		else if (o instanceof ComponentKey)
+		{
+			ComponentKey other = (ComponentKey) o;
+			same = (hash == other.hash) && Objects.equals(group, other.group) &&
+					Objects.equals(name, other.name);
+		}
+		return same;
+	}
+
+	/**
+	 * (U) This method is used to get the group of the component.
+	 *
+	 * @return String the group, may be null.
+	 */
+	public String getGroup()
+	{
+		return group;
+	}
+
+	/**
+	 * (U) This method is used to get the name of the component.
+	 *
+	 * @return String the name, may be null.
+	 */
+	public String getName()
+	{
+		return name;
+	}
+
+	@Override
+	public int hashCode()
+	{
+		return hash;
+	}
+
+	/**
+	 * (U) Method used to printout the key as "group:name", or just "name" if there is no group,
+	 * so an empty group prints as ":name", and parse gives back the same key.
+	 *
+	 * @return String nice readable string value of this key.
+	 */
+	@Override
+	public String toString()
+	{
+		if (group == null)
+			return String.valueOf(name);
+		return group + ":" + name;
+	}
+
+	/**
+	 * (U) Null safe compare, nulls sort first.
+	 *
+	 * @param str1 String 1 to compare.
+	 * @param str2 String 2 to compare.
+	 * @return int the result of the comparison.
+	 */
+	private static int compareNullable(String str1, String str2)
+	{
+		if (str1 == null)
+			return (str2 == null) ? 0 : -1;
+		if (str2 == null)
+			return 1;
+		return str1.compareTo(str2);
+	}
+}
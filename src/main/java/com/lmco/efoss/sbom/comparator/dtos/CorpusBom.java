@@ -0,0 +1,108 @@
+/*
+ * Copyright (c) 2018,2019 Lockheed Martin Corporation.
+ *
+ * This work is owned by Lockheed Martin Corporation. Lockheed Martin personnel are permitted to use and
+ * modify this software.  Lockheed Martin personnel may also deliver this source code to any US Government
+ * customer Agency under a "US Government Purpose Rights" license.
+ *
+ * See the LICENSE file distributed with this work for licensing and distribution terms
+ */
+package com.lmco.efoss.sbom.comparator.dtos;
+
+/**
+ * (U) This Data Transfer Object (DTO) is one SBom file as recorded in the corpus index: its id in
+ * the index, where it is, the size and last modified time it had when it was indexed, and the
+ * number of components it held. A file that has since been deleted is recorded again, as removed.
+ *
+ * @author wrgoff
+ * @since 19 October 2026
+ */
+public class CorpusBom
+{
+	private long id;
+	private String path;
+	private long size;
+	private long modified;
+	private int components;
+	private boolean removed;
+
+	/**
+	 * (U) Base Constructor.
+	 */
+	public CorpusBom()
+	{}
+
+	/**
+	 * (U) Convenience constructor.
+	 *
+	 * @param path     String path of the SBom file.
+	 * @param size     long size of the file, in bytes.
+	 * @param modified long time the file was last modified, in milliseconds.
+	 */
+	public CorpusBom(String path, long size, long modified)
+	{
+		this.path = path;
+		this.size = size;
+		this.modified = modified;
+	}
+
+	public int getComponents()
+	{
+		return components;
+	}
+
+	public long getId()
+	{
+		return id;
+	}
+
+	public long getModified()
+	{
+		return modified;
+	}
+
+	public String getPath()
+	{
+		return path;
+	}
+
+	public long getSize()
+	{
+		return size;
+	}
+
+	public boolean isRemoved()
+	{
+		return removed;
+	}
+
+	public void setComponents(int components)
+	{
+		this.components = components;
+	}
+
+	public void setId(long id)
+	{
+		this.id = id;
+	}
+
+	public void setModified(long modified)
+	{
+		this.modified = modified;
+	}
+
+	public void setPath(String path)
+	{
+		this.path = path;
+	}
+
+	public void setRemoved(boolean removed)
+	{
+		this.removed = removed;
+	}
+
+	public void setSize(long size)
+	{
+		this.size = size;
+	}
+}
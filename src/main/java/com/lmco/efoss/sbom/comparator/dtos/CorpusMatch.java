@@ -0,0 +1,74 @@
+/*
+ * Copyright (c) 2018,2019 Lockheed Martin Corporation.
+ *
+ * This work is owned by Lockheed Martin Corporation. Lockheed Martin personnel are permitted to use and
+ * modify this software.  Lockheed Martin personnel may also deliver this source code to any US Government
+ * customer Agency under a "US Government Purpose Rights" license.
+ *
+ * See the LICENSE file distributed with this work for licensing and distribution terms
+ */
+package com.lmco.efoss.sbom.comparator.dtos;
+
+/**
+ * (U) This Data Transfer Object (DTO) is one answer to a corpus query: an SBom file that holds
+ * the component, and the version it holds.
+ *
+ * @author wrgoff
+ * @since 19 October 2026
+ */
+public class CorpusMatch
+{
+	private String sbom;
+	private String component;
+	private String version;
+
+	/**
+	 * (U) Base Constructor.
+	 */
+	public CorpusMatch()
+	{}
+
+	/**
+	 * (U) Convenience constructor.
+	 *
+	 * @param sbom      String path of the SBom file.
+	 * @param component String key of the component, "group:name".
+	 * @param version   String version of the component in the SBom, may be null.
+	 */
+	public CorpusMatch(String sbom, String component, String version)
+	{
+		this.sbom = sbom;
+		this.component = component;
+		this.version = version;
+	}
+
+	public String getComponent()
+	{
+		return component;
+	}
+
+	public String getSbom()
+	{
+		return sbom;
+	}
+
+	public String getVersion()
+	{
+		return version;
+	}
+
+	public void setComponent(String component)
+	{
+		this.component = component;
+	}
+
+	public void setSbom(String sbom)
+	{
+		this.sbom = sbom;
+	}
+
+	public void setVersion(String version)
+	{
+		this.version = version;
+	}
+}
@@ -0,0 +1,282 @@
+/*
+ * Copyright (c) 2018,2019, 2020, 2021 Lockheed Martin Corporation.
+ *
+ * This work is owned by Lockheed Martin Corporation. Lockheed Martin personnel are permitted to use and
+ * modify this software.  Lockheed Martin personnel may also deliver this source code to any US Government
+ * customer Agency under a "US Government Purpose Rights" license.
+ *
+ * See the LICENSE file distributed with this work for licensing and distribution terms
+ */
+package com.lmco.efoss.sbom.comparator.dtos;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import org.cyclonedx.model.Component;
+import org.cyclonedx.model.Evidence;
+import org.cyclonedx.model.ExtensibleType;
+import org.cyclonedx.model.Extension;
+import org.cyclonedx.model.ExternalReference;
+import org.cyclonedx.model.Hash;
+import org.cyclonedx.model.LicenseChoice;
+import org.cyclonedx.model.OrganizationalEntity;
+import org.cyclonedx.model.Pedigree;
+import org.cyclonedx.model.Property;
+import org.cyclonedx.model.Swid;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+/**
+ * (U) This class is a read-only view of a component as it appears in the diff SBom. Every value
+ * is read from the wrapped component, with the "diff reason" property appended to its properties,
+ * so the original component is never modified. The setters inherited from Component have no
+ * effect on what this view serializes.
+ *
+ * @author wrgoff
+ * @since 19 October 2026
+ */
+public class DiffBomComponent extends Component
+{
+	public static final String DIFF_REASON = "diff reason";
+
+	private final Component component;
+	private final String diffReason;
+
+	/**
+	 * (U) Constructor.
+	 *
+	 * @param component  Component to present in the diff SBom.
+	 * @param diffReason String value of the diff reason property, such as "added" or "modified".
+	 */
+	public DiffBomComponent(Component component, String diffReason)
+	{
+		super();
+		this.component = component;
+		this.diffReason = diffReason;
+	}
+
+	/**
+	 * (U) This method is used to get the component this view wraps.
+	 *
+	 * @return Component the original component.
+	 */
+	@JsonIgnore
+	public Component getComponent()
+	{
+		return component;
+	}
+
+	/**
+	 * (U) This method is used to get the reason this component is in the diff SBom.
+	 *
+	 * @return String the diff reason.
+	 */
+	@JsonIgnore
+	public String getDiffReason()
+	{
+		return diffReason;
+	}
+
+	@Override
+	public String getAuthor()
+	{
+		return component.getAuthor();
+	}
+
+	@Override
+	public String getBomRef()
+	{
+		return component.getBomRef();
+	}
+
+	@Override
+	public List<Component> getComponents()
+	{
+		return component.getComponents();
+	}
+
+	@Override
+	public String getCopyright()
+	{
+		return component.getCopyright();
+	}
+
+	// CPE is deprecated in CycloneDX, but the original components still carry it, and the diff
+	// SBom must show them as they are, so the view still passes it through.
+	@Override
+	@SuppressWarnings("deprecation")
+	public String getCpe()
+	{
+		return component.getCpe();
+	}
+
+	@Override
+	public String getDescription()
+	{
+		return component.getDescription();
+	}
+
+	@Override
+	public Evidence getEvidence()
+	{
+		return component.getEvidence();
+	}
+
+	@Override
+	public List<ExtensibleType> getExtensibleTypes()
+	{
+		return component.getExtensibleTypes();
+	}
+
+	@Override
+	public Map<String, Extension> getExtensions()
+	{
+		return component.getExtensions();
+	}
+
+	/**
+	 * (U) The diff SBom has always carried an external references list, even an empty one.
+	 *
+	 * @return List of the component's external references, never null.
+	 */
+	@Override
+	public List<ExternalReference> getExternalReferences()
+	{
+		List<ExternalReference> references = component.getExternalReferences();
+		if (references == null)
+			references = Collections.emptyList();
+		return references;
+	}
+
+	@Override
+	public String getGroup()
+	{
+		return component.getGroup();
+	}
+
+	@Override
+	public List<Hash> getHashes()
+	{
+		return component.getHashes();
+	}
+
+	@Override
+	public LicenseChoice getLicenseChoice()
+	{
+		return component.getLicenseChoice();
+	}
+
+	@Override
+	public String getMimeType()
+	{
+		return component.getMimeType();
+	}
+
+	@Override
+	public Boolean getModified()
+	{
+		return component.getModified();
+	}
+
+	@Override
+	public String getName()
+	{
+		return component.getName();
+	}
+
+	@Override
+	public Pedigree getPedigree()
+	{
+		return component.getPedigree();
+	}
+
+	/**
+	 * (U) This method is used to get the component's properties, followed by the diff reason.
+	 *
+	 * @return List of Properties, a new list each time.
+	 */
+	@Override
+	public List<Property> getProperties()
+	{
+		List<Property> original = component.getProperties();
+
+		List<Property> properties = new ArrayList<>((original == null) ? 1 : original.size() + 1);
+		if (original != null)
+			properties.addAll(original);
+
+		Property diffProp = new Property();
+		diffProp.setName(DIFF_REASON);
+		diffProp.setValue(diffReason);
+		properties.add(diffProp);
+
+		return properties;
+	}
+
+	@Override
+	public String getPublisher()
+	{
+		return component.getPublisher();
+	}
+
+	@Override
+	public String getPurl()
+	{
+		return component.getPurl();
+	}
+
+	@Override
+	public Scope getScope()
+	{
+		return component.getScope();
+	}
+
+	@Override
+	public OrganizationalEntity getSupplier()
+	{
+		return component.getSupplier();
+	}
+
+	@Override
+	public Swid getSwid()
+	{
+		return component.getSwid();
+	}
+
+	@Override
+	public Type getType()
+	{
+		return component.getType();
+	}
+
+	@Override
+	public String getVersion()
+	{
+		return component.getVersion();
+	}
+
+	@Override
+	public Boolean isModified()
+	{
+		return component.isModified();
+	}
+
+	@Override
+	public boolean equals(Object o)
+	{
+		boolean same = false;
+		if (o instanceof DiffBomComponent)
+		{
+			DiffBomComponent other = (DiffBomComponent) o;
+			same = component.equals(other.component) && diffReason.equals(other.diffReason);
+		}
+		return same;
+	}
+
+	@Override
+	public int hashCode()
+	{
+		return (31 * component.hashCode()) + diffReason.hashCode();
+	}
+}
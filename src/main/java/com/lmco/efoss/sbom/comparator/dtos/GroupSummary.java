@@ -0,0 +1,132 @@
+/*
+ * Copyright (c) 2018,2019 Lockheed Martin Corporation.
+ *
+ * This work is owned by Lockheed Martin Corporation. Lockheed Martin personnel are permitted to use and
+ * modify this software.  Lockheed Martin personnel may also deliver this source code to any US Government
+ * customer Agency under a "US Government Purpose Rights" license.
+ *
+ * See the LICENSE file distributed with this work for licensing and distribution terms
+ */
+package com.lmco.efoss.sbom.comparator.dtos;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * (U) This Data Transfer Object (DTO) holds the differences of one group (namespace) for the
+ * grouped HTML report: the number of components added, removed and modified, how many of them
+ * carry each license and each EFoss status, and the rows themselves.
+ *
+ * @author wrgoff
+ * @since 19 October 2026
+ */
+public class GroupSummary
+{
+	public static final String NONE = "(none)";
+
+	private final String group;
+	private final Map<String, Long> efossStatuses = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+	private final Map<String, Long> licenses = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+	private final List<HtmlTableValue> rows = new ArrayList<>();
+
+	private long added = 0;
+	private long modified = 0;
+	private long removed = 0;
+
+	/**
+	 * (U) Constructor.
+	 *
+	 * @param group String name of the group, empty for components without one.
+	 */
+	public GroupSummary(String group)
+	{
+		this.group = (group == null) ? "" : group;
+	}
+
+	/**
+	 * (U) This method is used to add a row to the group, counting its status, license and EFoss
+	 * status.
+	 *
+	 * @param value HtmlTableValue the row to add.
+	 */
+	public void add(HtmlTableValue value)
+	{
+		switch (value.getStatus())
+		{
+			case "Added":
+				added++;
+				break;
+			case "Removed":
+				removed++;
+				break;
+			default:
+				modified++;
+				break;
+		}
+		count(licenses, value.getLicense());
+		count(efossStatuses, value.getEfossStatus());
+		rows.add(value);
+	}
+
+	public long getAdded()
+	{
+		return added;
+	}
+
+	/**
+	 * (U) This method is used to get the number of components with each EFoss status, those
+	 * without one are counted as "(none)".
+	 *
+	 * @return Map of EFoss status to the number of components, ordered by status.
+	 */
+	public Map<String, Long> getEfossStatuses()
+	{
+		return efossStatuses;
+	}
+
+	public String getGroup()
+	{
+		return group;
+	}
+
+	/**
+	 * (U) This method is used to get the number of components with each license, those without
+	 * one are counted as "(none)".
+	 *
+	 * @return Map of license to the number of components, ordered by license.
+	 */
+	public Map<String, Long> getLicenses()
+	{
+		return licenses;
+	}
+
+	public long getModified()
+	{
+		return modified;
+	}
+
+	public long getRemoved()
+	{
+		return removed;
+	}
+
+	public List<HtmlTableValue> getRows()
+	{
+		return rows;
+	}
+
+	/**
+	 * (U) This method is used to add one to the count of the key passed in.
+	 *
+	 * @param counts Map of the counts.
+	 * @param key    String key to count, "(none)" is counted when it is null or empty.
+	 */
+	private static void count(Map<String, Long> counts, String key)
+	{
+		if ((key == null) || (key.trim().isEmpty()))
+			key = NONE;
+		counts.merge(key, 1L, Long::sum);
+	}
+}
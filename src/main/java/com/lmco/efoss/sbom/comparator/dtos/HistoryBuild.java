@@ -0,0 +1,131 @@
+/*
+ * Copyright (c) 2018,2019 Lockheed Martin Corporation.
+ *
+ * This work is owned by Lockheed Martin Corporation. Lockheed Martin personnel are permitted to use and
+ * modify this software.  Lockheed Martin personnel may also deliver this source code to any US Government
+ * customer Agency under a "US Government Purpose Rights" license.
+ *
+ * See the LICENSE file distributed with this work for licensing and distribution terms
+ */
+package com.lmco.efoss.sbom.comparator.dtos;
+
+/**
+ * (U) This Data Transfer Object (DTO) is one compare recorded in the diff history: the product,
+ * the build (SBom serial number and version) that was compared to the build before it, and the
+ * number of components added, removed and modified. The sequence is the position of the compare
+ * in the history, counting from 1, and orders the compares of every product.
+ *
+ * @author wrgoff
+ * @since 19 October 2026
+ */
+public class HistoryBuild
+{
+	private long sequence;
+	private String product;
+	private String build;
+	private String previousBuild;
+	private String recorded;
+	private long added;
+	private long removed;
+	private long modified;
+
+	/**
+	 * (U) Base Constructor.
+	 */
+	public HistoryBuild()
+	{}
+
+	/**
+	 * (U) Convenience constructor.
+	 *
+	 * @param product       String name of the product the SBoms describe.
+	 * @param build         String identity of the new SBom.
+	 * @param previousBuild String identity of the original SBom.
+	 */
+	public HistoryBuild(String product, String build, String previousBuild)
+	{
+		this.product = product;
+		this.build = build;
+		this.previousBuild = previousBuild;
+	}
+
+	public long getAdded()
+	{
+		return added;
+	}
+
+	public String getBuild()
+	{
+		return build;
+	}
+
+	public long getModified()
+	{
+		return modified;
+	}
+
+	public String getPreviousBuild()
+	{
+		return previousBuild;
+	}
+
+	public String getProduct()
+	{
+		return product;
+	}
+
+	public String getRecorded()
+	{
+		return recorded;
+	}
+
+	public long getRemoved()
+	{
+		return removed;
+	}
+
+	public long getSequence()
+	{
+		return sequence;
+	}
+
+	public void setAdded(long added)
+	{
+		this.added = added;
+	}
+
+	public void setBuild(String build)
+	{
+		this.build = build;
+	}
+
+	public void setModified(long modified)
+	{
+		this.modified = modified;
+	}
+
+	public void setPreviousBuild(String previousBuild)
+	{
+		this.previousBuild = previousBuild;
+	}
+
+	public void setProduct(String product)
+	{
+		this.product = product;
+	}
+
+	public void setRecorded(String recorded)
+	{
+		this.recorded = recorded;
+	}
+
+	public void setRemoved(long removed)
+	{
+		this.removed = removed;
+	}
+
+	public void setSequence(long sequence)
+	{
+		this.sequence = sequence;
+	}
+}
@@ -0,0 +1,121 @@
+/*
+ * Copyright (c) 2018,2019 Lockheed Martin Corporation.
+ *
+ * This work is owned by Lockheed Martin Corporation. Lockheed Martin personnel are permitted to use and
+ * modify this software.  Lockheed Martin personnel may also deliver this source code to any US Government
+ * customer Agency under a "US Government Purpose Rights" license.
+ *
+ * See the LICENSE file distributed with this work for licensing and distribution terms
+ */
+package com.lmco.efoss.sbom.comparator.dtos;
+
+/**
+ * (U) This Data Transfer Object (DTO) is one component change recorded in the diff history: which
+ * compare (sequence, product and build) it was found in, the component, and how it changed.
+ *
+ * @author wrgoff
+ * @since 19 October 2026
+ */
+public class HistoryEntry
+{
+	private long sequence;
+	private String product;
+	private String build;
+	private String component;
+	private String change;
+	private String previousVersion;
+	private String newVersion;
+
+	/**
+	 * (U) Base Constructor.
+	 */
+	public HistoryEntry()
+	{}
+
+	/**
+	 * (U) Convenience constructor.
+	 *
+	 * @param component       String key of the component, "group:name".
+	 * @param change          String the type of change, added, removed or modified.
+	 * @param previousVersion String version in the original SBom, null if added.
+	 * @param newVersion      String version in the new SBom, null if removed.
+	 */
+	public HistoryEntry(String component, String change, String previousVersion,
+			String newVersion)
+	{
+		this.component = component;
+		this.change = change;
+		this.previousVersion = previousVersion;
+		this.newVersion = newVersion;
+	}
+
+	public String getBuild()
+	{
+		return build;
+	}
+
+	public String getChange()
+	{
+		return change;
+	}
+
+	public String getComponent()
+	{
+		return component;
+	}
+
+	public String getNewVersion()
+	{
+		return newVersion;
+	}
+
+	public String getPreviousVersion()
+	{
+		return previousVersion;
+	}
+
+	public String getProduct()
+	{
+		return product;
+	}
+
+	public long getSequence()
+	{
+		return sequence;
+	}
+
+	public void setBuild(String build)
+	{
+		this.build = build;
+	}
+
+	public void setChange(String change)
+	{
+		this.change = change;
+	}
+
+	public void setComponent(String component)
+	{
+		this.component = component;
+	}
+
+	public void setNewVersion(String newVersion)
+	{
+		this.newVersion = newVersion;
+	}
+
+	public void setPreviousVersion(String previousVersion)
+	{
+		this.previousVersion = previousVersion;
+	}
+
+	public void setProduct(String product)
+	{
+		this.product = product;
+	}
+
+	public void setSequence(long sequence)
+	{
+		this.sequence = sequence;
+	}
+}
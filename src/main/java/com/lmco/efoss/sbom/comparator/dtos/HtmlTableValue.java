@@ -9,13 +9,17 @@
  */
 package com.lmco.efoss.sbom.comparator.dtos;
 
+import java.util.Collections;
+import java.util.List;
 import java.util.Locale;
-
-import org.apache.commons.lang3.StringUtils;
+import java.util.Objects;
 
 /**
  * (U) This Data Transfer Object (DTO) is used so the HTML file can be created.
  * 
+ * Rows are ordered by status, then group, then name, then version (new, then old), ignoring case.
+ * The lower case sort keys are computed once, when the values are set, not on every comparison.
+ * 
  * @author e275735
  * @since 23 September 2020
  */
@@ -24,29 +28,45 @@ public class HtmlTableValue implements Comparable<HtmlTableValue>
 	
 	private String efossStatus;
 	private String group;
+	private String license;
 	private String name;
+	private List<String> properties = Collections.emptyList();
 	private String status;
 	private String versionNew;
 	private String versionOld;
 	
+	private String groupKey = "";
+	private String nameKey = "";
+	private String statusKey = "";
+	private String versionNewKey = "";
+	private String versionOldKey = "";
+	
 	@Override
 	public int compareTo(HtmlTableValue o)
 	{
-		return this.getName().toLowerCase(Locale.ENGLISH)
-				.compareTo(o.getName().toLowerCase(Locale.ENGLISH));
-	}
-	
+		int result = statusKey.compareTo(o.statusKey);
+		if (result == 0)
+			result = groupKey.compareTo(o.groupKey);
+		if (result == 0)
+			result = nameKey.compareTo(o.nameKey);
+		if (result == 0)
+			result = versionNewKey.compareTo(o.versionNewKey);
+		if (result == 0)
+			result = versionOldKey.compareTo(o.versionOldKey);
+		return result;
+	}
+	
+	/**
+	 * (U) Two rows are equal when they sort to the same place, so equals agrees with compareTo.
+	 */
 	@Override
 	public boolean equals(Object o)
 	{
 		boolean same = false;
 		
 		if (o instanceof HtmlTableValue)
-		{
-			HtmlTableValue other = (HtmlTableValue) o;
-			if (StringUtils.equalsIgnoreCase(this.getName(), other.getName()))
-				same = true;
-		}
+			same = (compareTo((HtmlTableValue) o) == 0);
+		
 		return same;
 	}
 	
@@ -60,11 +80,27 @@ public class HtmlTableValue implements Comparable<HtmlTableValue>
 		return group;
 	}
 	
+	public String getLicense()
+	{
+		return license;
+	}
+	
 	public String getName()
 	{
 		return name;
 	}
 	
+	/**
+	 * (U) This method is used to get the values of the report properties, in the order their
+	 * columns are shown.
+	 * 
+	 * @return List of the property values.
+	 */
+	public List<String> getProperties()
+	{
+		return properties;
+	}
+	
 	public String getStatus()
 	{
 		return status;
@@ -83,7 +119,7 @@ public class HtmlTableValue implements Comparable<HtmlTableValue>
 	@Override
 	public int hashCode()
 	{
-		return (this.getName().toLowerCase(Locale.ENGLISH).hashCode());
+		return Objects.hash(statusKey, groupKey, nameKey, versionNewKey, versionOldKey);
 	}
 	
 	public void setEfossStatus(String efossStatus)
@@ -94,26 +130,52 @@ public class HtmlTableValue implements Comparable<HtmlTableValue>
 	public void setGroup(String group)
 	{
 		this.group = group;
+		this.groupKey = toSortKey(group);
+	}
+	
+	public void setLicense(String license)
+	{
+		this.license = license;
 	}
 	
 	public void setName(String name)
 	{
 		this.name = name;
+		this.nameKey = toSortKey(name);
+	}
+	
+	public void setProperties(List<String> properties)
+	{
+		this.properties = (properties == null) ? Collections.<String> emptyList() : properties;
 	}
 	
 	public void setStatus(String status)
 	{
 		this.status = status;
+		this.statusKey = toSortKey(status);
 	}
 	
 	public void setVersionNew(String versionNew)
 	{
 		this.versionNew = versionNew;
+		this.versionNewKey = toSortKey(versionNew);
 	}
 	
 	public void setVersionOld(String versionOld)
 	{
 		this.versionOld = versionOld;
+		this.versionOldKey = toSortKey(versionOld);
+	}
+	
+	/**
+	 * (U) This method is used to build the sort key of a value, its lower case form.
+	 * 
+	 * @param value String to build the sort key for, may be null.
+	 * @return String the sort key, empty for null.
+	 */
+	private static String toSortKey(String value)
+	{
+		return (value == null) ? "" : value.toLowerCase(Locale.ENGLISH);
 	}
 	
 	public String toString(String tabs)
@@ -125,6 +187,8 @@ public class HtmlTableValue implements Comparable<HtmlTableValue>
 		sb.append(tabs + "Need Date: " + getVersionNew() + "\n");
 		sb.append(tabs + "System: " + getStatus() + "\n");
 		sb.append(tabs + "Efoss Status: " + getEfossStatus() + "\n");
+		sb.append(tabs + "License: " + getLicense() + "\n");
+		sb.append(tabs + "Properties: " + getProperties() + "\n");
 		return (sb.toString());
 	}
 	
@@ -0,0 +1,161 @@
+/*
+ * Copyright (c) 2018,2019 Lockheed Martin Corporation.
+ *
+ * This work is owned by Lockheed Martin Corporation. Lockheed Martin personnel are permitted to use and
+ * modify this software.  Lockheed Martin personnel may also deliver this source code to any US Government
+ * customer Agency under a "US Government Purpose Rights" license.
+ *
+ * See the LICENSE file distributed with this work for licensing and distribution terms
+ */
+package com.lmco.efoss.sbom.comparator.dtos;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.cyclonedx.model.Bom;
+import org.cyclonedx.model.Component;
+
+/**
+ * (U) This Data Transfer Object (DTO) holds an SBom that has been parsed and indexed for
+ * comparing: its components, the key of each, and the components by key. An SBom compared more
+ * than once (a release in the middle of a release train, a baseline compared to many SBoms) is
+ * indexed once. Nothing is changed after construction, so one IndexedBom can be shared by
+ * compares running at the same time, as long as nobody changes the Bom underneath it.
+ *
+ * @author wrgoff
+ * @since 19 October 2026
+ */
+public final class IndexedBom
+{
+	private final String name;
+	private final Bom bom;
+	private final List<Component> components;
+	private final List<ComponentKey> keys;
+	private final Map<ComponentKey, Component> index;
+
+	/**
+	 * (U) Constructor, indexes the components of the SBom. When the SBom holds the same artifact
+	 * more than once, the first one wins.
+	 *
+	 * @param name String name of the SBom, normally the file it was read from.
+	 * @param bom  Bom to index.
+	 */
+	public IndexedBom(String name, Bom bom)
+	{
+		this.name = name;
+		this.bom = bom;
+
+		List<Component> bomComponents = bom.getComponents();
+		if (bomComponents == null)
+			bomComponents = Collections.emptyList();
+
+		List<ComponentKey> componentKeys = new ArrayList<>(bomComponents.size());
+		Map<ComponentKey, Component> componentIndex = new HashMap<>(
+				(int) (bomComponents.size() / 0.75f) + 1);
+		for (Component component : bomComponents)
+		{
+			ComponentKey key = ComponentKey.of(component);
+			componentKeys.add(key);
+			componentIndex.putIfAbsent(key, component);
+		}
+
+		this.components = Collections.unmodifiableList(new ArrayList<>(bomComponents));
+		this.keys = Collections.unmodifiableList(componentKeys);
+		this.index = Collections.unmodifiableMap(componentIndex);
+	}
+
+	/**
+	 * (U) Constructor, shares the index of another IndexedBom under a new name.
+	 *
+	 * @param name    String name of the SBom.
+	 * @param indexed IndexedBom whose SBom and index are shared.
+	 */
+	private IndexedBom(String name, IndexedBom indexed)
+	{
+		this.name = name;
+		this.bom = indexed.bom;
+		this.components = indexed.components;
+		this.keys = indexed.keys;
+		this.index = indexed.index;
+	}
+
+	/**
+	 * (U) This method is used to check if the SBom holds a component with the key passed in.
+	 *
+	 * @param key ComponentKey to look for.
+	 * @return boolean true if the SBom holds the component.
+	 */
+	public boolean contains(ComponentKey key)
+	{
+		return index.containsKey(key);
+	}
+
+	/**
+	 * (U) This method is used to get the component with the key passed in.
+	 *
+	 * @param key ComponentKey to look for.
+	 * @return Component with the key, null if the SBom does not hold one.
+	 */
+	public Component get(ComponentKey key)
+	{
+		return index.get(key);
+	}
+
+	public Bom getBom()
+	{
+		return bom;
+	}
+
+	/**
+	 * (U) This method is used to get the components of the SBom, in the order they appear in it.
+	 *
+	 * @return List of the components, never null.
+	 */
+	public List<Component> getComponents()
+	{
+		return components;
+	}
+
+	/**
+	 * (U) This method is used to get the key of each component, in the same order as
+	 * getComponents.
+	 *
+	 * @return List of the component keys.
+	 */
+	public List<ComponentKey> getKeys()
+	{
+		return keys;
+	}
+
+	public String getName()
+	{
+		return name;
+	}
+
+	/**
+	 * (U) This method is used to get the number of components in the SBom.
+	 *
+	 * @return int the number of components.
+	 */
+	public int size()
+	{
+		return components.size();
+	}
+
+	/**
+	 * (U) This method is used to get the same SBom, and index, under another name, as when the
+	 * same SBom is read from more than one file.
+	 *
+	 * @param name String name of the SBom.
+	 * @return IndexedBom sharing this one's SBom and index.
+	 */
+	public IndexedBom withName(String name)
+	{
+		if (this.name.equals(name))
+			return this;
+		return new IndexedBom(name, this);
+	}
+}
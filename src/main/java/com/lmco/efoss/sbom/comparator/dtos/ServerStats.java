@@ -0,0 +1,88 @@
+/*
+ * Copyright (c) 2018,2019 Lockheed Martin Corporation.
+ *
+ * This work is owned by Lockheed Martin Corporation. Lockheed Martin personnel are permitted to use and
+ * modify this software.  Lockheed Martin personnel may also deliver this source code to any US Government
+ * customer Agency under a "US Government Purpose Rights" license.
+ *
+ * See the LICENSE file distributed with this work for licensing and distribution terms
+ */
+package com.lmco.efoss.sbom.comparator.dtos;
+
+/**
+ * (U) This Data Transfer Object (DTO) holds the statistics of the compare server: its parsed
+ * SBom cache, its admission control, and how many compares it ran and how many requests joined
+ * a compare already running.
+ *
+ * @author wrgoff
+ * @since 19 October 2026
+ */
+public class ServerStats
+{
+	private CacheStats cache;
+	private AdmissionStats admission;
+	private long compares;
+	private long coalesced;
+
+	/**
+	 * (U) Base Constructor.
+	 */
+	public ServerStats()
+	{}
+
+	/**
+	 * (U) Convenience constructor.
+	 *
+	 * @param cache     CacheStats of the parsed SBom cache.
+	 * @param admission AdmissionStats of the admission control.
+	 * @param compares  long number of compares run.
+	 * @param coalesced long number of requests that joined a compare already running.
+	 */
+	public ServerStats(CacheStats cache, AdmissionStats admission, long compares, long coalesced)
+	{
+		this.cache = cache;
+		this.admission = admission;
+		this.compares = compares;
+		this.coalesced = coalesced;
+	}
+
+	public AdmissionStats getAdmission()
+	{
+		return admission;
+	}
+
+	public CacheStats getCache()
+	{
+		return cache;
+	}
+
+	public long getCoalesced()
+	{
+		return coalesced;
+	}
+
+	public long getCompares()
+	{
+		return compares;
+	}
+
+	public void setAdmission(AdmissionStats admission)
+	{
+		this.admission = admission;
+	}
+
+	public void setCache(CacheStats cache)
+	{
+		this.cache = cache;
+	}
+
+	public void setCoalesced(long coalesced)
+	{
+		this.coalesced = coalesced;
+	}
+
+	public void setCompares(long compares)
+	{
+		this.compares = compares;
+	}
+}
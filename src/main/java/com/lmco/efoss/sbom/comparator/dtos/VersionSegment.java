@@ -0,0 +1,81 @@
+/*
+ * Copyright (c) 2018,2019 Lockheed Martin Corporation.
+ *
+ * This work is owned by Lockheed Martin Corporation. Lockheed Martin personnel are permitted to use and
+ * modify this software.  Lockheed Martin personnel may also deliver this source code to any US Government
+ * customer Agency under a "US Government Purpose Rights" license.
+ *
+ * See the LICENSE file distributed with this work for licensing and distribution terms
+ */
+package com.lmco.efoss.sbom.comparator.dtos;
+
+import java.util.Objects;
+
+/**
+ * (U) This Data Transfer Object (DTO) is a run of a new version's text, and whether it changed
+ * from the old version. The segments of a version, in order, spell out the whole version.
+ *
+ * @author wrgoff
+ * @since 19 October 2026
+ */
+public final class VersionSegment
+{
+	private final String text;
+	private final boolean changed;
+
+	/**
+	 * (U) Constructor.
+	 *
+	 * @param text    String text of the segment.
+	 * @param changed boolean true if the segment differs from the old version.
+	 */
+	public VersionSegment(String text, boolean changed)
+	{
+		this.text = text;
+		this.changed = changed;
+	}
+
+	/**
+	 * (U) This method is used to get the text of the segment.
+	 *
+	 * @return String the text.
+	 */
+	public String getText()
+	{
+		return text;
+	}
+
+	/**
+	 * (U) This method is used to tell if the segment differs from the old version.
+	 *
+	 * @return boolean true if the segment changed.
+	 */
+	public boolean isChanged()
+	{
+		return changed;
+	}
+
+	@Override
+	public boolean equals(Object o)
+	{
+		boolean same = false;
+		if (o instanceof VersionSegment)
+		{
+			VersionSegment other = (VersionSegment) o;
+			same = (changed == other.changed) && Objects.equals(text, other.text);
+		}
+		return same;
+	}
+
+	@Override
+	public int hashCode()
+	{
+		return Objects.hash(text, changed);
+	}
+
+	@Override
+	public String toString()
+	{
+		return changed ? "[" + text + "]" : text;
+	}
+}
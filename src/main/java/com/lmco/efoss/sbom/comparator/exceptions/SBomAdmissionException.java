@@ -0,0 +1,47 @@
+/*
+ * Copyright (c) 2018,2019 Lockheed Martin Corporation.
+ *
+ * This work is owned by Lockheed Martin Corporation. Lockheed Martin personnel are permitted to use and
+ * modify this software.  Lockheed Martin personnel may also deliver this source code to any US Government
+ * customer Agency under a "US Government Purpose Rights" license.
+ *
+ * See the LICENSE file distributed with this work for licensing and distribution terms
+ */
+package com.lmco.efoss.sbom.comparator.exceptions;
+
+/**
+ * (U) This class is the exception thrown when a compare is NOT admitted, because it would need
+ * more heap than the server's budget allows, either ever or within the time it may wait.
+ * 
+ * @author wrgoff
+ * @since 19 October 2026
+ */
+public class SBomAdmissionException extends SBomComparatorException
+{
+	private static final long serialVersionUID = -2210871637705917154L;
+	
+	private final boolean retryable;
+	
+	/**
+	 * (U) Constructs a new SBomAdmissionException with the specified detail message.
+	 *
+	 * @param message   String value to set the message to.
+	 * @param retryable boolean true if the compare may be admitted later, false if it never will
+	 *                  be.
+	 */
+	public SBomAdmissionException(String message, boolean retryable)
+	{
+		super(message);
+		this.retryable = retryable;
+	}
+	
+	/**
+	 * (U) This method is used to check if the compare may be admitted if it is sent again later.
+	 * 
+	 * @return boolean true if the compare was only turned away because the server was busy.
+	 */
+	public boolean isRetryable()
+	{
+		return retryable;
+	}
+}
@@ -0,0 +1,157 @@
+/*
+ * Copyright (c) 2018,2019, 2020, 2021 Lockheed Martin Corporation.
+ *
+ * This work is owned by Lockheed Martin Corporation. Lockheed Martin personnel are permitted to use and
+ * modify this software.  Lockheed Martin personnel may also deliver this source code to any US Government
+ * customer Agency under a "US Government Purpose Rights" license.
+ *
+ * See the LICENSE file distributed with this work for licensing and distribution terms
+ */
+package com.lmco.efoss.sbom.comparator.generator;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+import org.apache.log4j.Logger;
+
+import com.lmco.efoss.sbom.comparator.dtos.CompareComponent;
+import com.lmco.efoss.sbom.comparator.dtos.ModifiedComponent;
+import com.lmco.efoss.sbom.comparator.exceptions.SBomComparatorException;
+import com.lmco.efoss.sbom.comparator.utils.SBomDiffListener;
+
+/**
+ * (U) This class is the base for the writers that stream an SBomDiff document (the same document
+ * SBomJSonDiffGenerator and SBomXmlDiffGenerator produce) as the differences are reported. The
+ * document always holds the three sections componentsAdded, componentsRemoved and
+ * modifiedComponents, in that order, even when a section is empty.
+ *
+ * @author wrgoff
+ * @since 19 October 2026
+ */
+public abstract class AbstractSBomDiffWriter implements SBomDiffListener, Closeable
+{
+	private static final Logger logger = Logger.getLogger(AbstractSBomDiffWriter.class.getName());
+
+	protected static final String[] SECTIONS =
+	{ "componentsAdded", "componentsRemoved", "modifiedComponents" };
+
+	private static final int ADDED = 0;
+	private static final int REMOVED = 1;
+	private static final int MODIFIED = 2;
+
+	private int section = -1;
+	private boolean closed = false;
+
+	/**
+	 * (U) This method is used to write the end of the document, and close the stream.
+	 */
+	@Override
+	public void close() throws IOException
+	{
+		if (!closed)
+		{
+			closed = true;
+			moveToSection(SECTIONS.length - 1);
+			endSection(SECTIONS[section]);
+			endDocument();
+		}
+	}
+
+	@Override
+	public void componentAdded(CompareComponent component) throws SBomComparatorException
+	{
+		write(ADDED, component);
+	}
+
+	@Override
+	public void componentModified(ModifiedComponent component) throws SBomComparatorException
+	{
+		write(MODIFIED, component);
+	}
+
+	@Override
+	public void componentRemoved(CompareComponent component) throws SBomComparatorException
+	{
+		write(REMOVED, component);
+	}
+
+	/**
+	 * (U) Called once, after the last section has been ended, to end the document and close the
+	 * stream.
+	 *
+	 * @throws IOException in the event we are unable to write to the stream.
+	 */
+	protected abstract void endDocument() throws IOException;
+
+	/**
+	 * (U) Called to end a section of the document.
+	 *
+	 * @param name String name of the section.
+	 * @throws IOException in the event we are unable to write to the stream.
+	 */
+	protected abstract void endSection(String name) throws IOException;
+
+	/**
+	 * (U) Called to start a section of the document.
+	 *
+	 * @param name String name of the section.
+	 * @throws IOException in the event we are unable to write to the stream.
+	 */
+	protected abstract void startSection(String name) throws IOException;
+
+	/**
+	 * (U) Called to write one entry of the current section.
+	 *
+	 * @param name  String name of the section.
+	 * @param entry Object to write, either a CompareComponent or a ModifiedComponent.
+	 * @throws IOException in the event we are unable to write to the stream.
+	 */
+	protected abstract void writeEntry(String name, Object entry) throws IOException;
+
+	/**
+	 * (U) This method is used to end the sections up to the one wanted, starting each one on the
+	 * way, so skipped sections are still written empty.
+	 *
+	 * @param wanted int index of the section wanted.
+	 * @throws IOException in the event we are unable to write to the stream.
+	 */
+	private void moveToSection(int wanted) throws IOException
+	{
+		while (section < wanted)
+		{
+			if (section >= 0)
+				endSection(SECTIONS[section]);
+			section++;
+			startSection(SECTIONS[section]);
+		}
+	}
+
+	/**
+	 * (U) This method is used to write an entry to the section passed in.
+	 *
+	 * @param wanted int index of the section to write the entry in.
+	 * @param entry  Object to write.
+	 * @throws SBomComparatorException in the event the differences are reported out of order, or
+	 *                                 we are unable to write to the stream.
+	 */
+	private void write(int wanted, Object entry) throws SBomComparatorException
+	{
+		if ((closed) || (wanted < section))
+		{
+			throw new SBomComparatorException("Differences must be reported added, then " +
+					"removed, then modified, before the writer is closed!");
+		}
+
+		try
+		{
+			moveToSection(wanted);
+			writeEntry(SECTIONS[wanted], entry);
+		}
+		catch (IOException e)
+		{
+			String error = "Failed to write to the " + SECTIONS[wanted] + " section of the diff!";
+			logger.error(error, e);
+			throw new SBomComparatorException(error, e);
+		}
+	}
+}
@@ -0,0 +1,284 @@
+/*
+ * Copyright (c) 2018,2019, 2020, 2021 Lockheed Martin Corporation.
+ *
+ * This work is owned by Lockheed Martin Corporation. Lockheed Martin personnel are permitted to use and
+ * modify this software.  Lockheed Martin personnel may also deliver this source code to any US Government
+ * customer Agency under a "US Government Purpose Rights" license.
+ *
+ * See the LICENSE file distributed with this work for licensing and distribution terms
+ */
+package com.lmco.efoss.sbom.comparator.generator;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+import org.apache.log4j.Logger;
+import org.cyclonedx.CycloneDxSchema;
+import org.cyclonedx.model.Bom;
+import org.cyclonedx.model.Metadata;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.util.DefaultPrettyPrinter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.dataformat.xml.util.DefaultXmlPrettyPrinter;
+import com.lmco.efoss.sbom.commons.utils.SBomCommons;
+import com.lmco.efoss.sbom.comparator.dtos.CompareComponent;
+import com.lmco.efoss.sbom.comparator.dtos.DiffBomComponent;
+import com.lmco.efoss.sbom.comparator.dtos.ModifiedComponent;
+import com.lmco.efoss.sbom.comparator.exceptions.SBomComparatorException;
+import com.lmco.efoss.sbom.comparator.utils.SBomDiffListener;
+
+/**
+ * (U) This class is used to write the diff SBom, the SBom containing only what has been added or
+ * modified, straight to a stream. The metadata header is written when the writer is created, each
+ * added or modified component is written as it is reported, and the end of the SBom is written on
+ * close. The components of the SBoms passed in are never modified, and no second Bom is built.
+ *
+ * @author wrgoff
+ * @since 19 October 2026
+ */
+public class SBomDiffBomWriter implements SBomDiffListener, Closeable
+{
+	private static final Logger logger = Logger.getLogger(SBomDiffBomWriter.class.getName());
+
+	private static final String ADDED = "added";
+	private static final String MODIFIED = "modified";
+
+	private final SBomCommons.AVAILABLE_FORMATS format;
+
+	private JsonGenerator jsonGenerator = null;
+	private Writer xmlWriter = null;
+	private ObjectWriter xmlComponentWriter = null;
+
+	private long componentsWritten = 0;
+
+	/**
+	 * (U) Constructor, writes the header of the diff SBom.
+	 *
+	 * @param out    OutputStream to write the diff SBom to. It will be closed when this writer is
+	 *               closed.
+	 * @param format SBomCommons.AVAILABLE_FORMATS the format to write the diff SBom in.
+	 * @param orgBom Original SBom, used for the metadata.
+	 * @param newBom New SBom, used for the serial number, version and metadata.
+	 * @throws SBomComparatorException in the event we are unable to write the header.
+	 */
+	public SBomDiffBomWriter(OutputStream out, SBomCommons.AVAILABLE_FORMATS format, Bom orgBom,
+			Bom newBom) throws SBomComparatorException
+	{
+		this.format = format;
+
+		Metadata metadata = SBomGenerator.buildMetadata(orgBom, newBom);
+		try
+		{
+			if (format.equals(SBomCommons.AVAILABLE_FORMATS.JSON))
+				writeJsonHeader(out, newBom, metadata);
+			else
+				writeXmlHeader(out, newBom, metadata);
+		}
+		catch (IOException e)
+		{
+			String error = "Unable to write the header of the diff SBom!";
+			logger.error(error, e);
+			throw new SBomComparatorException(error, e);
+		}
+	}
+
+	/**
+	 * (U) This method is used to write the end of the diff SBom, and close the stream.
+	 */
+	@Override
+	public void close() throws IOException
+	{
+		if (logger.isDebugEnabled())
+			logger.debug("Wrote " + componentsWritten + " components to the diff SBom.");
+
+		if (jsonGenerator != null)
+		{
+			if (componentsWritten > 0)
+				jsonGenerator.writeEndArray();
+			jsonGenerator.writeEndObject();
+			jsonGenerator.close();
+		}
+		else
+		{
+			if (componentsWritten > 0)
+				xmlWriter.write("</components>\n");
+			xmlWriter.write("</bom>\n");
+			xmlWriter.close();
+		}
+	}
+
+	@Override
+	public void componentAdded(CompareComponent component) throws SBomComparatorException
+	{
+		writeComponent(new DiffBomComponent(component.getComponent(), ADDED));
+	}
+
+	@Override
+	public void componentModified(ModifiedComponent component) throws SBomComparatorException
+	{
+		writeComponent(new DiffBomComponent(component.getNewComponent().getComponent(), MODIFIED));
+	}
+
+	/**
+	 * (U) Removed components are not part of the diff SBom.
+	 */
+	@Override
+	public void componentRemoved(CompareComponent component)
+	{
+		// Nothing to write, the diff SBom only holds what was added or modified.
+	}
+
+	/**
+	 * (U) This method is used to get the number of components written so far.
+	 *
+	 * @return long the number of components written.
+	 */
+	public long getComponentsWritten()
+	{
+		return componentsWritten;
+	}
+
+	/**
+	 * (U) This method is used to get the format this writer writes.
+	 *
+	 * @return SBomCommons.AVAILABLE_FORMATS the format of the diff SBom.
+	 */
+	public SBomCommons.AVAILABLE_FORMATS getFormat()
+	{
+		return format;
+	}
+
+	/**
+	 * (U) Convenience method used to escape a value used in an XML attribute.
+	 *
+	 * @param value String value to escape.
+	 * @return String the escaped value.
+	 */
+	private static String escapeXmlAttribute(String value)
+	{
+		StringBuilder sb = new StringBuilder(value.length());
+		for (int i = 0; i < value.length(); i++)
+		{
+			char c = value.charAt(i);
+			switch (c)
+			{
+				case '&':
+					sb.append("&amp;");
+					break;
+				case '<':
+					sb.append("&lt;");
+					break;
+				case '>':
+					sb.append("&gt;");
+					break;
+				case '"':
+					sb.append("&quot;");
+					break;
+				default:
+					sb.append(c);
+					break;
+			}
+		}
+		return sb.toString();
+	}
+
+	/**
+	 * (U) This method is used to write a single component of the diff SBom.
+	 *
+	 * @param component DiffBomComponent to write.
+	 * @throws SBomComparatorException in the event we are unable to write the component.
+	 */
+	private void writeComponent(DiffBomComponent component) throws SBomComparatorException
+	{
+		try
+		{
+			if (jsonGenerator != null)
+			{
+				if (componentsWritten == 0)
+					jsonGenerator.writeArrayFieldStart("components");
+				jsonGenerator.writeObject(component);
+			}
+			else
+			{
+				if (componentsWritten == 0)
+					xmlWriter.write("<components>\n");
+				xmlComponentWriter.writeValue(xmlWriter, component);
+				xmlWriter.write('\n');
+			}
+			componentsWritten++;
+		}
+		catch (IOException e)
+		{
+			String error = "Failed to write component (" + component.getName() +
+					") to the diff SBom!";
+			logger.error(error, e);
+			throw new SBomComparatorException(error, e);
+		}
+	}
+
+	/**
+	 * (U) This method is used to write the start of a JSon diff SBom, up to the components.
+	 *
+	 * @param out      OutputStream to write to.
+	 * @param newBom   New SBom, used for the serial number and version.
+	 * @param metadata Metadata of the diff SBom.
+	 * @throws IOException in the event we are unable to write to the stream.
+	 */
+	private void writeJsonHeader(OutputStream out, Bom newBom, Metadata metadata)
+			throws IOException
+	{
+		ObjectMapper mapper = new SBomJSonDiffGenerator(null).getMapper();
+
+		jsonGenerator = mapper.getFactory().createGenerator(out, JsonEncoding.UTF8);
+		jsonGenerator.setCodec(mapper);
+		jsonGenerator.setPrettyPrinter(new DefaultPrettyPrinter());
+
+		jsonGenerator.writeStartObject();
+		jsonGenerator.writeStringField("bomFormat", "CycloneDX");
+		jsonGenerator.writeStringField("specVersion", "1.3");
+		if (newBom.getSerialNumber() != null)
+			jsonGenerator.writeStringField("serialNumber", newBom.getSerialNumber());
+		jsonGenerator.writeNumberField("version", newBom.getVersion());
+		jsonGenerator.writeObjectField("metadata", metadata);
+	}
+
+	/**
+	 * (U) This method is used to write the start of an XML diff SBom, up to the components.
+	 *
+	 * @param out      OutputStream to write to.
+	 * @param newBom   New SBom, used for the serial number and version.
+	 * @param metadata Metadata of the diff SBom.
+	 * @throws IOException in the event we are unable to write to the stream.
+	 */
+	private void writeXmlHeader(OutputStream out, Bom newBom, Metadata metadata)
+			throws IOException
+	{
+		ObjectMapper mapper = new SBomXmlDiffGenerator().getMapper();
+		ObjectWriter writer = mapper.writer(new DefaultXmlPrettyPrinter())
+				.without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+		xmlComponentWriter = writer.withRootName("component");
+
+		xmlWriter = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+
+		xmlWriter.write("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n<bom");
+		if (newBom.getSerialNumber() != null)
+		{
+			xmlWriter.write(" serialNumber=\"");
+			xmlWriter.write(escapeXmlAttribute(newBom.getSerialNumber()));
+			xmlWriter.write('"');
+		}
+		xmlWriter.write(" version=\"" + newBom.getVersion() + "\" xmlns=\"" +
+				CycloneDxSchema.NS_BOM_13 + "\">\n");
+
+		writer.withRootName("metadata").writeValue(xmlWriter, metadata);
+		xmlWriter.write('\n');
+	}
+}
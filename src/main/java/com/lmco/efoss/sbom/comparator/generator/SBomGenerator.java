@@ -9,22 +9,29 @@
  */
 package com.lmco.efoss.sbom.comparator.generator;
 
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Locale;
 
 import org.apache.log4j.Logger;
 import org.cyclonedx.model.Bom;
 import org.cyclonedx.model.Component;
-import org.cyclonedx.model.ExternalReference;
 import org.cyclonedx.model.Metadata;
-import org.cyclonedx.model.Property;
 import org.cyclonedx.model.Tool;
 
 import com.lmco.efoss.sbom.commons.utils.DateUtils;
+import com.lmco.efoss.sbom.commons.utils.SBomCommons;
 import com.lmco.efoss.sbom.commons.utils.ToolsUtils;
+import com.lmco.efoss.sbom.comparator.dtos.DiffBomComponent;
 import com.lmco.efoss.sbom.comparator.dtos.ModifiedComponent;
 import com.lmco.efoss.sbom.comparator.dtos.SBomDiff;
 import com.lmco.efoss.sbom.comparator.exceptions.SBomComparatorException;
+import com.lmco.efoss.sbom.comparator.utils.SBomCompareUtils;
+import com.lmco.efoss.sbom.comparator.utils.SBomDiffFileWriter;
 
 /**
  * (U) This class is used to generate an SBom containing only what has been added or modified from
@@ -72,61 +79,139 @@ public class SBomGenerator
 	}
 	
 	/**
-	 * (U) This method is used to add the added components to the new SBom.
+	 * (U) This method is used to write the diff SBom straight to a stream, without building the
+	 * new SBom in memory or modifying the components of the SBoms passed in.
 	 * 
-	 * @param components List of Diff Components to add to the new SBom.
+	 * @param bom1    Original SBom.
+	 * @param bom2    New SBom.
+	 * @param diffBom SBomDiff containing the changes between the two SBoms.
+	 * @param out     OutputStream to write the diff SBom to, it is closed when done.
+	 * @param format  SBomCommons.AVAILABLE_FORMATS the format to write the diff SBom in.
+	 * @throws SBomComparatorException in the event we are unable to write the diff SBom.
 	 */
-	private void addComponents(
-			List<com.lmco.efoss.sbom.comparator.dtos.CompareComponent> components)
+	public void writeDiffBom(Bom bom1, Bom bom2, SBomDiff diffBom, OutputStream out,
+			SBomCommons.AVAILABLE_FORMATS format) throws SBomComparatorException
 	{
-		Component component;
-		for (com.lmco.efoss.sbom.comparator.dtos.CompareComponent comp : components)
+		try (SBomDiffBomWriter writer = new SBomDiffBomWriter(out, format, bom1, bom2))
 		{
-			component = comp.getComponent();
-			if (component.getExternalReferences() == null)
-				component.setExternalReferences(new ArrayList<ExternalReference>());
-			
-			component.setProperties(appendDiffProperty(component, "added"));
-			
-			newBom.addComponent(component);
+			SBomCompareUtils.replayDiff(diffBom, writer);
+		}
+		catch (IOException e)
+		{
+			String error = "Failed to write the diff SBom!";
+			logger.error(error, e);
+			throw new SBomComparatorException(error, e);
 		}
 	}
 	
 	/**
-	 * (U) This method is used to add the modified components to the SBom passed in.
+	 * (U) This method is used to write the diff SBom to a file. The file suffix (.xml or .json) is
+	 * appended if it is NOT already there.
 	 * 
-	 * @param components List of ModifiedComponents to add to the SBom passed in.
+	 * @param bom1     Original SBom.
+	 * @param bom2     New SBom.
+	 * @param diffBom  SBomDiff containing the changes between the two SBoms.
+	 * @param fileName String value of the file to put the diff SBom in.
+	 * @param format   SBomCommons.AVAILABLE_FORMATS the format to write the diff SBom in.
+	 * @throws SBomComparatorException in the event we are unable to write the diff SBom.
 	 */
-	private void addModifiedComponents(List<ModifiedComponent> components)
+	public void writeDiffBom(Bom bom1, Bom bom2, SBomDiff diffBom, String fileName,
+			SBomCommons.AVAILABLE_FORMATS format) throws SBomComparatorException
 	{
-		Component component;
-		for (ModifiedComponent comp : components)
+		fileName = getDiffBomFileName(fileName, format);
+		try (FileOutputStream fos = new FileOutputStream(fileName))
 		{
-			component = comp.getNewComponent().getComponent();
-			if (component.getExternalReferences() == null)
-				component.setExternalReferences(new ArrayList<ExternalReference>());
-			
-			component.setProperties(appendDiffProperty(component, "modified"));
-			
-			newBom.addComponent(component);
+			writeDiffBom(bom1, bom2, diffBom, fos, format);
+		}
+		catch (IOException e)
+		{
+			String error = "Failed to write output to file (" + fileName + ").";
+			logger.error(error, e);
+			throw new SBomComparatorException(error, e);
 		}
 	}
 	
 	/**
-	 * Convenience method to append the Diff Property to a component's list of properties.
+	 * (U) This method is used to open a writer that streams the diff SBom to a file as the
+	 * differences are reported. The file suffix (.xml or .json) is appended if it is NOT already
+	 * there. The writer must be closed to finish the file, or aborted to delete it.
 	 * 
-	 * @param component Component to get the list of properties from.
-	 * @param value     String value for the new diff property.
-	 * @return List of Properties to append back on the Component.
+	 * @param bom1     Original SBom.
+	 * @param bom2     New SBom.
+	 * @param fileName String value of the file to put the diff SBom in.
+	 * @param format   SBomCommons.AVAILABLE_FORMATS the format to write the diff SBom in.
+	 * @return SBomDiffFileWriter the writer to report the differences to.
+	 * @throws SBomComparatorException in the event we are unable to open the file.
 	 */
-	private List<Property> appendDiffProperty(Component component, String value)
+	public SBomDiffFileWriter openDiffBomWriter(Bom bom1, Bom bom2, String fileName,
+			SBomCommons.AVAILABLE_FORMATS format) throws SBomComparatorException
 	{
-		List<Property> properties = component.getProperties();
-		if (properties == null)
-			properties = new ArrayList<>();
-		properties.add(createDiffProperty(value));
-		
-		return properties;
+		fileName = getDiffBomFileName(fileName, format);
+		FileOutputStream fos = null;
+		try
+		{
+			fos = new FileOutputStream(fileName);
+			return new SBomDiffFileWriter(new SBomDiffBomWriter(fos, format, bom1, bom2), fos,
+					Paths.get(fileName));
+		}
+		catch (IOException | SBomComparatorException e)
+		{
+			if (fos != null)
+			{
+				try
+				{
+					fos.close();
+				}
+				catch (IOException closeError)
+				{
+					e.addSuppressed(closeError);
+				}
+			}
+			String error = "Failed to write output to file (" + fileName + ").";
+			logger.error(error, e);
+			throw new SBomComparatorException(error, e);
+		}
+	}
+	
+	/**
+	 * (U) This method is used to get the name of the diff SBom file, with the suffix for the
+	 * format appended if it is NOT already there.
+	 * 
+	 * @param fileName String value of the file name.
+	 * @param format   SBomCommons.AVAILABLE_FORMATS the format of the diff SBom.
+	 * @return String the file name with the suffix.
+	 */
+	public static String getDiffBomFileName(String fileName,
+			SBomCommons.AVAILABLE_FORMATS format)
+	{
+		String suffix = "." + format.toString().toLowerCase(Locale.ENGLISH);
+		if (!fileName.endsWith(suffix))
+			fileName = fileName + suffix;
+		return fileName;
+	}
+	
+	/**
+	 * (U) This method is used to add the added components to the new SBom.
+	 * 
+	 * @param components List of Diff Components to add to the new SBom.
+	 */
+	private void addComponents(
+			List<com.lmco.efoss.sbom.comparator.dtos.CompareComponent> components)
+	{
+		for (com.lmco.efoss.sbom.comparator.dtos.CompareComponent comp : components)
+			newBom.addComponent(new DiffBomComponent(comp.getComponent(), "added"));
+	}
+	
+	/**
+	 * (U) This method is used to add the modified components to the SBom passed in.
+	 * 
+	 * @param components List of ModifiedComponents to add to the SBom passed in.
+	 */
+	private void addModifiedComponents(List<ModifiedComponent> components)
+	{
+		for (ModifiedComponent comp : components)
+			newBom.addComponent(new DiffBomComponent(comp.getNewComponent().getComponent(),
+					"modified"));
 	}
 	
 	/**
@@ -137,7 +222,7 @@ public class SBomGenerator
 	 *               SBom.
 	 * @return Metadata for the diff SBom.
 	 */
-	private Metadata buildMetadata(Bom orgBom, Bom newBom)
+	static Metadata buildMetadata(Bom orgBom, Bom newBom)
 	{
 		Metadata metadata = new Metadata();
 		metadata.setTimestamp(DateUtils.rightNowDate());
@@ -179,7 +264,7 @@ public class SBomGenerator
 	 * @param jarSubName String value of the prefix for the tools jar file name.
 	 * @return newly created tool to represent this tool
 	 */
-	private Tool buildSBomTool(String name, String jarSubName)
+	private static Tool buildSBomTool(String name, String jarSubName)
 	{
 		Tool tool = new Tool();
 		tool.setName(name);
@@ -205,18 +290,4 @@ public class SBomGenerator
 		tool.setVersion(version);
 		return tool;
 	}
-	
-	/**
-	 * Convenience method to create the diff property.
-	 * 
-	 * @param value String value to assign to the diff property.
-	 * @return Property newly created diff property.
-	 */
-	private Property createDiffProperty(String value)
-	{
-		Property diffProp = new Property();
-		diffProp.setName("diff reason");
-		diffProp.setValue(value);
-		return diffProp;
-	}
 }
@@ -0,0 +1,78 @@
+/*
+ * Copyright (c) 2018,2019, 2020, 2021 Lockheed Martin Corporation.
+ *
+ * This work is owned by Lockheed Martin Corporation. Lockheed Martin personnel are permitted to use and
+ * modify this software.  Lockheed Martin personnel may also deliver this source code to any US Government
+ * customer Agency under a "US Government Purpose Rights" license.
+ *
+ * See the LICENSE file distributed with this work for licensing and distribution terms
+ */
+package com.lmco.efoss.sbom.comparator.generator;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.util.DefaultPrettyPrinter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.lmco.efoss.sbom.comparator.exceptions.SBomComparatorException;
+
+/**
+ * (U) This class is used to stream the JSon SBomDiff document, the same document
+ * SBomJSonDiffGenerator produces, as the differences are reported.
+ *
+ * @author wrgoff
+ * @since 19 October 2026
+ */
+public class SBomJSonDiffWriter extends AbstractSBomDiffWriter
+{
+	private final JsonGenerator generator;
+
+	/**
+	 * (U) Constructor.
+	 *
+	 * @param out OutputStream to write the JSon to. It will be closed when this writer is closed.
+	 * @throws SBomComparatorException in the event we are unable to write to the stream.
+	 */
+	public SBomJSonDiffWriter(OutputStream out) throws SBomComparatorException
+	{
+		ObjectMapper mapper = new SBomJSonDiffGenerator(null).getMapper();
+		try
+		{
+			generator = mapper.getFactory().createGenerator(out, JsonEncoding.UTF8);
+			generator.setCodec(mapper);
+			generator.setPrettyPrinter(new DefaultPrettyPrinter());
+			generator.writeStartObject();
+		}
+		catch (IOException e)
+		{
+			throw new SBomComparatorException("Unable to start the JSon diff!", e);
+		}
+	}
+
+	@Override
+	protected void endDocument() throws IOException
+	{
+		generator.writeEndObject();
+		generator.close();
+	}
+
+	@Override
+	protected void endSection(String name) throws IOException
+	{
+		generator.writeEndArray();
+	}
+
+	@Override
+	protected void startSection(String name) throws IOException
+	{
+		generator.writeArrayFieldStart(name);
+	}
+
+	@Override
+	protected void writeEntry(String name, Object entry) throws IOException
+	{
+		generator.writeObject(entry);
+	}
+}
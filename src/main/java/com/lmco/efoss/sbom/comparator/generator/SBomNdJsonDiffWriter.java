@@ -0,0 +1,182 @@
+/*
+ * Copyright (c) 2018,2019, 2020, 2021 Lockheed Martin Corporation.
+ *
+ * This work is owned by Lockheed Martin Corporation. Lockheed Martin personnel are permitted to use and
+ * modify this software.  Lockheed Martin personnel may also deliver this source code to any US Government
+ * customer Agency under a "US Government Purpose Rights" license.
+ *
+ * See the LICENSE file distributed with this work for licensing and distribution terms
+ */
+package com.lmco.efoss.sbom.comparator.generator;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+
+import org.apache.log4j.Logger;
+import org.cyclonedx.model.Component;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.lmco.efoss.sbom.comparator.dtos.CompareComponent;
+import com.lmco.efoss.sbom.comparator.dtos.ModifiedComponent;
+import com.lmco.efoss.sbom.comparator.exceptions.SBomComparatorException;
+import com.lmco.efoss.sbom.comparator.utils.SBomDiffListener;
+
+/**
+ * (U) This class is used to write the differences between two SBoms as JSON Lines (NDJSON). Each
+ * added, removed or modified component is written as its own line, and flushed, the moment it is
+ * reported, so a consumer can start reading before the compare has finished.
+ * <p>
+ * Each line is one of:
+ *
+ * <pre>
+ * {"change":"added","component":{...}}
+ * {"change":"removed","component":{...}}
+ * {"change":"modified","previousComponent":{...},"newComponent":{...}}
+ * </pre>
+ *
+ * @author wrgoff
+ * @since 19 October 2026
+ */
+public class SBomNdJsonDiffWriter implements SBomDiffListener, Closeable
+{
+	private static final Logger logger = Logger.getLogger(SBomNdJsonDiffWriter.class.getName());
+
+	public static final String ADDED = "added";
+	public static final String CHANGE = "change";
+	public static final String COMPONENT = "component";
+	public static final String MODIFIED = "modified";
+	public static final String NEW_COMPONENT = "newComponent";
+	public static final String PREVIOUS_COMPONENT = "previousComponent";
+	public static final String REMOVED = "removed";
+
+	private final JsonGenerator generator;
+	private long linesWritten = 0;
+
+	/**
+	 * (U) Constructor.
+	 *
+	 * @param out OutputStream to write the lines to. It will be closed when this writer is closed.
+	 * @throws SBomComparatorException in the event we are unable to write to the stream.
+	 */
+	public SBomNdJsonDiffWriter(OutputStream out) throws SBomComparatorException
+	{
+		// Use the CycloneDx mapper, so the components look the same as they do in the JSon diff.
+		ObjectMapper mapper = new SBomJSonDiffGenerator(null).getMapper();
+		try
+		{
+			generator = mapper.getFactory().createGenerator(out, JsonEncoding.UTF8);
+			generator.setCodec(mapper);
+			// Each line is terminated explicitly, so no separator between the values.
+			generator.setRootValueSeparator(null);
+		}
+		catch (IOException e)
+		{
+			String error = "Unable to create the NDJSON writer!";
+			logger.error(error, e);
+			throw new SBomComparatorException(error, e);
+		}
+	}
+
+	/**
+	 * (U) This method is used to flush and close the underlying stream.
+	 */
+	@Override
+	public void close() throws IOException
+	{
+		if (logger.isDebugEnabled())
+			logger.debug("Wrote " + linesWritten + " NDJSON lines.");
+		generator.close();
+	}
+
+	@Override
+	public void componentAdded(CompareComponent component) throws SBomComparatorException
+	{
+		writeLine(ADDED, component.getComponent());
+	}
+
+	@Override
+	public void componentModified(ModifiedComponent component) throws SBomComparatorException
+	{
+		try
+		{
+			generator.writeStartObject();
+			generator.writeStringField(CHANGE, MODIFIED);
+			generator.writeObjectField(PREVIOUS_COMPONENT,
+					component.getPreviousComponent().getComponent());
+			generator.writeObjectField(NEW_COMPONENT, component.getNewComponent().getComponent());
+			generator.writeEndObject();
+			endLine();
+		}
+		catch (IOException e)
+		{
+			throw writeFailed(e);
+		}
+	}
+
+	@Override
+	public void componentRemoved(CompareComponent component) throws SBomComparatorException
+	{
+		writeLine(REMOVED, component.getComponent());
+	}
+
+	/**
+	 * (U) This method is used to get the number of lines written so far.
+	 *
+	 * @return long the number of lines written.
+	 */
+	public long getLinesWritten()
+	{
+		return linesWritten;
+	}
+
+	/**
+	 * (U) This method is used to terminate the current line, and hand it to the consumer.
+	 *
+	 * @throws IOException in the event we are unable to write to the stream.
+	 */
+	private void endLine() throws IOException
+	{
+		generator.writeRaw('\n');
+		generator.flush();
+		linesWritten++;
+	}
+
+	/**
+	 * (U) Convenience method used to log and wrap a failed write.
+	 *
+	 * @param e IOException that caused the failure.
+	 * @return SBomComparatorException to throw.
+	 */
+	private SBomComparatorException writeFailed(IOException e)
+	{
+		String error = "Failed to write NDJSON line " + (linesWritten + 1) + "!";
+		logger.error(error, e);
+		return new SBomComparatorException(error, e);
+	}
+
+	/**
+	 * (U) This method is used to write a single added or removed component line.
+	 *
+	 * @param change    String the type of change.
+	 * @param component Component that changed.
+	 * @throws SBomComparatorException in the event we are unable to write the line.
+	 */
+	private void writeLine(String change, Component component) throws SBomComparatorException
+	{
+		try
+		{
+			generator.writeStartObject();
+			generator.writeStringField(CHANGE, change);
+			generator.writeObjectField(COMPONENT, component);
+			generator.writeEndObject();
+			endLine();
+		}
+		catch (IOException e)
+		{
+			throw writeFailed(e);
+		}
+	}
+}
@@ -0,0 +1,95 @@
+/*
+ * Copyright (c) 2018,2019, 2020, 2021 Lockheed Martin Corporation.
+ *
+ * This work is owned by Lockheed Martin Corporation. Lockheed Martin personnel are permitted to use and
+ * modify this software.  Lockheed Martin personnel may also deliver this source code to any US Government
+ * customer Agency under a "US Government Purpose Rights" license.
+ *
+ * See the LICENSE file distributed with this work for licensing and distribution terms
+ */
+package com.lmco.efoss.sbom.comparator.generator;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.dataformat.xml.util.DefaultXmlPrettyPrinter;
+import com.lmco.efoss.sbom.comparator.exceptions.SBomComparatorException;
+
+/**
+ * (U) This class is used to stream the XML SBomDiff document, the same document
+ * SBomXmlDiffGenerator produces, as the differences are reported.
+ *
+ * @author wrgoff
+ * @since 19 October 2026
+ */
+public class SBomXmlDiffWriter extends AbstractSBomDiffWriter
+{
+	private final Writer writer;
+	private final ObjectWriter[] entryWriters = new ObjectWriter[SECTIONS.length];
+
+	/**
+	 * (U) Constructor.
+	 *
+	 * @param out OutputStream to write the XML to. It will be closed when this writer is closed.
+	 * @throws SBomComparatorException in the event we are unable to write to the stream.
+	 */
+	public SBomXmlDiffWriter(OutputStream out) throws SBomComparatorException
+	{
+		ObjectWriter objectWriter = new SBomXmlDiffGenerator().getMapper()
+				.writer(new DefaultXmlPrettyPrinter())
+				.without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+
+		// Each entry is wrapped in an element named after its section, as Jackson does for lists.
+		for (int i = 0; i < SECTIONS.length; i++)
+			entryWriters[i] = objectWriter.withRootName(SECTIONS[i]);
+
+		writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+		try
+		{
+			writer.write("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n<SBomDiff>\n");
+		}
+		catch (IOException e)
+		{
+			throw new SBomComparatorException("Unable to start the XML diff!", e);
+		}
+	}
+
+	@Override
+	protected void endDocument() throws IOException
+	{
+		writer.write("</SBomDiff>\n");
+		writer.close();
+	}
+
+	@Override
+	protected void endSection(String name) throws IOException
+	{
+		writer.write("</" + name + ">\n");
+	}
+
+	@Override
+	protected void startSection(String name) throws IOException
+	{
+		writer.write("<" + name + ">\n");
+	}
+
+	@Override
+	protected void writeEntry(String name, Object entry) throws IOException
+	{
+		for (int i = 0; i < SECTIONS.length; i++)
+		{
+			if (SECTIONS[i].equals(name))
+			{
+				entryWriters[i].writeValue(writer, entry);
+				writer.write('\n');
+				break;
+			}
+		}
+	}
+}
@@ -0,0 +1,320 @@
+/*
+ * Copyright (c) 2018,2019 Lockheed Martin Corporation.
+ *
+ * This work is owned by Lockheed Martin Corporation. Lockheed Martin personnel are permitted to use and
+ * modify this software.  Lockheed Martin personnel may also deliver this source code to any US Government
+ * customer Agency under a "US Government Purpose Rights" license.
+ *
+ * See the LICENSE file distributed with this work for licensing and distribution terms
+ */
+package com.lmco.efoss.sbom.comparator.server;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.apache.log4j.Logger;
+
+import com.lmco.efoss.sbom.comparator.dtos.AdmissionStats;
+import com.lmco.efoss.sbom.comparator.exceptions.SBomAdmissionException;
+
+/**
+ * (U) This class keeps the compares run by the server within a heap budget. Each compare's heap
+ * need is estimated from the size of its SBoms before they are parsed; a compare is admitted
+ * while the needs of the compares running, and its own, fit the budget, and otherwise waits, in
+ * the order it arrived, for up to a set time. A compare that could never fit is turned away at
+ * once. So a few large SBoms arriving together wait their turn, or are refused, rather than
+ * running the JVM out of heap and failing every compare running with them.
+ * <p>
+ * Waiting is done on a lock, not a monitor, so compares waiting on virtual threads do not hold
+ * on to their carrier threads.
+ *
+ * @author wrgoff
+ * @since 19 October 2026
+ */
+public class AdmissionController
+{
+	private static final Logger logger = Logger.getLogger(AdmissionController.class.getName());
+
+	// Rough heap a compare holds per byte of its SBoms: both parsed SBoms, their indexes, and
+	// the output, buffered.
+	public static final long BYTES_PER_INPUT_BYTE = 8;
+	public static final long DEFAULT_WAIT_MILLIS = 60000;
+
+	private final long budget;
+	private final long waitMillis;
+	private final ReentrantLock lock = new ReentrantLock();
+	private final Condition released = lock.newCondition();
+	private final Deque<Object> waiting = new ArrayDeque<>();
+	private long inUse = 0;
+	private long admitted = 0;
+	private long queued = 0;
+	private long rejected = 0;
+
+	/**
+	 * (U) This class is the heap a compare was admitted with, given back when it is closed.
+	 */
+	public final class Permit implements AutoCloseable
+	{
+		private final long need;
+		private boolean closed = false;
+
+		private Permit(long need)
+		{
+			this.need = need;
+		}
+
+		/**
+		 * (U) This method is used to give the heap back, letting the compares waiting run.
+		 */
+		@Override
+		public void close()
+		{
+			lock.lock();
+			try
+			{
+				if (closed)
+					return;
+				closed = true;
+				inUse -= need;
+				released.signalAll();
+			}
+			finally
+			{
+				lock.unlock();
+			}
+		}
+
+		public long getNeed()
+		{
+			return need;
+		}
+	}
+
+	/**
+	 * (U) Constructor.
+	 *
+	 * @param budget     long estimated heap, in bytes, the compares may hold at once.
+	 * @param waitMillis long most a compare waits for room before it is turned away.
+	 */
+	public AdmissionController(long budget, long waitMillis)
+	{
+		this.budget = budget;
+		this.waitMillis = waitMillis;
+	}
+
+	/**
+	 * (U) This method is used to admit a compare, waiting for room if the compares running hold
+	 * too much of the budget.
+	 *
+	 * @param inputBytes long size of the compare's SBoms.
+	 * @return Permit to close once the compare is done.
+	 * @throws SBomAdmissionException in the event the compare could never fit the budget, or
+	 *                                there was no room for it in time.
+	 * @throws InterruptedException   in the event we are interrupted while waiting.
+	 */
+	public Permit acquire(long inputBytes) throws SBomAdmissionException, InterruptedException
+	{
+		return acquire(inputBytes, waitMillis);
+	}
+
+	/**
+	 * (U) This method is used to admit a compare, waiting for room for up to the time given.
+	 *
+	 * @param inputBytes long size of the compare's SBoms.
+	 * @param waitMillis long most to wait for room, Long.MAX_VALUE to wait however long it takes.
+	 * @return Permit to close once the compare is done.
+	 * @throws SBomAdmissionException in the event the compare could never fit the budget, or
+	 *                                there was no room for it in time.
+	 * @throws InterruptedException   in the event we are interrupted while waiting.
+	 */
+	public Permit acquire(long inputBytes, long waitMillis)
+			throws SBomAdmissionException, InterruptedException
+	{
+		return acquire(inputBytes, waitMillis, true);
+	}
+
+	/**
+	 * (U) This method is used to admit more of a compare already admitted, as one whose SBoms
+	 * are still arriving, waiting for room as acquire does. It is NOT counted as another compare
+	 * admitted.
+	 *
+	 * @param inputBytes long size of the compare's SBoms NOT yet admitted.
+	 * @return Permit to close, with the compare's first, once the compare is done.
+	 * @throws SBomAdmissionException in the event they could never fit the budget, or there was
+	 *                                no room for them in time.
+	 * @throws InterruptedException   in the event we are interrupted while waiting.
+	 */
+	public Permit acquireMore(long inputBytes) throws SBomAdmissionException, InterruptedException
+	{
+		return acquire(inputBytes, waitMillis, false);
+	}
+
+	/**
+	 * (U) This method is used to admit a compare, or more of one, waiting for room for up to the
+	 * time given.
+	 *
+	 * @param inputBytes long size of the compare's SBoms.
+	 * @param waitMillis long most to wait for room.
+	 * @param counted    boolean true if this is a compare admitted, false if more of one.
+	 * @return Permit to close once the compare is done.
+	 * @throws SBomAdmissionException in the event the compare could never fit the budget, or
+	 *                                there was no room for it in time.
+	 * @throws InterruptedException   in the event we are interrupted while waiting.
+	 */
+	private Permit acquire(long inputBytes, long waitMillis, boolean counted)
+			throws SBomAdmissionException, InterruptedException
+	{
+		check(inputBytes);
+		long need = estimate(inputBytes);
+		
+		lock.lock();
+		try
+		{
+			if ((waiting.isEmpty()) && (inUse + need <= budget))
+				return admit(need, counted);
+			
+			Object ticket = new Object();
+			waiting.addLast(ticket);
+			queued++;
+			try
+			{
+				long left = TimeUnit.MILLISECONDS.toNanos(waitMillis);
+				while ((waiting.peekFirst() != ticket) || (inUse + need > budget))
+				{
+					if (left <= 0)
+					{
+						rejected++;
+						throw new SBomAdmissionException("The server is busy: no room in its " +
+								"heap budget for a compare needing about " + toMegabytes(need) +
+								" MB within " + (waitMillis / 1000) + " seconds.", true);
+					}
+					left = released.awaitNanos(left);
+				}
+				return admit(need, counted);
+			}
+			finally
+			{
+				waiting.remove(ticket);
+				released.signalAll();
+			}
+		}
+		finally
+		{
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * (U) This method is used to turn a compare away, before its SBoms are even read, if it could
+	 * never fit the budget.
+	 *
+	 * @param inputBytes long size of the compare's SBoms, or of the request holding them.
+	 * @throws SBomAdmissionException in the event the compare could never fit the budget.
+	 */
+	public void check(long inputBytes) throws SBomAdmissionException
+	{
+		if (fits(inputBytes))
+			return;
+		long need = estimate(inputBytes);
+		
+		lock.lock();
+		try
+		{
+			rejected++;
+		}
+		finally
+		{
+			lock.unlock();
+		}
+		throw new SBomAdmissionException("The SBoms are too large for this server: the compare " +
+				"needs about " + toMegabytes(need) + " MB of heap, and the budget is " +
+				toMegabytes(budget) + " MB.", false);
+	}
+
+	/**
+	 * (U) This method is used to find out if a compare could ever fit the budget, without
+	 * counting it as turned away if it could not.
+	 *
+	 * @param inputBytes long size of the compare's SBoms.
+	 * @return boolean true if the compare fits the budget when nothing else is running.
+	 */
+	public boolean fits(long inputBytes)
+	{
+		return estimate(inputBytes) <= budget;
+	}
+
+	/**
+	 * (U) This method is used to estimate the heap a compare needs from the size of its SBoms.
+	 *
+	 * @param inputBytes long size of the compare's SBoms.
+	 * @return long the estimated heap, in bytes.
+	 */
+	public static long estimate(long inputBytes)
+	{
+		return inputBytes * BYTES_PER_INPUT_BYTE;
+	}
+
+	/**
+	 * (U) This method is used to get the default heap budget: three quarters of the heap the JVM
+	 * may grow to, less what the parsed SBom cache may hold, but never less than a quarter of the
+	 * heap.
+	 *
+	 * @param cacheBytes long most the parsed SBom cache may hold.
+	 * @return long the budget, in bytes.
+	 */
+	public static long getDefaultBudget(long cacheBytes)
+	{
+		long maxMemory = Runtime.getRuntime().maxMemory();
+		return Math.max(maxMemory / 4, (maxMemory - cacheBytes) / 4 * 3);
+	}
+
+	/**
+	 * (U) This method is used to get the statistics of the admission control.
+	 *
+	 * @return AdmissionStats the statistics now.
+	 */
+	public AdmissionStats getStats()
+	{
+		lock.lock();
+		try
+		{
+			return new AdmissionStats(budget, inUse, waiting.size(), admitted, queued, rejected);
+		}
+		finally
+		{
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * (U) This method is used to admit a compare, holding the lock.
+	 *
+	 * @param need    long estimated heap the compare needs.
+	 * @param counted boolean true if this is a compare admitted, false if more of one.
+	 * @return Permit of the compare.
+	 */
+	private Permit admit(long need, boolean counted)
+	{
+		inUse += need;
+		if (counted)
+			admitted++;
+		if (logger.isDebugEnabled())
+			logger.debug("Admitted a compare needing about " + toMegabytes(need) + " MB, " +
+					toMegabytes(inUse) + " of " + toMegabytes(budget) + " MB in use.");
+		return new Permit(need);
+	}
+
+	/**
+	 * (U) This method is used to turn bytes into whole megabytes, rounding up.
+	 *
+	 * @param bytes long number of bytes.
+	 * @return long the number of megabytes.
+	 */
+	private static long toMegabytes(long bytes)
+	{
+		return (bytes + (1024 * 1024) - 1) / (1024 * 1024);
+	}
+}
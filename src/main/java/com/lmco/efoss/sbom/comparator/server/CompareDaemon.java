@@ -0,0 +1,368 @@
+/*
+ * Copyright (c) 2018,2019 Lockheed Martin Corporation.
+ *
+ * This work is owned by Lockheed Martin Corporation. Lockheed Martin personnel are permitted to use and
+ * modify this software.  Lockheed Martin personnel may also deliver this source code to any US Government
+ * customer Agency under a "US Government Purpose Rights" license.
+ *
+ * See the LICENSE file distributed with this work for licensing and distribution terms
+ */
+package com.lmco.efoss.sbom.comparator.server;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.lang.reflect.InvocationTargetException;
+import java.net.ProtocolFamily;
+import java.net.StandardProtocolFamily;
+import java.nio.channels.Channels;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.apache.log4j.Logger;
+
+import com.lmco.efoss.sbom.comparator.exceptions.SBomComparatorException;
+
+/**
+ * (U) This class is a daemon that runs comparator command lines, sent over a Unix domain socket,
+ * in a JVM that is already started and warm. A client sends the number of arguments, its working
+ * directory and the arguments, each ended by a NUL; the daemon runs them exactly as the command
+ * line would and answers with whatever the command printed, then a last line of "exit 0" or
+ * "exit 1". From a shell:
+ *
+ * <pre>
+ * printf '%s\0' "$#" "$PWD" "$@" | socat -t 3600 - UNIX-CONNECT:/tmp/sbom-comparator.sock
+ * </pre>
+ *
+ * The socket is only open to the user the daemon runs as, from the moment it is bound. Unix domain sockets need Java 16 or
+ * later, and are opened by reflection so the rest of the comparator still runs on older JVMs.
+ *
+ * @author wrgoff
+ * @since 19 October 2026
+ */
+public class CompareDaemon implements Closeable
+{
+	private static final Logger logger = Logger.getLogger(CompareDaemon.class.getName());
+
+	public static final int MAX_ARGUMENTS = 10000;
+
+	/**
+	 * (U) This interface is what runs each command line sent to the daemon.
+	 */
+	public interface CommandRunner
+	{
+		/**
+		 * (U) This method is used to run a command line.
+		 *
+		 * @param directory String working directory of the client, relative file names are
+		 *                  relative to it.
+		 * @param arguments String array of the command line arguments.
+		 * @param out       PrintWriter to print anything meant for the client to.
+		 * @throws Exception in the event the command fails.
+		 */
+		void run(String directory, String[] arguments, PrintWriter out) throws Exception;
+	}
+
+	private final Path socket;
+	private final ServerSocketChannel channel;
+	private final ExecutorService executor;
+	private final CommandRunner runner;
+	private final CountDownLatch stopped = new CountDownLatch(1);
+
+	/**
+	 * (U) Constructor, binds the socket, but does not start accepting commands. A socket file
+	 * left behind by a daemon that is no longer running is replaced.
+	 *
+	 * @param socket  Path of the socket file.
+	 * @param workers int number of commands run at the same time.
+	 * @param runner  CommandRunner to run each command with.
+	 * @throws SBomComparatorException in the event Unix domain sockets are NOT available, a daemon
+	 *                                 is already listening on the socket, or we are unable to
+	 *                                 bind it.
+	 */
+	public CompareDaemon(Path socket, int workers, CommandRunner runner)
+			throws SBomComparatorException
+	{
+		this.socket = socket.toAbsolutePath();
+		this.runner = runner;
+		
+		if (Files.exists(this.socket))
+		{
+			if (isListening(this.socket))
+				throw new SBomComparatorException("A daemon is already listening on " +
+						this.socket + ".");
+			
+			try
+			{
+				Files.delete(this.socket);
+			}
+			catch (IOException e)
+			{
+				String error = "Unable to remove the old socket (" + this.socket + ")!";
+				logger.error(error, e);
+				throw new SBomComparatorException(error, e);
+			}
+		}
+		
+		try
+		{
+			channel = bind(this.socket);
+		}
+		catch (InvocationTargetException e)
+		{
+			String error = "Unable to listen on " + this.socket + "!";
+			logger.error(error, e.getCause());
+			throw new SBomComparatorException(error, e.getCause());
+		}
+		catch (IllegalArgumentException | ReflectiveOperationException e)
+		{
+			String error = "This JVM (" + System.getProperty("java.version") + ") has no Unix " +
+					"domain sockets, the daemon needs Java 16 or later.";
+			logger.error(error, e);
+			throw new SBomComparatorException(error, e);
+		}
+		catch (IOException | UnsupportedOperationException e)
+		{
+			String error = "Unable to listen on " + this.socket + "!";
+			logger.error(error, e);
+			throw new SBomComparatorException(error, e);
+		}
+		executor = Executors.newFixedThreadPool(workers);
+	}
+
+	/**
+	 * (U) This method is used to bind the socket. It is bound in a directory only we can enter,
+	 * made private, and only then moved into place, so it is never open to anyone else, whatever
+	 * the umask.
+	 *
+	 * @param socket Path of the socket file.
+	 * @return ServerSocketChannel bound to the socket.
+	 * @throws IOException                  in the event we are unable to bind the socket.
+	 * @throws ReflectiveOperationException in the event Unix domain sockets are NOT available.
+	 */
+	private static ServerSocketChannel bind(Path socket)
+			throws IOException, ReflectiveOperationException
+	{
+		Path directory = Files.createTempDirectory(socket.getParent(), ".sbom-",
+				PosixFilePermissions.asFileAttribute(PosixFilePermissions.fromString(
+						"rwx------")));
+		Path bound = directory.resolve("s");
+		ServerSocketChannel channel = null;
+		boolean listening = false;
+		try
+		{
+			channel = (ServerSocketChannel) ServerSocketChannel.class.getMethod("open",
+					ProtocolFamily.class).invoke(null, StandardProtocolFamily.valueOf("UNIX"));
+			channel.bind(DaemonClient.getAddress(bound));
+			Files.setPosixFilePermissions(bound, PosixFilePermissions.fromString("rw-------"));
+			Files.move(bound, socket, StandardCopyOption.ATOMIC_MOVE);
+			listening = true;
+			return channel;
+		}
+		finally
+		{
+			if ((channel != null) && (!listening))
+				channel.close();
+			try
+			{
+				Files.deleteIfExists(bound);
+				Files.deleteIfExists(directory);
+			}
+			catch (IOException e)
+			{
+				logger.warn("Failed to remove the directory the socket was bound in (" +
+						directory + ").", e);
+			}
+		}
+	}
+
+	/**
+	 * (U) This method is used to find out if a daemon is listening on a socket.
+	 *
+	 * @param socket Path of the socket file.
+	 * @return boolean true if a daemon answered, false if nothing is listening.
+	 */
+	private static boolean isListening(Path socket)
+	{
+		try
+		{
+			DaemonClient.connect(socket).close();
+			return true;
+		}
+		catch (IOException e)
+		{
+			logger.debug("Nothing is listening on " + socket + ", replacing it.", e);
+			return false;
+		}
+	}
+
+	/**
+	 * (U) This method is used to wait until the daemon is stopped.
+	 *
+	 * @throws InterruptedException in the event we are interrupted while waiting.
+	 */
+	public void awaitStop() throws InterruptedException
+	{
+		stopped.await();
+	}
+
+	/**
+	 * (U) This method is used to stop the daemon and remove its socket. Commands already running
+	 * are interrupted.
+	 */
+	@Override
+	public void close()
+	{
+		if (stopped.getCount() == 0)
+			return;
+		
+		try
+		{
+			channel.close();
+			Files.deleteIfExists(socket);
+		}
+		catch (IOException e)
+		{
+			logger.warn("Failed to remove the socket (" + socket + ").", e);
+		}
+		executor.shutdownNow();
+		stopped.countDown();
+		if (logger.isInfoEnabled())
+			logger.info("Stopped the compare daemon.");
+	}
+
+	/**
+	 * (U) This method is used to get the socket file the daemon listens on.
+	 *
+	 * @return Path of the socket file.
+	 */
+	public Path getSocket()
+	{
+		return socket;
+	}
+
+	/**
+	 * (U) This method is used to start accepting commands, on a thread of its own.
+	 */
+	public void start()
+	{
+		Thread acceptor = new Thread(this::accept, "sbom-comparator-daemon");
+		acceptor.setDaemon(true);
+		acceptor.start();
+		if (logger.isInfoEnabled())
+			logger.info("Compare daemon listening on " + socket);
+	}
+
+	/**
+	 * (U) This method is used to accept connections, until the daemon is stopped, and run each
+	 * one's command on the workers.
+	 */
+	private void accept()
+	{
+		while (channel.isOpen())
+		{
+			try
+			{
+				SocketChannel client = channel.accept();
+				executor.execute(() -> handle(client));
+			}
+			catch (ClosedChannelException e)
+			{
+				logger.debug("The daemon's socket was closed.", e);
+			}
+			catch (IOException e)
+			{
+				logger.error("Failed to accept a connection to the daemon!", e);
+			}
+		}
+	}
+
+	/**
+	 * (U) This method is used to read one field of a command, up to its NUL.
+	 *
+	 * @param in InputStream to read from.
+	 * @return String the field.
+	 * @throws IOException in the event the connection ends before the field does.
+	 */
+	static String readField(InputStream in) throws IOException
+	{
+		ByteArrayOutputStream field = new ByteArrayOutputStream();
+		int b;
+		while ((b = in.read()) != 0)
+		{
+			if (b < 0)
+				throw new IOException("The command ended early.");
+			field.write(b);
+		}
+		return new String(field.toByteArray(), StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * (U) This method is used to run the command of one connection and answer it.
+	 *
+	 * @param client SocketChannel of the connection.
+	 */
+	private void handle(SocketChannel client)
+	{
+		try (SocketChannel connection = client;
+				InputStream in = new BufferedInputStream(Channels.newInputStream(
+						connection));
+				OutputStream out = Channels.newOutputStream(connection))
+		{
+			StringWriter output = new StringWriter();
+			int status = 0;
+			try (PrintWriter writer = new PrintWriter(output))
+			{
+				try
+				{
+					int count = Integer.parseInt(readField(in));
+					if ((count < 0) || (count > MAX_ARGUMENTS))
+						throw new SBomComparatorException("Invalid number of arguments (" +
+								count + ").");
+					String directory = readField(in);
+					String[] arguments = new String[count];
+					for (int i = 0; i < count; i++)
+						arguments[i] = readField(in);
+					
+					runner.run(directory, arguments, writer);
+				}
+				catch (InterruptedException e)
+				{
+					Thread.currentThread().interrupt();
+					status = 1;
+					writer.println("The compare daemon is stopping.");
+				}
+				catch (Exception e)
+				{
+					logger.debug("Daemon command failed.", e);
+					status = 1;
+					writer.println("Failed: " + e.getMessage());
+				}
+			}
+			
+			OutputStreamWriter answer = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+			answer.write(output.toString());
+			answer.write(DaemonClient.EXIT + status + "\n");
+			answer.flush();
+		}
+		catch (IOException e)
+		{
+			logger.warn("Failed to answer a daemon client.", e);
+		}
+	}
+}
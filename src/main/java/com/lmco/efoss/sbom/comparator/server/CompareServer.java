@@ -0,0 +1,1195 @@
+/*
+ * Copyright (c) 2018,2019 Lockheed Martin Corporation.
+ *
+ * This work is owned by Lockheed Martin Corporation. Lockheed Martin personnel are permitted to use and
+ * modify this software.  Lockheed Martin personnel may also deliver this source code to any US Government
+ * customer Agency under a "US Government Purpose Rights" license.
+ *
+ * See the LICENSE file distributed with this work for licensing and distribution terms
+ */
+package com.lmco.efoss.sbom.comparator.server;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UnsupportedEncodingException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.util.AbstractMap;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.log4j.Logger;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.lmco.efoss.sbom.comparator.dtos.CompareJob;
+import com.lmco.efoss.sbom.comparator.dtos.CompareJobStatus;
+import com.lmco.efoss.sbom.comparator.dtos.IndexedBom;
+import com.lmco.efoss.sbom.comparator.dtos.ServerStats;
+import com.lmco.efoss.sbom.comparator.exceptions.SBomAdmissionException;
+import com.lmco.efoss.sbom.comparator.exceptions.SBomComparatorException;
+import com.lmco.efoss.sbom.comparator.utils.ParsedBomCache;
+import com.lmco.efoss.sbom.comparator.utils.SBomDiffCounter;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * (U) This class is a small HTTP server, built on the JDK's own, that compares SBoms for clients
+ * so they do not pay the start up of a new JVM for each compare. Each endpoint takes the two SBoms
+ * in a POST and answers with one output of their compare:
+ *
+ * <pre>
+ * POST /compare/diff?format=json|ndjson|xml  the diff, json by default.
+ * POST /compare/bom?format=json|xml          the diff SBom, json by default.
+ * POST /compare/html?mode=table|css          the HTML report.
+ * GET  /health                               "ok" once the server is up.
+ * GET  /stats                                the statistics of the parsed SBom cache, the
+ *                                            admission control and the compares run.
+ * </pre>
+ *
+ * Given a JobStore, it also runs compares in the background, for those that take longer than a
+ * client, or a gateway in front of the server, will wait:
+ *
+ * <pre>
+ * POST /jobs?format=..&amp;bomformat=..&amp;mode=..  submits a compare, answering with its status.
+ * GET  /jobs/{id}                            the status of the compare.
+ * GET  /jobs/{id}/diff|bom|html              one of its outputs, once it is done.
+ * </pre>
+ *
+ * The SBoms are sent either as the parts "orgSbom" and "newSbom" of a multipart/form-data body,
+ * or, when they are files the server can read, as a JSon body naming them:
+ * {"orgSbom": "a.xml", "newSbom": "b.xml"}. A bad request is answered with a 400 and a JSon body
+ * holding the error. Given a file root, only the files under it are read, named relative to it;
+ * without one, named files are only read when the server listens on a loopback address, so a
+ * server open to the network can NOT be used to read the files of the host it runs on.
+ * <p>
+ * Each request is read and answered on a request thread, and only its parsing and comparing is
+ * handed to a fixed pool of compute threads (uploaded SBoms are parsed there as they arrive, see
+ * compareUpload), so no more compares run at once than there are
+ * workers however many requests are waiting on their clients. Requests for the same compare
+ * (the same output and options, and SBoms with the same SHA-256) that arrive while it is running
+ * share it, rather than each running it again, as when the matrix jobs of a build all compare
+ * the same SBoms at once. The request threads can be virtual threads, one per request, when the
+ * JVM has them (Java 21 and later); otherwise there are as many as there are workers.
+ * <p>
+ * Before it is parsed, each compare is admitted against a heap budget (see AdmissionController),
+ * so large SBoms arriving together wait their turn rather than running the server out of heap.
+ * A compare that could never fit is answered with a 413, and one that found no room in time with
+ * a 503 and a Retry-After header.
+ *
+ * @author wrgoff
+ * @since 19 October 2026
+ */
+public class CompareServer implements Closeable
+{
+	private static final Logger logger = Logger.getLogger(CompareServer.class.getName());
+
+	public static final String DEFAULT_HOST = "127.0.0.1";
+	public static final String NEW_SBOM = "newSbom";
+	public static final String ORG_SBOM = "orgSbom";
+
+	private static final String CONTENT_LENGTH = "Content-Length";
+	private static final String CONTENT_TYPE = "Content-Type";
+	private static final int RETRY_AFTER_SECONDS = 30;
+	private static final String JOBS_PATH = "/jobs";
+	private static final long CLEAN_UP_MINUTES = 10;
+	private static final String JSON_TYPE = "application/json";
+
+	private final HttpServer server;
+	private final ExecutorService executor;
+	private final ExecutorService computePool;
+	private final CompareService service;
+	private final AdmissionController admission;
+	private final JobStore jobs;
+	private final Path fileRoot;
+	private final boolean readsFiles;
+	private final ExecutorService jobPool;
+	private final ScheduledExecutorService cleaner;
+	private final RequestCoalescer<String, byte[]> compares = new RequestCoalescer<>();
+	private final ObjectMapper mapper = new ObjectMapper();
+	private final CountDownLatch stopped = new CountDownLatch(1);
+
+	/**
+	 * (U) Constructor, binds the server, but does not start it.
+	 *
+	 * @param host    String host name or address to listen on.
+	 * @param port    int port to listen on, 0 for any free port.
+	 * @param workers int number of requests handled at the same time.
+	 * @throws SBomComparatorException in the event we are unable to bind the port.
+	 */
+	public CompareServer(String host, int port, int workers) throws SBomComparatorException
+	{
+		this(host, port, workers, false);
+	}
+
+	/**
+	 * (U) Constructor, binds the server, but does not start it.
+	 *
+	 * @param host           String host name or address to listen on.
+	 * @param port           int port to listen on, 0 for any free port.
+	 * @param workers        int number of compares run at the same time.
+	 * @param virtualThreads boolean true to handle each request on its own virtual thread, if
+	 *                       the JVM has them.
+	 * @throws SBomComparatorException in the event we are unable to bind the port.
+	 */
+	public CompareServer(String host, int port, int workers, boolean virtualThreads)
+			throws SBomComparatorException
+	{
+		this(host, port, workers, virtualThreads, ParsedBomCache.DEFAULT_MAX_BYTES);
+	}
+
+	/**
+	 * (U) Constructor, binds the server, but does not start it.
+	 *
+	 * @param host           String host name or address to listen on.
+	 * @param port           int port to listen on, 0 for any free port.
+	 * @param workers        int number of compares run at the same time.
+	 * @param virtualThreads boolean true to handle each request on its own virtual thread, if
+	 *                       the JVM has them.
+	 * @param cacheBytes     long most the parsed SBoms kept for reuse may take, 0 for none.
+	 * @throws SBomComparatorException in the event we are unable to bind the port.
+	 */
+	public CompareServer(String host, int port, int workers, boolean virtualThreads,
+			long cacheBytes) throws SBomComparatorException
+	{
+		this(host, port, workers, virtualThreads, cacheBytes, AdmissionController
+				.getDefaultBudget(cacheBytes));
+	}
+
+	/**
+	 * (U) Constructor, binds the server, but does not start it.
+	 *
+	 * @param host           String host name or address to listen on.
+	 * @param port           int port to listen on, 0 for any free port.
+	 * @param workers        int number of compares run at the same time.
+	 * @param virtualThreads boolean true to handle each request on its own virtual thread, if
+	 *                       the JVM has them.
+	 * @param cacheBytes     long most the parsed SBoms kept for reuse may take, 0 for none.
+	 * @param heapBudget     long estimated heap, in bytes, the compares running may hold at once.
+	 * @throws SBomComparatorException in the event we are unable to bind the port.
+	 */
+	public CompareServer(String host, int port, int workers, boolean virtualThreads,
+			long cacheBytes, long heapBudget) throws SBomComparatorException
+	{
+		this(host, port, workers, virtualThreads, cacheBytes, heapBudget, null);
+	}
+
+	/**
+	 * (U) Constructor, binds the server, but does not start it.
+	 *
+	 * @param host           String host name or address to listen on.
+	 * @param port           int port to listen on, 0 for any free port.
+	 * @param workers        int number of compares run at the same time.
+	 * @param virtualThreads boolean true to handle each request on its own virtual thread, if
+	 *                       the JVM has them.
+	 * @param cacheBytes     long most the parsed SBoms kept for reuse may take, 0 for none.
+	 * @param heapBudget     long estimated heap, in bytes, the compares running may hold at once.
+	 * @param jobs           JobStore to keep the compares submitted to run in the background in,
+	 *                       null to NOT take them.
+	 * @throws SBomComparatorException in the event we are unable to bind the port.
+	 */
+	public CompareServer(String host, int port, int workers, boolean virtualThreads,
+			long cacheBytes, long heapBudget, JobStore jobs) throws SBomComparatorException
+	{
+		this(host, port, workers, virtualThreads, cacheBytes, heapBudget, jobs, null);
+	}
+
+	/**
+	 * (U) Constructor, binds the server, but does not start it.
+	 *
+	 * @param host           String host name or address to listen on.
+	 * @param port           int port to listen on, 0 for any free port.
+	 * @param workers        int number of compares run at the same time.
+	 * @param virtualThreads boolean true to handle each request on its own virtual thread, if
+	 *                       the JVM has them.
+	 * @param cacheBytes     long most the parsed SBoms kept for reuse may take, 0 for none.
+	 * @param heapBudget     long estimated heap, in bytes, the compares running may hold at once.
+	 * @param jobs           JobStore to keep the compares submitted to run in the background in,
+	 *                       null to NOT take them.
+	 * @param fileRoot       String directory the SBom files named in a request are read from,
+	 *                       null to read them only when listening on a loopback address.
+	 * @throws SBomComparatorException in the event we are unable to bind the port, or the file
+	 *                                 root is NOT a directory.
+	 */
+	public CompareServer(String host, int port, int workers, boolean virtualThreads,
+			long cacheBytes, long heapBudget, JobStore jobs, String fileRoot)
+			throws SBomComparatorException
+	{
+		this.jobs = jobs;
+		this.fileRoot = (fileRoot == null) ? null : getFileRoot(fileRoot);
+		service = new CompareService(new ParsedBomCache(cacheBytes));
+		admission = new AdmissionController(heapBudget, AdmissionController.DEFAULT_WAIT_MILLIS);
+		try
+		{
+			server = HttpServer.create(new InetSocketAddress(host, port), 0);
+		}
+		catch (IOException e)
+		{
+			String error = "Unable to listen on " + host + ":" + port + "!";
+			logger.error(error, e);
+			throw new SBomComparatorException(error, e);
+		}
+		readsFiles = (this.fileRoot != null) || (server.getAddress().getAddress()
+				.isLoopbackAddress());
+		
+		ExecutorService requestExecutor = (virtualThreads) ? newVirtualThreadExecutor() : null;
+		executor = (requestExecutor != null) ? requestExecutor :
+				Executors.newFixedThreadPool(workers);
+		computePool = Executors.newFixedThreadPool(workers);
+		jobPool = (jobs == null) ? null : Executors.newFixedThreadPool(workers);
+		cleaner = (jobs == null) ? null : Executors.newSingleThreadScheduledExecutor();
+		server.setExecutor(executor);
+		server.createContext("/compare/diff", exchange -> handleCompare(exchange,
+				CompareService.OUTPUT.DIFF));
+		server.createContext("/compare/bom", exchange -> handleCompare(exchange,
+				CompareService.OUTPUT.BOM));
+		server.createContext("/compare/html", exchange -> handleCompare(exchange,
+				CompareService.OUTPUT.HTML));
+		server.createContext("/health", exchange -> send(exchange, 200, "text/plain",
+				"ok".getBytes(StandardCharsets.UTF_8)));
+		server.createContext("/stats", exchange -> send(exchange, 200, JSON_TYPE,
+				mapper.writeValueAsBytes(getStats())));
+		if (jobs != null)
+			server.createContext(JOBS_PATH, this::handleJobs);
+	}
+
+	/**
+	 * (U) This method is used to wait until the server is stopped.
+	 *
+	 * @throws InterruptedException in the event we are interrupted while waiting.
+	 */
+	public void awaitStop() throws InterruptedException
+	{
+		stopped.await();
+	}
+
+	/**
+	 * (U) This method is used to stop the server, letting the requests being handled finish
+	 * for up to a second.
+	 */
+	@Override
+	public void close()
+	{
+		if (stopped.getCount() == 0)
+			return;
+		
+		server.stop(1);
+		executor.shutdownNow();
+		computePool.shutdownNow();
+		if (jobs != null)
+		{
+			jobPool.shutdownNow();
+			cleaner.shutdownNow();
+		}
+		stopped.countDown();
+		if (logger.isInfoEnabled())
+			logger.info("Stopped the compare server.");
+	}
+
+	/**
+	 * (U) This method is used to get the compares run, and joined, by this server.
+	 *
+	 * @return RequestCoalescer the compares.
+	 */
+	RequestCoalescer<String, byte[]> getCompares()
+	{
+		return compares;
+	}
+
+	/**
+	 * (U) This method is used to get the port the server is listening on.
+	 *
+	 * @return int the port.
+	 */
+	public int getPort()
+	{
+		return server.getAddress().getPort();
+	}
+
+	/**
+	 * (U) This method is used to get the statistics of the server, as answered by GET /stats.
+	 *
+	 * @return ServerStats the statistics now.
+	 */
+	public ServerStats getStats()
+	{
+		return new ServerStats(service.getCache().getStats(), admission.getStats(), compares
+				.getStarted(), compares.getCoalesced());
+	}
+
+	/**
+	 * (U) This method is used to start answering requests.
+	 */
+	public void start()
+	{
+		if (jobs != null)
+		{
+			for (CompareJobStatus job : jobs.getUnfinished())
+			{
+				if (logger.isInfoEnabled())
+					logger.info("Running job (" + job.getId() + ") again, it was " +
+							job.getStatus().toString().toLowerCase(Locale.ENGLISH) +
+							" when the server stopped.");
+				job.setStatus(CompareJobStatus.STATUS.QUEUED);
+				jobPool.execute(() -> runJob(job));
+			}
+			cleaner.scheduleWithFixedDelay(jobs::cleanUp, 0, CLEAN_UP_MINUTES, TimeUnit.MINUTES);
+		}
+		server.start();
+		if (logger.isInfoEnabled())
+			logger.info("Compare server listening on http://" + server.getAddress().getHostString() +
+					":" + getPort() + "/");
+	}
+
+	/**
+	 * (U) This method is used to answer a compare request.
+	 *
+	 * @param exchange HttpExchange of the request.
+	 * @param output   CompareService.OUTPUT asked for.
+	 * @throws IOException in the event we are unable to answer.
+	 */
+	private void handleCompare(HttpExchange exchange, CompareService.OUTPUT output)
+			throws IOException
+	{
+		try
+		{
+			String path = exchange.getRequestURI().getPath();
+			if (!path.equals(exchange.getHttpContext().getPath()))
+			{
+				sendError(exchange, 404, "No such endpoint (" + path + ").");
+				return;
+			}
+			if (!"POST".equalsIgnoreCase(exchange.getRequestMethod()))
+			{
+				sendError(exchange, 405, "Compares must be POSTed.");
+				return;
+			}
+			
+			Map<String, String> query = parseQuery(exchange.getRequestURI().getRawQuery());
+			String contentType = exchange.getRequestHeaders().getFirst(CONTENT_TYPE);
+			if (isMultipart(contentType))
+			{
+				send(exchange, 200, CompareService.getContentType(output, query.get("format")),
+						compareUpload(exchange, output, query, contentType));
+				return;
+			}
+			
+			// Admitted for the SBoms before they are read, and held until answered.
+			byte[] answer;
+			try (RequestAdmission admitted = new RequestAdmission(admission))
+			{
+				List<Map.Entry<String, byte[]>> inputs = readRequest(exchange, admitted);
+				String orgHash = ParsedBomCache.sha256(inputs.get(0).getValue());
+				String newHash = ParsedBomCache.sha256(inputs.get(1).getValue());
+				String key = getCompareKey(output, query, inputs.get(0).getKey(), inputs.get(1)
+						.getKey(), orgHash, newHash);
+				answer = getResult(compares.submit(key, computePool, () -> {
+					IndexedBom orgBom = service.getCache().parse(inputs.get(0).getKey(), inputs
+							.get(0).getValue(), orgHash);
+					IndexedBom newBom = service.getCache().parse(inputs.get(1).getKey(), inputs
+							.get(1).getValue(), newHash);
+					ByteArrayOutputStream out = new ByteArrayOutputStream();
+					service.compare(orgBom, newBom, output, query.get("format"), query.get(
+							"mode"), out);
+					return out.toByteArray();
+				}));
+			}
+			send(exchange, 200, CompareService.getContentType(output, query.get("format")),
+					answer);
+		}
+		catch (SBomAdmissionException e)
+		{
+			sendAdmissionError(exchange, e);
+		}
+		catch (SBomComparatorException e)
+		{
+			logger.debug("Rejected compare request.", e);
+			sendError(exchange, 400, e.getMessage());
+		}
+		catch (InterruptedException e)
+		{
+			Thread.currentThread().interrupt();
+			sendError(exchange, 503, "The compare server is stopping.");
+		}
+		catch (RuntimeException e)
+		{
+			logger.error("Failed to answer compare request!", e);
+			sendError(exchange, 500, "Failed to compare the SBoms: " + e);
+		}
+		finally
+		{
+			exchange.close();
+		}
+	}
+
+	/**
+	 * (U) This method is used to answer a request about compares run in the background: POST
+	 * /jobs submits one, GET /jobs/{id} answers with its status, and GET /jobs/{id}/diff, bom or
+	 * html with one of its outputs, once it is done.
+	 *
+	 * @param exchange HttpExchange of the request.
+	 * @throws IOException in the event we are unable to answer.
+	 */
+	private void handleJobs(HttpExchange exchange) throws IOException
+	{
+		try
+		{
+			String path = exchange.getRequestURI().getPath();
+			String[] parts = path.substring(JOBS_PATH.length()).split("/");
+			boolean post = "POST".equalsIgnoreCase(exchange.getRequestMethod());
+			if ((parts.length > 0) && (!parts[0].isEmpty()))
+				sendError(exchange, 404, "No such endpoint (" + path + ").");
+			else if (parts.length <= 1)
+			{
+				if (post)
+					submitJob(exchange);
+				else
+					sendError(exchange, 405, "Jobs must be POSTed.");
+			}
+			else
+			{
+				CompareJobStatus job = (parts.length <= 3) ? jobs.get(parts[1]) : null;
+				if (job == null)
+					sendError(exchange, 404, "No such job (" + path + ").");
+				else if (post)
+					sendError(exchange, 405, "Jobs are read with a GET.");
+				else if (parts.length == 2)
+					send(exchange, 200, JSON_TYPE, mapper.writeValueAsBytes(job));
+				else
+					sendJobResult(exchange, job, parts[2]);
+			}
+		}
+		catch (SBomAdmissionException e)
+		{
+			sendAdmissionError(exchange, e);
+		}
+		catch (SBomComparatorException e)
+		{
+			logger.debug("Rejected job request.", e);
+			sendError(exchange, 400, e.getMessage());
+		}
+		catch (InterruptedException e)
+		{
+			Thread.currentThread().interrupt();
+			sendError(exchange, 503, "The compare server is stopping.");
+		}
+		catch (RuntimeException e)
+		{
+			logger.error("Failed to answer job request!", e);
+			sendError(exchange, 500, "Failed to answer the job request: " + e);
+		}
+		finally
+		{
+			exchange.close();
+		}
+	}
+
+	/**
+	 * (U) This method is used to turn a request away, before its body is read, if its
+	 * Content-Length is too large for it to ever be admitted.
+	 *
+	 * @param exchange HttpExchange of the request.
+	 * @return long the Content-Length of the request, -1 if it was sent without one (chunked).
+	 * @throws SBomAdmissionException in the event the request is too large.
+	 */
+	private long checkContentLength(HttpExchange exchange) throws SBomAdmissionException
+	{
+		String contentLength = exchange.getRequestHeaders().getFirst(CONTENT_LENGTH);
+		if ((contentLength == null) || (!contentLength.trim().matches("[0-9]{1,18}")))
+			return -1;
+		
+		long length = Long.parseLong(contentLength.trim());
+		admission.check(length);
+		return length;
+	}
+
+	/**
+	 * (U) This method is used to compare the two SBoms uploaded in a multipart body, parsing them
+	 * while the body is still arriving rather than once all of it has. The first SBom part is
+	 * read and handed to the compute pool to be parsed (or found in the cache) while the second
+	 * is read, and the second is parsed on the compute pool as its bytes arrive (see
+	 * parseStreamed). So once the last byte lands only the end of the second SBom's parse, and
+	 * the compare, are left.
+	 * <p>
+	 * The compare is admitted, before the body is read, for the size of the request or, when it
+	 * is sent without a Content-Length (chunked), for the first SBom's bytes as they arrive, then
+	 * for twice the size of the first SBom, and admitted for more should the second SBom outgrow
+	 * that. A chunked SBom is refused once it could never fit the budget. As neither SBom's SHA-256 is
+	 * known until it has arrived, requests for a compare already running still parse their SBoms,
+	 * and only share the compare.
+	 *
+	 * @param exchange    HttpExchange of the request.
+	 * @param output      CompareService.OUTPUT asked for.
+	 * @param query       Map of the request's query parameters.
+	 * @param contentType String content type of the request, holding the boundary.
+	 * @return byte array holding the output.
+	 * @throws SBomComparatorException in the event the SBoms are missing, too large, or can NOT
+	 *                                 be compared.
+	 * @throws IOException             in the event we are unable to read the body.
+	 * @throws InterruptedException    in the event we are interrupted while waiting.
+	 */
+	private byte[] compareUpload(HttpExchange exchange, CompareService.OUTPUT output,
+			Map<String, String> query, String contentType)
+			throws SBomComparatorException, IOException, InterruptedException
+	{
+		long contentLength = checkContentLength(exchange);
+		MultipartReader reader = new MultipartReader(exchange.getRequestBody(), contentType);
+		Map<String, Future<IndexedBom>> boms = new HashMap<>();
+		Map<String, String> hashes = new HashMap<>();
+		long firstBytes = 0;
+		try (RequestAdmission admitted = new RequestAdmission(admission))
+		{
+			if (contentLength >= 0)
+				admitted.admit(contentLength);
+			for (MultipartReader.Part part = reader.next(); part != null; part = reader.next())
+			{
+				String partName = part.getName();
+				if ((!ORG_SBOM.equals(partName)) && (!NEW_SBOM.equals(partName)))
+					continue;
+				if (boms.containsKey(partName))
+					throw new SBomComparatorException("The " + partName + " part is sent more " +
+							"than once.");
+				
+				String name = (part.getFileName() == null) ? partName : part.getFileName();
+				if (boms.isEmpty())
+				{
+					byte[] content = admitted.read(part, 0);
+					String hash = ParsedBomCache.sha256(content);
+					firstBytes = content.length;
+					admitted.admit(2L * firstBytes);
+					boms.put(partName, computePool.submit(() -> service.getCache().parse(name,
+							content, hash)));
+					hashes.put(partName, hash);
+				}
+				else
+				{
+					Map.Entry<String, IndexedBom> parsed = parseStreamed(part, name, admitted,
+							firstBytes);
+					boms.put(partName, CompletableFuture.completedFuture(parsed.getValue()));
+					hashes.put(partName, parsed.getKey());
+				}
+			}
+			if (boms.size() < 2)
+				throw new SBomComparatorException("A multipart compare needs both the " +
+						ORG_SBOM + " and " + NEW_SBOM + " parts.");
+			
+			IndexedBom orgBom = getResult(boms.get(ORG_SBOM));
+			IndexedBom newBom = getResult(boms.get(NEW_SBOM));
+			String key = getCompareKey(output, query, orgBom.getName(), newBom.getName(),
+					hashes.get(ORG_SBOM), hashes.get(NEW_SBOM));
+			return getResult(compares.submit(key, computePool, () -> {
+				ByteArrayOutputStream out = new ByteArrayOutputStream();
+				service.compare(orgBom, newBom, output, query.get("format"), query.get("mode"),
+						out);
+				return out.toByteArray();
+			}));
+		}
+		finally
+		{
+			for (Future<IndexedBom> bom : boms.values())
+				bom.cancel(false);
+		}
+	}
+
+	/**
+	 * (U) This method is used to parse the second SBom of an upload as it arrives. This thread
+	 * reads its bytes, hashing and counting them, and hands them through an UploadPipe to a parse
+	 * on the compute pool, so uploads are only ever parsed on the -w compute threads, however
+	 * many arrive at once. Should the upload hold more than was admitted, as a chunked one may,
+	 * it is admitted for half as much again each time it does, or refused once it could never
+	 * fit the budget.
+	 *
+	 * @param part       MultipartReader.Part holding the SBom.
+	 * @param name       String name of the SBom.
+	 * @param admitted   RequestAdmission the upload holds, admitted for more as it grows.
+	 * @param firstBytes long size of the first SBom.
+	 * @return Map.Entry of the SBom's SHA-256 to the SBom, from the cache if it is there.
+	 * @throws SBomComparatorException in the event the SBom is too large, or is NOT an SBom.
+	 * @throws IOException             in the event we are unable to read the body.
+	 * @throws InterruptedException    in the event we are interrupted while waiting.
+	 */
+	private Map.Entry<String, IndexedBom> parseStreamed(MultipartReader.Part part, String name,
+			RequestAdmission admitted, long firstBytes)
+			throws SBomComparatorException, IOException, InterruptedException
+	{
+		UploadPipe pipe = new UploadPipe(UploadPipe.DEFAULT_CHUNKS);
+		Future<IndexedBom> parsed = computePool.submit(() -> {
+			try
+			{
+				return new IndexedBom(name, ParsedBomCache.parseBom(name, pipe));
+			}
+			finally
+			{
+				pipe.close();
+			}
+		});
+		
+		MessageDigest digest = ParsedBomCache.newSha256();
+		boolean read = false;
+		try
+		{
+			byte[] buffer = new byte[64 * 1024];
+			int count;
+			while ((count = part.read(buffer)) >= 0)
+			{
+				admitted.grow(firstBytes + part.getSize());
+				digest.update(buffer, 0, count);
+				
+				// Once the parse has stopped reading, the rest is only hashed.
+				pipe.write(buffer, 0, count);
+			}
+			pipe.end();
+			read = true;
+		}
+		finally
+		{
+			if (!read)
+				pipe.abort();
+		}
+		
+		String hash = ParsedBomCache.toHex(digest.digest());
+		return new AbstractMap.SimpleImmutableEntry<>(hash, service.getCache().add(hash, part
+				.getSize(), getResult(parsed)));
+	}
+
+	/**
+	 * (U) This method is used to get the key of a compare, which is the same for every request
+	 * that would get the same answer: the output and its options, and the SHA-256 of both SBoms.
+	 * The names of the SBoms are only part of it for the HTML report, the only output showing
+	 * them.
+	 *
+	 * @param output  CompareService.OUTPUT asked for.
+	 * @param query   Map of the request's query parameters.
+	 * @param orgName String name of the original SBom.
+	 * @param newName String name of the new SBom.
+	 * @param orgHash String SHA-256 of the original SBom.
+	 * @param newHash String SHA-256 of the new SBom.
+	 * @return String the key of the compare.
+	 */
+	private static String getCompareKey(CompareService.OUTPUT output, Map<String, String> query,
+			String orgName, String newName, String orgHash, String newHash)
+	{
+		StringBuilder key = new StringBuilder(output.name());
+		key.append('\n').append(query.get("format")).append('\n').append(query.get("mode"));
+		key.append('\n').append(orgHash).append('\n').append(newHash);
+		if (output == CompareService.OUTPUT.HTML)
+			key.append('\n').append(orgName).append('\n').append(newName);
+		return key.toString();
+	}
+
+	/**
+	 * (U) This method is used to wait for the result of a compare run on the compute pool.
+	 *
+	 * @param <T>    type of the result.
+	 * @param result Future of the compare.
+	 * @return T the result of the compare.
+	 * @throws SBomComparatorException in the event the compare failed.
+	 * @throws InterruptedException    in the event we are interrupted while waiting.
+	 */
+	private static <T> T getResult(Future<T> result)
+			throws SBomComparatorException, InterruptedException
+	{
+		try
+		{
+			return result.get();
+		}
+		catch (ExecutionException e)
+		{
+			if (e.getCause() instanceof SBomComparatorException)
+				throw (SBomComparatorException) e.getCause();
+			else if (e.getCause() instanceof InterruptedException)
+				throw (InterruptedException) e.getCause();
+			else if (e.getCause() instanceof RuntimeException)
+				throw (RuntimeException) e.getCause();
+			throw new IllegalStateException(e.getCause());
+		}
+	}
+
+	/**
+	 * (U) This method is used to check if a request holds a multipart/form-data body.
+	 *
+	 * @param contentType String content type of the request, may be null.
+	 * @return boolean true if the body is multipart/form-data.
+	 */
+	private static boolean isMultipart(String contentType)
+	{
+		return ((contentType != null) && (contentType.toLowerCase(Locale.ENGLISH).startsWith(
+				"multipart/form-data")));
+	}
+
+	/**
+	 * (U) This method is used to split a multipart/form-data body into its parts.
+	 *
+	 * @param body        byte array holding the body.
+	 * @param contentType String content type of the body, holding the boundary.
+	 * @return Map of each part's name to its file name (or name) and content.
+	 * @throws SBomComparatorException in the event the body is NOT well formed.
+	 */
+	static Map<String, Map.Entry<String, byte[]>> parseMultipart(byte[] body,
+			String contentType) throws SBomComparatorException
+	{
+		Map<String, Map.Entry<String, byte[]>> parts = new HashMap<>();
+		MultipartReader reader = new MultipartReader(new ByteArrayInputStream(body),
+				contentType);
+		try
+		{
+			for (MultipartReader.Part part = reader.next(); part != null; part = reader.next())
+			{
+				if (part.getName() != null)
+					parts.put(part.getName(), new AbstractMap.SimpleImmutableEntry<>((part
+							.getFileName() == null) ? part.getName() : part.getFileName(),
+							readBody(part)));
+			}
+		}
+		catch (IOException e)
+		{
+			// A body already in memory is always read.
+			throw new IllegalStateException(e);
+		}
+		return parts;
+	}
+
+	/**
+	 * (U) This method is used to create an executor that runs each task on a new virtual thread.
+	 * It is looked up by reflection, so the server still runs on JVMs without virtual threads.
+	 *
+	 * @return ExecutorService the executor, null if the JVM has no virtual threads.
+	 */
+	static ExecutorService newVirtualThreadExecutor()
+	{
+		try
+		{
+			Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+			return (ExecutorService) factory.invoke(null);
+		}
+		catch (NoSuchMethodException | IllegalAccessException | InvocationTargetException e)
+		{
+			logger.warn("This JVM (" + System.getProperty("java.version") + ") has no virtual " +
+					"threads, handling requests on the worker threads instead.");
+			if (logger.isDebugEnabled())
+				logger.debug("Virtual threads are NOT available.", e);
+			return null;
+		}
+	}
+
+	/**
+	 * (U) This method is used to split a query string into its parameters.
+	 *
+	 * @param query String raw query, may be null.
+	 * @return Map of the parameters' names to their values.
+	 * @throws UnsupportedEncodingException never, UTF-8 is always supported.
+	 */
+	private static Map<String, String> parseQuery(String query) throws UnsupportedEncodingException
+	{
+		if ((query == null) || (query.isEmpty()))
+			return Collections.emptyMap();
+		
+		Map<String, String> parameters = new HashMap<>();
+		for (String parameter : query.split("&"))
+		{
+			int equals = parameter.indexOf('=');
+			if (equals > 0)
+				parameters.put(URLDecoder.decode(parameter.substring(0, equals), "UTF-8"),
+						URLDecoder.decode(parameter.substring(equals + 1), "UTF-8"));
+		}
+		return parameters;
+	}
+
+	/**
+	 * (U) This method is used to read the bytes of the two SBoms of a request, from a multipart
+	 * body or from the files named in a JSon body. They are parsed later, on the compute pool.
+	 * Files are admitted for their size before they are read.
+	 *
+	 * @param contentType String content type of the request, may be null.
+	 * @param body        byte array holding the body of the request.
+	 * @param admitted    RequestAdmission the request holds.
+	 * @return List of the original SBom then the new SBom, each its name and content.
+	 * @throws SBomComparatorException in the event the SBoms are missing, can NOT be read, or are
+	 *                                 too large.
+	 * @throws InterruptedException    in the event we are interrupted while waiting.
+	 */
+	private List<Map.Entry<String, byte[]>> readInputs(String contentType, byte[] body,
+			RequestAdmission admitted) throws SBomComparatorException, InterruptedException
+	{
+		if (isMultipart(contentType))
+		{
+			Map<String, Map.Entry<String, byte[]>> parts = parseMultipart(body, contentType);
+			if ((!parts.containsKey(ORG_SBOM)) || (!parts.containsKey(NEW_SBOM)))
+				throw new SBomComparatorException("A multipart compare needs both the " +
+						ORG_SBOM + " and " + NEW_SBOM + " parts.");
+			return Arrays.asList(parts.get(ORG_SBOM), parts.get(NEW_SBOM));
+		}
+		
+		CompareJob job;
+		try
+		{
+			job = mapper.readValue(body, CompareJob.class);
+		}
+		catch (IOException e)
+		{
+			throw new SBomComparatorException("A compare needs a multipart body, or a JSon " +
+					"body naming the " + ORG_SBOM + " and " + NEW_SBOM + " files.", e);
+		}
+		Path orgSbom = getNamedFile(job.getOrgSbom());
+		Path newSbom = getNamedFile(job.getNewSbom());
+		admitted.admit(ParsedBomCache.getSize(orgSbom.toString()) + ParsedBomCache.getSize(
+				newSbom.toString()));
+		return Arrays.asList(new AbstractMap.SimpleImmutableEntry<>(job.getOrgSbom(),
+				ParsedBomCache.readBytes(orgSbom.toString())), new AbstractMap
+						.SimpleImmutableEntry<>(job.getNewSbom(), ParsedBomCache.readBytes(
+								newSbom.toString())));
+	}
+
+	/**
+	 * (U) This method is used to find an SBom file named in a request. Given a file root, the
+	 * name is resolved against it, and the file, its links followed, must be under it; without
+	 * one, only a server listening on a loopback address reads named files at all. A file that is
+	 * refused, missing or NOT a file gets the same error, so a client can NOT tell which files
+	 * exist.
+	 *
+	 * @param fileName String name of the SBom file, as sent by the client.
+	 * @return Path of the file to read.
+	 * @throws SBomComparatorException in the event the file may NOT, or can NOT, be read.
+	 */
+	private Path getNamedFile(String fileName) throws SBomComparatorException
+	{
+		if (!readsFiles)
+			throw new SBomComparatorException("This server does NOT read SBom files named in a " +
+					"request, upload them as the " + ORG_SBOM + " and " + NEW_SBOM + " parts " +
+					"of a multipart body.");
+		if (fileName == null)
+			throw new SBomComparatorException("No SBom file name provided!");
+		
+		try
+		{
+			Path file = ((fileRoot == null) ? Paths.get(fileName) : fileRoot.resolve(fileName))
+					.toRealPath();
+			if (((fileRoot == null) || (file.startsWith(fileRoot))) && (Files.isRegularFile(
+					file)))
+				return file;
+		}
+		catch (IOException | InvalidPathException e)
+		{
+			if (logger.isDebugEnabled())
+				logger.debug("Unable to find SBom file (" + fileName + "): " + e.getMessage());
+		}
+		throw new SBomComparatorException("Unable to read SBom file (" + fileName + ").");
+	}
+
+	/**
+	 * (U) This method is used to get the directory the SBom files named in a request are read
+	 * from, its links followed, so a file under it is found by its real path.
+	 *
+	 * @param fileRoot String name of the directory.
+	 * @return Path the real path of the directory.
+	 * @throws SBomComparatorException in the event it is NOT a directory.
+	 */
+	private static Path getFileRoot(String fileRoot) throws SBomComparatorException
+	{
+		try
+		{
+			Path root = Paths.get(fileRoot).toRealPath();
+			if (Files.isDirectory(root))
+				return root;
+		}
+		catch (IOException | InvalidPathException e)
+		{
+			String error = "Unable to find the server root (" + fileRoot + ")!";
+			logger.error(error, e);
+			throw new SBomComparatorException(error, e);
+		}
+		throw new SBomComparatorException("The server root (" + fileRoot + ") is NOT a " +
+				"directory.");
+	}
+
+	/**
+	 * (U) This method is used to read the two SBoms of a compare request. A request too large
+	 * to ever be admitted is turned away before its body is read, and the request is admitted
+	 * for its body, and the files it names, before they are read.
+	 *
+	 * @param exchange HttpExchange of the request.
+	 * @param admitted RequestAdmission the request holds, until it is answered.
+	 * @return List of the original SBom then the new SBom, each its name and content.
+	 * @throws SBomComparatorException in the event the SBoms are missing, can NOT be read, or are
+	 *                                 too large.
+	 * @throws IOException             in the event we are unable to read the body.
+	 * @throws InterruptedException    in the event we are interrupted while waiting.
+	 */
+	private List<Map.Entry<String, byte[]>> readRequest(HttpExchange exchange,
+			RequestAdmission admitted)
+			throws SBomComparatorException, IOException, InterruptedException
+	{
+		long contentLength = checkContentLength(exchange);
+		if (contentLength >= 0)
+			admitted.admit(contentLength);
+		byte[] body = admitted.read(exchange.getRequestBody(), 0);
+		return readInputs(exchange.getRequestHeaders().getFirst(CONTENT_TYPE), body, admitted);
+	}
+
+	/**
+	 * (U) This method is used to run a job, in the background. It waits, however long it takes,
+	 * to be admitted, then compares its SBoms, read back from the job store, on the compute pool
+	 * and writes all of its outputs in one pass. A job stopped by the server stopping is left as
+	 * it is, to run again when the server starts.
+	 *
+	 * @param job CompareJobStatus of the job to run.
+	 */
+	private void runJob(CompareJobStatus job)
+	{
+		Path orgSbom = jobs.getSbom(job.getId(), JobStore.ORG_SBOM_FILE);
+		Path newSbom = jobs.getSbom(job.getId(), JobStore.NEW_SBOM_FILE);
+		try
+		{
+			AdmissionController.Permit permit = admission.acquire(Files.size(orgSbom) + Files.size(
+					newSbom), Long.MAX_VALUE);
+			try
+			{
+				job.setStatus(CompareJobStatus.STATUS.RUNNING);
+				jobs.save(job);
+				SBomDiffCounter counter = getResult(computePool.submit(() -> {
+					IndexedBom orgBom = service.getCache().parse(job.getOrgSbom(),
+							ParsedBomCache.readBytes(orgSbom.toString()));
+					IndexedBom newBom = service.getCache().parse(job.getNewSbom(),
+							ParsedBomCache.readBytes(newSbom.toString()));
+					return service.compare(orgBom, newBom, jobs.openResults(job.getId()), job
+							.getFormat(), job.getBomFormat(), job.getMode());
+				}));
+				job.setAdded(counter.getAdded());
+				job.setRemoved(counter.getRemoved());
+				job.setModified(counter.getModified());
+				jobs.finish(job);
+			}
+			finally
+			{
+				permit.close();
+			}
+			if (logger.isInfoEnabled())
+				logger.info("Job (" + job.getId() + ") is done: " + job.getAdded() + " added, " +
+						job.getRemoved() + " removed, " + job.getModified() + " modified.");
+		}
+		catch (InterruptedException e)
+		{
+			Thread.currentThread().interrupt();
+			if (logger.isInfoEnabled())
+				logger.info("Stopped job (" + job.getId() + "), it will run again when the " +
+						"server starts.");
+		}
+		catch (SBomComparatorException | IOException | RuntimeException e)
+		{
+			logger.error("Job (" + job.getId() + ") failed!", e);
+			try
+			{
+				jobs.fail(job, e.getMessage());
+			}
+			catch (SBomComparatorException failError)
+			{
+				logger.error("Unable to mark job (" + job.getId() + ") failed!", failError);
+			}
+		}
+	}
+
+	/**
+	 * (U) This method is used to read a request body.
+	 *
+	 * @param in InputStream of the body.
+	 * @return byte array holding the body.
+	 * @throws IOException in the event we are unable to read the body.
+	 */
+	private static byte[] readBody(InputStream in) throws IOException
+	{
+		ByteArrayOutputStream body = new ByteArrayOutputStream();
+		byte[] buffer = new byte[64 * 1024];
+		int read;
+		while ((read = in.read(buffer)) >= 0)
+			body.write(buffer, 0, read);
+		return body.toByteArray();
+	}
+
+	/**
+	 * (U) This method is used to send a response.
+	 *
+	 * @param exchange    HttpExchange of the request.
+	 * @param status      int HTTP status.
+	 * @param contentType String content type of the body.
+	 * @param body        byte array holding the body.
+	 * @throws IOException in the event we are unable to send the response.
+	 */
+	private static void send(HttpExchange exchange, int status, String contentType, byte[] body)
+			throws IOException
+	{
+		exchange.getResponseHeaders().set(CONTENT_TYPE, contentType);
+		exchange.sendResponseHeaders(status, (body.length == 0) ? -1 : body.length);
+		try (OutputStream out = exchange.getResponseBody())
+		{
+			out.write(body);
+		}
+	}
+
+	/**
+	 * (U) This method is used to answer a compare that was NOT admitted: with a 503 and a
+	 * Retry-After header if it may be sent again later, otherwise with a 413.
+	 *
+	 * @param exchange HttpExchange of the request.
+	 * @param e        SBomAdmissionException saying why.
+	 * @throws IOException in the event we are unable to send the response.
+	 */
+	private void sendAdmissionError(HttpExchange exchange, SBomAdmissionException e)
+			throws IOException
+	{
+		logger.warn("Turned a compare away: " + e.getMessage());
+		if (e.isRetryable())
+		{
+			exchange.getResponseHeaders().set("Retry-After", String.valueOf(
+					RETRY_AFTER_SECONDS));
+			sendError(exchange, 503, e.getMessage());
+		}
+		else
+			sendError(exchange, 413, e.getMessage());
+	}
+
+	/**
+	 * (U) This method is used to send an error, as a JSon body holding the message.
+	 *
+	 * @param exchange HttpExchange of the request.
+	 * @param status   int HTTP status.
+	 * @param message  String error message.
+	 * @throws IOException in the event we are unable to send the response.
+	 */
+	private void sendError(HttpExchange exchange, int status, String message) throws IOException
+	{
+		send(exchange, status, JSON_TYPE, mapper.writeValueAsBytes(Collections.singletonMap(
+				"error", message)));
+	}
+
+	/**
+	 * (U) This method is used to send one output of a job, once it is done.
+	 *
+	 * @param exchange HttpExchange of the request.
+	 * @param job      CompareJobStatus of the job.
+	 * @param name     String name of the output: diff, bom or html.
+	 * @throws IOException in the event we are unable to send the response.
+	 */
+	private void sendJobResult(HttpExchange exchange, CompareJobStatus job, String name)
+			throws IOException
+	{
+		CompareService.OUTPUT output = null;
+		for (CompareService.OUTPUT value : CompareService.OUTPUT.values())
+		{
+			if (value.toString().equalsIgnoreCase(name))
+				output = value;
+		}
+		
+		if (output == null)
+		{
+			sendError(exchange, 404, "No such output (" + name + "), use diff, bom or html.");
+			return;
+		}
+		if (job.getStatus() != CompareJobStatus.STATUS.DONE)
+		{
+			sendError(exchange, 409, "Job (" + job.getId() + ") is " + job.getStatus()
+					.toString().toLowerCase(Locale.ENGLISH) + ((job.getError() == null) ? "." :
+							": " + job.getError()));
+			return;
+		}
+		
+		Path result = jobs.getResult(job.getId(), output);
+		if (!Files.exists(result))
+		{
+			sendError(exchange, 404, "The " + name + " of job (" + job.getId() + ") is gone.");
+			return;
+		}
+		
+		exchange.getResponseHeaders().set(CONTENT_TYPE, CompareService.getContentType(output,
+				(output == CompareService.OUTPUT.BOM) ? job.getBomFormat() : job.getFormat()));
+		exchange.sendResponseHeaders(200, Files.size(result));
+		try (OutputStream out = exchange.getResponseBody())
+		{
+			Files.copy(result, out);
+		}
+	}
+
+	/**
+	 * (U) This method is used to submit a compare to run in the background, and answer with its
+	 * status, at once. The job id is made from what the compare would answer with, so the same
+	 * compare submitted again is handed the job already queued, running or done, and is not run
+	 * again.
+	 *
+	 * @param exchange HttpExchange of the request.
+	 * @throws SBomComparatorException in the event the request is bad, or too large.
+	 * @throws IOException             in the event we are unable to read the request or answer.
+	 * @throws InterruptedException    in the event we are interrupted while waiting.
+	 */
+	private void submitJob(HttpExchange exchange)
+			throws SBomComparatorException, IOException, InterruptedException
+	{
+		Map<String, String> query = parseQuery(exchange.getRequestURI().getRawQuery());
+		CompareService.checkOptions(query.get("format"), query.get("bomformat"), query.get(
+				"mode"));
+		try (RequestAdmission admitted = new RequestAdmission(admission))
+		{
+			// Only held while the SBoms are read and stored, the job is admitted when it runs.
+			storeJob(exchange, query, readRequest(exchange, admitted));
+		}
+	}
+
+	/**
+	 * (U) This method is used to store a job submitted, queue it if it is new, and answer with
+	 * its status.
+	 *
+	 * @param exchange HttpExchange of the request.
+	 * @param query    Map of the request's query parameters.
+	 * @param inputs   List of the original SBom then the new SBom, each its name and content.
+	 * @throws SBomComparatorException in the event we are unable to store the job.
+	 * @throws IOException             in the event we are unable to answer.
+	 */
+	private void storeJob(HttpExchange exchange, Map<String, String> query,
+			List<Map.Entry<String, byte[]>> inputs) throws SBomComparatorException, IOException
+	{
+		String key = "JOB\n" + query.get("format") + "\n" + query.get("bomformat") + "\n" +
+				query.get("mode") + "\n" + ParsedBomCache.sha256(inputs.get(0).getValue()) +
+				"\n" + ParsedBomCache.sha256(inputs.get(1).getValue()) + "\n" + inputs.get(0)
+						.getKey() + "\n" + inputs.get(1).getKey();
+		String id = ParsedBomCache.sha256(key.getBytes(StandardCharsets.UTF_8)).substring(0, 32);
+		
+		CompareJobStatus job = new CompareJobStatus(id, inputs.get(0).getKey(), inputs.get(1)
+				.getKey());
+		job.setFormat(query.get("format"));
+		job.setBomFormat(query.get("bomformat"));
+		job.setMode(query.get("mode"));
+		CompareJobStatus stored = jobs.create(job, inputs.get(0).getValue(), inputs.get(1)
+				.getValue());
+		if (stored == job)
+		{
+			if (logger.isInfoEnabled())
+				logger.info("Queued job (" + id + "), comparing " + job.getOrgSbom() + " to " +
+						job.getNewSbom() + ".");
+			jobPool.execute(() -> runJob(job));
+		}
+		
+		exchange.getResponseHeaders().set("Location", JOBS_PATH + "/" + id);
+		send(exchange, 202, JSON_TYPE, mapper.writeValueAsBytes(stored));
+	}
+}
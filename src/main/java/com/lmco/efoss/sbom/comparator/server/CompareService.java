@@ -0,0 +1,303 @@
+/*
+ * Copyright (c) 2018,2019 Lockheed Martin Corporation.
+ *
+ * This work is owned by Lockheed Martin Corporation. Lockheed Martin personnel are permitted to use and
+ * modify this software.  Lockheed Martin personnel may also deliver this source code to any US Government
+ * customer Agency under a "US Government Purpose Rights" license.
+ *
+ * See the LICENSE file distributed with this work for licensing and distribution terms
+ */
+package com.lmco.efoss.sbom.comparator.server;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.apache.log4j.Logger;
+
+import com.lmco.efoss.sbom.commons.utils.SBomCommons;
+import com.lmco.efoss.sbom.comparator.builder.HtmlBuilder;
+import com.lmco.efoss.sbom.comparator.builder.HtmlDiffWriter;
+import com.lmco.efoss.sbom.comparator.dtos.IndexedBom;
+import com.lmco.efoss.sbom.comparator.exceptions.SBomComparatorException;
+import com.lmco.efoss.sbom.comparator.generator.SBomDiffBomWriter;
+import com.lmco.efoss.sbom.comparator.generator.SBomJSonDiffWriter;
+import com.lmco.efoss.sbom.comparator.generator.SBomNdJsonDiffWriter;
+import com.lmco.efoss.sbom.comparator.generator.SBomXmlDiffWriter;
+import com.lmco.efoss.sbom.comparator.utils.ParsedBomCache;
+import com.lmco.efoss.sbom.comparator.utils.SBomCompareUtils;
+import com.lmco.efoss.sbom.comparator.utils.SBomDiffCounter;
+import com.lmco.efoss.sbom.comparator.utils.SBomDiffListener;
+import com.lmco.efoss.sbom.comparator.utils.SBomDiffTee;
+
+/**
+ * (U) This class is the compare engine behind the compare server: it reads SBoms, from files or
+ * from bytes sent by a client, and writes one output of their compare (the diff, the diff SBom or
+ * the HTML report) to a stream. The SBoms are parsed through a cache, so one sent again is not
+ * parsed again; otherwise it holds no state between compares, and one CompareService is shared by
+ * every request.
+ *
+ * @author wrgoff
+ * @since 19 October 2026
+ */
+public class CompareService
+{
+	private static final Logger logger = Logger.getLogger(CompareService.class.getName());
+
+	public enum OUTPUT
+	{
+		DIFF, BOM, HTML
+	}
+
+	private final ParsedBomCache cache;
+
+	/**
+	 * (U) Constructor.
+	 *
+	 * @param cache ParsedBomCache to parse the SBoms through.
+	 */
+	public CompareService(ParsedBomCache cache)
+	{
+		this.cache = cache;
+	}
+
+	/**
+	 * (U) This method is used to compare two SBoms and write one output of the compare.
+	 *
+	 * @param orgBom IndexedBom the original SBom.
+	 * @param newBom IndexedBom the new SBom.
+	 * @param output OUTPUT to write.
+	 * @param format String format of the diff (json, ndjson or xml) or diff SBom (json or xml),
+	 *               null for json.
+	 * @param mode   String html mode, table or css, null for table.
+	 * @param out    OutputStream to write the output to. It is closed once the output is written.
+	 * @return SBomDiffCounter the number of components added, removed and modified.
+	 * @throws SBomComparatorException in the event the format or mode is invalid, or we are
+	 *                                 unable to write the output.
+	 */
+	public SBomDiffCounter compare(IndexedBom orgBom, IndexedBom newBom, OUTPUT output,
+			String format, String mode, OutputStream out) throws SBomComparatorException
+	{
+		return compare(orgBom, newBom, Collections.singletonMap(output, out), format, format,
+				mode);
+	}
+
+	/**
+	 * (U) This method is used to compare two SBoms once and write any of the outputs of the
+	 * compare, all in the same pass.
+	 *
+	 * @param orgBom     IndexedBom the original SBom.
+	 * @param newBom     IndexedBom the new SBom.
+	 * @param outputs    Map of each OUTPUT to write to the OutputStream to write it to. Each is
+	 *                   closed once the outputs are written, unfinished if the compare fails.
+	 * @param diffFormat String format of the diff (json, ndjson or xml), null for json.
+	 * @param bomFormat  String format of the diff SBom (json or xml), null for json.
+	 * @param mode       String html mode, table or css, null for table.
+	 * @return SBomDiffCounter the number of components added, removed and modified.
+	 * @throws SBomComparatorException in the event a format or the mode is invalid, or we are
+	 *                                 unable to write the outputs.
+	 */
+	public SBomDiffCounter compare(IndexedBom orgBom, IndexedBom newBom,
+			Map<OUTPUT, OutputStream> outputs, String diffFormat, String bomFormat, String mode)
+			throws SBomComparatorException
+	{
+		SBomDiffCounter counter = new SBomDiffCounter();
+		SBomDiffTee tee = new SBomDiffTee();
+		try
+		{
+			for (Map.Entry<OUTPUT, OutputStream> output : outputs.entrySet())
+				tee.add(openWriter(orgBom, newBom, output.getKey(), (output.getKey().equals(
+						OUTPUT.BOM)) ? bomFormat : diffFormat, mode, output.getValue()));
+			tee.add(counter);
+			SBomCompareUtils.compareComponents(orgBom, newBom, tee);
+			tee.close();
+		}
+		catch (SBomComparatorException | RuntimeException e)
+		{
+			abort(tee, outputs, e);
+			throw e;
+		}
+		catch (IOException e)
+		{
+			abort(tee, outputs, e);
+			String error = "Failed to write the " + outputs.keySet().stream().map(
+					output -> output.toString().toLowerCase(Locale.ENGLISH)).collect(
+							Collectors.joining(", ")) + " of the compare!";
+			logger.error(error, e);
+			throw new SBomComparatorException(error, e);
+		}
+		
+		if (logger.isDebugEnabled())
+			logger.debug("Compared " + orgBom.getName() + " to " + newBom.getName() + ": " +
+					counter + ".");
+		return counter;
+	}
+
+	/**
+	 * (U) This method is used, once a compare has failed, to close its outputs without finishing
+	 * them, so none is left looking like the output of a compare that succeeded.
+	 *
+	 * @param tee     SBomDiffTee of the compare's writers.
+	 * @param outputs Map of each OUTPUT to the OutputStream it was written to.
+	 * @param cause   Exception the compare failed with, any failure to close is added to it.
+	 */
+	private static void abort(SBomDiffTee tee, Map<OUTPUT, OutputStream> outputs,
+			Exception cause)
+	{
+		tee.abort(cause);
+		for (OutputStream out : outputs.values())
+		{
+			try
+			{
+				out.close();
+			}
+			catch (IOException e)
+			{
+				cause.addSuppressed(e);
+			}
+		}
+	}
+
+	/**
+	 * (U) This method is used to check the formats and mode of a compare before it is run, so a
+	 * compare run later is NOT found to be bad only then.
+	 *
+	 * @param diffFormat String format of the diff (json, ndjson or xml), null for json.
+	 * @param bomFormat  String format of the diff SBom (json or xml), null for json.
+	 * @param mode       String html mode, table or css, null for table.
+	 * @throws SBomComparatorException in the event a format or the mode is invalid.
+	 */
+	public static void checkOptions(String diffFormat, String bomFormat, String mode)
+			throws SBomComparatorException
+	{
+		if (!Arrays.asList("json", "ndjson", "xml").contains(getFormat(diffFormat)))
+			throw new SBomComparatorException("Invalid diff format (" + diffFormat + "), must " +
+					"be json, ndjson or xml.");
+		if (!Arrays.asList("json", "xml").contains(getFormat(bomFormat)))
+			throw new SBomComparatorException("Invalid diff SBom format (" + bomFormat + "), " +
+					"must be json or xml.");
+		if ((mode != null) && (!mode.equalsIgnoreCase(HtmlBuilder.HTML_MODE_TABLE)) &&
+				(!mode.equalsIgnoreCase(HtmlBuilder.HTML_MODE_CSS)))
+			throw new SBomComparatorException("Invalid html mode (" + mode + "), must be " +
+					HtmlBuilder.HTML_MODE_TABLE + " or " + HtmlBuilder.HTML_MODE_CSS + ".");
+	}
+
+	/**
+	 * (U) This method is used to get the content type of an output.
+	 *
+	 * @param output OUTPUT written.
+	 * @param format String format it was written in, null for json.
+	 * @return String the content type.
+	 */
+	public static String getContentType(OUTPUT output, String format)
+	{
+		String type = getFormat(format);
+		if (output.equals(OUTPUT.HTML))
+			return "text/html; charset=utf-8";
+		else if (type.equals("ndjson"))
+			return "application/x-ndjson";
+		else if (type.equals("xml"))
+			return "application/xml";
+		return "application/json";
+	}
+
+	/**
+	 * (U) This method is used to get the cache the SBoms are parsed through.
+	 *
+	 * @return ParsedBomCache the cache.
+	 */
+	public ParsedBomCache getCache()
+	{
+		return cache;
+	}
+
+	/**
+	 * (U) This method is used to get an SBom sent by a client, parsing it only if it is NOT
+	 * already cached.
+	 *
+	 * @param name    String name of the SBom, shown in the HTML report.
+	 * @param content byte array holding the SBom.
+	 * @return IndexedBom the SBom, indexed for comparing.
+	 * @throws SBomComparatorException in the event the bytes are NOT an SBom.
+	 */
+	public IndexedBom parse(String name, byte[] content) throws SBomComparatorException
+	{
+		return cache.parse(name, content);
+	}
+
+	/**
+	 * (U) This method is used to get an SBom file on the server, parsing it only if it is NOT
+	 * already cached.
+	 *
+	 * @param fileName String name of the SBom file.
+	 * @return IndexedBom the SBom, indexed for comparing.
+	 * @throws SBomComparatorException in the event the file does not exist, or is NOT an SBom.
+	 */
+	public IndexedBom read(String fileName) throws SBomComparatorException
+	{
+		return cache.read(fileName);
+	}
+
+	/**
+	 * (U) This method is used to get the format asked for, lower case, json if none was.
+	 *
+	 * @param format String format asked for, may be null.
+	 * @return String the format.
+	 */
+	private static String getFormat(String format)
+	{
+		if ((format == null) || (format.trim().isEmpty()))
+			return "json";
+		return format.trim().toLowerCase(Locale.ENGLISH);
+	}
+
+	/**
+	 * (U) This method is used to open the writer of an output.
+	 *
+	 * @param orgBom IndexedBom the original SBom.
+	 * @param newBom IndexedBom the new SBom.
+	 * @param output OUTPUT to write.
+	 * @param format String format of the output, may be null.
+	 * @param mode   String html mode, may be null.
+	 * @param out    OutputStream to write to.
+	 * @return SBomDiffListener the writer, which is also Closeable.
+	 * @throws SBomComparatorException in the event the format or mode is invalid.
+	 */
+	private SBomDiffListener openWriter(IndexedBom orgBom, IndexedBom newBom, OUTPUT output,
+			String format, String mode, OutputStream out) throws SBomComparatorException
+	{
+		String type = getFormat(format);
+		if (output.equals(OUTPUT.HTML))
+		{
+			if ((mode != null) && (!mode.equalsIgnoreCase(HtmlBuilder.HTML_MODE_TABLE)) &&
+					(!mode.equalsIgnoreCase(HtmlBuilder.HTML_MODE_CSS)))
+				throw new SBomComparatorException("Invalid html mode (" + mode + "), must be " +
+						HtmlBuilder.HTML_MODE_TABLE + " or " + HtmlBuilder.HTML_MODE_CSS + ".");
+			return new HtmlDiffWriter(new HtmlBuilder(HtmlBuilder.HTML_MODE_CSS.equalsIgnoreCase(
+					mode)), out, orgBom.getName(), newBom.getName());
+		}
+		else if (output.equals(OUTPUT.BOM))
+		{
+			if (type.equals("xml"))
+				return new SBomDiffBomWriter(out, SBomCommons.AVAILABLE_FORMATS.XML,
+						orgBom.getBom(), newBom.getBom());
+			else if (type.equals("json"))
+				return new SBomDiffBomWriter(out, SBomCommons.AVAILABLE_FORMATS.JSON,
+						orgBom.getBom(), newBom.getBom());
+			throw new SBomComparatorException("Invalid diff SBom format (" + format + "), " +
+					"must be json or xml.");
+		}
+		else if (type.equals("ndjson"))
+			return new SBomNdJsonDiffWriter(out);
+		else if (type.equals("xml"))
+			return new SBomXmlDiffWriter(out);
+		else if (type.equals("json"))
+			return new SBomJSonDiffWriter(out);
+		throw new SBomComparatorException("Invalid diff format (" + format + "), must be json, " +
+				"ndjson or xml.");
+	}
+}
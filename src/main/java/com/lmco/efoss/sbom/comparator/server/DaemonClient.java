@@ -0,0 +1,169 @@
+/*
+ * Copyright (c) 2018,2019 Lockheed Martin Corporation.
+ *
+ * This work is owned by Lockheed Martin Corporation. Lockheed Martin personnel are permitted to use and
+ * modify this software.  Lockheed Martin personnel may also deliver this source code to any US Government
+ * customer Agency under a "US Government Purpose Rights" license.
+ *
+ * See the LICENSE file distributed with this work for licensing and distribution terms
+ */
+package com.lmco.efoss.sbom.comparator.server;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.lang.reflect.InvocationTargetException;
+import java.net.SocketAddress;
+import java.nio.channels.Channels;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * (U) This class is the thin client of the compare daemon: it sends its command line, and working
+ * directory, to the daemon and prints the daemon's answer, exiting with the command's status. It
+ * uses nothing but the JDK, so starting it costs no more than starting the JVM. The socket is
+ * taken from the SBOM_COMPARATOR_SOCKET environment variable, or DEFAULT_SOCKET.
+ *
+ * @author wrgoff
+ * @since 19 October 2026
+ */
+public class DaemonClient
+{
+	public static final String EXIT = "exit ";
+	public static final String DEFAULT_SOCKET = "/tmp/sbom-comparator.sock";
+	public static final String SOCKET_VARIABLE = "SBOM_COMPARATOR_SOCKET";
+
+	/**
+	 * (U) Hidden Constructor.
+	 */
+	private DaemonClient()
+	{}
+
+	/**
+	 * (U) This method is used to connect to a daemon.
+	 *
+	 * @param socket Path of the daemon's socket file.
+	 * @return SocketChannel connected to the daemon.
+	 * @throws IOException in the event nothing is listening on the socket, or Unix domain sockets
+	 *                     are NOT available.
+	 */
+	public static SocketChannel connect(Path socket) throws IOException
+	{
+		try
+		{
+			return SocketChannel.open(getAddress(socket));
+		}
+		catch (ReflectiveOperationException e)
+		{
+			throw new IOException("This JVM (" + System.getProperty("java.version") + ") has " +
+					"no Unix domain sockets, Java 16 or later is needed.", e);
+		}
+	}
+
+	/**
+	 * (U) This method is used to run a command line on the daemon.
+	 *
+	 * @param socket    Path of the daemon's socket file.
+	 * @param directory String working directory relative file names are relative to.
+	 * @param arguments String array of the command line arguments.
+	 * @param out       PrintStream to print the daemon's answer to.
+	 * @return int the status of the command, 0 if it worked.
+	 * @throws IOException in the event we are unable to talk to the daemon.
+	 */
+	public static int run(Path socket, String directory, String[] arguments, PrintStream out)
+			throws IOException
+	{
+		try (SocketChannel channel = connect(socket))
+		{
+			OutputStream request = Channels.newOutputStream(channel);
+			ByteArrayOutputStream fields = new ByteArrayOutputStream();
+			writeField(fields, Integer.toString(arguments.length));
+			writeField(fields, directory);
+			for (String argument : arguments)
+				writeField(fields, argument);
+			request.write(fields.toByteArray());
+			request.flush();
+			
+			ByteArrayOutputStream answer = new ByteArrayOutputStream();
+			InputStream in = Channels.newInputStream(channel);
+			byte[] buffer = new byte[8192];
+			int read;
+			while ((read = in.read(buffer)) >= 0)
+				answer.write(buffer, 0, read);
+			
+			String text = new String(answer.toByteArray(), StandardCharsets.UTF_8);
+			int exit = text.lastIndexOf(EXIT);
+			if (exit < 0)
+				throw new IOException("The daemon did NOT finish its answer.");
+			out.print(text.substring(0, exit));
+			out.flush();
+			return Integer.parseInt(text.substring(exit + EXIT.length()).trim());
+		}
+	}
+
+	/**
+	 * (U) Main method, runs its arguments on the daemon.
+	 *
+	 * @param args String array of the comparator command line arguments.
+	 */
+	public static void main(String[] args)
+	{
+		String socket = System.getenv(SOCKET_VARIABLE);
+		if ((socket == null) || (socket.isEmpty()))
+			socket = DEFAULT_SOCKET;
+		
+		int status;
+		try
+		{
+			status = run(Paths.get(socket), Paths.get("").toAbsolutePath().toString(), args,
+					System.out);
+		}
+		catch (IOException | NumberFormatException e)
+		{
+			System.err.println("Unable to reach the compare daemon (" + socket + "): " + e);
+			status = 2;
+		}
+		System.exit(status);
+	}
+
+	/**
+	 * (U) This method is used to get the address of a socket file.
+	 *
+	 * @param socket Path of the socket file.
+	 * @return SocketAddress the Unix domain socket address.
+	 * @throws ReflectiveOperationException in the event Unix domain sockets are NOT available.
+	 */
+	static SocketAddress getAddress(Path socket) throws ReflectiveOperationException
+	{
+		try
+		{
+			return (SocketAddress) Class.forName("java.net.UnixDomainSocketAddress").getMethod(
+					"of", Path.class).invoke(null, socket);
+		}
+		catch (InvocationTargetException e)
+		{
+			if (e.getCause() instanceof RuntimeException)
+				throw (RuntimeException) e.getCause();
+			throw e;
+		}
+	}
+
+	/**
+	 * (U) This method is used to write one field of a command, ended by a NUL.
+	 *
+	 * @param out   ByteArrayOutputStream to write to.
+	 * @param field String field to write.
+	 * @throws IOException in the event the field holds a NUL.
+	 */
+	private static void writeField(ByteArrayOutputStream out, String field) throws IOException
+	{
+		if (field.indexOf('\0') >= 0)
+			throw new IOException("Arguments can NOT hold a NUL.");
+		out.write(field.getBytes(StandardCharsets.UTF_8));
+		out.write(0);
+	}
+}
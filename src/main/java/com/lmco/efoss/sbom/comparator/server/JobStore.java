@@ -0,0 +1,509 @@
+/*
+ * Copyright (c) 2018,2019 Lockheed Martin Corporation.
+ *
+ * This work is owned by Lockheed Martin Corporation. Lockheed Martin personnel are permitted to use and
+ * modify this software.  Lockheed Martin personnel may also deliver this source code to any US Government
+ * customer Agency under a "US Government Purpose Rights" license.
+ *
+ * See the LICENSE file distributed with this work for licensing and distribution terms
+ */
+package com.lmco.efoss.sbom.comparator.server;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import org.apache.log4j.Logger;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.lmco.efoss.sbom.comparator.dtos.CompareJobStatus;
+import com.lmco.efoss.sbom.comparator.exceptions.SBomComparatorException;
+
+/**
+ * (U) This class is the local, file based, store of the compares submitted to the compare server
+ * to run in the background. Each job has a directory, named by its id, holding its status
+ * (job.json), the two SBoms it compares until it is done, and its outputs (diff, bom and html)
+ * once it is. The status is replaced atomically, and only says a job is done once all of its
+ * outputs are in place, so a job read from the store is never half written. A job's SBoms are
+ * only deleted once it is saved as done, or failed, so a job stopped part way through always
+ * either runs again or is failed.
+ * <p>
+ * Jobs that are done, or failed, are deleted once they are older than the retention time. Jobs
+ * still queued or running when the server stopped keep their SBoms, so they can be run again
+ * when it starts. Nothing in the result directory but the jobs' own directories is ever
+ * deleted.
+ *
+ * @author wrgoff
+ * @since 19 October 2026
+ */
+public class JobStore
+{
+	private static final Logger logger = Logger.getLogger(JobStore.class.getName());
+
+	public static final String STATUS_FILE = "job.json";
+	public static final String ORG_SBOM_FILE = "orgSbom";
+	public static final String NEW_SBOM_FILE = "newSbom";
+	public static final long DEFAULT_RETENTION_HOURS = 24;
+
+	private static final String TEMP_SUFFIX = ".tmp";
+
+	private final Path directory;
+	private final long retentionMillis;
+	private final ObjectMapper mapper = new ObjectMapper();
+
+	/**
+	 * (U) Constructor, creates the result directory if it does not exist.
+	 *
+	 * @param directory       String result directory.
+	 * @param retentionMillis long time a finished job is kept, NOT negative.
+	 * @throws SBomComparatorException in the event the retention is negative, or we are unable to
+	 *                                 create the directory.
+	 */
+	public JobStore(String directory, long retentionMillis) throws SBomComparatorException
+	{
+		if (retentionMillis < 0)
+			throw new SBomComparatorException("The result retention can NOT be negative (" +
+					retentionMillis + " ms).");
+		
+		this.directory = Paths.get(directory);
+		this.retentionMillis = retentionMillis;
+		try
+		{
+			Files.createDirectories(this.directory);
+		}
+		catch (IOException e)
+		{
+			String error = "Unable to create the result directory (" + directory + ")!";
+			logger.error(error, e);
+			throw new SBomComparatorException(error, e);
+		}
+	}
+
+	/**
+	 * (U) This method is used to delete the jobs that finished longer ago than the retention
+	 * time. Only directories named by a job id, and holding a job's status, are ever deleted, so
+	 * anything else kept in the result directory is left alone.
+	 *
+	 * @return int the number of jobs deleted.
+	 */
+	public synchronized int cleanUp()
+	{
+		Instant expired = Instant.now().minusMillis(retentionMillis);
+		int deleted = 0;
+		try (DirectoryStream<Path> jobs = Files.newDirectoryStream(directory))
+		{
+			for (Path job : jobs)
+			{
+				String id = job.getFileName().toString();
+				if ((!isValidId(id)) || (!Files.isDirectory(job)))
+					continue;
+				
+				CompareJobStatus status = readStatus(id);
+				if ((status != null) && (isFinished(status)) && (getFinished(status).isBefore(
+						expired)))
+				{
+					delete(job);
+					deleted++;
+				}
+			}
+		}
+		catch (IOException e)
+		{
+			logger.error("Failed to clean up the result directory (" + directory + ")!", e);
+		}
+		
+		if ((deleted > 0) && (logger.isInfoEnabled()))
+			logger.info("Deleted " + deleted + " expired jobs from " + directory + ".");
+		return deleted;
+	}
+
+	/**
+	 * (U) This method is used to add a job, with its SBoms, unless a job with the same id is
+	 * already queued, running or done, in which case that job is returned instead. A job that
+	 * failed is replaced.
+	 *
+	 * @param job        CompareJobStatus of the job to add, its status is set here.
+	 * @param orgContent byte array holding the original SBom.
+	 * @param newContent byte array holding the new SBom.
+	 * @return CompareJobStatus the job passed in if it was added, otherwise the job already
+	 *         stored.
+	 * @throws SBomComparatorException in the event we are unable to write the job.
+	 */
+	public synchronized CompareJobStatus create(CompareJobStatus job, byte[] orgContent,
+			byte[] newContent) throws SBomComparatorException
+	{
+		CompareJobStatus existing = get(job.getId());
+		if ((existing != null) && (existing.getStatus() != CompareJobStatus.STATUS.FAILED))
+			return existing;
+		
+		Path jobDirectory = directory.resolve(job.getId());
+		try
+		{
+			delete(jobDirectory);
+			Files.createDirectories(jobDirectory);
+			Files.write(jobDirectory.resolve(ORG_SBOM_FILE), orgContent);
+			Files.write(jobDirectory.resolve(NEW_SBOM_FILE), newContent);
+		}
+		catch (IOException e)
+		{
+			String error = "Unable to store job (" + job.getId() + ")!";
+			logger.error(error, e);
+			throw new SBomComparatorException(error, e);
+		}
+		
+		job.setStatus(CompareJobStatus.STATUS.QUEUED);
+		job.setSubmitted(Instant.now().toString());
+		save(job);
+		return job;
+	}
+
+	/**
+	 * (U) This method is used to mark a job failed: its status is saved, and then its SBoms and
+	 * any outputs written are deleted. It holds the store, as create does, so a resubmit that
+	 * replaces the failed job can NOT have its SBoms deleted along with the failed job's.
+	 *
+	 * @param job   CompareJobStatus of the job.
+	 * @param error String why the job failed.
+	 * @throws SBomComparatorException in the event we are unable to update the job.
+	 */
+	public synchronized void fail(CompareJobStatus job, String error) throws SBomComparatorException
+	{
+		job.setStatus(CompareJobStatus.STATUS.FAILED);
+		job.setFinished(Instant.now().toString());
+		job.setError(error);
+		save(job);
+		
+		Path jobDirectory = directory.resolve(job.getId());
+		try
+		{
+			for (CompareService.OUTPUT output : CompareService.OUTPUT.values())
+				Files.deleteIfExists(getTempFile(jobDirectory, output));
+			deleteSboms(jobDirectory);
+		}
+		catch (IOException e)
+		{
+			logger.warn("Unable to delete the files of failed job (" + job.getId() + "): " +
+					e.getMessage());
+		}
+	}
+
+	/**
+	 * (U) This method is used to mark a job done: its outputs, written by openResults, are moved
+	 * into place, its status is saved, and only then are its SBoms deleted. Stopped before its
+	 * status is saved, the job still has its SBoms, and runs again. It holds the store, as create
+	 * and fail do.
+	 *
+	 * @param job CompareJobStatus of the job, with its counts set.
+	 * @throws SBomComparatorException in the event we are unable to update the job.
+	 */
+	public synchronized void finish(CompareJobStatus job) throws SBomComparatorException
+	{
+		Path jobDirectory = directory.resolve(job.getId());
+		try
+		{
+			for (CompareService.OUTPUT output : CompareService.OUTPUT.values())
+				Files.move(getTempFile(jobDirectory, output), getResult(job.getId(), output),
+						StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		}
+		catch (IOException e)
+		{
+			String error = "Unable to store the outputs of job (" + job.getId() + ")!";
+			logger.error(error, e);
+			throw new SBomComparatorException(error, e);
+		}
+		
+		job.setStatus(CompareJobStatus.STATUS.DONE);
+		job.setFinished(Instant.now().toString());
+		save(job);
+		
+		try
+		{
+			deleteSboms(jobDirectory);
+		}
+		catch (IOException e)
+		{
+			logger.warn("Unable to delete the SBoms of finished job (" + job.getId() + "): " +
+					e.getMessage());
+		}
+	}
+
+	/**
+	 * (U) This method is used to get a job.
+	 *
+	 * @param id String id of the job.
+	 * @return CompareJobStatus the job, null if there is no such job.
+	 */
+	public CompareJobStatus get(String id)
+	{
+		if (!isValidId(id))
+			return null;
+		return readStatus(id);
+	}
+
+	/**
+	 * (U) This method is used to get the file holding one output of a job.
+	 *
+	 * @param id     String id of the job, which must be valid.
+	 * @param output CompareService.OUTPUT wanted.
+	 * @return Path of the output, which only exists once the job is done.
+	 */
+	public Path getResult(String id, CompareService.OUTPUT output)
+	{
+		return directory.resolve(id).resolve(output.toString().toLowerCase(Locale.ENGLISH));
+	}
+
+	/**
+	 * (U) This method is used to get the file holding one of the SBoms of a job.
+	 *
+	 * @param id       String id of the job, which must be valid.
+	 * @param fileName String ORG_SBOM_FILE or NEW_SBOM_FILE.
+	 * @return Path of the SBom, which only exists until the job is done.
+	 */
+	public Path getSbom(String id, String fileName)
+	{
+		return directory.resolve(id).resolve(fileName);
+	}
+
+	/**
+	 * (U) This method is used to get the jobs that were queued or running when the server
+	 * stopped, whose SBoms are still stored, oldest first. An unfinished job whose SBoms are gone
+	 * can never run again, so it is failed, to be cleaned up, or replaced, as any failed job is.
+	 *
+	 * @return List of the jobs to run again.
+	 */
+	public synchronized List<CompareJobStatus> getUnfinished()
+	{
+		List<CompareJobStatus> unfinished = new ArrayList<>();
+		try (DirectoryStream<Path> jobs = Files.newDirectoryStream(directory))
+		{
+			for (Path job : jobs)
+			{
+				String id = job.getFileName().toString();
+				CompareJobStatus status = (isValidId(id)) ? readStatus(id) : null;
+				if ((status == null) || (isFinished(status)))
+					continue;
+				
+				if ((Files.exists(job.resolve(ORG_SBOM_FILE))) && (Files.exists(job.resolve(
+						NEW_SBOM_FILE))))
+					unfinished.add(status);
+				else
+					failLost(status);
+			}
+		}
+		catch (IOException e)
+		{
+			logger.error("Failed to list the jobs in the result directory (" + directory + ")!",
+					e);
+		}
+		unfinished.sort(Comparator.comparing(CompareJobStatus::getSubmitted,
+				Comparator.nullsFirst(Comparator.naturalOrder())));
+		return unfinished;
+	}
+
+	/**
+	 * (U) This method is used to check that a job id is one this store could have made, so it
+	 * can be used as a file name.
+	 *
+	 * @param id String id to check.
+	 * @return boolean true if the id is 32 lower case hex digits.
+	 */
+	public static boolean isValidId(String id)
+	{
+		return (id != null) && (id.matches("[0-9a-f]{32}"));
+	}
+
+	/**
+	 * (U) This method is used to open the outputs of a job for writing. They are written beside
+	 * where they will be, and only moved into place when the job is finished.
+	 *
+	 * @param id String id of the job.
+	 * @return Map of each OUTPUT to the OutputStream to write it to.
+	 * @throws SBomComparatorException in the event we are unable to create the files.
+	 */
+	public Map<CompareService.OUTPUT, OutputStream> openResults(String id)
+			throws SBomComparatorException
+	{
+		Map<CompareService.OUTPUT, OutputStream> results = new EnumMap<>(
+				CompareService.OUTPUT.class);
+		try
+		{
+			for (CompareService.OUTPUT output : CompareService.OUTPUT.values())
+				results.put(output, Files.newOutputStream(getTempFile(directory.resolve(id),
+						output)));
+		}
+		catch (IOException e)
+		{
+			for (OutputStream result : results.values())
+			{
+				try
+				{
+					result.close();
+				}
+				catch (IOException closeError)
+				{
+					e.addSuppressed(closeError);
+				}
+			}
+			String error = "Unable to create the outputs of job (" + id + ")!";
+			logger.error(error, e);
+			throw new SBomComparatorException(error, e);
+		}
+		return results;
+	}
+
+	/**
+	 * (U) This method is used to save the status of a job, replacing the one stored.
+	 *
+	 * @param job CompareJobStatus to save.
+	 * @throws SBomComparatorException in the event we are unable to write the status.
+	 */
+	public void save(CompareJobStatus job) throws SBomComparatorException
+	{
+		Path jobDirectory = directory.resolve(job.getId());
+		Path temp = jobDirectory.resolve(STATUS_FILE + TEMP_SUFFIX);
+		try
+		{
+			Files.write(temp, mapper.writeValueAsBytes(job));
+			Files.move(temp, jobDirectory.resolve(STATUS_FILE),
+					StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		}
+		catch (IOException e)
+		{
+			String error = "Unable to save the status of job (" + job.getId() + ")!";
+			logger.error(error, e);
+			throw new SBomComparatorException(error, e);
+		}
+	}
+
+	/**
+	 * (U) This method is used to delete a file, or a directory and everything in it.
+	 *
+	 * @param path Path to delete, which need not exist.
+	 * @throws IOException in the event something can NOT be deleted.
+	 */
+	private static void delete(Path path) throws IOException
+	{
+		if (!Files.exists(path))
+			return;
+		
+		List<Path> paths = new ArrayList<>();
+		try (Stream<Path> walk = Files.walk(path))
+		{
+			walk.forEach(paths::add);
+		}
+		paths.sort(Comparator.reverseOrder());
+		for (Path file : paths)
+			Files.deleteIfExists(file);
+	}
+
+	/**
+	 * (U) This method is used to delete the SBoms of a job.
+	 *
+	 * @param jobDirectory Path of the job's directory.
+	 * @throws IOException in the event an SBom can NOT be deleted.
+	 */
+	private static void deleteSboms(Path jobDirectory) throws IOException
+	{
+		Files.deleteIfExists(jobDirectory.resolve(ORG_SBOM_FILE));
+		Files.deleteIfExists(jobDirectory.resolve(NEW_SBOM_FILE));
+	}
+
+	/**
+	 * (U) This method is used to fail an unfinished job whose SBoms are gone.
+	 *
+	 * @param job CompareJobStatus of the job.
+	 */
+	private void failLost(CompareJobStatus job)
+	{
+		logger.warn("Job (" + job.getId() + ") was " + job.getStatus() + " but its SBoms are " +
+				"gone, failing it.");
+		try
+		{
+			fail(job, "The job's SBoms were lost before it finished, submit it again.");
+		}
+		catch (SBomComparatorException e)
+		{
+			logger.error("Failed to fail job (" + job.getId() + ")!", e);
+		}
+	}
+
+	/**
+	 * (U) This method is used to get when a finished job finished.
+	 *
+	 * @param job CompareJobStatus finished.
+	 * @return Instant it finished, the epoch if that is unknown, so it is cleaned up.
+	 */
+	private static Instant getFinished(CompareJobStatus job)
+	{
+		try
+		{
+			if (job.getFinished() != null)
+				return Instant.parse(job.getFinished());
+		}
+		catch (DateTimeParseException e)
+		{
+			logger.debug("Job (" + job.getId() + ") has a bad finished time.", e);
+		}
+		return Instant.EPOCH;
+	}
+
+	/**
+	 * (U) This method is used to get the file an output is written to until the job finishes.
+	 *
+	 * @param jobDirectory Path of the job's directory.
+	 * @param output       CompareService.OUTPUT written.
+	 * @return Path of the file.
+	 */
+	private static Path getTempFile(Path jobDirectory, CompareService.OUTPUT output)
+	{
+		return jobDirectory.resolve(output.toString().toLowerCase(Locale.ENGLISH) + TEMP_SUFFIX);
+	}
+
+	/**
+	 * (U) This method is used to check if a job is done or failed.
+	 *
+	 * @param job CompareJobStatus to check.
+	 * @return boolean true if the job will NOT run again.
+	 */
+	private static boolean isFinished(CompareJobStatus job)
+	{
+		return (job.getStatus() == CompareJobStatus.STATUS.DONE) ||
+				(job.getStatus() == CompareJobStatus.STATUS.FAILED);
+	}
+
+	/**
+	 * (U) This method is used to read the status of a job.
+	 *
+	 * @param id String id of the job, the name of its directory.
+	 * @return CompareJobStatus the job, null if it has no status that can be read.
+	 */
+	private CompareJobStatus readStatus(String id)
+	{
+		Path file = directory.resolve(id).resolve(STATUS_FILE);
+		if (!Files.exists(file))
+			return null;
+		
+		try
+		{
+			return mapper.readValue(file.toFile(), CompareJobStatus.class);
+		}
+		catch (IOException e)
+		{
+			logger.warn("Unable to read the status of job (" + id + "): " + e.getMessage());
+			return null;
+		}
+	}
+}
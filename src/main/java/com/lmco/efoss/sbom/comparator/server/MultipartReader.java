@@ -0,0 +1,306 @@
+/*
+ * Copyright (c) 2018,2019 Lockheed Martin Corporation.
+ *
+ * This work is owned by Lockheed Martin Corporation. Lockheed Martin personnel are permitted to use and
+ * modify this software.  Lockheed Martin personnel may also deliver this source code to any US Government
+ * customer Agency under a "US Government Purpose Rights" license.
+ *
+ * See the LICENSE file distributed with this work for licensing and distribution terms
+ */
+package com.lmco.efoss.sbom.comparator.server;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+
+import com.lmco.efoss.sbom.comparator.exceptions.SBomComparatorException;
+
+/**
+ * (U) This class reads a multipart/form-data body one part at a time, as it arrives, rather than
+ * once all of it has. Each part's content is read as a stream that ends where the part does, so
+ * an SBom part can be parsed while the rest of it, and the parts after it, are still being sent.
+ * Only a buffer's worth of the body is held at a time.
+ * <p>
+ * The parts must be read in order: moving on to the next part skips whatever is left of the one
+ * before it.
+ *
+ * @author wrgoff
+ * @since 19 October 2026
+ */
+public class MultipartReader
+{
+	private static final int BUFFER_SIZE = 64 * 1024;
+	private static final byte[] HEADERS_END = "\r\n\r\n".getBytes(StandardCharsets.ISO_8859_1);
+
+	private final InputStream in;
+	private final byte[] delimiter;
+	private final byte[] nextDelimiter;
+	private final byte[] buffer = new byte[BUFFER_SIZE];
+	private int position = 0;
+	private int limit = 0;
+	private boolean started = false;
+	private boolean finished = false;
+	private boolean ended = false;
+	private boolean incomplete = false;
+	private Part part = null;
+
+	/**
+	 * (U) This class is one part of the body: its name, its file name, and its content, read as
+	 * a stream ending where the part does. Closing it does NOT close the body.
+	 */
+	public final class Part extends InputStream
+	{
+		private final String name;
+		private final String fileName;
+		private long size = 0;
+		private boolean done = false;
+
+		/**
+		 * (U) Constructor.
+		 *
+		 * @param name     String name of the part, null if it has none.
+		 * @param fileName String file name of the part, null if it has none.
+		 */
+		private Part(String name, String fileName)
+		{
+			this.name = name;
+			this.fileName = fileName;
+		}
+
+		public String getFileName()
+		{
+			return fileName;
+		}
+
+		public String getName()
+		{
+			return name;
+		}
+
+		/**
+		 * (U) This method is used to get the number of bytes of the part's content read so far,
+		 * all of them once it has been read to its end.
+		 *
+		 * @return long the number of bytes read.
+		 */
+		public long getSize()
+		{
+			return size;
+		}
+
+		@Override
+		public int read() throws IOException
+		{
+			byte[] one = new byte[1];
+			return (read(one, 0, 1) < 0) ? -1 : (one[0] & 0xFF);
+		}
+
+		@Override
+		public int read(byte[] b, int off, int len) throws IOException
+		{
+			if (done)
+				return -1;
+			if (len == 0)
+				return 0;
+			
+			while (true)
+			{
+				int found = indexOf(buffer, nextDelimiter, position, limit);
+				
+				// Bytes that could be the start of the delimiter are held back until it is known.
+				int available;
+				if (found >= 0)
+					available = found - position;
+				else
+					available = (ended) ? limit - position : limit - position -
+							(nextDelimiter.length - 1);
+				if (available > 0)
+				{
+					int count = Math.min(len, available);
+					System.arraycopy(buffer, position, b, off, count);
+					position += count;
+					size += count;
+					return count;
+				}
+				if (found >= 0)
+				{
+					position = found + nextDelimiter.length;
+					done = true;
+					return -1;
+				}
+				if (ended)
+				{
+					done = true;
+					incomplete = true;
+					return -1;
+				}
+				if (fill() < 0)
+					ended = true;
+			}
+		}
+	}
+
+	/**
+	 * (U) Constructor.
+	 *
+	 * @param in          InputStream of the body.
+	 * @param contentType String content type of the body, holding the boundary.
+	 * @throws SBomComparatorException in the event the content type has no boundary.
+	 */
+	public MultipartReader(InputStream in, String contentType) throws SBomComparatorException
+	{
+		String boundary = null;
+		for (String parameter : contentType.split(";"))
+		{
+			parameter = parameter.trim();
+			if (parameter.toLowerCase(Locale.ENGLISH).startsWith("boundary="))
+				boundary = unquote(parameter.substring("boundary=".length()));
+		}
+		if ((boundary == null) || (boundary.isEmpty()))
+			throw new SBomComparatorException("Multipart body has no boundary!");
+		
+		this.in = in;
+		this.delimiter = ("--" + boundary).getBytes(StandardCharsets.ISO_8859_1);
+		this.nextDelimiter = ("\r\n--" + boundary).getBytes(StandardCharsets.ISO_8859_1);
+	}
+
+	/**
+	 * (U) This method is used to find a run of bytes in part of an array.
+	 *
+	 * @param data  byte array to search.
+	 * @param find  byte array to find.
+	 * @param start int index to start searching at.
+	 * @param end   int index to stop searching at, exclusive.
+	 * @return int the index the bytes start at, -1 if they are NOT found.
+	 */
+	static int indexOf(byte[] data, byte[] find, int start, int end)
+	{
+		for (int i = start; i <= end - find.length; i++)
+		{
+			int j = 0;
+			while ((j < find.length) && (data[i + j] == find[j]))
+				j++;
+			if (j == find.length)
+				return i;
+		}
+		return -1;
+	}
+
+	/**
+	 * (U) This method is used to get the next part of the body, skipping what is left of the
+	 * part before it.
+	 *
+	 * @return Part the next part, null once there are no more.
+	 * @throws SBomComparatorException in the event the body is NOT well formed.
+	 * @throws IOException             in the event we are unable to read the body.
+	 */
+	public Part next() throws SBomComparatorException, IOException
+	{
+		if (part != null)
+		{
+			byte[] skip = new byte[8192];
+			while (part.read(skip, 0, skip.length) >= 0)
+			{
+				// Skip the rest of the part.
+			}
+			part = null;
+		}
+		if (incomplete)
+			throw new SBomComparatorException("Multipart body is NOT complete!");
+		if (finished)
+			return null;
+		
+		if (!started)
+		{
+			// Skip the preamble, if there is one, up to the first delimiter.
+			int found;
+			while ((found = indexOf(buffer, delimiter, position, limit)) < 0)
+			{
+				position = Math.max(position, limit - (delimiter.length - 1));
+				if (fill() < 0)
+					throw new SBomComparatorException("Multipart body is NOT complete!");
+			}
+			position = found + delimiter.length;
+			started = true;
+		}
+		
+		while (limit - position < 2)
+		{
+			if (fill() < 0)
+				throw new SBomComparatorException("Multipart body is NOT complete!");
+		}
+		if ((buffer[position] == '-') && (buffer[position + 1] == '-'))
+		{
+			finished = true;
+			return null;
+		}
+		
+		int headersEnd;
+		while ((headersEnd = indexOf(buffer, HEADERS_END, position + 2, limit)) < 0)
+		{
+			if ((position == 0) && (limit == buffer.length))
+				throw new SBomComparatorException("Multipart part headers are too long!");
+			if (fill() < 0)
+				throw new SBomComparatorException("Multipart body is NOT complete!");
+		}
+		
+		String name = null;
+		String fileName = null;
+		String headers = new String(buffer, position + 2, headersEnd - position - 2,
+				StandardCharsets.UTF_8);
+		for (String header : headers.split("\r\n"))
+		{
+			if (!header.toLowerCase(Locale.ENGLISH).startsWith("content-disposition:"))
+				continue;
+			for (String parameter : header.split(";"))
+			{
+				parameter = parameter.trim();
+				if (parameter.startsWith("name="))
+					name = unquote(parameter.substring("name=".length()));
+				else if (parameter.startsWith("filename="))
+					fileName = unquote(parameter.substring("filename=".length()));
+			}
+		}
+		position = headersEnd + HEADERS_END.length;
+		part = new Part(name, fileName);
+		return part;
+	}
+
+	/**
+	 * (U) This method is used to read more of the body into the buffer, first moving what is
+	 * left of it to the front.
+	 *
+	 * @return int the number of bytes read, -1 at the end of the body.
+	 * @throws IOException in the event we are unable to read the body.
+	 */
+	private int fill() throws IOException
+	{
+		if (position > 0)
+		{
+			System.arraycopy(buffer, position, buffer, 0, limit - position);
+			limit -= position;
+			position = 0;
+		}
+		if (limit == buffer.length)
+			return 0;
+		
+		int read = in.read(buffer, limit, buffer.length - limit);
+		if (read > 0)
+			limit += read;
+		return read;
+	}
+
+	/**
+	 * (U) This method is used to remove the quotes around a header parameter's value.
+	 *
+	 * @param value String value, possibly quoted.
+	 * @return String the value without quotes.
+	 */
+	static String unquote(String value)
+	{
+		if ((value.length() >= 2) && (value.startsWith("\"")) && (value.endsWith("\"")))
+			return value.substring(1, value.length() - 1);
+		return value;
+	}
+}
@@ -0,0 +1,152 @@
+/*
+ * Copyright (c) 2018,2019 Lockheed Martin Corporation.
+ *
+ * This work is owned by Lockheed Martin Corporation. Lockheed Martin personnel are permitted to use and
+ * modify this software.  Lockheed Martin personnel may also deliver this source code to any US Government
+ * customer Agency under a "US Government Purpose Rights" license.
+ *
+ * See the LICENSE file distributed with this work for licensing and distribution terms
+ */
+package com.lmco.efoss.sbom.comparator.server;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.lmco.efoss.sbom.comparator.exceptions.SBomAdmissionException;
+
+/**
+ * (U) This class is the room in the heap budget one request holds for the SBoms it reads. A
+ * request is admitted for the bytes it is about to read before it reads them: for a file it
+ * names, or a body with a Content-Length, for their size up front; for a body sent without one
+ * (chunked), as it arrives, a little ahead of what has been read. So no request holds SBom bytes
+ * in the heap that the budget does not count, and one that could never fit is refused once it
+ * is known to be too large, rather than once it has been read.
+ * <p>
+ * The room is given back when the request is closed, once it has been answered.
+ *
+ * @author wrgoff
+ * @since 19 October 2026
+ */
+public class RequestAdmission implements Closeable
+{
+	// Least a chunked read is admitted for at a time, so a slow upload is NOT admitted per read.
+	private static final long MIN_MORE_BYTES = 1024L * 1024;
+
+	private final AdmissionController admission;
+	private final List<AdmissionController.Permit> permits = new ArrayList<>();
+	private long admitted = 0;
+
+	/**
+	 * (U) Constructor.
+	 *
+	 * @param admission AdmissionController of the budget to take room from.
+	 */
+	public RequestAdmission(AdmissionController admission)
+	{
+		this.admission = admission;
+	}
+
+	/**
+	 * (U) This method is used to admit the request for input of a known size.
+	 *
+	 * @param inputBytes long size of all of the request's SBoms, read or about to be.
+	 * @throws SBomAdmissionException in the event they could never fit the budget, or there was
+	 *                                no room in time.
+	 * @throws InterruptedException   in the event we are interrupted while waiting.
+	 */
+	public void admit(long inputBytes) throws SBomAdmissionException, InterruptedException
+	{
+		if (inputBytes <= admitted)
+			return;
+		admission.check(inputBytes);
+		take(inputBytes - admitted);
+	}
+
+	/**
+	 * (U) This method is used to admit the request for input whose size is NOT known until it
+	 * has all arrived. It is admitted for half as much again as it holds, when that fits, so it
+	 * is only admitted for more now and then as it grows.
+	 *
+	 * @param inputBytes long size of the request's SBoms read so far.
+	 * @throws SBomAdmissionException in the event they could never fit the budget, or there was
+	 *                                no room in time.
+	 * @throws InterruptedException   in the event we are interrupted while waiting.
+	 */
+	public void grow(long inputBytes) throws SBomAdmissionException, InterruptedException
+	{
+		if (inputBytes <= admitted)
+			return;
+		admission.check(inputBytes);
+		
+		long more = Math.max(inputBytes - admitted, Math.max(admitted / 2, MIN_MORE_BYTES));
+		if (!admission.fits(admitted + more))
+			more = inputBytes - admitted;
+		take(more);
+	}
+
+	/**
+	 * (U) This method is used to read a stream to its end, admitting the request for its bytes as
+	 * they arrive.
+	 *
+	 * @param in     InputStream to read.
+	 * @param before long bytes of the request's SBoms read before this stream.
+	 * @return byte array holding the stream's bytes.
+	 * @throws SBomAdmissionException in the event the bytes could never fit the budget, or there
+	 *                                was no room in time.
+	 * @throws IOException            in the event we are unable to read the stream.
+	 * @throws InterruptedException   in the event we are interrupted while waiting.
+	 */
+	public byte[] read(InputStream in, long before)
+			throws SBomAdmissionException, IOException, InterruptedException
+	{
+		ByteArrayOutputStream body = new ByteArrayOutputStream();
+		byte[] buffer = new byte[64 * 1024];
+		int count;
+		while ((count = in.read(buffer)) >= 0)
+		{
+			grow(before + body.size() + count);
+			body.write(buffer, 0, count);
+		}
+		return body.toByteArray();
+	}
+
+	/**
+	 * (U) This method is used to give back all of the room the request holds.
+	 */
+	@Override
+	public void close()
+	{
+		for (AdmissionController.Permit permit : permits)
+			permit.close();
+		permits.clear();
+		admitted = 0;
+	}
+
+	/**
+	 * (U) This method is used to get the size of input the request is admitted for.
+	 *
+	 * @return long bytes of input admitted.
+	 */
+	public long getAdmitted()
+	{
+		return admitted;
+	}
+
+	/**
+	 * (U) This method is used to take more room, waiting for it if need be. Only the first room
+	 * taken counts the request as admitted.
+	 *
+	 * @param more long bytes of input to take room for.
+	 * @throws SBomAdmissionException in the event there was no room in time.
+	 * @throws InterruptedException   in the event we are interrupted while waiting.
+	 */
+	private void take(long more) throws SBomAdmissionException, InterruptedException
+	{
+		permits.add((permits.isEmpty()) ? admission.acquire(more) : admission.acquireMore(more));
+		admitted += more;
+	}
+}
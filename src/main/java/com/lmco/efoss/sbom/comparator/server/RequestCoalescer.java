@@ -0,0 +1,126 @@
+/*
+ * Copyright (c) 2018,2019 Lockheed Martin Corporation.
+ *
+ * This work is owned by Lockheed Martin Corporation. Lockheed Martin personnel are permitted to use and
+ * modify this software.  Lockheed Martin personnel may also deliver this source code to any US Government
+ * customer Agency under a "US Government Purpose Rights" license.
+ *
+ * See the LICENSE file distributed with this work for licensing and distribution terms
+ */
+package com.lmco.efoss.sbom.comparator.server;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * (U) This class runs a task once for all of the callers that ask for the same key while it is
+ * running: the first caller's task is started, and every caller after it, until the task is
+ * done, is handed the same Future. Only tasks in flight are shared; once a task is done the next
+ * caller with its key starts it again, so nothing is kept between requests.
+ *
+ * @param <K> type of the key, which must have equals and hashCode.
+ * @param <V> type of the tasks' result.
+ *
+ * @author wrgoff
+ * @since 19 October 2026
+ */
+public class RequestCoalescer<K, V>
+{
+	private final ConcurrentMap<K, Future<V>> inFlight = new ConcurrentHashMap<>();
+	private final AtomicLong started = new AtomicLong();
+	private final AtomicLong coalesced = new AtomicLong();
+
+	/**
+	 * (U) This method is used to get the number of callers handed a task another caller started.
+	 *
+	 * @return long the number of callers that shared a task.
+	 */
+	public long getCoalesced()
+	{
+		return coalesced.get();
+	}
+
+	/**
+	 * (U) This method is used to get the number of tasks in flight now.
+	 *
+	 * @return int the number of tasks started and NOT yet done.
+	 */
+	public int getInFlight()
+	{
+		return inFlight.size();
+	}
+
+	/**
+	 * (U) This method is used to get the number of tasks started.
+	 *
+	 * @return long the number of tasks started.
+	 */
+	public long getStarted()
+	{
+		return started.get();
+	}
+
+	/**
+	 * (U) This method is used to run a task, unless one with the same key is already in flight,
+	 * in which case its Future is returned instead. Callers should not cancel the Future they
+	 * are handed, as others may be waiting on it.
+	 *
+	 * @param key      K key of the task; tasks with equal keys must give the same result.
+	 * @param executor Executor to run the task on, if it is started.
+	 * @param task     Callable to run.
+	 * @return Future of the task's result.
+	 * @throws RejectedExecutionException in the event the executor will NOT run the task.
+	 */
+	public Future<V> submit(K key, Executor executor, Callable<V> task)
+	{
+		// The key is dropped before the result is set, not once it is (done() runs after the
+		// waiters wake), so a caller that has seen the result never joins the finished task.
+		FutureTask<V> future = new FutureTask<V>(task)
+		{
+			@Override
+			protected void done()
+			{
+				inFlight.remove(key, this);
+			}
+
+			@Override
+			protected void set(V value)
+			{
+				inFlight.remove(key, this);
+				super.set(value);
+			}
+
+			@Override
+			protected void setException(Throwable cause)
+			{
+				inFlight.remove(key, this);
+				super.setException(cause);
+			}
+		};
+		
+		Future<V> running = inFlight.putIfAbsent(key, future);
+		if (running != null)
+		{
+			coalesced.incrementAndGet();
+			return running;
+		}
+		
+		try
+		{
+			executor.execute(future);
+		}
+		catch (RejectedExecutionException e)
+		{
+			inFlight.remove(key, future);
+			throw e;
+		}
+		started.incrementAndGet();
+		return future;
+	}
+}
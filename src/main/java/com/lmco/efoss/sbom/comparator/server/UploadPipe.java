@@ -0,0 +1,169 @@
+/*
+ * Copyright (c) 2018,2019 Lockheed Martin Corporation.
+ *
+ * This work is owned by Lockheed Martin Corporation. Lockheed Martin personnel are permitted to use and
+ * modify this software.  Lockheed Martin personnel may also deliver this source code to any US Government
+ * customer Agency under a "US Government Purpose Rights" license.
+ *
+ * See the LICENSE file distributed with this work for licensing and distribution terms
+ */
+package com.lmco.efoss.sbom.comparator.server;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.util.Arrays;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * (U) This class hands the bytes of an upload, as the request thread reads them, to a parse
+ * running on the compute pool, which reads them as an InputStream. It holds no more than a few
+ * chunks, so a parse that falls behind slows the upload rather than the upload piling up in the
+ * heap. Built on a BlockingQueue rather than the JDK's piped streams, neither side holds a
+ * monitor while it waits, so the request thread can be a virtual thread.
+ * <p>
+ * Once the parse closes the pipe, as it does once it has read the whole SBom or found it bad,
+ * the bytes still written are dropped. Once the request thread aborts it, the parse reads an
+ * error rather than the end of the SBom.
+ *
+ * @author wrgoff
+ * @since 19 October 2026
+ */
+public class UploadPipe extends InputStream
+{
+	public static final int DEFAULT_CHUNKS = 8;
+
+	private static final byte[] END = new byte[0];
+	private static final long OFFER_MILLIS = 100;
+
+	private final BlockingQueue<byte[]> chunks;
+	private volatile boolean closed = false;
+	private volatile boolean aborted = false;
+	private byte[] chunk = null;
+	private int position = 0;
+	private boolean ended = false;
+
+	/**
+	 * (U) Constructor.
+	 *
+	 * @param capacity int most chunks held, written and NOT yet read.
+	 */
+	public UploadPipe(int capacity)
+	{
+		this.chunks = new ArrayBlockingQueue<>(capacity);
+	}
+
+	/**
+	 * (U) This method is used, by the request thread, to stop the upload being handed on, as
+	 * when it can NOT be read to its end. The parse reading it fails.
+	 */
+	public void abort()
+	{
+		aborted = true;
+		closed = true;
+		chunks.clear();
+		chunks.offer(END);
+	}
+
+	/**
+	 * (U) This method is used, by the parse, to say it will read no more.
+	 */
+	@Override
+	public void close()
+	{
+		closed = true;
+		chunks.clear();
+	}
+
+	/**
+	 * (U) This method is used, by the request thread, to say the whole upload has been written.
+	 *
+	 * @throws InterruptedException in the event we are interrupted while waiting for room.
+	 */
+	public void end() throws InterruptedException
+	{
+		put(END);
+	}
+
+	@Override
+	public int read() throws IOException
+	{
+		byte[] one = new byte[1];
+		return (read(one, 0, 1) < 0) ? -1 : (one[0] & 0xFF);
+	}
+
+	@Override
+	public int read(byte[] b, int off, int len) throws IOException
+	{
+		if ((ended) || (closed))
+		{
+			if (aborted)
+				throw new IOException("The upload was stopped before it was all read.");
+			return -1;
+		}
+		if (len == 0)
+			return 0;
+		
+		if ((chunk == null) || (position == chunk.length))
+		{
+			try
+			{
+				chunk = chunks.take();
+			}
+			catch (InterruptedException e)
+			{
+				Thread.currentThread().interrupt();
+				throw new InterruptedIOException("Interrupted while waiting for the upload.");
+			}
+			position = 0;
+			if (chunk == END)
+			{
+				ended = true;
+				if (aborted)
+					throw new IOException("The upload was stopped before it was all read.");
+				return -1;
+			}
+		}
+		
+		int count = Math.min(len, chunk.length - position);
+		System.arraycopy(chunk, position, b, off, count);
+		position += count;
+		return count;
+	}
+
+	/**
+	 * (U) This method is used, by the request thread, to hand on bytes read from the upload,
+	 * waiting for room if the parse has fallen behind.
+	 *
+	 * @param data   byte array holding the bytes.
+	 * @param offset int index of the first byte.
+	 * @param length int number of bytes.
+	 * @return boolean true if they were handed on, false if the parse has stopped reading.
+	 * @throws InterruptedException in the event we are interrupted while waiting for room.
+	 */
+	public boolean write(byte[] data, int offset, int length) throws InterruptedException
+	{
+		if (length == 0)
+			return !closed;
+		return put(Arrays.copyOfRange(data, offset, offset + length));
+	}
+
+	/**
+	 * (U) This method is used to add a chunk, waiting for room until the parse stops reading.
+	 *
+	 * @param data byte array chunk to add.
+	 * @return boolean true if it was added, false if the parse has stopped reading.
+	 * @throws InterruptedException in the event we are interrupted while waiting for room.
+	 */
+	private boolean put(byte[] data) throws InterruptedException
+	{
+		while (!closed)
+		{
+			if (chunks.offer(data, OFFER_MILLIS, TimeUnit.MILLISECONDS))
+				return true;
+		}
+		return false;
+	}
+}
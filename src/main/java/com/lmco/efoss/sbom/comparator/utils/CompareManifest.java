@@ -0,0 +1,186 @@
+/*
+ * Copyright (c) 2018,2019 Lockheed Martin Corporation.
+ *
+ * This work is owned by Lockheed Martin Corporation. Lockheed Martin personnel are permitted to use and
+ * modify this software.  Lockheed Martin personnel may also deliver this source code to any US Government
+ * customer Agency under a "US Government Purpose Rights" license.
+ *
+ * See the LICENSE file distributed with this work for licensing and distribution terms
+ */
+package com.lmco.efoss.sbom.comparator.utils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+import org.apache.log4j.Logger;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.lmco.efoss.sbom.comparator.dtos.CompareJob;
+import com.lmco.efoss.sbom.comparator.exceptions.SBomComparatorException;
+
+/**
+ * (U) This class is used to read a manifest, a list of compares to run, from a CSV or JSon file.
+ * <p>
+ * A CSV manifest has one compare per line, "orgSbom,newSbom,output", where the output is
+ * optional; blank lines, lines starting with # and a heading line are skipped. A JSon manifest
+ * is an array of objects with the same three fields. A file ending in .json, or starting with
+ * [, is read as JSon. Relative file names in a manifest are relative to the working directory
+ * of the run, or the base directory it is read with.
+ *
+ * @author wrgoff
+ * @since 19 October 2026
+ */
+public class CompareManifest
+{
+	private static final Logger logger = Logger.getLogger(CompareManifest.class.getName());
+
+	private static final String HEADING = "orgsbom";
+
+	private CompareManifest()
+	{}
+
+	/**
+	 * (U) This method is used to read the compares listed in a manifest.
+	 *
+	 * @param fileName String name of the manifest file.
+	 * @return List of CompareJob, in the order they are listed.
+	 * @throws SBomComparatorException in the event the manifest can not be read, or a compare is
+	 *                                 missing one of its SBoms.
+	 */
+	public static List<CompareJob> read(String fileName) throws SBomComparatorException
+	{
+		return read(fileName, null);
+	}
+
+	/**
+	 * (U) This method is used to read the compares listed in a manifest, resolving the relative
+	 * file names in it against a base directory, as the daemon does with the client's.
+	 *
+	 * @param fileName      String name of the manifest file.
+	 * @param baseDirectory Path to resolve the SBoms and outputs against, null to leave them as
+	 *                      they are.
+	 * @return List of CompareJob, in the order they are listed.
+	 * @throws SBomComparatorException in the event the manifest can not be read, or a compare is
+	 *                                 missing one of its SBoms.
+	 */
+	public static List<CompareJob> read(String fileName, Path baseDirectory)
+			throws SBomComparatorException
+	{
+		String content;
+		try
+		{
+			content = new String(Files.readAllBytes(Paths.get(fileName)), StandardCharsets.UTF_8);
+		}
+		catch (IOException e)
+		{
+			String error = "Unable to read the manifest (" + fileName + ")!";
+			logger.error(error, e);
+			throw new SBomComparatorException(error, e);
+		}
+		
+		List<CompareJob> jobs;
+		if ((fileName.toLowerCase(Locale.ENGLISH).endsWith(".json")) || (content.trim().startsWith(
+				"[")))
+			jobs = readJson(fileName, content);
+		else
+			jobs = readCsv(fileName, content);
+		
+		for (int i = 0; i < jobs.size(); i++)
+		{
+			CompareJob job = jobs.get(i);
+			if ((isBlank(job.getOrgSbom())) || (isBlank(job.getNewSbom())))
+				throw new SBomComparatorException("Compare " + (i + 1) + " of the manifest (" +
+						fileName + ") needs both an orgSbom and a newSbom.");
+			if (isBlank(job.getOutput()))
+				job.setOutput(null);
+			
+			if (baseDirectory != null)
+			{
+				job.setOrgSbom(baseDirectory.resolve(job.getOrgSbom().trim()).toString());
+				job.setNewSbom(baseDirectory.resolve(job.getNewSbom().trim()).toString());
+				if (job.getOutput() != null)
+					job.setOutput(baseDirectory.resolve(job.getOutput().trim()).toString());
+			}
+		}
+		
+		if (logger.isDebugEnabled())
+			logger.debug("Read " + jobs.size() + " compares from the manifest (" + fileName +
+					").");
+		return jobs;
+	}
+
+	/**
+	 * (U) Null safe check for an empty value.
+	 *
+	 * @param value String to check.
+	 * @return boolean true if the value is null or only white space.
+	 */
+	private static boolean isBlank(String value)
+	{
+		return (value == null) || (value.trim().isEmpty());
+	}
+
+	/**
+	 * (U) This method is used to read a CSV manifest.
+	 *
+	 * @param fileName String name of the manifest file, for errors.
+	 * @param content  String content of the manifest.
+	 * @return List of CompareJob.
+	 * @throws SBomComparatorException in the event a line does NOT have two or three values.
+	 */
+	private static List<CompareJob> readCsv(String fileName, String content)
+			throws SBomComparatorException
+	{
+		List<CompareJob> jobs = new ArrayList<>();
+		String[] lines = content.split("\r?\n");
+		for (int i = 0; i < lines.length; i++)
+		{
+			String line = lines[i].trim();
+			if ((line.isEmpty()) || (line.startsWith("#")))
+				continue;
+			
+			String[] values = line.split(",", -1);
+			if ((values.length < 2) || (values.length > 3))
+				throw new SBomComparatorException("Line " + (i + 1) + " of the manifest (" +
+						fileName + ") must be orgSbom,newSbom[,output], NOT " + line + ".");
+			
+			if (HEADING.equalsIgnoreCase(values[0].trim()))
+				continue;
+			
+			Arrays.setAll(values, index -> values[index].trim());
+			jobs.add(new CompareJob(values[0], values[1], (values.length > 2) ? values[2] : null));
+		}
+		return jobs;
+	}
+
+	/**
+	 * (U) This method is used to read a JSon manifest.
+	 *
+	 * @param fileName String name of the manifest file, for errors.
+	 * @param content  String content of the manifest.
+	 * @return List of CompareJob.
+	 * @throws SBomComparatorException in the event the JSon is NOT an array of compares.
+	 */
+	private static List<CompareJob> readJson(String fileName, String content)
+			throws SBomComparatorException
+	{
+		try
+		{
+			return new ArrayList<>(Arrays.asList(new ObjectMapper().readValue(content,
+					CompareJob[].class)));
+		}
+		catch (IOException e)
+		{
+			String error = "The manifest (" + fileName + ") is NOT a JSon array of compares!";
+			logger.error(error, e);
+			throw new SBomComparatorException(error, e);
+		}
+	}
+}
@@ -0,0 +1,402 @@
+/*
+ * Copyright (c) 2018,2019 Lockheed Martin Corporation.
+ *
+ * This work is owned by Lockheed Martin Corporation. Lockheed Martin personnel are permitted to use and
+ * modify this software.  Lockheed Martin personnel may also deliver this source code to any US Government
+ * customer Agency under a "US Government Purpose Rights" license.
+ *
+ * See the LICENSE file distributed with this work for licensing and distribution terms
+ */
+package com.lmco.efoss.sbom.comparator.utils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.log4j.Logger;
+import org.cyclonedx.model.Bom;
+import org.cyclonedx.model.Component;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.lmco.efoss.sbom.comparator.dtos.ComponentKey;
+import com.lmco.efoss.sbom.comparator.dtos.CorpusBom;
+import com.lmco.efoss.sbom.comparator.dtos.CorpusMatch;
+import com.lmco.efoss.sbom.comparator.exceptions.SBomComparatorException;
+
+/**
+ * (U) This class is an on disk inverted index of a corpus of SBoms: from each component, and
+ * version, to the SBoms that hold it. A component is identified by its group and name, as the
+ * "group:name" of its ComponentKey, as SBomCompareUtils.componentsEqual identifies it, so
+ * "which SBoms hold X at version Y" is answered without reading any SBom.
+ * <p>
+ * The index is a directory of append only files:
+ *
+ * <pre>
+ * postings-00.tsv .. postings-3f.tsv  "group:name, version, SBom id" per line, sharded by
+ *                                     component, so a query reads one shard.
+ * boms.ndjson                         one CorpusBom per line, written after its postings.
+ * next-id                             the next SBom id, written before any postings use it.
+ * corpus.lock                         locked while an update writes to the index.
+ * </pre>
+ *
+ * An SBom that changes is indexed again under a new id, and one that is deleted is recorded as
+ * removed; the postings of old ids are skipped by queries. An SBom only counts once its line in
+ * boms.ndjson is written, and ids are never reused, so an update that fails part way leaves
+ * postings that are never returned, and a line an update left partly written is cut off by the
+ * next one. Updates are serialized by a lock file, and ids are only handed out under it, after
+ * reading what other updates wrote, so more than one process, or more than one index in a JVM
+ * (as the daemon's), may update an index at once.
+ *
+ * @author wrgoff
+ * @since 19 October 2026
+ */
+public class CorpusIndex
+{
+	private static final Logger logger = Logger.getLogger(CorpusIndex.class.getName());
+
+	public static final String BOMS_FILE = "boms.ndjson";
+	public static final String NEXT_ID_FILE = "next-id";
+	public static final String LOCK_FILE = "corpus.lock";
+	public static final int SHARDS = 64;
+	public static final int BATCH_SIZE = 100;
+
+	private final Path directory;
+	private final ObjectMapper mapper = new ObjectMapper();
+
+	private final Map<String, CorpusBom> boms = new HashMap<>();
+	private final Map<Long, CorpusBom> live = new HashMap<>();
+	private long bomsRead = 0;
+	private long nextId = 1;
+
+	// The postings of each SBom pending, "group:name, version", its id is only known once
+	// written.
+	private final List<CorpusBom> pending = new ArrayList<>();
+	private final List<List<String>> pendingPostings = new ArrayList<>();
+
+	/**
+	 * (U) Constructor, opens the index in the directory passed in, creating it if needed.
+	 *
+	 * @param directory String name of the directory holding the index.
+	 * @throws SBomComparatorException in the event we are unable to create or read the index.
+	 */
+	public CorpusIndex(String directory) throws SBomComparatorException
+	{
+		this.directory = Paths.get(directory);
+		try
+		{
+			Files.createDirectories(this.directory);
+			refresh();
+		}
+		catch (IOException | NumberFormatException e)
+		{
+			String error = "Unable to open the corpus index (" + directory + ")!";
+			logger.error(error, e);
+			throw new SBomComparatorException(error, e);
+		}
+		
+		if (logger.isDebugEnabled())
+			logger.debug("Opened corpus index (" + directory + ") of " + live.size() + " SBoms.");
+	}
+
+	/**
+	 * (U) This method is used to get the path an SBom file is indexed under.
+	 *
+	 * @param file Path of the SBom file.
+	 * @return String the absolute, normalized, path.
+	 */
+	public static String toIndexPath(Path file)
+	{
+		return file.toAbsolutePath().normalize().toString();
+	}
+
+	/**
+	 * (U) This method is used to add an SBom to the index, or replace an older copy of it. The
+	 * SBom is written to the index with the next batch, or when flushed.
+	 *
+	 * @param file     Path of the SBom file.
+	 * @param size     long size of the file, in bytes.
+	 * @param modified long time the file was last modified, in milliseconds.
+	 * @param bom      Bom read from the file.
+	 * @throws SBomComparatorException in the event we are unable to write a batch to the index.
+	 */
+	public synchronized void add(Path file, long size, long modified, Bom bom)
+			throws SBomComparatorException
+	{
+		CorpusBom corpusBom = new CorpusBom(toIndexPath(file), size, modified);
+		
+		List<String> postings = new ArrayList<>();
+		if (bom.getComponents() != null)
+		{
+			for (Component component : bom.getComponents())
+				postings.add(clean(ComponentKey.of(component).toString()) + "\t" + clean(
+						component.getVersion()));
+		}
+		corpusBom.setComponents(postings.size());
+		
+		pending.add(corpusBom);
+		pendingPostings.add(postings);
+		if (pending.size() >= BATCH_SIZE)
+			flush();
+	}
+
+	/**
+	 * (U) This method is used to write the SBoms added, or removed, since the last flush to the
+	 * index. Under the lock, what other updates wrote is read, and the SBoms are given their ids;
+	 * the next id is written first, then the postings, and the SBoms last.
+	 *
+	 * @throws SBomComparatorException in the event we are unable to write to the index.
+	 */
+	public synchronized void flush() throws SBomComparatorException
+	{
+		if (pending.isEmpty())
+			return;
+		
+		try
+		{
+			DiffHistoryStore.WriteLock lock = new DiffHistoryStore.WriteLock(directory.resolve(
+					LOCK_FILE));
+			try
+			{
+				// Another process may have written since we last looked.
+				refresh();
+				
+				StringBuilder[] shards = new StringBuilder[SHARDS];
+				for (int i = 0; i < pending.size(); i++)
+				{
+					CorpusBom corpusBom = pending.get(i);
+					corpusBom.setId(nextId++);
+					for (String posting : pendingPostings.get(i))
+					{
+						int shard = shard(posting.substring(0, posting.indexOf('\t')));
+						if (shards[shard] == null)
+							shards[shard] = new StringBuilder();
+						shards[shard].append(posting).append('\t').append(corpusBom.getId())
+								.append('\n');
+					}
+				}
+				
+				Path nextIdTemp = directory.resolve(NEXT_ID_FILE + ".tmp");
+				Files.write(nextIdTemp, Long.toString(nextId).getBytes(StandardCharsets.UTF_8));
+				Files.move(nextIdTemp, directory.resolve(NEXT_ID_FILE),
+						StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+				
+				for (int i = 0; i < SHARDS; i++)
+				{
+					if (shards[i] != null)
+						DiffHistoryStore.appendText(shardFile(i), shards[i].toString());
+				}
+				
+				StringBuilder lines = new StringBuilder();
+				for (CorpusBom corpusBom : pending)
+					lines.append(mapper.writeValueAsString(corpusBom)).append('\n');
+				DiffHistoryStore.appendText(directory.resolve(BOMS_FILE), lines.toString());
+				
+				refresh();
+			}
+			finally
+			{
+				lock.close();
+			}
+		}
+		catch (IOException | NumberFormatException e)
+		{
+			String error = "Failed to write " + pending.size() + " SBoms to the corpus index (" +
+					directory + ")!";
+			logger.error(error, e);
+			throw new SBomComparatorException(error, e);
+		}
+		
+		if (logger.isDebugEnabled())
+			logger.debug("Wrote " + pending.size() + " SBoms to the corpus index.");
+		pending.clear();
+		pendingPostings.clear();
+	}
+
+	/**
+	 * (U) This method is used to get the paths of every SBom in the index.
+	 *
+	 * @return Set of the paths, as toIndexPath gives them.
+	 */
+	public synchronized Set<String> getPaths()
+	{
+		Set<String> paths = new HashSet<>();
+		for (CorpusBom corpusBom : live.values())
+			paths.add(corpusBom.getPath());
+		return paths;
+	}
+
+	/**
+	 * (U) This method is used to check if an SBom file is in the index as it is now, so does not
+	 * need to be read again.
+	 *
+	 * @param file     Path of the SBom file.
+	 * @param size     long size of the file, in bytes.
+	 * @param modified long time the file was last modified, in milliseconds.
+	 * @return boolean true if the file is indexed with the same size and modified time.
+	 */
+	public synchronized boolean isCurrent(Path file, long size, long modified)
+	{
+		CorpusBom corpusBom = boms.get(toIndexPath(file));
+		return (corpusBom != null) && (!corpusBom.isRemoved()) && (corpusBom.getSize() == size) &&
+				(corpusBom.getModified() == modified);
+	}
+
+	/**
+	 * (U) This method is used to find the SBoms that hold a component, reading only the shard of
+	 * the index that holds it.
+	 *
+	 * @param component String key of the component, "group:name".
+	 * @param version   String version the SBoms must hold, null for any.
+	 * @return List of CorpusMatch, one for each SBom and version, sorted by SBom.
+	 * @throws SBomComparatorException in the event we are unable to read the index.
+	 */
+	public synchronized List<CorpusMatch> query(String component, String version)
+			throws SBomComparatorException
+	{
+		String key = clean(ComponentKey.parse(component).toString());
+		String prefix = key + "\t";
+		
+		List<CorpusMatch> matches = new ArrayList<>();
+		Path shardFile = shardFile(shard(key));
+		if (!Files.exists(shardFile))
+			return matches;
+		
+		Set<String> seen = new HashSet<>();
+		try
+		{
+			// Another process may have written since we last looked.
+			refresh();
+			for (String line : Files.readAllLines(shardFile, StandardCharsets.UTF_8))
+			{
+				if (!line.startsWith(prefix))
+					continue;
+				
+				int idIndex = line.lastIndexOf('\t');
+				String lineVersion = line.substring(prefix.length(), idIndex);
+				CorpusBom corpusBom = live.get(Long.parseLong(line.substring(idIndex + 1)));
+				if ((corpusBom != null) && ((version == null) || (version.equals(lineVersion))) &&
+						(seen.add(corpusBom.getId() + "\t" + lineVersion)))
+					matches.add(new CorpusMatch(corpusBom.getPath(), key, lineVersion.isEmpty() ?
+							null : lineVersion));
+			}
+		}
+		catch (IOException | NumberFormatException e)
+		{
+			String error = "Failed to read the corpus index (" + shardFile + ")!";
+			logger.error(error, e);
+			throw new SBomComparatorException(error, e);
+		}
+		
+		matches.sort(Comparator.comparing(CorpusMatch::getSbom));
+		return matches;
+	}
+
+	/**
+	 * (U) This method is used to record that an SBom file has been deleted. It is written to the
+	 * index with the next batch, or when flushed.
+	 *
+	 * @param path String path of the SBom, as toIndexPath gives it.
+	 * @throws SBomComparatorException in the event we are unable to write a batch to the index.
+	 */
+	public synchronized void remove(String path) throws SBomComparatorException
+	{
+		CorpusBom removed = new CorpusBom(path, 0, 0);
+		removed.setRemoved(true);
+		
+		pending.add(removed);
+		pendingPostings.add(new ArrayList<>());
+		if (pending.size() >= BATCH_SIZE)
+			flush();
+	}
+
+	/**
+	 * (U) This method is used to get the number of SBoms in the index.
+	 *
+	 * @return int the number of SBoms.
+	 */
+	public synchronized int size()
+	{
+		return live.size();
+	}
+
+	/**
+	 * (U) This method is used to make a value safe to write to a postings line.
+	 *
+	 * @param value String to write, may be null.
+	 * @return String the value, with tabs and ends of line replaced, empty for null.
+	 */
+	private static String clean(String value)
+	{
+		if (value == null)
+			return "";
+		return value.replace('\t', ' ').replace('\n', ' ').replace('\r', ' ');
+	}
+
+	/**
+	 * (U) This method is used to get the shard the postings of a component are in.
+	 *
+	 * @param key String key of the component.
+	 * @return int the shard.
+	 */
+	private static int shard(String key)
+	{
+		return Math.floorMod(key.hashCode(), SHARDS);
+	}
+
+	/**
+	 * (U) This method is used to record an SBom written to the index, replacing any older copy.
+	 *
+	 * @param corpusBom CorpusBom written to the index.
+	 */
+	private void record(CorpusBom corpusBom)
+	{
+		CorpusBom previous = boms.put(corpusBom.getPath(), corpusBom);
+		if (previous != null)
+			live.remove(previous.getId());
+		if (!corpusBom.isRemoved())
+			live.put(corpusBom.getId(), corpusBom);
+		nextId = Math.max(nextId, corpusBom.getId() + 1);
+	}
+
+	/**
+	 * (U) This method is used to load the SBoms written to the index since we last looked, and
+	 * the next id.
+	 *
+	 * @throws IOException           in the event we are unable to read the index.
+	 * @throws NumberFormatException in the event the next id is NOT a number.
+	 */
+	private void refresh() throws IOException
+	{
+		List<String> lines = new ArrayList<>();
+		bomsRead = DiffHistoryStore.readNewLines(directory.resolve(BOMS_FILE), bomsRead, lines);
+		for (String line : lines)
+			record(mapper.readValue(line, CorpusBom.class));
+		
+		Path nextIdFile = directory.resolve(NEXT_ID_FILE);
+		if (Files.exists(nextIdFile))
+			nextId = Math.max(nextId, Long.parseLong(new String(Files.readAllBytes(nextIdFile),
+					StandardCharsets.UTF_8).trim()));
+	}
+
+	/**
+	 * (U) This method is used to get the file a shard is kept in.
+	 *
+	 * @param shard int the shard.
+	 * @return Path of the shard's file.
+	 */
+	private Path shardFile(int shard)
+	{
+		return directory.resolve(String.format(Locale.ENGLISH, "postings-%02x.tsv", shard));
+	}
+}
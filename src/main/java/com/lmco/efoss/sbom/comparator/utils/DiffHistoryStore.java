@@ -0,0 +1,622 @@
+/*
+ * Copyright (c) 2018,2019 Lockheed Martin Corporation.
+ *
+ * This work is owned by Lockheed Martin Corporation. Lockheed Martin personnel are permitted to use and
+ * modify this software.  Lockheed Martin personnel may also deliver this source code to any US Government
+ * customer Agency under a "US Government Purpose Rights" license.
+ *
+ * See the LICENSE file distributed with this work for licensing and distribution terms
+ */
+package com.lmco.efoss.sbom.comparator.utils;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.apache.log4j.Logger;
+import org.cyclonedx.model.Bom;
+import org.cyclonedx.model.Component;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.lmco.efoss.sbom.comparator.dtos.CompareComponent;
+import com.lmco.efoss.sbom.comparator.dtos.ComponentKey;
+import com.lmco.efoss.sbom.comparator.dtos.HistoryBuild;
+import com.lmco.efoss.sbom.comparator.dtos.HistoryEntry;
+import com.lmco.efoss.sbom.comparator.dtos.ModifiedComponent;
+import com.lmco.efoss.sbom.comparator.exceptions.SBomComparatorException;
+import com.lmco.efoss.sbom.comparator.generator.SBomNdJsonDiffWriter;
+
+/**
+ * (U) This class is a local, file based, history of compares. Each compare appends its
+ * differences to the history, and the history keeps an index from each component to its changes,
+ * so the changes of one component across many builds are found without comparing, or even
+ * reading, the SBoms again.
+ * <p>
+ * The history is a directory of three append only files:
+ *
+ * <pre>
+ * changes.ndjson  one HistoryEntry per line, each change of each compare.
+ * changes.idx     one line per change: sequence, offset, length and component key.
+ * builds.ndjson   one HistoryBuild per line, written last, once a compare's changes are written.
+ * </pre>
+ *
+ * A compare only counts once its build line is written, so a compare that fails part way leaves
+ * changes that are never returned. Appends are serialized by a lock file, so more than one
+ * process, or more than one history in a JVM (as the daemon's), can record to the same
+ * history; readers only ever consume complete lines. A last line left without its end of line,
+ * by a writer that died part way through it, is cut off by the next append rather than joined
+ * to its first line.
+ *
+ * @author wrgoff
+ * @since 19 October 2026
+ */
+public class DiffHistoryStore
+{
+	private static final Logger logger = Logger.getLogger(DiffHistoryStore.class.getName());
+
+	public static final String BUILDS_FILE = "builds.ndjson";
+	public static final String CHANGES_FILE = "changes.ndjson";
+	public static final String INDEX_FILE = "changes.idx";
+	public static final String LOCK_FILE = "history.lock";
+	public static final String DEFAULT_PRODUCT = "default";
+
+	private final Path buildsFile;
+	private final Path changesFile;
+	private final Path indexFile;
+	private final Path lockFile;
+	private final ObjectMapper mapper = new ObjectMapper();
+
+	private final List<HistoryBuild> builds = new ArrayList<>();
+	private final Map<String, List<IndexEntry>> index = new HashMap<>();
+	private long buildsRead = 0;
+	private long indexRead = 0;
+	private long lastSequence = 0;
+
+	/**
+	 * (U) Constructor, opens the history in the directory passed in, creating it if needed, and
+	 * loads its builds and index.
+	 *
+	 * @param directory String name of the directory holding the history.
+	 * @throws SBomComparatorException in the event we are unable to create or read the history.
+	 */
+	public DiffHistoryStore(String directory) throws SBomComparatorException
+	{
+		Path dir = Paths.get(directory);
+		buildsFile = dir.resolve(BUILDS_FILE);
+		changesFile = dir.resolve(CHANGES_FILE);
+		indexFile = dir.resolve(INDEX_FILE);
+		lockFile = dir.resolve(LOCK_FILE);
+		try
+		{
+			Files.createDirectories(dir);
+			refresh();
+		}
+		catch (IOException e)
+		{
+			String error = "Unable to open the diff history (" + directory + ")!";
+			logger.error(error, e);
+			throw new SBomComparatorException(error, e);
+		}
+		
+		if (logger.isDebugEnabled())
+			logger.debug("Opened diff history (" + directory + ") with " + builds.size() +
+					" builds and " + index.size() + " components.");
+	}
+
+	/**
+	 * (U) This method is used to get the identity of an SBom build, its serial number and version,
+	 * "serialNumber/version". An SBom without a serial number is known by its file name.
+	 *
+	 * @param bom      Bom to get the identity of.
+	 * @param fileName String name of the file the SBom was read from.
+	 * @return String the identity of the build.
+	 */
+	public static String getBuildId(Bom bom, String fileName)
+	{
+		if ((bom.getSerialNumber() == null) || (bom.getSerialNumber().trim().isEmpty()))
+			return fileName;
+		return bom.getSerialNumber() + "/" + bom.getVersion();
+	}
+
+	/**
+	 * (U) This method is used to get the product an SBom describes, the name of its metadata
+	 * component.
+	 *
+	 * @param bom Bom to get the product of.
+	 * @return String name of the product, DEFAULT_PRODUCT if the SBom does not say.
+	 */
+	public static String getProduct(Bom bom)
+	{
+		if ((bom.getMetadata() != null) && (bom.getMetadata().getComponent() != null))
+		{
+			Component product = bom.getMetadata().getComponent();
+			if ((product.getName() != null) && (!product.getName().trim().isEmpty()))
+				return ComponentKey.of(product).toString();
+		}
+		return DEFAULT_PRODUCT;
+	}
+
+	/**
+	 * (U) This method is used to append a compare, and its changes, to the history.
+	 *
+	 * @param build   HistoryBuild the compare, its sequence and recorded time are set here.
+	 * @param entries List of HistoryEntry, the changes the compare found.
+	 * @return HistoryBuild the compare, as recorded.
+	 * @throws SBomComparatorException in the event we are unable to write to the history.
+	 */
+	public synchronized HistoryBuild append(HistoryBuild build, List<HistoryEntry> entries)
+			throws SBomComparatorException
+	{
+		try
+		{
+			WriteLock lock = new WriteLock(lockFile);
+			try
+			{
+				// Another process may have appended since we last looked.
+				refresh();
+				
+				long sequence = lastSequence + 1;
+				build.setSequence(sequence);
+				build.setRecorded(Instant.now().toString());
+				
+				StringBuilder indexLines = new StringBuilder();
+				try (FileChannel changes = openForAppend(changesFile))
+				{
+					long offset = changes.position();
+					for (HistoryEntry entry : entries)
+					{
+						entry.setSequence(sequence);
+						entry.setProduct(build.getProduct());
+						entry.setBuild(build.getBuild());
+						byte[] line = mapper.writeValueAsBytes(entry);
+						
+						writeFully(changes, ByteBuffer.wrap(line));
+						writeFully(changes, ByteBuffer.wrap(new byte[] { '\n' }));
+						
+						indexLines.append(sequence).append('\t').append(offset).append('\t')
+								.append(line.length).append('\t').append(entry.getComponent())
+								.append('\n');
+						offset += line.length + 1;
+					}
+					changes.force(false);
+				}
+				
+				appendText(indexFile, indexLines.toString());
+				appendText(buildsFile, mapper.writeValueAsString(build) + "\n");
+				
+				refresh();
+			}
+			finally
+			{
+				lock.close();
+			}
+		}
+		catch (IOException e)
+		{
+			String error = "Failed to append build (" + build.getBuild() + ") to the diff history!";
+			logger.error(error, e);
+			throw new SBomComparatorException(error, e);
+		}
+		return build;
+	}
+
+	/**
+	 * (U) This method is used to get the compares recorded for a product, oldest first.
+	 *
+	 * @param product String name of the product, null for every product.
+	 * @return List of HistoryBuild.
+	 * @throws SBomComparatorException in the event we are unable to read the history.
+	 */
+	public synchronized List<HistoryBuild> getBuilds(String product) throws SBomComparatorException
+	{
+		refreshQuietly();
+		
+		List<HistoryBuild> productBuilds = new ArrayList<>();
+		for (HistoryBuild build : builds)
+		{
+			if ((product == null) || (product.equals(build.getProduct())))
+				productBuilds.add(build);
+		}
+		return productBuilds;
+	}
+
+	/**
+	 * (U) This method is used to create a listener that collects the changes of one compare, to
+	 * be appended to this history by its commit method once the compare has finished.
+	 *
+	 * @param product       String name of the product the SBoms describe.
+	 * @param build         String identity of the new SBom.
+	 * @param previousBuild String identity of the original SBom.
+	 * @return Recorder to add to the listeners of the compare.
+	 */
+	public Recorder newRecorder(String product, String build, String previousBuild)
+	{
+		return new Recorder(new HistoryBuild(product, build, previousBuild));
+	}
+
+	/**
+	 * (U) This method is used to find the changes of a component, oldest first, using the index,
+	 * so only the changes of that component are read.
+	 *
+	 * @param product    String name of the product, null for every product.
+	 * @param component  String key of the component, "group:name".
+	 * @param lastBuilds int only look at the last this many compares of the product, 0 or less
+	 *                   for all of them.
+	 * @return List of HistoryEntry, the changes of the component.
+	 * @throws SBomComparatorException in the event we are unable to read the history.
+	 */
+	public synchronized List<HistoryEntry> query(String product, String component, int lastBuilds)
+			throws SBomComparatorException
+	{
+		List<HistoryBuild> productBuilds = getBuilds(product);
+		if ((lastBuilds > 0) && (productBuilds.size() > lastBuilds))
+			productBuilds = productBuilds.subList(productBuilds.size() - lastBuilds,
+					productBuilds.size());
+		
+		Set<Long> sequences = new HashSet<>();
+		for (HistoryBuild build : productBuilds)
+			sequences.add(build.getSequence());
+		
+		List<IndexEntry> indexEntries = index.getOrDefault(ComponentKey.parse(component)
+				.toString(), Collections.emptyList());
+		List<HistoryEntry> entries = new ArrayList<>();
+		if (indexEntries.isEmpty())
+			return entries;
+		
+		try (FileChannel changes = FileChannel.open(changesFile, StandardOpenOption.READ))
+		{
+			for (IndexEntry indexEntry : indexEntries)
+			{
+				// Changes of a compare that never finished have no build, and are skipped here.
+				if (sequences.contains(indexEntry.sequence))
+				{
+					ByteBuffer buffer = ByteBuffer.allocate(indexEntry.length);
+					while (buffer.hasRemaining())
+					{
+						if (changes.read(buffer, indexEntry.offset + buffer.position()) < 0)
+							throw new IOException("Unexpected end of " + changesFile + ".");
+					}
+					entries.add(mapper.readValue(buffer.array(), HistoryEntry.class));
+				}
+			}
+		}
+		catch (IOException e)
+		{
+			String error = "Failed to read the changes of " + component + " from the diff " +
+					"history!";
+			logger.error(error, e);
+			throw new SBomComparatorException(error, e);
+		}
+		return entries;
+	}
+
+	/**
+	 * (U) This method is used to append lines to the end of a file, cutting off a partly written
+	 * last line first (see openForAppend), and force them to disk. The CorpusIndex appends its
+	 * files the same way.
+	 *
+	 * @param file Path of the file to append to.
+	 * @param text String to append, ending with an end of line.
+	 * @throws IOException in the event we are unable to write to the file.
+	 */
+	static void appendText(Path file, String text) throws IOException
+	{
+		try (FileChannel channel = openForAppend(file))
+		{
+			writeFully(channel, ByteBuffer.wrap(text.getBytes(StandardCharsets.UTF_8)));
+			channel.force(false);
+		}
+	}
+
+	/**
+	 * (U) This method is used to open a file to append lines to, positioned at its end. Only
+	 * called by the file's one writer (here, under the lock), so a last line without its end of
+	 * line was left by a writer that died, and is cut off here.
+	 *
+	 * @param file Path of the file to open.
+	 * @return FileChannel positioned after the file's last complete line.
+	 * @throws IOException in the event we are unable to open or repair the file.
+	 */
+	private static FileChannel openForAppend(Path file) throws IOException
+	{
+		FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+				StandardOpenOption.READ, StandardOpenOption.WRITE);
+		try
+		{
+			long end = getCompleteLength(channel);
+			if (end < channel.size())
+			{
+				logger.warn("Cutting off the partly written last line of " + file + ".");
+				channel.truncate(end);
+				channel.force(false);
+			}
+			channel.position(end);
+			return channel;
+		}
+		catch (IOException e)
+		{
+			channel.close();
+			throw e;
+		}
+	}
+
+	/**
+	 * (U) This method is used to find where a file's last complete line ends.
+	 *
+	 * @param channel FileChannel of the file.
+	 * @return long the offset just after the file's last end of line, 0 if it has none.
+	 * @throws IOException in the event we are unable to read the file.
+	 */
+	private static long getCompleteLength(FileChannel channel) throws IOException
+	{
+		ByteBuffer buffer = ByteBuffer.allocate(8192);
+		long end = channel.size();
+		while (end > 0)
+		{
+			long start = Math.max(0, end - buffer.capacity());
+			buffer.clear();
+			buffer.limit((int) (end - start));
+			while (buffer.hasRemaining())
+			{
+				if (channel.read(buffer, start + buffer.position()) < 0)
+					throw new IOException("Unexpected end of file.");
+			}
+			for (int i = buffer.limit() - 1; i >= 0; i--)
+			{
+				if (buffer.get(i) == '\n')
+					return start + i + 1;
+			}
+			end = start;
+		}
+		return 0;
+	}
+
+	/**
+	 * (U) This method is used to read the complete lines added to a file since we last read it.
+	 * A last line without its end of line is still being written, and is left for next time.
+	 * The CorpusIndex reads its files the same way.
+	 *
+	 * @param file  Path of the file to read.
+	 * @param from  long the offset we have read up to.
+	 * @param lines List to add the lines to.
+	 * @return long the offset read up to now.
+	 * @throws IOException in the event we are unable to read the file.
+	 */
+	static long readNewLines(Path file, long from, List<String> lines) throws IOException
+	{
+		if ((!Files.exists(file)) || (Files.size(file) <= from))
+			return from;
+		
+		byte[] bytes;
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ))
+		{
+			ByteBuffer buffer = ByteBuffer.allocate((int) (channel.size() - from));
+			while (buffer.hasRemaining())
+			{
+				if (channel.read(buffer, from + buffer.position()) < 0)
+					break;
+			}
+			bytes = buffer.array();
+		}
+		
+		int start = 0;
+		for (int i = 0; i < bytes.length; i++)
+		{
+			if (bytes[i] == '\n')
+			{
+				if (i > start)
+					lines.add(new String(bytes, start, i - start, StandardCharsets.UTF_8));
+				start = i + 1;
+			}
+		}
+		return from + start;
+	}
+
+	/**
+	 * (U) This method is used to write the whole buffer to the channel.
+	 *
+	 * @param channel FileChannel to write to.
+	 * @param buffer  ByteBuffer to write.
+	 * @throws IOException in the event we are unable to write to the channel.
+	 */
+	private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException
+	{
+		while (buffer.hasRemaining())
+			channel.write(buffer);
+	}
+
+	/**
+	 * (U) This method is used to load the builds and index lines added since we last looked.
+	 *
+	 * @throws IOException in the event we are unable to read the history.
+	 */
+	private void refresh() throws IOException
+	{
+		List<String> lines = new ArrayList<>();
+		buildsRead = readNewLines(buildsFile, buildsRead, lines);
+		for (String line : lines)
+		{
+			HistoryBuild build = mapper.readValue(line, HistoryBuild.class);
+			builds.add(build);
+			lastSequence = Math.max(lastSequence, build.getSequence());
+		}
+		
+		lines.clear();
+		indexRead = readNewLines(indexFile, indexRead, lines);
+		for (String line : lines)
+		{
+			String[] fields = line.split("\t", 4);
+			IndexEntry entry = new IndexEntry(Long.parseLong(fields[0]), Long.parseLong(
+					fields[1]), Integer.parseInt(fields[2]));
+			index.computeIfAbsent(fields[3], key -> new ArrayList<>()).add(entry);
+			
+			// Never reuse the sequence of a compare that failed after writing its index.
+			lastSequence = Math.max(lastSequence, entry.sequence);
+		}
+	}
+
+	/**
+	 * (U) This method is used to refresh, wrapping any failure.
+	 *
+	 * @throws SBomComparatorException in the event we are unable to read the history.
+	 */
+	private void refreshQuietly() throws SBomComparatorException
+	{
+		try
+		{
+			refresh();
+		}
+		catch (IOException e)
+		{
+			String error = "Failed to read the diff history!";
+			logger.error(error, e);
+			throw new SBomComparatorException(error, e);
+		}
+	}
+
+	/**
+	 * (U) This class is the lock a writer holds while it writes to a directory: a lock on its
+	 * lock file, so one process writes at a time, and, as a JVM may only hold a file's lock
+	 * once, a lock within the JVM, so writers in one JVM, as the daemon's, wait their turn too.
+	 * The CorpusIndex locks its updates the same way.
+	 */
+	static final class WriteLock implements Closeable
+	{
+		private static final ConcurrentMap<Path, ReentrantLock> locks = new ConcurrentHashMap<>();
+
+		private final ReentrantLock lock;
+		private final FileChannel channel;
+
+		/**
+		 * (U) Constructor, waits for the lock.
+		 *
+		 * @param lockFile Path of the lock file, created if needed.
+		 * @throws IOException in the event we are unable to lock the file.
+		 */
+		WriteLock(Path lockFile) throws IOException
+		{
+			lock = locks.computeIfAbsent(lockFile.toAbsolutePath().normalize(),
+					file -> new ReentrantLock());
+			lock.lock();
+			FileChannel opened = null;
+			try
+			{
+				opened = FileChannel.open(lockFile, StandardOpenOption.CREATE,
+						StandardOpenOption.WRITE);
+				opened.lock();
+			}
+			catch (IOException | RuntimeException e)
+			{
+				if (opened != null)
+					opened.close();
+				lock.unlock();
+				throw e;
+			}
+			channel = opened;
+		}
+
+		/**
+		 * (U) This method is used to release the lock; closing the channel releases the file's.
+		 *
+		 * @throws IOException in the event we are unable to close the lock file.
+		 */
+		@Override
+		public void close() throws IOException
+		{
+			try
+			{
+				channel.close();
+			}
+			finally
+			{
+				lock.unlock();
+			}
+		}
+	}
+
+	/**
+	 * (U) Where one change of a component is in the changes file.
+	 */
+	private static final class IndexEntry
+	{
+		private final long sequence;
+		private final long offset;
+		private final int length;
+
+		private IndexEntry(long sequence, long offset, int length)
+		{
+			this.sequence = sequence;
+			this.offset = offset;
+			this.length = length;
+		}
+	}
+
+	/**
+	 * (U) This listener collects the changes of one compare, and appends them to the history
+	 * when committed. A compare that fails is never committed, so never recorded.
+	 */
+	public class Recorder implements SBomDiffListener
+	{
+		private final HistoryBuild build;
+		private final List<HistoryEntry> entries = new ArrayList<>();
+
+		private Recorder(HistoryBuild build)
+		{
+			this.build = build;
+		}
+
+		/**
+		 * (U) This method is used to append the compare, and its changes, to the history.
+		 *
+		 * @return HistoryBuild the compare, as recorded.
+		 * @throws SBomComparatorException in the event we are unable to write to the history.
+		 */
+		public HistoryBuild commit() throws SBomComparatorException
+		{
+			return append(build, entries);
+		}
+
+		@Override
+		public void componentAdded(CompareComponent component)
+		{
+			build.setAdded(build.getAdded() + 1);
+			entries.add(new HistoryEntry(ComponentKey.of(component.getComponent()).toString(),
+					SBomNdJsonDiffWriter.ADDED, null, component.getComponent().getVersion()));
+		}
+
+		@Override
+		public void componentModified(ModifiedComponent component)
+		{
+			build.setModified(build.getModified() + 1);
+			Component previous = component.getPreviousComponent().getComponent();
+			entries.add(new HistoryEntry(ComponentKey.of(previous).toString(),
+					SBomNdJsonDiffWriter.MODIFIED, previous.getVersion(), component
+							.getNewComponent().getComponent().getVersion()));
+		}
+
+		@Override
+		public void componentRemoved(CompareComponent component)
+		{
+			build.setRemoved(build.getRemoved() + 1);
+			entries.add(new HistoryEntry(ComponentKey.of(component.getComponent()).toString(),
+					SBomNdJsonDiffWriter.REMOVED, component.getComponent().getVersion(), null));
+		}
+	}
+}
@@ -0,0 +1,154 @@
+/*
+ * Copyright (c) 2018,2019 Lockheed Martin Corporation.
+ *
+ * This work is owned by Lockheed Martin Corporation. Lockheed Martin personnel are permitted to use and
+ * modify this software.  Lockheed Martin personnel may also deliver this source code to any US Government
+ * customer Agency under a "US Government Purpose Rights" license.
+ *
+ * See the LICENSE file distributed with this work for licensing and distribution terms
+ */
+package com.lmco.efoss.sbom.comparator.utils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collection;
+
+import com.lmco.efoss.sbom.comparator.dtos.ComponentKey;
+
+/**
+ * (U) This class is a MinHash sketch of the set of components in an SBom: for each of k hash
+ * functions, the smallest hash of any component key. The fraction of hash functions for which two
+ * sketches hold the same minimum estimates the Jaccard similarity of the two sets of components
+ * (the number in both over the number in either), with an error of about 1 / sqrt(k).
+ * <p>
+ * A sketch is k longs, no matter how many components the SBom has, so sketches of hundreds of
+ * SBoms can be held, and compared pair by pair, where the SBoms themselves could not. Like the
+ * compare, only the group and name of a component count, NOT its version.
+ *
+ * @author wrgoff
+ * @since 19 October 2026
+ */
+public final class MinHashSketch
+{
+	public static final int DEFAULT_SIZE = 128;
+
+	private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+	private static final long FNV_PRIME = 0x100000001b3L;
+	private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+
+	private final long[] minimums;
+	private final boolean empty;
+
+	/**
+	 * (U) Constructor, sketches the component keys passed in.
+	 *
+	 * @param keys Collection of ComponentKey, the components of the SBom.
+	 * @param size int number of hash functions, k.
+	 */
+	public MinHashSketch(Collection<ComponentKey> keys, int size)
+	{
+		if (size <= 0)
+			throw new IllegalArgumentException("The size of a sketch must be positive, NOT " +
+					size + ".");
+		
+		minimums = new long[size];
+		Arrays.fill(minimums, Long.MAX_VALUE);
+		empty = keys.isEmpty();
+		
+		long[] seeds = seeds(size);
+		for (ComponentKey key : keys)
+		{
+			long hash = hash(key.toString());
+			for (int i = 0; i < size; i++)
+			{
+				long value = mix(hash ^ seeds[i]);
+				if (value < minimums[i])
+					minimums[i] = value;
+			}
+		}
+	}
+
+	/**
+	 * (U) This method is used to get the number of hash functions in the sketch.
+	 *
+	 * @return int the size of the sketch, k.
+	 */
+	public int size()
+	{
+		return minimums.length;
+	}
+
+	/**
+	 * (U) This method is used to estimate the Jaccard similarity of the components of this
+	 * sketch's SBom and another's. Two SBoms without components are the same.
+	 *
+	 * @param other MinHashSketch of the other SBom, of the same size.
+	 * @return double between 0 (nothing in common) and 1 (the same components).
+	 */
+	public double similarity(MinHashSketch other)
+	{
+		if (other.minimums.length != minimums.length)
+			throw new IllegalArgumentException("Can NOT compare a sketch of size " +
+					minimums.length + " to one of size " + other.minimums.length + ".");
+		if ((empty) || (other.empty))
+			return ((empty) && (other.empty)) ? 1.0 : 0.0;
+		
+		int same = 0;
+		for (int i = 0; i < minimums.length; i++)
+		{
+			if (minimums[i] == other.minimums[i])
+				same++;
+		}
+		return (double) same / minimums.length;
+	}
+
+	/**
+	 * (U) 64 bit FNV-1a hash of the UTF-8 bytes of the value passed in.
+	 *
+	 * @param value String to hash.
+	 * @return long the hash.
+	 */
+	private static long hash(String value)
+	{
+		long hash = FNV_OFFSET;
+		for (byte b : value.getBytes(StandardCharsets.UTF_8))
+		{
+			hash ^= (b & 0xff);
+			hash *= FNV_PRIME;
+		}
+		return hash;
+	}
+
+	/**
+	 * (U) The SplitMix64 finalizer, used to turn one hash into k independent ones.
+	 *
+	 * @param value long to mix.
+	 * @return long the mixed value.
+	 */
+	private static long mix(long value)
+	{
+		long z = value;
+		z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+		z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+		return z ^ (z >>> 31);
+	}
+
+	/**
+	 * (U) This method is used to get the seed of each hash function. The seeds are fixed, so
+	 * sketches made in different runs can be compared.
+	 *
+	 * @param size int number of hash functions.
+	 * @return long[] the seeds.
+	 */
+	private static long[] seeds(int size)
+	{
+		long[] seeds = new long[size];
+		long state = 0;
+		for (int i = 0; i < size; i++)
+		{
+			state += GOLDEN_GAMMA;
+			seeds[i] = mix(state);
+		}
+		return seeds;
+	}
+}
@@ -0,0 +1,405 @@
+/*
+ * Copyright (c) 2018,2019 Lockheed Martin Corporation.
+ *
+ * This work is owned by Lockheed Martin Corporation. Lockheed Martin personnel are permitted to use and
+ * modify this software.  Lockheed Martin personnel may also deliver this source code to any US Government
+ * customer Agency under a "US Government Purpose Rights" license.
+ *
+ * See the LICENSE file distributed with this work for licensing and distribution terms
+ */
+package com.lmco.efoss.sbom.comparator.utils;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.apache.log4j.Logger;
+import org.cyclonedx.exception.ParseException;
+import org.cyclonedx.model.Bom;
+import org.cyclonedx.parsers.JsonParser;
+import org.cyclonedx.parsers.Parser;
+import org.cyclonedx.parsers.XmlParser;
+
+import com.lmco.efoss.sbom.comparator.dtos.CacheStats;
+import com.lmco.efoss.sbom.comparator.dtos.IndexedBom;
+import com.lmco.efoss.sbom.comparator.exceptions.SBomComparatorException;
+
+/**
+ * (U) This class is a cache of parsed, and indexed, SBoms, keyed by the SHA-256 of their bytes,
+ * so an SBom compared again and again (a baseline, a release every branch is compared to) is
+ * parsed once however many files, or uploads, it comes from. The cache is bounded by the
+ * estimated heap the SBoms hold, not by their number, and drops the least recently used SBoms to
+ * stay under it. An SBom is only ever handed out as an IndexedBom, which is never changed, so
+ * one cached SBom can be used by any number of compares at once.
+ *
+ * @author wrgoff
+ * @since 19 October 2026
+ */
+public class ParsedBomCache
+{
+	private static final Logger logger = Logger.getLogger(ParsedBomCache.class.getName());
+
+	public static final long DEFAULT_MAX_BYTES = 256L * 1024 * 1024;
+
+	// Rough heap held per component: the component, its key and the index entries for it.
+	private static final long COMPONENT_BYTES = 512;
+
+	private final long maxBytes;
+	private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+	private long bytes = 0;
+	private long hits = 0;
+	private long misses = 0;
+	private long evictions = 0;
+
+	/**
+	 * (U) This class is one cached SBom, and its estimated size.
+	 */
+	private static class Entry
+	{
+		private final IndexedBom bom;
+		private final long size;
+
+		Entry(IndexedBom bom, long size)
+		{
+			this.bom = bom;
+			this.size = size;
+		}
+	}
+
+	/**
+	 * (U) Constructor.
+	 *
+	 * @param maxBytes long most the cached SBoms may take, estimated. 0 caches nothing.
+	 */
+	public ParsedBomCache(long maxBytes)
+	{
+		this.maxBytes = maxBytes;
+	}
+
+	/**
+	 * (U) This method is used to cache an SBom parsed somewhere else, as one parsed while its
+	 * bytes were still arriving, unless the same bytes are already cached.
+	 *
+	 * @param hash         String SHA-256 of the SBom's bytes, in hex.
+	 * @param contentBytes long size of the SBom's bytes.
+	 * @param bom          IndexedBom parsed.
+	 * @return IndexedBom the SBom already cached, under the name of the one passed in, otherwise
+	 *         the one passed in.
+	 */
+	public IndexedBom add(String hash, long contentBytes, IndexedBom bom)
+	{
+		synchronized (this)
+		{
+			Entry entry = entries.get(hash);
+			if (entry != null)
+			{
+				hits++;
+				return entry.bom.withName(bom.getName());
+			}
+			misses++;
+		}
+		
+		put(hash, new Entry(bom, estimateSize(bom, contentBytes)));
+		return bom;
+	}
+
+	/**
+	 * (U) This method is used to estimate the heap an SBom holds once parsed and indexed: its
+	 * bytes twice over, for the strings read from it, plus COMPONENT_BYTES for each component.
+	 *
+	 * @param bom          IndexedBom parsed.
+	 * @param contentBytes long size of the SBom's bytes.
+	 * @return long the estimated size.
+	 */
+	public static long estimateSize(IndexedBom bom, long contentBytes)
+	{
+		return (2 * contentBytes) + (COMPONENT_BYTES * bom.size());
+	}
+
+	/**
+	 * (U) This method is used to get the statistics of the cache.
+	 *
+	 * @return CacheStats the statistics now.
+	 */
+	public synchronized CacheStats getStats()
+	{
+		return new CacheStats(hits, misses, evictions, entries.size(), bytes, maxBytes);
+	}
+
+	/**
+	 * (U) This method is used to get an SBom from its bytes, parsing it only if the same bytes
+	 * are NOT already cached. XML and JSon SBoms are told apart by their first character.
+	 *
+	 * @param name    String name of the SBom, the IndexedBom returned has it.
+	 * @param content byte array holding the SBom.
+	 * @return IndexedBom the SBom, indexed for comparing.
+	 * @throws SBomComparatorException in the event the bytes are NOT an SBom.
+	 */
+	public IndexedBom parse(String name, byte[] content) throws SBomComparatorException
+	{
+		return parse(name, content, sha256(content));
+	}
+
+	/**
+	 * (U) This method is used to get an SBom from its bytes, whose SHA-256 the caller already
+	 * has, parsing it only if the same bytes are NOT already cached.
+	 *
+	 * @param name    String name of the SBom, the IndexedBom returned has it.
+	 * @param content byte array holding the SBom.
+	 * @param hash    String SHA-256 of the content, in hex, as returned by sha256.
+	 * @return IndexedBom the SBom, indexed for comparing.
+	 * @throws SBomComparatorException in the event the bytes are NOT an SBom.
+	 */
+	public IndexedBom parse(String name, byte[] content, String hash)
+			throws SBomComparatorException
+	{
+		synchronized (this)
+		{
+			Entry entry = entries.get(hash);
+			if (entry != null)
+			{
+				hits++;
+				return entry.bom.withName(name);
+			}
+			misses++;
+		}
+		
+		IndexedBom bom = new IndexedBom(name, parseBom(name, content));
+		put(hash, new Entry(bom, estimateSize(bom, content.length)));
+		return bom;
+	}
+
+	/**
+	 * (U) This method is used to parse an SBom from its bytes, without the cache. XML and JSon
+	 * SBoms are told apart by their first character.
+	 *
+	 * @param name    String name of the SBom, for errors.
+	 * @param content byte array holding the SBom.
+	 * @return Bom the parsed SBom.
+	 * @throws SBomComparatorException in the event the bytes are NOT an SBom.
+	 */
+	public static Bom parseBom(String name, byte[] content)
+			throws SBomComparatorException
+	{
+		int first = 0;
+		while ((first < content.length) && ((Character.isWhitespace(content[first])) ||
+				((content[first] & 0xFF) > 0x7F)))
+			first++;
+		
+		if (first == content.length)
+			throw new SBomComparatorException("SBom (" + name + ") is empty!");
+		
+		Parser parser = (content[first] == '<') ? new XmlParser() : new JsonParser();
+		try
+		{
+			return parser.parse(content);
+		}
+		catch (ParseException | RuntimeException e)
+		{
+			String error = "Unable to parse SBom (" + name + ")!";
+			logger.error(error, e);
+			throw new SBomComparatorException(error, e);
+		}
+	}
+
+	/**
+	 * (U) This method is used to parse an SBom as it is read, without the cache, so it can be
+	 * parsed while its bytes are still arriving. XML and JSon SBoms are told apart by their first
+	 * character. Whatever the parser leaves of the stream, after the end of the SBom, is left
+	 * for the caller.
+	 *
+	 * @param name    String name of the SBom, for errors.
+	 * @param content InputStream of the SBom.
+	 * @return Bom the parsed SBom.
+	 * @throws SBomComparatorException in the event the stream is NOT an SBom, or can NOT be read.
+	 */
+	public static Bom parseBom(String name, InputStream content)
+			throws SBomComparatorException
+	{
+		// Only the bytes before the first character are held, to be read again by the parser.
+		BufferedInputStream in = new BufferedInputStream(content);
+		int first;
+		try
+		{
+			in.mark(Integer.MAX_VALUE);
+			first = in.read();
+			while ((first >= 0) && ((Character.isWhitespace(first)) || (first > 0x7F)))
+				first = in.read();
+			in.reset();
+		}
+		catch (IOException e)
+		{
+			String error = "Unable to read SBom (" + name + ")!";
+			logger.error(error, e);
+			throw new SBomComparatorException(error, e);
+		}
+		
+		if (first < 0)
+			throw new SBomComparatorException("SBom (" + name + ") is empty!");
+		
+		Parser parser = (first == '<') ? new XmlParser() : new JsonParser();
+		try
+		{
+			return parser.parse(in);
+		}
+		catch (ParseException | RuntimeException e)
+		{
+			String error = "Unable to parse SBom (" + name + ")!";
+			logger.error(error, e);
+			throw new SBomComparatorException(error, e);
+		}
+	}
+
+	/**
+	 * (U) This method is used to get an SBom file, parsing it only if the same bytes are NOT
+	 * already cached. The file is always read, so a changed file is never answered from the
+	 * cache.
+	 *
+	 * @param fileName String name of the SBom file, the IndexedBom returned has it.
+	 * @return IndexedBom the SBom, indexed for comparing.
+	 * @throws SBomComparatorException in the event the file does not exist, or is NOT an SBom.
+	 */
+	public IndexedBom read(String fileName) throws SBomComparatorException
+	{
+		return parse(fileName, readBytes(fileName));
+	}
+
+	/**
+	 * (U) This method is used to read the bytes of an SBom file.
+	 *
+	 * @param fileName String name of the SBom file.
+	 * @return byte array holding the file.
+	 * @throws SBomComparatorException in the event the file does not exist, or can NOT be read.
+	 */
+	public static byte[] readBytes(String fileName) throws SBomComparatorException
+	{
+		if (fileName == null)
+			throw new SBomComparatorException("No SBom file name provided!");
+		
+		Path file = Paths.get(fileName);
+		if (!Files.exists(file))
+			throw new SBomComparatorException("File(" + fileName + ") does NOT exist!");
+		
+		try
+		{
+			return Files.readAllBytes(file);
+		}
+		catch (IOException e)
+		{
+			String error = "Unable to read SBom from file(" + fileName + ").";
+			logger.error(error, e);
+			throw new SBomComparatorException(error, e);
+		}
+	}
+
+	/**
+	 * (U) This method is used to get the size of an SBom file, before it is read.
+	 *
+	 * @param fileName String name of the SBom file.
+	 * @return long size of the file, in bytes.
+	 * @throws SBomComparatorException in the event the file does not exist, or can NOT be read.
+	 */
+	public static long getSize(String fileName) throws SBomComparatorException
+	{
+		if (fileName == null)
+			throw new SBomComparatorException("No SBom file name provided!");
+		
+		Path file = Paths.get(fileName);
+		if (!Files.exists(file))
+			throw new SBomComparatorException("File(" + fileName + ") does NOT exist!");
+		
+		try
+		{
+			return Files.size(file);
+		}
+		catch (IOException e)
+		{
+			String error = "Unable to read SBom from file(" + fileName + ").";
+			logger.error(error, e);
+			throw new SBomComparatorException(error, e);
+		}
+	}
+
+	/**
+	 * (U) This method is used to get the SHA-256 of some bytes.
+	 *
+	 * @param content byte array to hash.
+	 * @return String the hash, in hex.
+	 */
+	public static String sha256(byte[] content)
+	{
+		return toHex(newSha256().digest(content));
+	}
+
+	/**
+	 * (U) This method is used to get a new SHA-256 digest, for bytes hashed as they are read.
+	 *
+	 * @return MessageDigest the digest.
+	 */
+	public static MessageDigest newSha256()
+	{
+		try
+		{
+			return MessageDigest.getInstance("SHA-256");
+		}
+		catch (NoSuchAlgorithmException e)
+		{
+			// Every JVM has SHA-256.
+			throw new IllegalStateException(e);
+		}
+	}
+
+	/**
+	 * (U) This method is used to write a digest in hex, as sha256 does.
+	 *
+	 * @param digest byte array holding the digest.
+	 * @return String the digest, in hex.
+	 */
+	public static String toHex(byte[] digest)
+	{
+		StringBuilder hex = new StringBuilder(digest.length * 2);
+		for (byte b : digest)
+			hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF,
+					16));
+		return hex.toString();
+	}
+
+	/**
+	 * (U) This method is used to cache a parsed SBom, dropping the least recently used SBoms until
+	 * the cache is back under its size. An SBom bigger than the whole cache is NOT cached.
+	 *
+	 * @param hash  String SHA-256 of the SBom's bytes.
+	 * @param entry Entry to cache.
+	 */
+	private synchronized void put(String hash, Entry entry)
+	{
+		if (entry.size > maxBytes)
+			return;
+		
+		Entry previous = entries.put(hash, entry);
+		if (previous != null)
+			bytes -= previous.size;
+		bytes += entry.size;
+		
+		Iterator<Map.Entry<String, Entry>> eldest = entries.entrySet().iterator();
+		while (bytes > maxBytes)
+		{
+			Entry evicted = eldest.next().getValue();
+			eldest.remove();
+			bytes -= evicted.size;
+			evictions++;
+		}
+		
+		if (logger.isDebugEnabled())
+			logger.debug("Cached an SBom of about " + (entry.size / 1024) + " KB: " +
+					getStats() + ".");
+	}
+}
@@ -9,14 +9,20 @@
  */
 package com.lmco.efoss.sbom.comparator.utils;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 import org.cyclonedx.model.Bom;
 
 import com.lmco.efoss.sbom.commons.utils.StringUtils;
 import com.lmco.efoss.sbom.comparator.dtos.CompareComponent;
+import com.lmco.efoss.sbom.comparator.dtos.ComponentKey;
+import com.lmco.efoss.sbom.comparator.dtos.IndexedBom;
 import com.lmco.efoss.sbom.comparator.dtos.ModifiedComponent;
 import com.lmco.efoss.sbom.comparator.dtos.SBomDiff;
+import com.lmco.efoss.sbom.comparator.exceptions.SBomComparatorException;
 
 /**
  * (U) This class is the Software Bill Of Materials (SBOM) utility class.
@@ -41,16 +47,168 @@ public class SBomCompareUtils
 	 */
 	public static SBomDiff compareComponents(Bom orgSbom, Bom newSbom)
 	{
-		SBomDiff diff = new SBomDiff();
-		
+		SBomDiffCollector collector = new SBomDiffCollector();
+		try
+		{
+			compareComponents(orgSbom, newSbom, collector);
+		}
+		catch (SBomComparatorException e)
+		{
+			// The collector never throws, so this can only be a programming error.
+			throw new IllegalStateException(e);
+		}
+		return collector.getDiff();
+	}
+	
+	/**
+	 * (U) This method is used to compare the components of two Software Bill Of Materials (SBoms),
+	 * reporting each difference to the listener the moment it is found. Nothing but the two
+	 * component indexes is held in memory, so the listener decides whether the diff is kept.
+	 * 
+	 * @param orgSbom  Bill of Materials (BOM) to compare to the next one passed in.
+	 * @param newSbom  Bill of Materials (BOM) to compare to the first one passed in.
+	 * @param listener SBomDiffListener to report the differences to.
+	 * @throws SBomComparatorException in the event the listener fails to process a difference.
+	 */
+	public static void compareComponents(Bom orgSbom, Bom newSbom, SBomDiffListener listener)
+			throws SBomComparatorException
+	{
+		compareComponents(new IndexedBom(null, orgSbom), new IndexedBom(null, newSbom), listener);
+	}
+	
+	/**
+	 * (U) This method is used to compare the components of two SBoms that have already been
+	 * indexed, reporting each difference to the listener the moment it is found. Neither SBom is
+	 * changed, so an IndexedBom can be compared against many others, even at the same time.
+	 * 
+	 * @param orgSbom  IndexedBom to compare to the next one passed in.
+	 * @param newSbom  IndexedBom to compare to the first one passed in.
+	 * @param listener SBomDiffListener to report the differences to.
+	 * @throws SBomComparatorException in the event the listener fails to process a difference.
+	 */
+	public static void compareComponents(IndexedBom orgSbom, IndexedBom newSbom,
+			SBomDiffListener listener) throws SBomComparatorException
+	{
 		List<org.cyclonedx.model.Component> orgComponents = orgSbom.getComponents();
 		List<org.cyclonedx.model.Component> newComponents = newSbom.getComponents();
+		List<ComponentKey> orgKeys = orgSbom.getKeys();
+		List<ComponentKey> newKeys = newSbom.getKeys();
 		
-		diff.setComponentsAdded(componentsNotInList2(newComponents, orgComponents));
-		diff.setComponentsRemoved(componentsNotInList2(orgComponents, newComponents));
-		diff.setModifiedComponents(componentsModified(newComponents, orgComponents));
+		for (int i = 0; i < newComponents.size(); i++)
+		{
+			if (!orgSbom.contains(newKeys.get(i)))
+				listener.componentAdded(new CompareComponent(newComponents.get(i)));
+		}
+		
+		for (int i = 0; i < orgComponents.size(); i++)
+		{
+			if (!newSbom.contains(orgKeys.get(i)))
+				listener.componentRemoved(new CompareComponent(orgComponents.get(i)));
+		}
 		
-		return diff;
+		org.cyclonedx.model.Component orgComponent;
+		org.cyclonedx.model.Component newComponent;
+		for (int i = 0; i < newComponents.size(); i++)
+		{
+			newComponent = newComponents.get(i);
+			orgComponent = orgSbom.get(newKeys.get(i));
+			if ((orgComponent != null) && (!StringUtils.equals(newComponent.getVersion(),
+					orgComponent.getVersion())))
+			{
+				listener.componentModified(new ModifiedComponent(
+						new CompareComponent(orgComponent), new CompareComponent(newComponent)));
+			}
+		}
+	}
+	
+	/**
+	 * (U) This method is used to report the contents of an SBomDiff that has already been
+	 * computed to a listener, in the same order the compare engine would have reported them.
+	 * 
+	 * @param diff     SBomDiff to report.
+	 * @param listener SBomDiffListener to report the differences to.
+	 * @throws SBomComparatorException in the event the listener fails to process a difference.
+	 */
+	public static void replayDiff(SBomDiff diff, SBomDiffListener listener)
+			throws SBomComparatorException
+	{
+		for (CompareComponent component : diff.getComponentsAdded())
+			listener.componentAdded(component);
+		
+		for (CompareComponent component : diff.getComponentsRemoved())
+			listener.componentRemoved(component);
+		
+		for (ModifiedComponent component : diff.getModifiedComponents())
+			listener.componentModified(component);
+	}
+	
+	/**
+	 * (U) This method is used to compose two diffs, A to B and B to C, into the diff of A to C,
+	 * without the SBoms. For each component, its state in A is taken from the first diff that
+	 * mentions it (a component neither diff mentions did not change) and its state in C from the
+	 * last; a component added then removed is in neither, and a version that changed and changed
+	 * back is not modified.
+	 * 
+	 * @param first  SBomDiff of A to B.
+	 * @param second SBomDiff of B to C.
+	 * @return SBomDiff of A to C.
+	 */
+	public static SBomDiff composeDiffs(SBomDiff first, SBomDiff second)
+	{
+		Map<ComponentKey, org.cyclonedx.model.Component[]> firstChanges = indexChanges(first);
+		Map<ComponentKey, org.cyclonedx.model.Component[]> secondChanges = indexChanges(second);
+		
+		Map<ComponentKey, org.cyclonedx.model.Component[]> changes = new LinkedHashMap<>();
+		for (Map.Entry<ComponentKey, org.cyclonedx.model.Component[]> entry : firstChanges
+				.entrySet())
+		{
+			org.cyclonedx.model.Component[] change = secondChanges.get(entry.getKey());
+			changes.put(entry.getKey(), new org.cyclonedx.model.Component[] { entry.getValue()[0],
+					(change == null) ? entry.getValue()[1] : change[1] });
+		}
+		for (Map.Entry<ComponentKey, org.cyclonedx.model.Component[]> entry : secondChanges
+				.entrySet())
+			changes.putIfAbsent(entry.getKey(), entry.getValue());
+		
+		SBomDiff composed = new SBomDiff();
+		for (org.cyclonedx.model.Component[] change : changes.values())
+		{
+			if ((change[0] == null) && (change[1] != null))
+				composed.addComponentAdded(new CompareComponent(change[1]));
+			else if ((change[0] != null) && (change[1] == null))
+				composed.addComponentRemoved(new CompareComponent(change[0]));
+			else if ((change[0] != null) && (!StringUtils.equals(change[0].getVersion(),
+					change[1].getVersion())))
+				composed.addModifiedComponent(new CompareComponent(change[0]),
+						new CompareComponent(change[1]));
+		}
+		return composed;
+	}
+	
+	/**
+	 * (U) This method is used to index the changes of a diff by component, each as the
+	 * component before and after, null where it is not in the SBom.
+	 * 
+	 * @param diff SBomDiff to index.
+	 * @return Map of ComponentKey to its component before and after the change.
+	 */
+	private static Map<ComponentKey, org.cyclonedx.model.Component[]> indexChanges(SBomDiff diff)
+	{
+		Map<ComponentKey, org.cyclonedx.model.Component[]> changes = new LinkedHashMap<>();
+		for (CompareComponent component : diff.getComponentsAdded())
+			changes.putIfAbsent(ComponentKey.of(component.getComponent()),
+					new org.cyclonedx.model.Component[] { null, component.getComponent() });
+		
+		for (CompareComponent component : diff.getComponentsRemoved())
+			changes.putIfAbsent(ComponentKey.of(component.getComponent()),
+					new org.cyclonedx.model.Component[] { component.getComponent(), null });
+		
+		for (ModifiedComponent component : diff.getModifiedComponents())
+			changes.putIfAbsent(ComponentKey.of(component.getPreviousComponent().getComponent()),
+					new org.cyclonedx.model.Component[] {
+							component.getPreviousComponent().getComponent(),
+							component.getNewComponent().getComponent() });
+		return changes;
 	}
 	
 	/**
@@ -151,6 +309,26 @@ public class SBomCompareUtils
 		return componentsNotInBothLists;
 	}
 	
+	/**
+	 * (U) This method is used to index a list of components by their Name and Group. When the
+	 * list contains the same artifact more than once, the first one wins, which is the same
+	 * component getComponentFromList would have found.
+	 * 
+	 * @param components List of components to index.
+	 * @return Map of ComponentKey to the component with that key.
+	 */
+	public static Map<ComponentKey, org.cyclonedx.model.Component> indexComponents(
+			List<org.cyclonedx.model.Component> components)
+	{
+		Map<ComponentKey, org.cyclonedx.model.Component> index = new HashMap<>(
+				(int) (components.size() / 0.75f) + 1);
+		
+		for (org.cyclonedx.model.Component component : components)
+			index.putIfAbsent(ComponentKey.of(component), component);
+		
+		return index;
+	}
+	
 	/**
 	 * (U) This method is used to pull a component from the list that has the same Name and Group as
 	 * the component passed in.
@@ -0,0 +1,32 @@
+/*
+ * Copyright (c) 2018,2019 Lockheed Martin Corporation.
+ *
+ * This work is owned by Lockheed Martin Corporation. Lockheed Martin personnel are permitted to use and
+ * modify this software.  Lockheed Martin personnel may also deliver this source code to any US Government
+ * customer Agency under a "US Government Purpose Rights" license.
+ *
+ * See the LICENSE file distributed with this work for licensing and distribution terms
+ */
+package com.lmco.efoss.sbom.comparator.utils;
+
+import java.io.IOException;
+
+/**
+ * (U) This interface is implemented by the listeners that write an output which can be given up
+ * part way, as when the compare writing it fails. Aborting closes the output without finishing it
+ * and deletes what was written to disk, so a failed compare never leaves an output that looks
+ * like a finished one.
+ *
+ * @author wrgoff
+ * @since 19 October 2026
+ */
+public interface SBomDiffAbortable
+{
+	/**
+	 * (U) This method is used to give up the output, rather than close it. It may be called
+	 * after a close that failed.
+	 *
+	 * @throws IOException in the event we are unable to close or delete the output.
+	 */
+	void abort() throws IOException;
+}
@@ -0,0 +1,81 @@
+/*
+ * Copyright (c) 2018,2019 Lockheed Martin Corporation.
+ *
+ * This work is owned by Lockheed Martin Corporation. Lockheed Martin personnel are permitted to use and
+ * modify this software.  Lockheed Martin personnel may also deliver this source code to any US Government
+ * customer Agency under a "US Government Purpose Rights" license.
+ *
+ * See the LICENSE file distributed with this work for licensing and distribution terms
+ */
+package com.lmco.efoss.sbom.comparator.utils;
+
+import com.lmco.efoss.sbom.comparator.dtos.CompareComponent;
+import com.lmco.efoss.sbom.comparator.dtos.ModifiedComponent;
+import com.lmco.efoss.sbom.comparator.dtos.SBomDiff;
+import com.lmco.efoss.sbom.comparator.exceptions.SBomComparatorException;
+
+/**
+ * (U) This listener is used to collect the differences reported by the compare engine into an
+ * SBomDiff. It can optionally pass each difference on to another listener, so a caller can stream
+ * the differences and still keep the SBomDiff for the reports that need all of it.
+ *
+ * @author wrgoff
+ * @since 19 October 2026
+ */
+public class SBomDiffCollector implements SBomDiffListener
+{
+	private final SBomDiff diff = new SBomDiff();
+	private final SBomDiffListener next;
+
+	/**
+	 * (U) Base Constructor.
+	 */
+	public SBomDiffCollector()
+	{
+		this(null);
+	}
+
+	/**
+	 * (U) Constructor.
+	 *
+	 * @param next SBomDiffListener to pass each difference on to, may be null.
+	 */
+	public SBomDiffCollector(SBomDiffListener next)
+	{
+		this.next = next;
+	}
+
+	@Override
+	public void componentAdded(CompareComponent component) throws SBomComparatorException
+	{
+		diff.addComponentAdded(component);
+		if (next != null)
+			next.componentAdded(component);
+	}
+
+	@Override
+	public void componentModified(ModifiedComponent component) throws SBomComparatorException
+	{
+		diff.addModifiedComponent(component);
+		if (next != null)
+			next.componentModified(component);
+	}
+
+	@Override
+	public void componentRemoved(CompareComponent component) throws SBomComparatorException
+	{
+		diff.addComponentRemoved(component);
+		if (next != null)
+			next.componentRemoved(component);
+	}
+
+	/**
+	 * (U) This method is used to get the SBomDiff collected so far.
+	 *
+	 * @return SBomDiff containing every difference reported to this listener.
+	 */
+	public SBomDiff getDiff()
+	{
+		return diff;
+	}
+}
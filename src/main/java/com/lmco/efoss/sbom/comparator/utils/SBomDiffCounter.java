@@ -0,0 +1,65 @@
+/*
+ * Copyright (c) 2018,2019 Lockheed Martin Corporation.
+ *
+ * This work is owned by Lockheed Martin Corporation. Lockheed Martin personnel are permitted to use and
+ * modify this software.  Lockheed Martin personnel may also deliver this source code to any US Government
+ * customer Agency under a "US Government Purpose Rights" license.
+ *
+ * See the LICENSE file distributed with this work for licensing and distribution terms
+ */
+package com.lmco.efoss.sbom.comparator.utils;
+
+import com.lmco.efoss.sbom.comparator.dtos.CompareComponent;
+import com.lmco.efoss.sbom.comparator.dtos.ModifiedComponent;
+
+/**
+ * (U) This listener is used to count the differences reported, without keeping them.
+ *
+ * @author wrgoff
+ * @since 19 October 2026
+ */
+public class SBomDiffCounter implements SBomDiffListener
+{
+	private long added = 0;
+	private long removed = 0;
+	private long modified = 0;
+
+	@Override
+	public void componentAdded(CompareComponent component)
+	{
+		added++;
+	}
+
+	@Override
+	public void componentModified(ModifiedComponent component)
+	{
+		modified++;
+	}
+
+	@Override
+	public void componentRemoved(CompareComponent component)
+	{
+		removed++;
+	}
+
+	public long getAdded()
+	{
+		return added;
+	}
+
+	public long getModified()
+	{
+		return modified;
+	}
+
+	public long getRemoved()
+	{
+		return removed;
+	}
+
+	@Override
+	public String toString()
+	{
+		return added + " added, " + removed + " removed, " + modified + " modified";
+	}
+}
@@ -9,7 +9,9 @@
  */
 package com.lmco.efoss.sbom.comparator.utils;
 
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.util.Locale;
@@ -18,12 +20,20 @@ import javax.xml.parsers.ParserConfigurationException;
 
 import org.apache.log4j.Logger;
 import org.cyclonedx.exception.GeneratorException;
+import org.cyclonedx.model.Component;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.xml.XmlMapper;
 import com.lmco.efoss.sbom.commons.utils.StringUtils;
+import com.lmco.efoss.sbom.comparator.dtos.CompareComponent;
 import com.lmco.efoss.sbom.comparator.dtos.SBomDiff;
 import com.lmco.efoss.sbom.comparator.exceptions.SBomComparatorException;
 import com.lmco.efoss.sbom.comparator.generator.SBomJSonDiffGenerator;
+import com.lmco.efoss.sbom.comparator.generator.SBomJSonDiffWriter;
+import com.lmco.efoss.sbom.comparator.generator.SBomNdJsonDiffWriter;
 import com.lmco.efoss.sbom.comparator.generator.SBomXmlDiffGenerator;
+import com.lmco.efoss.sbom.comparator.generator.SBomXmlDiffWriter;
 
 /**
  * (U) This class is used to handle interactions with a file and an SBomDiff Object.
@@ -46,7 +56,7 @@ public class SBomDiffFileUtils
 	 * 
 	 * @param diff           SBomDiff object to produce the file from.
 	 * @param outputFormat   String value that tells us what format the data in the file will be.
-	 *                       Either JSon or XML.
+	 *                       Either JSon, NDJSon (one change per line) or XML.
 	 * @param outputFileName String value of the file to put the data in.
 	 * @throws SBomComparatorException in the event we are unable to produce the desired format, and
 	 *                                 write it to the file.
@@ -63,6 +73,12 @@ public class SBomDiffFileUtils
 		if (!outputFileName.endsWith(outputFormatString))
 			outputFileName = outputFileName + "." + outputFormatString;
 		
+		if (outputFormatString.equalsIgnoreCase("ndjson"))
+		{
+			writeNdJsonFile(diff, outputFileName);
+			return;
+		}
+		
 		String output = null;
 		if (outputFormatString.equalsIgnoreCase("json"))
 		{
@@ -95,4 +111,157 @@ public class SBomDiffFileUtils
 			throw new SBomComparatorException(error, e);
 		}
 	}
+	
+	/**
+	 * (U) This method is used to open a writer that streams the diff to a file as the differences
+	 * are reported. The writer must be closed to finish the file, or aborted to delete it.
+	 * 
+	 * @param outputFormat   String value that tells us what format the data in the file will be.
+	 *                       Either JSon, NDJSon (one change per line) or XML.
+	 * @param outputFileName String value of the file to put the data in, the format is appended
+	 *                       as the suffix if it is NOT already there.
+	 * @return SBomDiffFileWriter the writer.
+	 * @throws SBomComparatorException in the event we are unable to open the file.
+	 */
+	public static SBomDiffFileWriter openDiffWriter(String outputFormat, String outputFileName)
+			throws SBomComparatorException
+	{
+		String outputFormatString = outputFormat.toLowerCase(Locale.ENGLISH);
+		
+		if (!StringUtils.isValid(outputFileName))
+			outputFileName = "diff";
+		
+		if (!outputFileName.endsWith("." + outputFormatString))
+			outputFileName = outputFileName + "." + outputFormatString;
+		
+		FileOutputStream fos = null;
+		try
+		{
+			fos = new FileOutputStream(outputFileName);
+			
+			SBomDiffListener writer;
+			if (outputFormatString.equals("ndjson"))
+				writer = new SBomNdJsonDiffWriter(fos);
+			else if (outputFormatString.equals("json"))
+				writer = new SBomJSonDiffWriter(fos);
+			else // Its XML.
+				writer = new SBomXmlDiffWriter(fos);
+			return new SBomDiffFileWriter(writer, fos, Paths.get(outputFileName));
+		}
+		catch (IOException | SBomComparatorException e)
+		{
+			closeQuietly(fos);
+			String error = "Failed to write output to file (" + outputFileName + ").";
+			logger.error(error, e);
+			throw new SBomComparatorException(error, e);
+		}
+	}
+	
+	/**
+	 * (U) This method is used to read a diff written by this application, in any of its formats:
+	 * XML, JSon or NDJSon, told apart by the file's suffix.
+	 * 
+	 * @param fileName String name of the diff file.
+	 * @return SBomDiff the differences in the file.
+	 * @throws SBomComparatorException in the event we are unable to read the file.
+	 */
+	public static SBomDiff readDiff(String fileName) throws SBomComparatorException
+	{
+		String lowerFileName = fileName.toLowerCase(Locale.ENGLISH);
+		try
+		{
+			String content = new String(Files.readAllBytes(Paths.get(fileName)),
+					StandardCharsets.UTF_8);
+			
+			if (lowerFileName.endsWith(".ndjson"))
+				return readNdJson(content);
+			if (lowerFileName.endsWith(".xml"))
+				return new XmlMapper().readValue(content, SBomDiff.class);
+			return new ObjectMapper().readValue(content, SBomDiff.class);
+		}
+		catch (IOException e)
+		{
+			String error = "Failed to read the diff (" + fileName + ").";
+			logger.error(error, e);
+			throw new SBomComparatorException(error, e);
+		}
+	}
+	
+	/**
+	 * (U) This method is used to read a diff written as JSON Lines by the SBomNdJsonDiffWriter.
+	 * 
+	 * @param content String content of the diff file.
+	 * @return SBomDiff the differences in the file.
+	 * @throws IOException in the event a line is NOT a change.
+	 */
+	private static SBomDiff readNdJson(String content) throws IOException
+	{
+		ObjectMapper mapper = new ObjectMapper();
+		SBomDiff diff = new SBomDiff();
+		for (String line : content.split("\r?\n"))
+		{
+			if (line.trim().isEmpty())
+				continue;
+			
+			JsonNode node = mapper.readTree(line);
+			String change = node.path(SBomNdJsonDiffWriter.CHANGE).asText();
+			if (SBomNdJsonDiffWriter.ADDED.equals(change))
+				diff.addComponentAdded(new CompareComponent(mapper.treeToValue(node.get(
+						SBomNdJsonDiffWriter.COMPONENT), Component.class)));
+			else if (SBomNdJsonDiffWriter.REMOVED.equals(change))
+				diff.addComponentRemoved(new CompareComponent(mapper.treeToValue(node.get(
+						SBomNdJsonDiffWriter.COMPONENT), Component.class)));
+			else if (SBomNdJsonDiffWriter.MODIFIED.equals(change))
+				diff.addModifiedComponent(new CompareComponent(mapper.treeToValue(node.get(
+						SBomNdJsonDiffWriter.PREVIOUS_COMPONENT), Component.class)),
+						new CompareComponent(mapper.treeToValue(node.get(
+								SBomNdJsonDiffWriter.NEW_COMPONENT), Component.class)));
+			else
+				throw new IOException("Unknown change (" + change + ") in NDJSON line: " + line);
+		}
+		return diff;
+	}
+	
+	/**
+	 * (U) This method is used to close a stream, after a failure, without hiding the failure.
+	 * 
+	 * @param fos FileOutputStream to close, may be null.
+	 */
+	private static void closeQuietly(FileOutputStream fos)
+	{
+		if (fos != null)
+		{
+			try
+			{
+				fos.close();
+			}
+			catch (IOException e)
+			{
+				logger.warn("Failed to close the output file.", e);
+			}
+		}
+	}
+	
+	/**
+	 * (U) This method is used to write the diff out as JSON Lines, one change per line.
+	 * 
+	 * @param diff           SBomDiff object to produce the file from.
+	 * @param outputFileName String value of the file to put the data in.
+	 * @throws SBomComparatorException in the event we are unable to write the file.
+	 */
+	private static void writeNdJsonFile(SBomDiff diff, String outputFileName)
+			throws SBomComparatorException
+	{
+		try (FileOutputStream fos = new FileOutputStream(outputFileName);
+				SBomNdJsonDiffWriter writer = new SBomNdJsonDiffWriter(fos))
+		{
+			SBomCompareUtils.replayDiff(diff, writer);
+		}
+		catch (IOException e)
+		{
+			String error = "Failed to write output to file (" + outputFileName + ").";
+			logger.error(error, e);
+			throw new SBomComparatorException(error, e);
+		}
+	}
 }
@@ -0,0 +1,105 @@
+/*
+ * Copyright (c) 2018,2019 Lockheed Martin Corporation.
+ *
+ * This work is owned by Lockheed Martin Corporation. Lockheed Martin personnel are permitted to use and
+ * modify this software.  Lockheed Martin personnel may also deliver this source code to any US Government
+ * customer Agency under a "US Government Purpose Rights" license.
+ *
+ * See the LICENSE file distributed with this work for licensing and distribution terms
+ */
+package com.lmco.efoss.sbom.comparator.utils;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import com.lmco.efoss.sbom.comparator.dtos.CompareComponent;
+import com.lmco.efoss.sbom.comparator.dtos.ModifiedComponent;
+import com.lmco.efoss.sbom.comparator.exceptions.SBomComparatorException;
+
+/**
+ * (U) This listener is used to stream a writer's output to a file it owns. Closing it closes the
+ * writer, which finishes the file. Aborting it closes the file without finishing it, and deletes
+ * it.
+ *
+ * @author wrgoff
+ * @since 19 October 2026
+ */
+public class SBomDiffFileWriter implements SBomDiffListener, Closeable, SBomDiffAbortable
+{
+	private final SBomDiffListener writer;
+	private final OutputStream out;
+	private final Path file;
+
+	/**
+	 * (U) Constructor.
+	 *
+	 * @param writer SBomDiffListener writing to the file, which is also Closeable.
+	 * @param out    OutputStream to the file, the writer closes it when it is closed.
+	 * @param file   Path of the file.
+	 */
+	public SBomDiffFileWriter(SBomDiffListener writer, OutputStream out, Path file)
+	{
+		this.writer = writer;
+		this.out = out;
+		this.file = file;
+	}
+
+	/**
+	 * (U) This method is used to close the file without finishing it, and delete it.
+	 */
+	@Override
+	public void abort() throws IOException
+	{
+		try
+		{
+			out.close();
+		}
+		finally
+		{
+			Files.deleteIfExists(file);
+		}
+	}
+
+	/**
+	 * (U) This method is used to close the writer, which finishes the file.
+	 */
+	@Override
+	public void close() throws IOException
+	{
+		if (writer instanceof Closeable)
+			((Closeable) writer).close();
+		else
+			out.close();
+	}
+
+	@Override
+	public void componentAdded(CompareComponent component) throws SBomComparatorException
+	{
+		writer.componentAdded(component);
+	}
+
+	@Override
+	public void componentModified(ModifiedComponent component) throws SBomComparatorException
+	{
+		writer.componentModified(component);
+	}
+
+	@Override
+	public void componentRemoved(CompareComponent component) throws SBomComparatorException
+	{
+		writer.componentRemoved(component);
+	}
+
+	/**
+	 * (U) This method is used to get the file written.
+	 *
+	 * @return Path of the file.
+	 */
+	public Path getFile()
+	{
+		return file;
+	}
+}
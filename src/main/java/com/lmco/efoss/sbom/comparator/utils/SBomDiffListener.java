@@ -0,0 +1,51 @@
+/*
+ * Copyright (c) 2018,2019 Lockheed Martin Corporation.
+ *
+ * This work is owned by Lockheed Martin Corporation. Lockheed Martin personnel are permitted to use and
+ * modify this software.  Lockheed Martin personnel may also deliver this source code to any US Government
+ * customer Agency under a "US Government Purpose Rights" license.
+ *
+ * See the LICENSE file distributed with this work for licensing and distribution terms
+ */
+package com.lmco.efoss.sbom.comparator.utils;
+
+import com.lmco.efoss.sbom.comparator.dtos.CompareComponent;
+import com.lmco.efoss.sbom.comparator.dtos.ModifiedComponent;
+import com.lmco.efoss.sbom.comparator.exceptions.SBomComparatorException;
+
+/**
+ * (U) This interface is used to receive the differences between two SBoms as the compare engine
+ * finds them, instead of waiting on a complete SBomDiff.
+ * <p>
+ * The engine always reports every added component first, then every removed component, and
+ * finally every modified component. This is the same order the lists of an SBomDiff are in.
+ *
+ * @author wrgoff
+ * @since 19 October 2026
+ */
+public interface SBomDiffListener
+{
+	/**
+	 * (U) Called for each component that is in the new SBom, but NOT the original SBom.
+	 *
+	 * @param component Component that was added.
+	 * @throws SBomComparatorException in the event the listener fails to process the component.
+	 */
+	void componentAdded(CompareComponent component) throws SBomComparatorException;
+
+	/**
+	 * (U) Called for each component that is in the original SBom, but NOT the new SBom.
+	 *
+	 * @param component Component that was removed.
+	 * @throws SBomComparatorException in the event the listener fails to process the component.
+	 */
+	void componentRemoved(CompareComponent component) throws SBomComparatorException;
+
+	/**
+	 * (U) Called for each component that is in both SBoms, but whose version has changed.
+	 *
+	 * @param component ModifiedComponent containing both the original and new component.
+	 * @throws SBomComparatorException in the event the listener fails to process the component.
+	 */
+	void componentModified(ModifiedComponent component) throws SBomComparatorException;
+}
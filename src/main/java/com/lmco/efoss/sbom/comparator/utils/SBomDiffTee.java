@@ -0,0 +1,137 @@
+/*
+ * Copyright (c) 2018,2019 Lockheed Martin Corporation.
+ *
+ * This work is owned by Lockheed Martin Corporation. Lockheed Martin personnel are permitted to use and
+ * modify this software.  Lockheed Martin personnel may also deliver this source code to any US Government
+ * customer Agency under a "US Government Purpose Rights" license.
+ *
+ * See the LICENSE file distributed with this work for licensing and distribution terms
+ */
+package com.lmco.efoss.sbom.comparator.utils;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.log4j.Logger;
+
+import com.lmco.efoss.sbom.comparator.dtos.CompareComponent;
+import com.lmco.efoss.sbom.comparator.dtos.ModifiedComponent;
+import com.lmco.efoss.sbom.comparator.exceptions.SBomComparatorException;
+
+/**
+ * (U) This listener is used to hand every difference to several listeners, so one walk of the
+ * diff writes every output format (XML, JSon, NDJSON, HTML, the diff SBom) at the same time.
+ * Closing the tee closes every listener that is Closeable, even if one of them fails. When the
+ * compare fails instead, the tee is aborted rather than closed, so every listener that is
+ * SBomDiffAbortable gives up its output, rather than finishing it as if the compare had succeeded.
+ *
+ * @author wrgoff
+ * @since 19 October 2026
+ */
+public class SBomDiffTee implements SBomDiffListener, Closeable
+{
+	private static final Logger logger = Logger.getLogger(SBomDiffTee.class.getName());
+
+	private final List<SBomDiffListener> listeners = new ArrayList<>();
+
+	/**
+	 * (U) This method is used to add a listener to the tee.
+	 *
+	 * @param listener SBomDiffListener to hand each difference to.
+	 * @return SBomDiffTee this tee, for chaining.
+	 */
+	public SBomDiffTee add(SBomDiffListener listener)
+	{
+		if (listener != null)
+			listeners.add(listener);
+		return this;
+	}
+
+	/**
+	 * (U) This method is used to close every listener that is Closeable. The first failure is
+	 * thrown once all of them have been closed.
+	 */
+	@Override
+	public void close() throws IOException
+	{
+		IOException failure = null;
+		for (SBomDiffListener listener : listeners)
+		{
+			if (listener instanceof Closeable)
+			{
+				try
+				{
+					((Closeable) listener).close();
+				}
+				catch (IOException e)
+				{
+					logger.error("Failed to close " + listener.getClass().getSimpleName() + "!", e);
+					if (failure == null)
+						failure = e;
+				}
+			}
+		}
+		if (failure != null)
+			throw failure;
+	}
+
+	/**
+	 * (U) This method is used, once the compare has failed, to abort every listener that is
+	 * SBomDiffAbortable. The others are neither closed nor finished, so the caller closes any
+	 * stream they write to. It may be called after a close that failed.
+	 *
+	 * @param cause Exception the compare failed with, any failure to abort is added to it.
+	 */
+	public void abort(Exception cause)
+	{
+		for (SBomDiffListener listener : listeners)
+		{
+			if (listener instanceof SBomDiffAbortable)
+			{
+				try
+				{
+					((SBomDiffAbortable) listener).abort();
+				}
+				catch (IOException e)
+				{
+					logger.warn("Failed to abort " + listener.getClass().getSimpleName() + ": " +
+							e.getMessage());
+					cause.addSuppressed(e);
+				}
+			}
+		}
+	}
+
+	@Override
+	public void componentAdded(CompareComponent component) throws SBomComparatorException
+	{
+		for (SBomDiffListener listener : listeners)
+			listener.componentAdded(component);
+	}
+
+	@Override
+	public void componentModified(ModifiedComponent component) throws SBomComparatorException
+	{
+		for (SBomDiffListener listener : listeners)
+			listener.componentModified(component);
+	}
+
+	@Override
+	public void componentRemoved(CompareComponent component) throws SBomComparatorException
+	{
+		for (SBomDiffListener listener : listeners)
+			listener.componentRemoved(component);
+	}
+
+	/**
+	 * (U) This method is used to get the number of listeners in the tee.
+	 *
+	 * @return int the number of listeners.
+	 */
+	public int size()
+	{
+		return listeners.size();
+	}
+}
@@ -0,0 +1,126 @@
+/*
+ * Copyright (c) 2018,2019 Lockheed Martin Corporation.
+ *
+ * This work is owned by Lockheed Martin Corporation. Lockheed Martin personnel are permitted to use and
+ * modify this software.  Lockheed Martin personnel may also deliver this source code to any US Government
+ * customer Agency under a "US Government Purpose Rights" license.
+ *
+ * See the LICENSE file distributed with this work for licensing and distribution terms
+ */
+package com.lmco.efoss.sbom.comparator.utils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import com.lmco.efoss.sbom.comparator.dtos.VersionSegment;
+
+/**
+ * (U) This class is used to split versions into segments, and to find which segments of a new
+ * version differ from the old version. A version is split on its separators (".", "-", "_", "+")
+ * and where digits meet letters, so "2.13.4.20221013-SNAPSHOT" is 2 . 13 . 4 . 20221013 -
+ * SNAPSHOT and "1.0RC1" is 1 . 0 RC 1. The separators are kept as their own tokens, so the tokens
+ * always join back into the version.
+ *
+ * @author wrgoff
+ * @since 19 October 2026
+ */
+public class VersionTokenizer
+{
+	/**
+	 * Constructor.
+	 */
+	private VersionTokenizer()
+	{}
+
+	/**
+	 * (U) This method is used to find which segments of the new version differ from the old one.
+	 * The tokens are compared by position, and neighboring tokens that are both changed or both
+	 * unchanged are joined, so each changed run becomes one segment.
+	 *
+	 * @param versionOld String value of the old version, may be null.
+	 * @param versionNew String value of the new version, may be null.
+	 * @return List of VersionSegments that spell out the new version.
+	 */
+	public static List<VersionSegment> diff(String versionOld, String versionNew)
+	{
+		List<String> oldTokens = tokenize(versionOld);
+		List<String> newTokens = tokenize(versionNew);
+
+		List<VersionSegment> segments = new ArrayList<>();
+		StringBuilder run = new StringBuilder();
+		boolean runChanged = false;
+
+		for (int i = 0; i < newTokens.size(); i++)
+		{
+			String token = newTokens.get(i);
+			boolean changed = (i >= oldTokens.size()) || (!token.equals(oldTokens.get(i)));
+
+			if ((run.length() > 0) && (changed != runChanged))
+			{
+				segments.add(new VersionSegment(run.toString(), runChanged));
+				run.setLength(0);
+			}
+			run.append(token);
+			runChanged = changed;
+		}
+		if (run.length() > 0)
+			segments.add(new VersionSegment(run.toString(), runChanged));
+
+		return segments;
+	}
+
+	/**
+	 * (U) This method is used to split a version into its tokens.
+	 *
+	 * @param version String value of the version, may be null.
+	 * @return List of Strings, the segments and separators of the version in order.
+	 */
+	public static List<String> tokenize(String version)
+	{
+		if ((version == null) || (version.isEmpty()))
+			return Collections.emptyList();
+
+		List<String> tokens = new ArrayList<>();
+		int start = 0;
+		for (int i = 1; i <= version.length(); i++)
+		{
+			if ((i == version.length()) ||
+					(getCharClass(version.charAt(i)) != getCharClass(version.charAt(i - 1))) ||
+					(isSeparator(version.charAt(i))))
+			{
+				tokens.add(version.substring(start, i));
+				start = i;
+			}
+		}
+		return tokens;
+	}
+
+	/**
+	 * (U) This method is used to classify a character of a version.
+	 *
+	 * @param ch char to classify.
+	 * @return int 0 for a digit, 1 for a letter (or anything else that is not a separator), and 2
+	 *         for a separator.
+	 */
+	private static int getCharClass(char ch)
+	{
+		int charClass = 1;
+		if (Character.isDigit(ch))
+			charClass = 0;
+		else if (isSeparator(ch))
+			charClass = 2;
+		return charClass;
+	}
+
+	/**
+	 * (U) This method is used to tell if a character separates the segments of a version.
+	 *
+	 * @param ch char to check.
+	 * @return boolean true if the character is a separator.
+	 */
+	private static boolean isSeparator(char ch)
+	{
+		return (ch == '.') || (ch == '-') || (ch == '_') || (ch == '+');
+	}
+}
@@ -10,13 +10,16 @@
 package com.lmco.efoss.sbom.comparator;
 
 import java.io.ByteArrayOutputStream;
+import java.io.File;
 import java.io.FileDescriptor;
 import java.io.FileOutputStream;
 import java.io.PrintStream;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Paths;
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.List;
 
 import org.junit.Assert;
 import org.junit.Rule;
@@ -25,6 +28,7 @@ import org.junit.runner.RunWith;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.junit4.SpringRunner;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.dataformat.xml.XmlMapper;
 import com.lmco.efoss.sbom.commons.test.utils.Log4JTestWatcher;
@@ -203,7 +207,7 @@ class SbomcomparatorApplicationTest
 			});
 			
 			String expectedMessage = "Unrecognized or unsupported output file format.  " +
-					"Valid values are xml, json.";
+					"Valid values are xml, json, ndjson.";
 			
 			String actualMessage = exception.getCause().getMessage();
 			
@@ -398,6 +402,88 @@ class SbomcomparatorApplicationTest
 		}
 	}
 	
+	/**
+	 * (U) This unit test tests writing the diff in several formats, plus both diff SBoms, from
+	 * one compare.
+	 */
+	@Test
+	void testMultipleFormatSbomComparator()
+	{
+		String methodName = new Object()
+		{}.getClass().getEnclosingMethod().getName();
+		
+		Date startDate = DateUtils.rightNowDate();
+		
+		TestUtils.logTestStart(methodName, watcher.getLogger());
+		
+		String outputFileNamePrefix = "./test/multiDiff";
+		String outputBomFileNamePrefix = "./test/multiDiffBom";
+		String htmlFileNamePrefix = "./test/multiDiff";
+		
+		String[] args = new String[]
+		{ "-f1", "./test/OrgSbom.xml", "-f2", "./test/ModifiedSbom.xml", "-o",
+				outputFileNamePrefix, "-ob", outputBomFileNamePrefix, "-t", htmlFileNamePrefix,
+				"-f", "xml,json,ndjson" };
+		
+		String[] outputFiles = new String[]
+		{ outputFileNamePrefix + ".xml", outputFileNamePrefix + ".json",
+				outputFileNamePrefix + ".ndjson", outputBomFileNamePrefix + ".xml",
+				outputBomFileNamePrefix + ".json", htmlFileNamePrefix + ".html" };
+		
+		long expectedComponentsAdded = 73;
+		long expectedComponentsRemoved = 2;
+		long expectedComponentsModified = 12;
+		
+		try
+		{
+			SbomcomparatorApplication.main(args);
+			
+			SBomDiff xmlDiff = new XmlMapper().readValue(Files.readString(Paths.get(
+					outputFiles[0]), StandardCharsets.UTF_8), SBomDiff.class);
+			SBomDiff jsonDiff = new ObjectMapper().readValue(Files.readString(Paths.get(
+					outputFiles[1]), StandardCharsets.UTF_8), SBomDiff.class);
+			
+			for (SBomDiff diff : new SBomDiff[] { xmlDiff, jsonDiff })
+			{
+				Assert.assertEquals("Components Added", expectedComponentsAdded,
+						diff.getComponentsAdded().size());
+				Assert.assertEquals("Components Removed", expectedComponentsRemoved,
+						diff.getComponentsRemoved().size());
+				Assert.assertEquals("Components Modified", expectedComponentsModified,
+						diff.getModifiedComponents().size());
+			}
+			
+			long lines = Files.readAllLines(Paths.get(outputFiles[2])).size();
+			Assert.assertEquals("NDJSON lines", expectedComponentsAdded +
+					expectedComponentsRemoved + expectedComponentsModified, lines);
+			
+			for (String outputFile : outputFiles)
+				Assert.assertTrue(outputFile + " exists", Files.size(Paths.get(outputFile)) > 0);
+		}
+		catch (Exception e)
+		{
+			String error = "Unexpected error occured while attempting to create the SBom diff " +
+					"in several formats.";
+			watcher.getLogger().error(error, e);
+			Assert.fail(error);
+		}
+		finally
+		{
+			for (String outputFile : outputFiles)
+			{
+				try
+				{
+					Files.deleteIfExists(Paths.get(outputFile));
+				}
+				catch (Exception e)
+				{
+					watcher.getLogger().warn("Filed to cleanup output file (" + outputFile + ").");
+				}
+			}
+			TestUtils.logTestFinish(methodName, startDate, watcher.getLogger());
+		}
+	}
+	
 	/**
 	 * (U) This unit test tests for invalid usage.
 	 */
@@ -528,6 +614,321 @@ class SbomcomparatorApplicationTest
 	 *       TestUtils.logTestFinish(methodName, startDate, watcher.getLogger()); } }
 	 */
 	
+	/**
+	 * (U) This method is used to test a release train of three SBoms: each release is compared to
+	 * the one before it, and the first to the last.
+	 */
+	@Test
+	void testReleaseTrainSbomComparator()
+	{
+		String methodName = new Object()
+		{}.getClass().getEnclosingMethod().getName();
+		
+		Date startDate = DateUtils.rightNowDate();
+		
+		TestUtils.logTestStart(methodName, watcher.getLogger());
+		
+		String outputFileNamePrefix = "./test/trainDiff";
+		String outputBomFileNamePrefix = "./test/trainDiffBom";
+		String htmlFileNamePrefix = "./test/trainDiff";
+		String[] suffixes = new String[] { "-1-2", "-2-3", "-1-3" };
+		
+		String[] args = new String[]
+		{ "-r", "./test/OrgSbom.xml", "./test/ModifiedSbom.xml", "./test/OrgSbom.json", "-o",
+				outputFileNamePrefix, "-ob", outputBomFileNamePrefix, "-t", htmlFileNamePrefix,
+				"-f", "json" };
+		
+		try
+		{
+			SbomcomparatorApplication.main(args);
+			
+			SBomDiff[] diffs = new SBomDiff[suffixes.length];
+			for (int i = 0; i < suffixes.length; i++)
+			{
+				diffs[i] = new ObjectMapper().readValue(Files.readString(Paths.get(
+						outputFileNamePrefix + suffixes[i] + ".json"), StandardCharsets.UTF_8),
+						SBomDiff.class);
+				Assert.assertTrue("Diff SBom " + suffixes[i], Files.size(Paths.get(
+						outputBomFileNamePrefix + suffixes[i] + ".json")) > 0);
+				Assert.assertTrue("HTML " + suffixes[i], Files.size(Paths.get(
+						htmlFileNamePrefix + suffixes[i] + ".html")) > 0);
+			}
+			
+			Assert.assertEquals("Components Added", 73, diffs[0].getComponentsAdded().size());
+			Assert.assertEquals("Components Removed", 2, diffs[0].getComponentsRemoved().size());
+			Assert.assertEquals("Components Modified", 12,
+					diffs[0].getModifiedComponents().size());
+			
+			// The third release is the first again, so the second compare undoes the first.
+			Assert.assertEquals("Components Added", 2, diffs[1].getComponentsAdded().size());
+			Assert.assertEquals("Components Removed", 73, diffs[1].getComponentsRemoved().size());
+			Assert.assertEquals("Components Modified", 12,
+					diffs[1].getModifiedComponents().size());
+			
+			Assert.assertTrue("Cumulative added", diffs[2].getComponentsAdded().isEmpty());
+			Assert.assertTrue("Cumulative removed", diffs[2].getComponentsRemoved().isEmpty());
+			Assert.assertTrue("Cumulative modified", diffs[2].getModifiedComponents().isEmpty());
+		}
+		catch (Exception e)
+		{
+			String error = "Unexpected error occured while attempting to compare a release " +
+					"train.";
+			watcher.getLogger().error(error, e);
+			Assert.fail(error);
+		}
+		finally
+		{
+			for (String suffix : suffixes)
+			{
+				for (String outputFile : new String[] { outputFileNamePrefix + suffix + ".json",
+						outputBomFileNamePrefix + suffix + ".json",
+						htmlFileNamePrefix + suffix + ".html" })
+				{
+					try
+					{
+						Files.deleteIfExists(Paths.get(outputFile));
+					}
+					catch (Exception e)
+					{
+						watcher.getLogger().warn("Filed to cleanup output file (" + outputFile +
+								").");
+					}
+				}
+			}
+			TestUtils.logTestFinish(methodName, startDate, watcher.getLogger());
+		}
+	}
+	
+	/**
+	 * (U) This unit test tests comparing one baseline SBom to many targets on a pool of workers.
+	 */
+	@Test
+	void testBaselineSbomComparator()
+	{
+		String methodName = new Object()
+		{}.getClass().getEnclosingMethod().getName();
+		
+		Date startDate = DateUtils.rightNowDate();
+		
+		TestUtils.logTestStart(methodName, watcher.getLogger());
+		
+		String outputFileNamePrefix = "./test/baselineDiff";
+		String outputBomFileNamePrefix = "./test/baselineDiffBom";
+		String htmlFileNamePrefix = "./test/baselineDiff";
+		String summaryFileName = outputFileNamePrefix + "-summary.json";
+		String[] suffixes = new String[] { "-1", "-2" };
+		
+		String[] args = new String[]
+		{ "-b", "./test/OrgSbom.xml", "-tg", "./test/ModifiedSbom.xml,./test/OrgSbom.json", "-w",
+				"2", "-o", outputFileNamePrefix, "-ob", outputBomFileNamePrefix, "-t",
+				htmlFileNamePrefix, "-f", "json" };
+		
+		try
+		{
+			SbomcomparatorApplication.main(args);
+			
+			SBomDiff[] diffs = new SBomDiff[suffixes.length];
+			for (int i = 0; i < suffixes.length; i++)
+			{
+				diffs[i] = new ObjectMapper().readValue(Files.readString(Paths.get(
+						outputFileNamePrefix + suffixes[i] + ".json"), StandardCharsets.UTF_8),
+						SBomDiff.class);
+				Assert.assertTrue("HTML " + suffixes[i], Files.size(Paths.get(
+						htmlFileNamePrefix + suffixes[i] + ".html")) > 0);
+			}
+			
+			Assert.assertEquals("Components Added", 73, diffs[0].getComponentsAdded().size());
+			Assert.assertEquals("Components Removed", 2, diffs[0].getComponentsRemoved().size());
+			Assert.assertEquals("Components Modified", 12,
+					diffs[0].getModifiedComponents().size());
+			
+			// The second target is the baseline, in JSon.
+			Assert.assertTrue("Same added", diffs[1].getComponentsAdded().isEmpty());
+			Assert.assertTrue("Same removed", diffs[1].getComponentsRemoved().isEmpty());
+			Assert.assertTrue("Same modified", diffs[1].getModifiedComponents().isEmpty());
+			
+			JsonNode summary = new ObjectMapper().readTree(new File(summaryFileName));
+			Assert.assertEquals("Compared", 2, summary.get("compared").asInt());
+			Assert.assertEquals("Failed", 0, summary.get("failed").asInt());
+			Assert.assertEquals("Summary added", 73,
+					summary.get("compares").get(0).get("added").asInt());
+			Assert.assertEquals("Summary status", "COMPARED",
+					summary.get("compares").get(1).get("status").asText());
+		}
+		catch (Exception e)
+		{
+			String error = "Unexpected error occured while attempting to compare a baseline " +
+					"to many targets.";
+			watcher.getLogger().error(error, e);
+			Assert.fail(error);
+		}
+		finally
+		{
+			List<String> outputFiles = new ArrayList<>();
+			outputFiles.add(summaryFileName);
+			for (String suffix : suffixes)
+			{
+				outputFiles.add(outputFileNamePrefix + suffix + ".json");
+				outputFiles.add(outputBomFileNamePrefix + suffix + ".json");
+				outputFiles.add(htmlFileNamePrefix + suffix + ".html");
+			}
+			for (String outputFile : outputFiles)
+			{
+				try
+				{
+					Files.deleteIfExists(Paths.get(outputFile));
+				}
+				catch (Exception e)
+				{
+					watcher.getLogger().warn("Filed to cleanup output file (" + outputFile +
+							").");
+				}
+			}
+			TestUtils.logTestFinish(methodName, startDate, watcher.getLogger());
+		}
+	}
+	
+	/**
+	 * (U) This unit test tests running the compares listed in a manifest.
+	 */
+	@Test
+	void testManifestSbomComparator()
+	{
+		String methodName = new Object()
+		{}.getClass().getEnclosingMethod().getName();
+		
+		Date startDate = DateUtils.rightNowDate();
+		
+		TestUtils.logTestStart(methodName, watcher.getLogger());
+		
+		String manifestFileName = "./test/manifest.csv";
+		String outputFileNamePrefix = "./test/manifestDiff";
+		String summaryFileName = outputFileNamePrefix + "-summary.json";
+		
+		List<String> outputFiles = new ArrayList<>();
+		outputFiles.add(manifestFileName);
+		outputFiles.add(summaryFileName);
+		for (String output : new String[] { "./test/manifestModified", outputFileNamePrefix +
+				"-2" })
+		{
+			outputFiles.add(output + ".json");
+			outputFiles.add(output + ".html");
+		}
+		outputFiles.add("./test/manifestModified-bom.json");
+		outputFiles.add("./test/manifestDiffBom-2.json");
+		
+		String[] args = new String[]
+		{ "-m", manifestFileName, "-w", "2", "-o", outputFileNamePrefix, "-ob",
+				"./test/manifestDiffBom", "-t", outputFileNamePrefix, "-f", "json" };
+		
+		try
+		{
+			Files.write(Paths.get(manifestFileName), ("orgSbom,newSbom,output\n" +
+					"./test/OrgSbom.xml,./test/ModifiedSbom.xml,./test/manifestModified\n" +
+					"./test/OrgSbom.xml,./test/OrgSbom.json\n").getBytes(
+							StandardCharsets.UTF_8));
+			
+			SbomcomparatorApplication.main(args);
+			
+			SBomDiff modified = new ObjectMapper().readValue(Files.readString(Paths.get(
+					"./test/manifestModified.json"), StandardCharsets.UTF_8), SBomDiff.class);
+			Assert.assertEquals("Components Added", 73, modified.getComponentsAdded().size());
+			Assert.assertTrue("Diff SBom", Files.size(Paths.get(
+					"./test/manifestModified-bom.json")) > 0);
+			
+			SBomDiff same = new ObjectMapper().readValue(Files.readString(Paths.get(
+					outputFileNamePrefix + "-2.json"), StandardCharsets.UTF_8), SBomDiff.class);
+			Assert.assertTrue("Same added", same.getComponentsAdded().isEmpty());
+			Assert.assertTrue("HTML", Files.size(Paths.get(outputFileNamePrefix +
+					"-2.html")) > 0);
+			
+			JsonNode summary = new ObjectMapper().readTree(new File(summaryFileName));
+			Assert.assertEquals("Compared", 2, summary.get("compared").asInt());
+			Assert.assertEquals("Output", outputFileNamePrefix + "-2",
+					summary.get("compares").get(1).get("output").asText());
+		}
+		catch (Exception e)
+		{
+			String error = "Unexpected error occured while attempting to run a manifest.";
+			watcher.getLogger().error(error, e);
+			Assert.fail(error);
+		}
+		finally
+		{
+			for (String outputFile : outputFiles)
+			{
+				try
+				{
+					Files.deleteIfExists(Paths.get(outputFile));
+				}
+				catch (Exception e)
+				{
+					watcher.getLogger().warn("Filed to cleanup output file (" + outputFile +
+							").");
+				}
+			}
+			TestUtils.logTestFinish(methodName, startDate, watcher.getLogger());
+		}
+	}
+	
+	/**
+	 * (U) This unit test tests estimating the similarity of every SBom to every other.
+	 */
+	@Test
+	void testSimilaritySbomComparator()
+	{
+		String methodName = new Object()
+		{}.getClass().getEnclosingMethod().getName();
+		
+		Date startDate = DateUtils.rightNowDate();
+		
+		TestUtils.logTestStart(methodName, watcher.getLogger());
+		
+		String outputFileNamePrefix = "./test/fleet";
+		String matrixFileName = outputFileNamePrefix + "-similarity.csv";
+		
+		String[] args = new String[]
+		{ "-sm", "./test/OrgSbom.xml", "./test/ModifiedSbom.xml", "./test/OrgSbom.json", "-o",
+				outputFileNamePrefix };
+		
+		try
+		{
+			SbomcomparatorApplication.main(args);
+			
+			List<String> lines = Files.readAllLines(Paths.get(matrixFileName),
+					StandardCharsets.UTF_8);
+			Assert.assertEquals("Rows", 4, lines.size());
+			Assert.assertEquals("Heading", "sbom,./test/OrgSbom.xml,./test/ModifiedSbom.xml," +
+					"./test/OrgSbom.json,mean", lines.get(0));
+			
+			String[] orgXml = lines.get(1).split(",");
+			Assert.assertEquals("Same SBom", "1.0000", orgXml[1]);
+			Assert.assertEquals("Same components", "1.0000", orgXml[3]);
+			double modified = Double.parseDouble(orgXml[2]);
+			Assert.assertTrue("Modified " + modified, (modified > 0.0) && (modified < 1.0));
+		}
+		catch (Exception e)
+		{
+			String error = "Unexpected error occured while attempting to estimate the " +
+					"similarity of SBoms.";
+			watcher.getLogger().error(error, e);
+			Assert.fail(error);
+		}
+		finally
+		{
+			try
+			{
+				Files.deleteIfExists(Paths.get(matrixFileName));
+			}
+			catch (Exception e)
+			{
+				watcher.getLogger().warn("Filed to cleanup output file (" + matrixFileName +
+						").");
+			}
+			TestUtils.logTestFinish(methodName, startDate, watcher.getLogger());
+		}
+	}
+	
 	/**
 	 * (U) This unit test tests the creation of an XML SBom diff file from two XML input files.
 	 */
@@ -0,0 +1,136 @@
+/*
+ * Copyright (c) 2018,2019 Lockheed Martin Corporation.
+ *
+ * This work is owned by Lockheed Martin Corporation. Lockheed Martin personnel are permitted to use and
+ * modify this software.  Lockheed Martin personnel may also deliver this source code to any US Government
+ * customer Agency under a "US Government Purpose Rights" license.
+ *
+ * See the LICENSE file distributed with this work for licensing and distribution terms
+ */
+package com.lmco.efoss.sbom.comparator.builder;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.stream.Stream;
+
+import org.cyclonedx.model.Bom;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.jupiter.api.Test;
+
+import com.lmco.efoss.sbom.commons.test.utils.Log4JTestWatcher;
+import com.lmco.efoss.sbom.commons.test.utils.TestUtils;
+import com.lmco.efoss.sbom.commons.utils.DateUtils;
+import com.lmco.efoss.sbom.comparator.dtos.SBomDiff;
+import com.lmco.efoss.sbom.comparator.utils.SBomCompareUtils;
+import com.lmco.efoss.sbom.comparator.utils.SBomDiffCollector;
+
+/**
+ * (U) This class contains the unit tests for the chunked HTML report.
+ *
+ * @author wrgoff
+ * @since 19 October 2026
+ */
+class ChunkedHtmlWriterTest
+{
+	private static final String LOG4J_FILE = "ChunkedHtmlWriterAppender.xml";
+
+	@Rule
+	public static Log4JTestWatcher watcher = new Log4JTestWatcher(LOG4J_FILE,
+			"ChunkedHtmlWriterTest");
+
+	/**
+	 * (U) This method is used to test that the rows are split across the data files, and the
+	 * HTML shell knows how many there are.
+	 */
+	@Test
+	void testChunkedReport()
+	{
+		String methodName = new Object()
+		{}.getClass().getEnclosingMethod().getName();
+
+		Date startDate = DateUtils.rightNowDate();
+
+		TestUtils.logTestStart(methodName, watcher.getLogger());
+
+		String htmlFileName = "./test/chunkedReport.html";
+		File dataDir = null;
+		try
+		{
+			TestUtils testUtils = new TestUtils();
+
+			Bom originalSbom = testUtils.readSbomFile("OrgSbom.xml", watcher.getLogger());
+			Bom newSbom = testUtils.readSbomFile("ModifiedSbom.xml", watcher.getLogger());
+
+			ChunkedHtmlWriter writer = new ChunkedHtmlWriter(new HtmlBuilder(), htmlFileName,
+					"./test/OrgSbom.xml", "./test/ModifiedSbom.xml", 10);
+			dataDir = writer.getDataDir();
+			SBomDiffCollector collector = new SBomDiffCollector(writer);
+			try
+			{
+				SBomCompareUtils.compareComponents(originalSbom, newSbom, collector);
+			}
+			finally
+			{
+				writer.close();
+			}
+
+			SBomDiff diff = collector.getDiff();
+			int added = diff.getComponentsAdded().size();
+			int removed = diff.getComponentsRemoved().size();
+			int modified = diff.getModifiedComponents().size();
+			int rows = added + removed + modified;
+			int chunks = (rows + 9) / 10;
+
+			Assert.assertEquals(rows, writer.getRows());
+			Assert.assertEquals(chunks, writer.getChunks());
+			Assert.assertEquals("chunkedReport_files", dataDir.getName());
+
+			for (int i = 0; i < writer.getChunks(); i++)
+			{
+				String chunk = Files.readString(new File(dataDir,
+						ChunkedHtmlWriter.getChunkFileName(i)).toPath(), StandardCharsets.UTF_8);
+				Assert.assertTrue(chunk.startsWith("sbomReport.addChunk(" + i + ",[["));
+				Assert.assertTrue(chunk.endsWith("]);\n"));
+			}
+
+			String shell = Files.readString(new File(htmlFileName).toPath(),
+					StandardCharsets.UTF_8);
+			Assert.assertTrue(shell.contains("var config = {\"dataDir\":\"chunkedReport_files\"," +
+					"\"chunks\":" + chunks + ",\"rows\":" + rows + ",\"properties\":[]};"));
+			Assert.assertTrue(shell.contains("<td>OrgSbom.xml</td><td>ModifiedSbom.xml</td><td>" +
+					added + "</td><td>" + removed + "</td><td>" + modified + "</td>"));
+			Assert.assertFalse(shell.contains("{{"));
+		}
+		catch (Exception e)
+		{
+			String error = "Unexpected error occured while writing the chunked HTML report!";
+			watcher.getLogger().error(error, e);
+			Assert.fail(error);
+		}
+		finally
+		{
+			try
+			{
+				Files.deleteIfExists(new File(htmlFileName).toPath());
+				if ((dataDir != null) && (dataDir.exists()))
+				{
+					try (Stream<Path> paths = Files.walk(dataDir.toPath()))
+					{
+						paths.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(
+								File::delete);
+					}
+				}
+			}
+			catch (Exception e)
+			{
+				watcher.getLogger().warn("Failed to cleanup the chunked HTML report.");
+			}
+			TestUtils.logTestFinish(methodName, startDate, watcher.getLogger());
+		}
+	}
+}
@@ -0,0 +1,177 @@
+/*
+ * Copyright (c) 2018,2019 Lockheed Martin Corporation.
+ *
+ * This work is owned by Lockheed Martin Corporation. Lockheed Martin personnel are permitted to use and
+ * modify this software.  Lockheed Martin personnel may also deliver this source code to any US Government
+ * customer Agency under a "US Government Purpose Rights" license.
+ *
+ * See the LICENSE file distributed with this work for licensing and distribution terms
+ */
+package com.lmco.efoss.sbom.comparator.builder;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.cyclonedx.model.Bom;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.jupiter.api.Test;
+
+import com.lmco.efoss.sbom.commons.test.utils.Log4JTestWatcher;
+import com.lmco.efoss.sbom.commons.test.utils.TestUtils;
+import com.lmco.efoss.sbom.commons.utils.DateUtils;
+import com.lmco.efoss.sbom.comparator.dtos.CompareComponent;
+import com.lmco.efoss.sbom.comparator.dtos.GroupSummary;
+import com.lmco.efoss.sbom.comparator.dtos.ModifiedComponent;
+import com.lmco.efoss.sbom.comparator.dtos.SBomDiff;
+import com.lmco.efoss.sbom.comparator.utils.SBomCompareUtils;
+import com.lmco.efoss.sbom.comparator.utils.SBomDiffCollector;
+
+/**
+ * (U) This class contains the unit tests for the grouped HTML report.
+ *
+ * @author wrgoff
+ * @since 19 October 2026
+ */
+class GroupedHtmlWriterTest
+{
+	private static final String LOG4J_FILE = "GroupedHtmlWriterAppender.xml";
+
+	@Rule
+	public static Log4JTestWatcher watcher = new Log4JTestWatcher(LOG4J_FILE,
+			"GroupedHtmlWriterTest");
+
+	/**
+	 * (U) This method is used to test that every difference is counted in its group, and that
+	 * each group gets a collapsed section holding its rows.
+	 */
+	@Test
+	void testGroupedReport()
+	{
+		String methodName = new Object()
+		{}.getClass().getEnclosingMethod().getName();
+
+		Date startDate = DateUtils.rightNowDate();
+
+		TestUtils.logTestStart(methodName, watcher.getLogger());
+
+		String htmlFileName = "./test/groupedReport.html";
+		try
+		{
+			TestUtils testUtils = new TestUtils();
+
+			Bom originalSbom = testUtils.readSbomFile("OrgSbom.xml", watcher.getLogger());
+			Bom newSbom = testUtils.readSbomFile("ModifiedSbom.xml", watcher.getLogger());
+
+			GroupedHtmlWriter writer = new GroupedHtmlWriter(new HtmlBuilder(true), htmlFileName,
+					"./test/OrgSbom.xml", "./test/ModifiedSbom.xml", false);
+			SBomDiffCollector collector = new SBomDiffCollector(writer);
+			try
+			{
+				SBomCompareUtils.compareComponents(originalSbom, newSbom, collector);
+			}
+			finally
+			{
+				writer.close();
+			}
+
+			SBomDiff diff = collector.getDiff();
+			Set<String> expectedGroups = new HashSet<>();
+			for (CompareComponent component : diff.getComponentsAdded())
+				expectedGroups.add(getGroup(component));
+			for (CompareComponent component : diff.getComponentsRemoved())
+				expectedGroups.add(getGroup(component));
+			for (ModifiedComponent component : diff.getModifiedComponents())
+				expectedGroups.add(getGroup(component.getNewComponent()));
+
+			List<GroupSummary> groups = writer.getGroups();
+			Assert.assertEquals(expectedGroups.size(), groups.size());
+
+			long added = 0;
+			long removed = 0;
+			long modified = 0;
+			long rows = 0;
+			for (GroupSummary group : groups)
+			{
+				added += group.getAdded();
+				removed += group.getRemoved();
+				modified += group.getModified();
+				rows += group.getRows().size();
+				Assert.assertEquals(group.getRows().size(), group.getLicenses().values().stream()
+						.mapToLong(Long::longValue).sum());
+				Assert.assertEquals(group.getRows().size(), group.getEfossStatuses().values()
+						.stream().mapToLong(Long::longValue).sum());
+			}
+			Assert.assertEquals(diff.getComponentsAdded().size(), added);
+			Assert.assertEquals(diff.getComponentsRemoved().size(), removed);
+			Assert.assertEquals(diff.getModifiedComponents().size(), modified);
+			Assert.assertEquals(added + removed + modified, rows);
+
+			String html = Files.readString(new File(htmlFileName).toPath(),
+					StandardCharsets.UTF_8);
+			Assert.assertEquals(groups.size(), countOccurrences(html, "<details id=\"group-"));
+			Assert.assertEquals(groups.size(), countOccurrences(html, "<a href=\"#group-"));
+			// One row per component, plus the header's line and a summary line per group.
+			Assert.assertEquals(rows + 1 + groups.size(), countOccurrences(html, "<tr><td>"));
+			Assert.assertTrue(html.contains("<td>OrgSbom.xml</td><td>ModifiedSbom.xml</td><td>" +
+					added + "</td><td>" + removed + "</td><td>" + modified + "</td>"));
+			Assert.assertTrue(html.contains("<tr class=\"heading\"><td>Total</td><td>" + added +
+					"</td><td>" + removed + "</td><td>" + modified + "</td>"));
+			Assert.assertFalse(html.contains("{{"));
+		}
+		catch (Exception e)
+		{
+			String error = "Unexpected error occured while writing the grouped HTML report!";
+			watcher.getLogger().error(error, e);
+			Assert.fail(error);
+		}
+		finally
+		{
+			try
+			{
+				Files.deleteIfExists(new File(htmlFileName).toPath());
+			}
+			catch (Exception e)
+			{
+				watcher.getLogger().warn("Failed to cleanup the grouped HTML report.");
+			}
+			TestUtils.logTestFinish(methodName, startDate, watcher.getLogger());
+		}
+	}
+
+	/**
+	 * (U) This method is used to count how often text appears in the HTML.
+	 *
+	 * @param html String HTML to search.
+	 * @param text String to count.
+	 * @return long the number of times the text appears.
+	 */
+	private static long countOccurrences(String html, String text)
+	{
+		long count = 0;
+		int index = html.indexOf(text);
+		while (index >= 0)
+		{
+			count++;
+			index = html.indexOf(text, index + text.length());
+		}
+		return count;
+	}
+
+	/**
+	 * (U) This method is used to get the group of a component, empty if it has none.
+	 *
+	 * @param component CompareComponent to get the group of.
+	 * @return String the group.
+	 */
+	private static String getGroup(CompareComponent component)
+	{
+		String group = component.getComponent().getGroup();
+		return (group == null) ? "" : group;
+	}
+}
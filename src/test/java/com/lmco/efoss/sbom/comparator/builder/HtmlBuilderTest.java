@@ -11,10 +11,17 @@ package com.lmco.efoss.sbom.comparator.builder;
 
 import java.io.BufferedReader;
 import java.io.FileReader;
+import java.io.StringWriter;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.Date;
+import java.util.List;
+import java.util.Random;
+import java.util.zip.GZIPInputStream;
 
 import org.apache.commons.cli.CommandLine;
 import org.apache.commons.cli.CommandLineParser;
@@ -22,6 +29,9 @@ import org.apache.commons.cli.DefaultParser;
 import org.apache.commons.cli.Option;
 import org.apache.commons.cli.Options;
 import org.apache.commons.cli.ParseException;
+import org.cyclonedx.model.Bom;
+import org.cyclonedx.model.Component;
+import org.cyclonedx.model.Property;
 import org.junit.Assert;
 import org.junit.Rule;
 import org.junit.jupiter.api.Test;
@@ -32,7 +42,10 @@ import com.lmco.efoss.sbom.commons.test.utils.Log4JTestWatcher;
 import com.lmco.efoss.sbom.commons.test.utils.TestUtils;
 import com.lmco.efoss.sbom.commons.utils.DateUtils;
 import com.lmco.efoss.sbom.comparator.SbomcomparatorApplication;
+import com.lmco.efoss.sbom.comparator.dtos.CompareComponent;
+import com.lmco.efoss.sbom.comparator.dtos.HtmlTableValue;
 import com.lmco.efoss.sbom.comparator.dtos.SBomDiff;
+import com.lmco.efoss.sbom.comparator.utils.SBomCompareUtils;
 
 class HtmlBuilderTest
 {
@@ -128,6 +141,80 @@ class HtmlBuilderTest
 		}
 	}
 	
+	/**
+	 * (U) Tests that the css html mode colors the cells with stylesheet classes, and that the
+	 * report is written to .html.gz when gzip is asked for.
+	 */
+	@Test
+	void when_css_mode_and_gzip_requested_HTML_Builder_should_write_gzipped_class_based_HTML()
+	{
+		String methodName = new Object()
+		{}.getClass().getEnclosingMethod().getName();
+		
+		Date startDate = DateUtils.rightNowDate();
+		
+		TestUtils.logTestStart(methodName, watcher.getLogger());
+		
+		Options cliOptions = new Options();
+		cliOptions.addOption(new Option("f1", "orgsbom", true, "original SBom file"));
+		cliOptions.addOption(new Option("f2", "newsbom", true, "new SBom file"));
+		cliOptions.addOption(new Option("t", HTMLOUTPUT, true, "output html file name"));
+		cliOptions.addOption(new Option("hm", "htmlmode", true, "html report mode"));
+		cliOptions.addOption(new Option("hz", "htmlgzip", false, "gzip the html report"));
+		
+		String htmlOutputFileNamePrefix = "./test/cssDiff";
+		String htmlFileName = htmlOutputFileNamePrefix + ".html.gz";
+		
+		String[] testArgs = new String[]
+		{ "-f1", "./test/OrgSbom.xml", "-f2", "./test/ModifiedSbom.xml", "-t",
+				htmlOutputFileNamePrefix, "-hm", "css", "-hz" };
+		
+		try
+		{
+			CommandLine cli = new DefaultParser().parse(cliOptions, testArgs);
+			
+			TestUtils testUtils = new TestUtils();
+			Bom originalSbom = testUtils.readSbomFile("OrgSbom.xml", watcher.getLogger());
+			Bom newSbom = testUtils.readSbomFile("ModifiedSbom.xml", watcher.getLogger());
+			SBomDiff diff = SBomCompareUtils.compareComponents(originalSbom, newSbom);
+			
+			htmlBuilder.generateHTMLFile(diff, cli);
+			
+			String html;
+			try (GZIPInputStream in = new GZIPInputStream(Files.newInputStream(Paths.get(
+					htmlFileName))))
+			{
+				html = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+			}
+			
+			Assert.assertEquals("Components Added", diff.getComponentsAdded().size(),
+					StringUtils.countOccurrencesOf(html, "<td class=\"added\">Added</td>"));
+			Assert.assertEquals("Components Modified", diff.getModifiedComponents().size(),
+					StringUtils.countOccurrencesOf(html, "<td class=\"modified\">Modified</td>"));
+			Assert.assertFalse(html.contains("bgcolor"));
+			Assert.assertFalse(html.contains("<font"));
+			Assert.assertTrue(html.endsWith("</table></body></html>"));
+		}
+		catch (Exception e)
+		{
+			String error = "Unexpected error occured while writing the gzipped css HTML.";
+			watcher.getLogger().error(error, e);
+			Assert.fail(error);
+		}
+		finally
+		{
+			try
+			{
+				Files.deleteIfExists(Paths.get(htmlFileName));
+			}
+			catch (Exception e)
+			{
+				watcher.getLogger().warn("Filed to cleanup output file (" + htmlFileName + ").");
+			}
+			TestUtils.logTestFinish(methodName, startDate, watcher.getLogger());
+		}
+	}
+	
 	/**
 	 * (U) Tests the name retrieval of the the html file, in this case that when no name is entered
 	 * that the default is used
@@ -229,4 +316,189 @@ class HtmlBuilderTest
 			TestUtils.logTestFinish(methodName, startDate, watcher.getLogger());
 		}
 	}
+	
+	/**
+	 * (U) Tests that the table rows are rendered with the expected markup, including the high
+	 * lighting of the segments that changed in a modified version.
+	 */
+	@Test
+	void when_table_rows_written_should_render_expected_markup()
+	{
+		String methodName = new Object()
+		{}.getClass().getEnclosingMethod().getName();
+		
+		Date startDate = DateUtils.rightNowDate();
+		
+		TestUtils.logTestStart(methodName, watcher.getLogger());
+		
+		try
+		{
+			HtmlTableValue added = new HtmlTableValue();
+			added.setName("log4j");
+			added.setGroup("log4j");
+			added.setVersionOld("");
+			added.setVersionNew("1.2.12");
+			added.setStatus("Added");
+			added.setEfossStatus("APPROVED");
+			
+			HtmlTableValue modified = new HtmlTableValue();
+			modified.setName("spring-core");
+			modified.setVersionOld("5.2.1");
+			modified.setVersionNew("5.3.1");
+			modified.setStatus("Modified");
+			modified.setEfossStatus("");
+			
+			StringWriter out = new StringWriter();
+			htmlBuilder.writeTableHTML(Arrays.asList(added, modified), out);
+			
+			String expected = "<tr><td>log4j</td><td>log4j</td><td></td><td>1.2.12</td> " +
+					"<td bgcolor=\"#03AC13\"><font color=\"black\">Added</font></td>" +
+					"<td bgcolor=\"#03AC13\"><font color=\"black\">APPROVED</font></td></tr>" +
+					"<tr><td>spring-core</td><td></td><td>5.2.1</td><td>" +
+					"5.<mark>3</mark>.1</td> " +
+					"<td bgcolor=\"white\"><font color=\"black\">Modified</font></td>" +
+					"<td bgcolor=\"white\"><font color=\"black\"></font></td></tr>" +
+					"</table></body></html>";
+			
+			Assert.assertEquals(expected, out.toString());
+		}
+		catch (Exception e)
+		{
+			String error = "Unexpected error occured while writing the HTML table rows.";
+			watcher.getLogger().error(error, e);
+			Assert.fail(error);
+		}
+		finally
+		{
+			TestUtils.logTestFinish(methodName, startDate, watcher.getLogger());
+		}
+	}
+	
+	/**
+	 * (U) This unit test checks that a row count above the parallel sort threshold sorts the same
+	 * as the sequential sort.
+	 */
+	@Test
+	void when_many_rows_sorted_sortValues_should_match_sequential_sort()
+	{
+		String methodName = new Object()
+		{}.getClass().getEnclosingMethod().getName();
+		
+		Date startDate = DateUtils.rightNowDate();
+		
+		TestUtils.logTestStart(methodName, watcher.getLogger());
+		
+		try
+		{
+			String[] statuses = new String[]
+			{ HtmlBuilder.ADDED, HtmlBuilder.REMOVED, "Modified" };
+			Random random = new Random(42);
+			List<HtmlTableValue> values = new ArrayList<>();
+			for (int i = 0; i < HtmlBuilder.PARALLEL_SORT_THRESHOLD * 2; i++)
+			{
+				HtmlTableValue value = new HtmlTableValue();
+				value.setStatus(statuses[random.nextInt(statuses.length)]);
+				value.setGroup("group" + random.nextInt(50));
+				value.setName("Component" + random.nextInt(1000));
+				value.setVersionNew("1." + random.nextInt(20));
+				values.add(value);
+			}
+			
+			List<HtmlTableValue> expected = new ArrayList<>(values);
+			Collections.sort(expected);
+			
+			HtmlBuilder.sortValues(values);
+			
+			Assert.assertEquals(expected.size(), values.size());
+			for (int i = 0; i < values.size(); i++)
+				Assert.assertSame(expected.get(i), values.get(i));
+		}
+		catch (Exception e)
+		{
+			String error = "Unexpected error occured while sorting the HTML table rows.";
+			watcher.getLogger().error(error, e);
+			Assert.fail(error);
+		}
+		finally
+		{
+			TestUtils.logTestFinish(methodName, startDate, watcher.getLogger());
+		}
+	}
+	
+	/**
+	 * (U) This unit test checks that the report properties are parsed from the command line, are
+	 * looked up ignoring case, spaces, underscores and dashes, and are written in their own
+	 * columns.
+	 */
+	@Test
+	void when_report_properties_requested_HTML_Builder_should_write_property_columns()
+	{
+		String methodName = new Object()
+		{}.getClass().getEnclosingMethod().getName();
+		
+		Date startDate = DateUtils.rightNowDate();
+		
+		TestUtils.logTestStart(methodName, watcher.getLogger());
+		
+		try
+		{
+			Options cliOptions = new Options();
+			cliOptions.addOption(new Option("rp", "report-properties", true,
+					"report properties"));
+			CommandLine cli = new DefaultParser().parse(cliOptions, new String[]
+			{ "-rp", "efossStatus, team,Tier,TEAM" });
+			
+			List<String> properties = htmlBuilder.getReportProperties(cli);
+			Assert.assertEquals(Arrays.asList("team", "Tier"), properties);
+			
+			Component component = new Component();
+			component.setName("log4j");
+			component.setVersion("1.2.12");
+			component.setProperties(Arrays.asList(newProperty("efoss status", "APPROVED"),
+					newProperty("Team", "platform"), newProperty("team", "first one wins")));
+			
+			HtmlBuilder builder = new HtmlBuilder(true, properties);
+			HtmlTableValue value = builder.adaptComponent(new CompareComponent(component),
+					HtmlBuilder.ADDED);
+			
+			Assert.assertEquals("APPROVED", value.getEfossStatus());
+			Assert.assertEquals(Arrays.asList("platform", ""), value.getProperties());
+			
+			StringWriter out = new StringWriter();
+			builder.writeTableHTML(Arrays.asList(value), out);
+			Assert.assertEquals("<tr><td>log4j</td><td></td><td></td><td>1.2.12</td>" +
+					"<td class=\"added\">Added</td><td class=\"efoss-approved\">APPROVED</td>" +
+					"<td>platform</td><td></td></tr></table></body></html>", out.toString());
+			
+			out = new StringWriter();
+			builder.writeHeaderHTML("OrgSbom.xml", "ModifiedSbom.xml", out);
+			Assert.assertTrue(out.toString().endsWith(
+					"EFoss Status</td><td>team</td><td>Tier</td></tr>"));
+		}
+		catch (Exception e)
+		{
+			String error = "Unexpected error occured while writing the report properties.";
+			watcher.getLogger().error(error, e);
+			Assert.fail(error);
+		}
+		finally
+		{
+			TestUtils.logTestFinish(methodName, startDate, watcher.getLogger());
+		}
+	}
+	
+	/**
+	 * (U) This method is used to build a component property.
+	 * 
+	 * @param name  String name of the property.
+	 * @param value String value of the property.
+	 * @return Property the property.
+	 */
+	private static Property newProperty(String name, String value)
+	{
+		Property property = new Property();
+		property.setName(name);
+		property.setValue(value);
+		return property;
+	}
 }
@@ -0,0 +1,142 @@
+/*
+ * Copyright (c) 2018,2019 Lockheed Martin Corporation.
+ *
+ * This work is owned by Lockheed Martin Corporation. Lockheed Martin personnel are permitted to use and
+ * modify this software.  Lockheed Martin personnel may also deliver this source code to any US Government
+ * customer Agency under a "US Government Purpose Rights" license.
+ *
+ * See the LICENSE file distributed with this work for licensing and distribution terms
+ */
+package com.lmco.efoss.sbom.comparator.dtos;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.jupiter.api.Test;
+
+import com.lmco.efoss.sbom.commons.test.utils.Log4JTestWatcher;
+import com.lmco.efoss.sbom.commons.test.utils.TestUtils;
+import com.lmco.efoss.sbom.commons.utils.DateUtils;
+
+/**
+ * (U) This class contains the unit tests for the HtmlTableValue ordering.
+ *
+ * @author wrgoff
+ * @since 19 October 2026
+ */
+class HtmlTableValueTest
+{
+	private static final String LOG4J_FILE = "HtmlTableValueAppender.xml";
+
+	@Rule
+	public static Log4JTestWatcher watcher = new Log4JTestWatcher(LOG4J_FILE,
+			"HtmlTableValueTest");
+
+	/**
+	 * (U) This method is used to test that rows sort by status, then group, then name, then
+	 * version, ignoring case.
+	 */
+	@Test
+	void testCompareTo()
+	{
+		String methodName = new Object()
+		{}.getClass().getEnclosingMethod().getName();
+
+		Date startDate = DateUtils.rightNowDate();
+
+		TestUtils.logTestStart(methodName, watcher.getLogger());
+
+		try
+		{
+			HtmlTableValue removed = buildValue("Removed", "org.apache", "commons-io", "2.6");
+			HtmlTableValue modified = buildValue("Modified", "org.apache", "commons-io", "2.8");
+			HtmlTableValue newer = buildValue("Added", "org.apache", "Commons-IO", "2.8");
+			HtmlTableValue older = buildValue("Added", "org.apache", "commons-io", "2.11");
+			HtmlTableValue slf4j = buildValue("Added", "org.apache", "slf4j", "1.7");
+			HtmlTableValue noGroup = buildValue("Added", null, "zlib", "1.2");
+
+			List<HtmlTableValue> values = new ArrayList<>(Arrays.asList(removed, modified, slf4j,
+					newer, older, noGroup));
+			Collections.sort(values);
+
+			Assert.assertEquals(Arrays.asList(noGroup, older, newer, slf4j, modified, removed),
+					values);
+		}
+		catch (Exception e)
+		{
+			String error = "Unexpected error occured while sorting the HTML rows!";
+			watcher.getLogger().error(error, e);
+			Assert.fail(error);
+		}
+		finally
+		{
+			TestUtils.logTestFinish(methodName, startDate, watcher.getLogger());
+		}
+	}
+
+	/**
+	 * (U) This method is used to test that equals and hashCode agree with compareTo, and follow
+	 * the values when they are changed.
+	 */
+	@Test
+	void testEquals()
+	{
+		String methodName = new Object()
+		{}.getClass().getEnclosingMethod().getName();
+
+		Date startDate = DateUtils.rightNowDate();
+
+		TestUtils.logTestStart(methodName, watcher.getLogger());
+
+		try
+		{
+			HtmlTableValue first = buildValue("Added", "Org.Apache", "Log4J", "1.2.17");
+			HtmlTableValue second = buildValue("added", "org.apache", "log4j", "1.2.17");
+
+			Assert.assertEquals(0, first.compareTo(second));
+			Assert.assertEquals(first, second);
+			Assert.assertEquals(first.hashCode(), second.hashCode());
+
+			second.setVersionNew("2.17.1");
+			Assert.assertTrue(first.compareTo(second) < 0);
+			Assert.assertNotEquals(first, second);
+		}
+		catch (Exception e)
+		{
+			String error = "Unexpected error occured while comparing HTML rows!";
+			watcher.getLogger().error(error, e);
+			Assert.fail(error);
+		}
+		finally
+		{
+			TestUtils.logTestFinish(methodName, startDate, watcher.getLogger());
+		}
+	}
+
+	/**
+	 * (U) This method is used to build a row.
+	 *
+	 * @param status     String status of the row.
+	 * @param group      String group of the component.
+	 * @param name       String name of the component.
+	 * @param versionNew String new version of the component.
+	 * @return HtmlTableValue the row.
+	 */
+	private static HtmlTableValue buildValue(String status, String group, String name,
+			String versionNew)
+	{
+		HtmlTableValue value = new HtmlTableValue();
+		value.setStatus(status);
+		value.setGroup(group);
+		value.setName(name);
+		value.setVersionNew(versionNew);
+		value.setVersionOld("");
+		value.setEfossStatus("");
+		return value;
+	}
+}
@@ -0,0 +1,155 @@
+/*
+ * Copyright (c) 2018,2019, 2020, 2021 Lockheed Martin Corporation.
+ *
+ * This work is owned by Lockheed Martin Corporation. Lockheed Martin personnel are permitted to use and
+ * modify this software.  Lockheed Martin personnel may also deliver this source code to any US Government
+ * customer Agency under a "US Government Purpose Rights" license.
+ *
+ * See the LICENSE file distributed with this work for licensing and distribution terms
+ */
+package com.lmco.efoss.sbom.comparator.generator;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Date;
+
+import org.cyclonedx.model.Bom;
+import org.cyclonedx.model.Component;
+import org.cyclonedx.parsers.JsonParser;
+import org.cyclonedx.parsers.XmlParser;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.jupiter.api.Test;
+
+import com.lmco.efoss.sbom.commons.test.utils.Log4JTestWatcher;
+import com.lmco.efoss.sbom.commons.test.utils.TestUtils;
+import com.lmco.efoss.sbom.commons.utils.DateUtils;
+import com.lmco.efoss.sbom.commons.utils.SBomCommons;
+import com.lmco.efoss.sbom.comparator.dtos.SBomDiff;
+import com.lmco.efoss.sbom.comparator.utils.SBomCompareUtils;
+
+/**
+ * (U) This class contains the unit tests for the streaming diff SBom writer.
+ *
+ * @author wrgoff
+ * @since 19 October 2026
+ */
+class SBomDiffBomWriterTest
+{
+	private static final String LOG4J_FILE = "SBomDiffBomWriterAppender.xml";
+
+	@Rule
+	public static Log4JTestWatcher watcher = new Log4JTestWatcher(LOG4J_FILE,
+			"SBomDiffBomWriterTest");
+
+	/**
+	 * (U) This method is used to test the JSon diff SBom can be read back, holds the added and
+	 * modified components, and that the original SBoms were left alone.
+	 */
+	@Test
+	void testWriteJsonDiffBom()
+	{
+		String methodName = new Object()
+		{}.getClass().getEnclosingMethod().getName();
+
+		Date startDate = DateUtils.rightNowDate();
+
+		TestUtils.logTestStart(methodName, watcher.getLogger());
+
+		try
+		{
+			TestUtils testUtils = new TestUtils();
+
+			Bom originalSbom = testUtils.readSbomFile("OrgSbom.xml", watcher.getLogger());
+			Bom newSbom = testUtils.readSbomFile("ModifiedSbom.xml", watcher.getLogger());
+
+			SBomDiff diff = SBomCompareUtils.compareComponents(originalSbom, newSbom);
+
+			ByteArrayOutputStream out = new ByteArrayOutputStream();
+			new SBomGenerator().writeDiffBom(originalSbom, newSbom, diff, out,
+					SBomCommons.AVAILABLE_FORMATS.JSON);
+
+			Bom diffBom = new JsonParser().parse(out.toByteArray());
+
+			int expected = diff.getComponentsAdded().size() + diff.getModifiedComponents().size();
+			Assert.assertEquals(expected, diffBom.getComponents().size());
+			Assert.assertEquals("diff reason",
+					diffBom.getComponents().get(0).getProperties().get(0).getName());
+
+			assertNotModified(newSbom);
+		}
+		catch (Exception e)
+		{
+			String error = "Unexpected error occured while attempt to write a JSon diff SBom!";
+			watcher.getLogger().error(error, e);
+			Assert.fail(error);
+		}
+		finally
+		{
+			TestUtils.logTestFinish(methodName, startDate, watcher.getLogger());
+		}
+	}
+
+	/**
+	 * (U) This method is used to test the XML diff SBom can be read back, and holds the added and
+	 * modified components.
+	 */
+	@Test
+	void testWriteXmlDiffBom()
+	{
+		String methodName = new Object()
+		{}.getClass().getEnclosingMethod().getName();
+
+		Date startDate = DateUtils.rightNowDate();
+
+		TestUtils.logTestStart(methodName, watcher.getLogger());
+
+		try
+		{
+			TestUtils testUtils = new TestUtils();
+
+			Bom originalSbom = testUtils.readSbomFile("OrgSbom.xml", watcher.getLogger());
+			Bom newSbom = testUtils.readSbomFile("ModifiedSbom.xml", watcher.getLogger());
+
+			SBomDiff diff = SBomCompareUtils.compareComponents(originalSbom, newSbom);
+
+			ByteArrayOutputStream out = new ByteArrayOutputStream();
+			new SBomGenerator().writeDiffBom(originalSbom, newSbom, diff, out,
+					SBomCommons.AVAILABLE_FORMATS.XML);
+
+			Bom diffBom = new XmlParser().parse(out.toByteArray());
+
+			int expected = diff.getComponentsAdded().size() + diff.getModifiedComponents().size();
+			Assert.assertEquals(expected, diffBom.getComponents().size());
+			Assert.assertEquals(newSbom.getSerialNumber(), diffBom.getSerialNumber());
+
+			assertNotModified(newSbom);
+		}
+		catch (Exception e)
+		{
+			String error = "Unexpected error occured while attempt to write an XML diff SBom!";
+			watcher.getLogger().error(error, e);
+			Assert.fail(error);
+		}
+		finally
+		{
+			TestUtils.logTestFinish(methodName, startDate, watcher.getLogger());
+		}
+	}
+
+	/**
+	 * (U) Convenience method used to make sure no diff reason was added to the SBom passed in.
+	 *
+	 * @param sbom Bom to check.
+	 */
+	private void assertNotModified(Bom sbom)
+	{
+		for (Component component : sbom.getComponents())
+		{
+			if (component.getProperties() != null)
+			{
+				component.getProperties().forEach(property -> Assert.assertNotEquals(
+						"diff reason", property.getName()));
+			}
+		}
+	}
+}
@@ -0,0 +1,110 @@
+/*
+ * Copyright (c) 2018,2019, 2020, 2021 Lockheed Martin Corporation.
+ *
+ * This work is owned by Lockheed Martin Corporation. Lockheed Martin personnel are permitted to use and
+ * modify this software.  Lockheed Martin personnel may also deliver this source code to any US Government
+ * customer Agency under a "US Government Purpose Rights" license.
+ *
+ * See the LICENSE file distributed with this work for licensing and distribution terms
+ */
+package com.lmco.efoss.sbom.comparator.generator;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+
+import org.cyclonedx.model.Bom;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.lmco.efoss.sbom.commons.test.utils.Log4JTestWatcher;
+import com.lmco.efoss.sbom.commons.test.utils.TestUtils;
+import com.lmco.efoss.sbom.commons.utils.DateUtils;
+import com.lmco.efoss.sbom.comparator.dtos.SBomDiff;
+import com.lmco.efoss.sbom.comparator.utils.SBomCompareUtils;
+import com.lmco.efoss.sbom.comparator.utils.SBomDiffCollector;
+
+/**
+ * (U) This class contains the unit tests for the NDJSON diff writer.
+ *
+ * @author wrgoff
+ * @since 19 October 2026
+ */
+class SBomNdJsonDiffWriterTest
+{
+	private static final String LOG4J_FILE = "SBomNdJsonDiffWriterAppender.xml";
+
+	@Rule
+	public static Log4JTestWatcher watcher = new Log4JTestWatcher(LOG4J_FILE,
+			"SBomNdJsonDiffWriterTest");
+
+	/**
+	 * (U) This method is used to test that every change is written as its own JSon line, while the
+	 * same compare still collects the full diff.
+	 */
+	@Test
+	void testStreamedLines()
+	{
+		String methodName = new Object()
+		{}.getClass().getEnclosingMethod().getName();
+
+		Date startDate = DateUtils.rightNowDate();
+
+		TestUtils.logTestStart(methodName, watcher.getLogger());
+
+		try
+		{
+			TestUtils testUtils = new TestUtils();
+
+			Bom originalSbom = testUtils.readSbomFile("OrgSbom.xml", watcher.getLogger());
+			Bom newSbom = testUtils.readSbomFile("ModifiedSbom.xml", watcher.getLogger());
+
+			ByteArrayOutputStream out = new ByteArrayOutputStream();
+			SBomDiff diff;
+			try (SBomNdJsonDiffWriter writer = new SBomNdJsonDiffWriter(out))
+			{
+				SBomDiffCollector collector = new SBomDiffCollector(writer);
+				SBomCompareUtils.compareComponents(originalSbom, newSbom, collector);
+				diff = collector.getDiff();
+			}
+
+			int added = 0;
+			int removed = 0;
+			int modified = 0;
+
+			ObjectMapper objectMapper = new ObjectMapper();
+			String[] lines = new String(out.toByteArray(), StandardCharsets.UTF_8).split("\n");
+			for (String line : lines)
+			{
+				JsonNode node = objectMapper.readTree(line);
+				String change = node.get(SBomNdJsonDiffWriter.CHANGE).asText();
+				if (SBomNdJsonDiffWriter.ADDED.equals(change))
+					added++;
+				else if (SBomNdJsonDiffWriter.REMOVED.equals(change))
+					removed++;
+				else if (SBomNdJsonDiffWriter.MODIFIED.equals(change))
+				{
+					Assert.assertNotNull(node.get(SBomNdJsonDiffWriter.PREVIOUS_COMPONENT));
+					modified++;
+				}
+			}
+
+			Assert.assertEquals(diff.getComponentsAdded().size(), added);
+			Assert.assertEquals(diff.getComponentsRemoved().size(), removed);
+			Assert.assertEquals(diff.getModifiedComponents().size(), modified);
+		}
+		catch (Exception e)
+		{
+			String error = "Unexpected error occured while attempt to produce NDJSON from a diff!";
+			watcher.getLogger().error(error, e);
+			Assert.fail(error);
+		}
+		finally
+		{
+			TestUtils.logTestFinish(methodName, startDate, watcher.getLogger());
+		}
+	}
+}
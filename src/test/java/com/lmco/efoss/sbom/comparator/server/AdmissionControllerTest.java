@@ -0,0 +1,149 @@
+/*
+ * Copyright (c) 2018,2019 Lockheed Martin Corporation.
+ *
+ * This work is owned by Lockheed Martin Corporation. Lockheed Martin personnel are permitted to use and
+ * modify this software.  Lockheed Martin personnel may also deliver this source code to any US Government
+ * customer Agency under a "US Government Purpose Rights" license.
+ *
+ * See the LICENSE file distributed with this work for licensing and distribution terms
+ */
+package com.lmco.efoss.sbom.comparator.server;
+
+import java.util.Date;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.jupiter.api.Test;
+
+import com.lmco.efoss.sbom.commons.test.utils.Log4JTestWatcher;
+import com.lmco.efoss.sbom.commons.test.utils.TestUtils;
+import com.lmco.efoss.sbom.commons.utils.DateUtils;
+import com.lmco.efoss.sbom.comparator.exceptions.SBomAdmissionException;
+
+/**
+ * (U) This class contains the unit tests for the AdmissionController.
+ *
+ * @author wrgoff
+ * @since 19 October 2026
+ */
+class AdmissionControllerTest
+{
+	private static final String LOG4J_FILE = "AdmissionControllerAppender.xml";
+
+	@Rule
+	public static Log4JTestWatcher watcher = new Log4JTestWatcher(LOG4J_FILE,
+			"AdmissionControllerTest");
+
+	/**
+	 * (U) This method is used to test that a compare that does not fit waits until one running
+	 * is done, and that one that could never fit is refused at once.
+	 */
+	@Test
+	void testAcquire()
+	{
+		String methodName = new Object()
+		{}.getClass().getEnclosingMethod().getName();
+
+		Date startDate = DateUtils.rightNowDate();
+
+		TestUtils.logTestStart(methodName, watcher.getLogger());
+
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		try
+		{
+			// Room for 100 bytes of SBoms.
+			AdmissionController admission = new AdmissionController(
+					AdmissionController.estimate(100), 10000);
+
+			AdmissionController.Permit first = admission.acquire(60);
+			Future<AdmissionController.Permit> second = executor.submit(() -> admission
+					.acquire(60));
+			while (admission.getStats().getWaiting() == 0)
+				Thread.sleep(10);
+			Assert.assertFalse(second.isDone());
+
+			first.close();
+			AdmissionController.Permit admitted = second.get(10, TimeUnit.SECONDS);
+			Assert.assertEquals(AdmissionController.estimate(60), admission.getStats()
+					.getInUse());
+			admitted.close();
+			admitted.close();
+			Assert.assertEquals(0, admission.getStats().getInUse());
+
+			try
+			{
+				admission.acquire(101);
+				Assert.fail("A compare larger than the budget was admitted!");
+			}
+			catch (SBomAdmissionException e)
+			{
+				Assert.assertFalse(e.isRetryable());
+			}
+
+			Assert.assertEquals(2, admission.getStats().getAdmitted());
+			Assert.assertEquals(1, admission.getStats().getQueued());
+			Assert.assertEquals(1, admission.getStats().getRejected());
+		}
+		catch (Exception e)
+		{
+			String error = "Unexpected error occured while attempting to admit compares!";
+			watcher.getLogger().error(error, e);
+			Assert.fail(error);
+		}
+		finally
+		{
+			executor.shutdownNow();
+			TestUtils.logTestFinish(methodName, startDate, watcher.getLogger());
+		}
+	}
+
+	/**
+	 * (U) This method is used to test that a compare that finds no room in time is refused, and
+	 * may be sent again.
+	 */
+	@Test
+	void testTimeout()
+	{
+		String methodName = new Object()
+		{}.getClass().getEnclosingMethod().getName();
+
+		Date startDate = DateUtils.rightNowDate();
+
+		TestUtils.logTestStart(methodName, watcher.getLogger());
+
+		try
+		{
+			AdmissionController admission = new AdmissionController(
+					AdmissionController.estimate(100), 50);
+
+			try (AdmissionController.Permit permit = admission.acquire(100))
+			{
+				admission.acquire(1);
+				Assert.fail("A compare was admitted past the budget!");
+			}
+			catch (SBomAdmissionException e)
+			{
+				Assert.assertTrue(e.isRetryable());
+			}
+			Assert.assertEquals(0, admission.getStats().getWaiting());
+			Assert.assertEquals(0, admission.getStats().getInUse());
+
+			admission.acquire(1).close();
+			Assert.assertEquals(2, admission.getStats().getAdmitted());
+		}
+		catch (Exception e)
+		{
+			String error = "Unexpected error occured while attempting to time out a compare!";
+			watcher.getLogger().error(error, e);
+			Assert.fail(error);
+		}
+		finally
+		{
+			TestUtils.logTestFinish(methodName, startDate, watcher.getLogger());
+		}
+	}
+}
@@ -0,0 +1,269 @@
+/*
+ * Copyright (c) 2018,2019 Lockheed Martin Corporation.
+ *
+ * This work is owned by Lockheed Martin Corporation. Lockheed Martin personnel are permitted to use and
+ * modify this software.  Lockheed Martin personnel may also deliver this source code to any US Government
+ * customer Agency under a "US Government Purpose Rights" license.
+ *
+ * See the LICENSE file distributed with this work for licensing and distribution terms
+ */
+package com.lmco.efoss.sbom.comparator.server;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.stream.Stream;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.Test;
+
+import com.lmco.efoss.sbom.commons.test.utils.Log4JTestWatcher;
+import com.lmco.efoss.sbom.commons.test.utils.TestUtils;
+import com.lmco.efoss.sbom.commons.utils.DateUtils;
+import com.lmco.efoss.sbom.comparator.SbomcomparatorApplication;
+import com.lmco.efoss.sbom.comparator.exceptions.SBomComparatorException;
+
+/**
+ * (U) This class contains the unit tests for the CompareDaemon and its DaemonClient. They are
+ * skipped on JVMs without Unix domain sockets.
+ *
+ * @author wrgoff
+ * @since 19 October 2026
+ */
+class CompareDaemonTest
+{
+	private static final String LOG4J_FILE = "CompareDaemonAppender.xml";
+
+	@Rule
+	public static Log4JTestWatcher watcher = new Log4JTestWatcher(LOG4J_FILE,
+			"CompareDaemonTest");
+
+	/**
+	 * (U) This method is used to test that a command line, and the client's directory, reach
+	 * the daemon intact, and that what it prints and its status reach the client.
+	 */
+	@Test
+	void testRunCommand()
+	{
+		String methodName = new Object()
+		{}.getClass().getEnclosingMethod().getName();
+
+		Date startDate = DateUtils.rightNowDate();
+
+		TestUtils.logTestStart(methodName, watcher.getLogger());
+
+		assumeUnixDomainSockets();
+		Path directory = null;
+		try
+		{
+			directory = Files.createTempDirectory("daemon");
+			Path socket = directory.resolve("daemon.sock");
+			
+			CompareDaemon.CommandRunner runner = (workingDirectory, arguments, out) -> {
+				if (arguments[0].equals("fail"))
+					throw new SBomComparatorException("Asked to fail.");
+				out.println(workingDirectory);
+				out.println(String.join("|", arguments));
+			};
+			
+			try (CompareDaemon daemon = new CompareDaemon(socket, 2, runner))
+			{
+				daemon.start();
+				
+				// Only open to this user, and bound without leaving anything else behind.
+				Assert.assertEquals("rw-------", PosixFilePermissions.toString(Files
+						.getPosixFilePermissions(socket)));
+				try (Stream<Path> files = Files.list(directory))
+				{
+					Assert.assertEquals(1, files.count());
+				}
+				
+				ByteArrayOutputStream answer = new ByteArrayOutputStream();
+				int status = DaemonClient.run(socket, "/work/dir", new String[]
+				{ "-f1", "old bom.xml", "", "-o", "\u00fcn\u00efcode" }, new PrintStream(answer, true,
+						"UTF-8"));
+				Assert.assertEquals(0, status);
+				Assert.assertEquals("/work/dir" + System.lineSeparator() +
+						"-f1|old bom.xml||-o|\u00fcn\u00efcode" + System.lineSeparator(), new String(
+								answer.toByteArray(), StandardCharsets.UTF_8));
+				
+				answer.reset();
+				status = DaemonClient.run(socket, "/work/dir", new String[]
+				{ "fail" }, new PrintStream(answer, true, "UTF-8"));
+				Assert.assertEquals(1, status);
+				Assert.assertTrue(new String(answer.toByteArray(), StandardCharsets.UTF_8)
+						.contains("Asked to fail."));
+				
+				try (CompareDaemon second = new CompareDaemon(socket, 1, runner))
+				{
+					Assert.fail("A second daemon should NOT be able to take a socket in use.");
+				}
+				catch (SBomComparatorException e)
+				{
+					watcher.getLogger().debug("Expected error: " + e.getMessage());
+				}
+			}
+			Assert.assertFalse(Files.exists(socket));
+		}
+		catch (Exception e)
+		{
+			String error = "Unexpected error occured while attempting to run a command on the " +
+					"daemon!";
+			watcher.getLogger().error(error, e);
+			Assert.fail(error);
+		}
+		finally
+		{
+			deleteDirectory(directory);
+			TestUtils.logTestFinish(methodName, startDate, watcher.getLogger());
+		}
+	}
+
+	/**
+	 * (U) This method is used to test that the SBoms and outputs named in a manifest, by
+	 * relative names, are read and written in the client's directory, not the daemon's.
+	 */
+	@Test
+	void testRelativeManifest()
+	{
+		String methodName = new Object()
+		{}.getClass().getEnclosingMethod().getName();
+
+		Date startDate = DateUtils.rightNowDate();
+
+		TestUtils.logTestStart(methodName, watcher.getLogger());
+
+		assumeUnixDomainSockets();
+		Path directory = null;
+		try
+		{
+			directory = Files.createTempDirectory("daemon");
+			Path socket = directory.resolve("daemon.sock");
+			Path client = Files.createDirectory(directory.resolve("client"));
+			Files.copy(Paths.get("test", "OrgSbom.xml"), client.resolve("OrgSbom.xml"));
+			Files.copy(Paths.get("test", "ModifiedSbom.xml"), client.resolve("ModifiedSbom.xml"));
+			Files.write(client.resolve("manifest.csv"), ("OrgSbom.xml,ModifiedSbom.xml," +
+					"results/diff\n").getBytes(StandardCharsets.UTF_8));
+			Files.createDirectory(client.resolve("results"));
+			
+			try (CompareDaemon daemon = new CompareDaemon(socket, 1,
+					SbomcomparatorApplication::runDaemonCommand))
+			{
+				daemon.start();
+				
+				ByteArrayOutputStream answer = new ByteArrayOutputStream();
+				int status = DaemonClient.run(socket, client.toString(), new String[]
+				{ "-m", "manifest.csv" }, new PrintStream(answer, true, "UTF-8"));
+				Assert.assertEquals(new String(answer.toByteArray(), StandardCharsets.UTF_8), 0,
+						status);
+			}
+			Assert.assertTrue(Files.exists(client.resolve("results").resolve("diff.xml")));
+			Assert.assertFalse(Files.exists(Paths.get("results")));
+		}
+		catch (Exception e)
+		{
+			String error = "Unexpected error occured while attempting to run a manifest on the " +
+					"daemon!";
+			watcher.getLogger().error(error, e);
+			Assert.fail(error);
+		}
+		finally
+		{
+			deleteDirectory(directory);
+			TestUtils.logTestFinish(methodName, startDate, watcher.getLogger());
+		}
+	}
+
+	/**
+	 * (U) This method is used to test that a socket file left behind by a daemon that died is
+	 * replaced.
+	 */
+	@Test
+	void testStaleSocket()
+	{
+		String methodName = new Object()
+		{}.getClass().getEnclosingMethod().getName();
+
+		Date startDate = DateUtils.rightNowDate();
+
+		TestUtils.logTestStart(methodName, watcher.getLogger());
+
+		assumeUnixDomainSockets();
+		Path directory = null;
+		try
+		{
+			directory = Files.createTempDirectory("daemon");
+			Path socket = directory.resolve("daemon.sock");
+			Files.createFile(socket);
+			
+			try (CompareDaemon daemon = new CompareDaemon(socket, 1, (workingDirectory,
+					arguments, out) -> out.print("ok\n")))
+			{
+				daemon.start();
+				ByteArrayOutputStream answer = new ByteArrayOutputStream();
+				Assert.assertEquals(0, DaemonClient.run(socket, "/", new String[0],
+						new PrintStream(answer, true, "UTF-8")));
+				Assert.assertEquals("ok\n", new String(answer.toByteArray(),
+						StandardCharsets.UTF_8));
+			}
+		}
+		catch (Exception e)
+		{
+			String error = "Unexpected error occured while attempting to replace a stale socket!";
+			watcher.getLogger().error(error, e);
+			Assert.fail(error);
+		}
+		finally
+		{
+			deleteDirectory(directory);
+			TestUtils.logTestFinish(methodName, startDate, watcher.getLogger());
+		}
+	}
+
+	/**
+	 * (U) This method is used to skip a test on JVMs without Unix domain sockets (before Java
+	 * 16).
+	 */
+	private void assumeUnixDomainSockets()
+	{
+		boolean available;
+		try
+		{
+			Class.forName("java.net.UnixDomainSocketAddress");
+			available = true;
+		}
+		catch (ClassNotFoundException e)
+		{
+			available = false;
+		}
+		Assumptions.assumeTrue(available, "Unix domain sockets need Java 16 or later.");
+	}
+
+	/**
+	 * (U) This method is used to delete a test directory.
+	 *
+	 * @param directory Path of the directory to delete, may be null.
+	 */
+	private void deleteDirectory(Path directory)
+	{
+		if (directory == null)
+			return;
+
+		try (Stream<Path> files = Files.walk(directory))
+		{
+			files.sorted(Comparator.reverseOrder()).forEach(file -> file.toFile().delete());
+		}
+		catch (Exception e)
+		{
+			watcher.getLogger().warn("Failed to cleanup the test directory (" + directory + ").");
+		}
+	}
+}
@@ -0,0 +1,778 @@
+/*
+ * Copyright (c) 2018,2019 Lockheed Martin Corporation.
+ *
+ * This work is owned by Lockheed Martin Corporation. Lockheed Martin personnel are permitted to use and
+ * modify this software.  Lockheed Martin personnel may also deliver this source code to any US Government
+ * customer Agency under a "US Government Purpose Rights" license.
+ *
+ * See the LICENSE file distributed with this work for licensing and distribution terms
+ */
+package com.lmco.efoss.sbom.comparator.server;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.lmco.efoss.sbom.commons.test.utils.Log4JTestWatcher;
+import com.lmco.efoss.sbom.commons.test.utils.TestUtils;
+import com.lmco.efoss.sbom.commons.utils.DateUtils;
+import com.lmco.efoss.sbom.comparator.dtos.AdmissionStats;
+import com.lmco.efoss.sbom.comparator.dtos.CacheStats;
+import com.lmco.efoss.sbom.comparator.dtos.CompareJobStatus;
+import com.lmco.efoss.sbom.comparator.dtos.SBomDiff;
+import com.lmco.efoss.sbom.comparator.dtos.ServerStats;
+import com.lmco.efoss.sbom.comparator.utils.ParsedBomCache;
+
+/**
+ * (U) This class contains the unit tests for the CompareServer, run against localhost.
+ *
+ * @author wrgoff
+ * @since 19 October 2026
+ */
+class CompareServerTest
+{
+	private static final String LOG4J_FILE = "CompareServerAppender.xml";
+	private static final String BOUNDARY = "sbom-comparator-test";
+
+	@Rule
+	public static Log4JTestWatcher watcher = new Log4JTestWatcher(LOG4J_FILE,
+			"CompareServerTest");
+
+	/**
+	 * (U) This method is used to test comparing two SBom files the server reads itself, named in
+	 * a JSon body.
+	 */
+	@Test
+	void testCompareFiles()
+	{
+		String methodName = new Object()
+		{}.getClass().getEnclosingMethod().getName();
+
+		Date startDate = DateUtils.rightNowDate();
+
+		TestUtils.logTestStart(methodName, watcher.getLogger());
+
+		try (CompareServer server = new CompareServer(CompareServer.DEFAULT_HOST, 0, 2))
+		{
+			server.start();
+
+			byte[] body = ("{\"orgSbom\": \"./test/OrgSbom.xml\", \"newSbom\": " +
+					"\"./test/ModifiedSbom.xml\"}").getBytes(StandardCharsets.UTF_8);
+			HttpURLConnection connection = post(server, "/compare/diff", "application/json",
+					body);
+			Assert.assertEquals(200, connection.getResponseCode());
+			Assert.assertEquals("application/json", connection.getContentType());
+
+			SBomDiff diff = new ObjectMapper().readValue(read(connection.getInputStream()),
+					SBomDiff.class);
+			Assert.assertEquals(73, diff.getComponentsAdded().size());
+			Assert.assertEquals(2, diff.getComponentsRemoved().size());
+			Assert.assertEquals(12, diff.getModifiedComponents().size());
+		}
+		catch (Exception e)
+		{
+			String error = "Unexpected error occured while attempting to compare SBom files " +
+					"over HTTP!";
+			watcher.getLogger().error(error, e);
+			Assert.fail(error);
+		}
+		finally
+		{
+			TestUtils.logTestFinish(methodName, startDate, watcher.getLogger());
+		}
+	}
+
+	/**
+	 * (U) This method is used to test comparing two SBoms uploaded in a multipart body, getting
+	 * the diff SBom and the HTML report back, the second from the parsed SBom cache.
+	 */
+	@Test
+	void testCompareUploads()
+	{
+		String methodName = new Object()
+		{}.getClass().getEnclosingMethod().getName();
+
+		Date startDate = DateUtils.rightNowDate();
+
+		TestUtils.logTestStart(methodName, watcher.getLogger());
+
+		try (CompareServer server = new CompareServer(CompareServer.DEFAULT_HOST, 0, 2))
+		{
+			server.start();
+			byte[] body = multipart("./test/OrgSbom.xml", "./test/ModifiedSbom.json");
+
+			HttpURLConnection connection = post(server, "/compare/bom?format=xml",
+					"multipart/form-data; boundary=" + BOUNDARY, body);
+			Assert.assertEquals(200, connection.getResponseCode());
+			String bom = new String(read(connection.getInputStream()), StandardCharsets.UTF_8);
+			Assert.assertTrue(bom.contains("<bom"));
+			Assert.assertTrue(bom.trim().endsWith("</bom>"));
+
+			connection = post(server, "/compare/html", "multipart/form-data; boundary=" +
+					BOUNDARY, body);
+			Assert.assertEquals(200, connection.getResponseCode());
+			Assert.assertTrue(connection.getContentType().startsWith("text/html"));
+			String html = new String(read(connection.getInputStream()), StandardCharsets.UTF_8);
+			Assert.assertTrue(html.contains("OrgSbom.xml"));
+			Assert.assertTrue(html.contains("ModifiedSbom.json"));
+
+			// The second compare was given the same SBoms, so they were not parsed again.
+			connection = (HttpURLConnection) new URL("http://" + CompareServer.DEFAULT_HOST +
+					":" + server.getPort() + "/stats").openConnection();
+			Assert.assertEquals(200, connection.getResponseCode());
+			CacheStats stats = new ObjectMapper().readValue(read(connection.getInputStream()),
+					ServerStats.class).getCache();
+			Assert.assertEquals(2, stats.getHits());
+			Assert.assertEquals(2, stats.getMisses());
+			Assert.assertEquals(2, stats.getEntries());
+		}
+		catch (Exception e)
+		{
+			String error = "Unexpected error occured while attempting to compare uploaded " +
+					"SBoms over HTTP!";
+			watcher.getLogger().error(error, e);
+			Assert.fail(error);
+		}
+		finally
+		{
+			TestUtils.logTestFinish(methodName, startDate, watcher.getLogger());
+		}
+	}
+
+	/**
+	 * (U) This method is used to test that SBoms uploaded in a chunked body are parsed while it is
+	 * still arriving: the original SBom is parsed, and cached, before the new one has been sent.
+	 */
+	@Test
+	void testStreamedUploads()
+	{
+		String methodName = new Object()
+		{}.getClass().getEnclosingMethod().getName();
+
+		Date startDate = DateUtils.rightNowDate();
+
+		TestUtils.logTestStart(methodName, watcher.getLogger());
+
+		try (CompareServer server = new CompareServer(CompareServer.DEFAULT_HOST, 0, 2))
+		{
+			server.start();
+			byte[] body = multipart("./test/OrgSbom.xml", "./test/ModifiedSbom.xml");
+			int split = new String(body, StandardCharsets.ISO_8859_1).indexOf("name=\"" +
+					CompareServer.NEW_SBOM + "\"") + 1024;
+
+			HttpURLConnection connection = (HttpURLConnection) new URL("http://127.0.0.1:" +
+					server.getPort() + "/compare/diff?format=ndjson").openConnection();
+			connection.setRequestMethod("POST");
+			connection.setDoOutput(true);
+			connection.setChunkedStreamingMode(8192);
+			connection.setRequestProperty("Content-Type", "multipart/form-data; boundary=" +
+					BOUNDARY);
+			try (OutputStream out = connection.getOutputStream())
+			{
+				out.write(body, 0, split);
+				out.flush();
+
+				// The original SBom is parsed while the rest of the new one is held back.
+				long deadline = System.currentTimeMillis() + 30000;
+				while ((server.getStats().getCache().getEntries() < 1) &&
+						(System.currentTimeMillis() < deadline))
+					Thread.sleep(20);
+				Assert.assertEquals(1, server.getStats().getCache().getEntries());
+
+				out.write(body, split, body.length - split);
+			}
+			Assert.assertEquals(200, connection.getResponseCode());
+			int lines = 0;
+			for (byte b : read(connection.getInputStream()))
+			{
+				if (b == '\n')
+					lines++;
+			}
+			Assert.assertEquals(87, lines);
+			Assert.assertEquals(2, server.getStats().getCache().getEntries());
+
+			// A body cut off before its closing delimiter is NOT complete.
+			connection = post(server, "/compare/diff", "multipart/form-data; boundary=" +
+					BOUNDARY, Arrays.copyOf(body, body.length - ("--" + BOUNDARY + "--\r\n")
+							.length()));
+			Assert.assertEquals(400, connection.getResponseCode());
+			Assert.assertTrue(new String(read(connection.getErrorStream()),
+					StandardCharsets.UTF_8).contains("NOT complete"));
+		}
+		catch (Exception e)
+		{
+			String error = "Unexpected error occured while attempting to compare SBoms as " +
+					"they are uploaded!";
+			watcher.getLogger().error(error, e);
+			Assert.fail(error);
+		}
+		finally
+		{
+			TestUtils.logTestFinish(methodName, startDate, watcher.getLogger());
+		}
+	}
+
+	/**
+	 * (U) This method is used to test that bad requests are answered with an error, and do not
+	 * stop the server.
+	 */
+	@Test
+	void testBadRequests()
+	{
+		String methodName = new Object()
+		{}.getClass().getEnclosingMethod().getName();
+
+		Date startDate = DateUtils.rightNowDate();
+
+		TestUtils.logTestStart(methodName, watcher.getLogger());
+
+		try (CompareServer server = new CompareServer(CompareServer.DEFAULT_HOST, 0, 2))
+		{
+			server.start();
+
+			byte[] missing = ("{\"orgSbom\": \"./test/NoSuchSbom.xml\", \"newSbom\": " +
+					"\"./test/ModifiedSbom.xml\"}").getBytes(StandardCharsets.UTF_8);
+			HttpURLConnection connection = post(server, "/compare/diff", "application/json",
+					missing);
+			Assert.assertEquals(400, connection.getResponseCode());
+			Assert.assertTrue(new String(read(connection.getErrorStream()),
+					StandardCharsets.UTF_8).contains("NoSuchSbom.xml"));
+
+			byte[] body = multipart("./test/OrgSbom.xml", "./test/ModifiedSbom.xml");
+			connection = post(server, "/compare/diff?format=yaml", "multipart/form-data; " +
+					"boundary=" + BOUNDARY, body);
+			Assert.assertEquals(400, connection.getResponseCode());
+
+			// Refused unread, so only a small body: a large one may be cut off as it is sent.
+			connection = post(server, "/compare/other", "multipart/form-data; boundary=" +
+					BOUNDARY, ("--" + BOUNDARY + "--\r\n").getBytes(StandardCharsets.UTF_8));
+			Assert.assertEquals(404, connection.getResponseCode());
+
+			connection = (HttpURLConnection) new URL("http://127.0.0.1:" + server.getPort() +
+					"/compare/diff").openConnection();
+			Assert.assertEquals(405, connection.getResponseCode());
+
+			connection = post(server, "/compare/diff", "multipart/form-data; boundary=" +
+					BOUNDARY, body);
+			Assert.assertEquals(200, connection.getResponseCode());
+		}
+		catch (Exception e)
+		{
+			String error = "Unexpected error occured while attempting to send bad requests!";
+			watcher.getLogger().error(error, e);
+			Assert.fail(error);
+		}
+		finally
+		{
+			TestUtils.logTestFinish(methodName, startDate, watcher.getLogger());
+		}
+	}
+
+	/**
+	 * (U) This method is used to test that named files are only read from under the file root,
+	 * and NOT at all by a server listening on other than a loopback address without one, and that
+	 * a refused file gets the same error as a missing one.
+	 */
+	@Test
+	void testNamedFiles()
+	{
+		String methodName = new Object()
+		{}.getClass().getEnclosingMethod().getName();
+
+		Date startDate = DateUtils.rightNowDate();
+
+		TestUtils.logTestStart(methodName, watcher.getLogger());
+
+		long cacheBytes = ParsedBomCache.DEFAULT_MAX_BYTES;
+		try (CompareServer server = new CompareServer(CompareServer.DEFAULT_HOST, 0, 2, false,
+				cacheBytes, AdmissionController.getDefaultBudget(cacheBytes), null, "./test"))
+		{
+			server.start();
+
+			byte[] named = ("{\"orgSbom\": \"OrgSbom.xml\", \"newSbom\": " +
+					"\"ModifiedSbom.xml\"}").getBytes(StandardCharsets.UTF_8);
+			HttpURLConnection connection = post(server, "/compare/diff", "application/json",
+					named);
+			Assert.assertEquals(200, connection.getResponseCode());
+			read(connection.getInputStream());
+
+			byte[] outside = ("{\"orgSbom\": \"../pom.xml\", \"newSbom\": " +
+					"\"ModifiedSbom.xml\"}").getBytes(StandardCharsets.UTF_8);
+			connection = post(server, "/compare/diff", "application/json", outside);
+			Assert.assertEquals(400, connection.getResponseCode());
+			String outsideError = new String(read(connection.getErrorStream()),
+					StandardCharsets.UTF_8);
+
+			byte[] missing = ("{\"orgSbom\": \"../NoSuchSbom.xml\", \"newSbom\": " +
+					"\"ModifiedSbom.xml\"}").getBytes(StandardCharsets.UTF_8);
+			connection = post(server, "/compare/diff", "application/json", missing);
+			Assert.assertEquals(400, connection.getResponseCode());
+			String missingError = new String(read(connection.getErrorStream()),
+					StandardCharsets.UTF_8);
+
+			Assert.assertEquals(missingError.replace("NoSuchSbom", "pom"), outsideError);
+		}
+		catch (Exception e)
+		{
+			String error = "Unexpected error occured while attempting to name files under a root!";
+			watcher.getLogger().error(error, e);
+			Assert.fail(error);
+		}
+
+		try (CompareServer server = new CompareServer("0.0.0.0", 0, 2))
+		{
+			server.start();
+
+			byte[] named = ("{\"orgSbom\": \"./test/OrgSbom.xml\", \"newSbom\": " +
+					"\"./test/ModifiedSbom.xml\"}").getBytes(StandardCharsets.UTF_8);
+			HttpURLConnection connection = post(server, "/compare/diff", "application/json",
+					named);
+			Assert.assertEquals(400, connection.getResponseCode());
+			Assert.assertTrue(new String(read(connection.getErrorStream()),
+					StandardCharsets.UTF_8).contains("does NOT read SBom files"));
+
+			connection = post(server, "/compare/diff", "multipart/form-data; boundary=" +
+					BOUNDARY, multipart("./test/OrgSbom.xml", "./test/ModifiedSbom.xml"));
+			Assert.assertEquals(200, connection.getResponseCode());
+		}
+		catch (Exception e)
+		{
+			String error = "Unexpected error occured while attempting to name files!";
+			watcher.getLogger().error(error, e);
+			Assert.fail(error);
+		}
+		finally
+		{
+			TestUtils.logTestFinish(methodName, startDate, watcher.getLogger());
+		}
+	}
+
+	/**
+	 * (U) This method is used to test that compares that could never fit the server's heap
+	 * budget are refused, whether the SBoms are uploaded or named.
+	 */
+	@Test
+	void testHeapBudget()
+	{
+		String methodName = new Object()
+		{}.getClass().getEnclosingMethod().getName();
+
+		Date startDate = DateUtils.rightNowDate();
+
+		TestUtils.logTestStart(methodName, watcher.getLogger());
+
+		// About 3 MB of SBoms, estimated to need about 24 MB.
+		try (CompareServer server = new CompareServer(CompareServer.DEFAULT_HOST, 0, 2, false,
+				0, 16L * 1024 * 1024))
+		{
+			server.start();
+
+			HttpURLConnection connection = post(server, "/compare/diff", "multipart/form-data; " +
+					"boundary=" + BOUNDARY, multipart("./test/OrgSbom.xml",
+							"./test/ModifiedSbom.xml"));
+			Assert.assertEquals(413, connection.getResponseCode());
+			Assert.assertTrue(new String(read(connection.getErrorStream()),
+					StandardCharsets.UTF_8).contains("too large"));
+
+			byte[] named = ("{\"orgSbom\": \"./test/OrgSbom.xml\", \"newSbom\": " +
+					"\"./test/ModifiedSbom.xml\"}").getBytes(StandardCharsets.UTF_8);
+			connection = post(server, "/compare/diff", "application/json", named);
+			Assert.assertEquals(413, connection.getResponseCode());
+
+			// Sent chunked, the first SBom fits and the new one is refused as it outgrows it.
+			connection = postChunked(server, multipart("./test/OrgSbom.xml",
+					"./test/ModifiedSbom.xml"));
+			Assert.assertEquals(413, connection.getResponseCode());
+
+			// The original SBom compared to itself fits.
+			named = ("{\"orgSbom\": \"./test/OrgSbom.xml\", \"newSbom\": " +
+					"\"./test/OrgSbom.xml\"}").getBytes(StandardCharsets.UTF_8);
+			connection = post(server, "/compare/diff", "application/json", named);
+			Assert.assertEquals(200, connection.getResponseCode());
+
+			connection = (HttpURLConnection) new URL("http://" + CompareServer.DEFAULT_HOST +
+					":" + server.getPort() + "/stats").openConnection();
+			ServerStats stats = new ObjectMapper().readValue(read(connection.getInputStream()),
+					ServerStats.class);
+			// The JSon body naming SBoms too large is admitted, then refused for the files.
+			Assert.assertEquals(3, stats.getAdmission().getAdmitted());
+			Assert.assertEquals(3, stats.getAdmission().getRejected());
+			Assert.assertEquals(0, stats.getAdmission().getInUse());
+		}
+		catch (Exception e)
+		{
+			String error = "Unexpected error occured while attempting to exceed the heap budget!";
+			watcher.getLogger().error(error, e);
+			Assert.fail(error);
+		}
+
+		// Room for 512 KB of SBoms, less than the first SBom alone.
+		try (CompareServer server = new CompareServer(CompareServer.DEFAULT_HOST, 0, 2, false,
+				0, 4L * 1024 * 1024))
+		{
+			server.start();
+
+			// Sent chunked, a first SBom that could never fit is refused as it arrives.
+			HttpURLConnection connection = postChunked(server, multipart("./test/OrgSbom.xml",
+					"./test/OrgSbom.xml"));
+			Assert.assertEquals(413, connection.getResponseCode());
+
+			AdmissionStats stats = server.getStats().getAdmission();
+			Assert.assertEquals(1, stats.getRejected());
+			Assert.assertEquals(0, stats.getInUse());
+		}
+		catch (Exception e)
+		{
+			String error = "Unexpected error occured while attempting to exceed the heap budget!";
+			watcher.getLogger().error(error, e);
+			Assert.fail(error);
+		}
+		finally
+		{
+			TestUtils.logTestFinish(methodName, startDate, watcher.getLogger());
+		}
+	}
+
+	/**
+	 * (U) This method is used to test that many requests at once, each on its own virtual thread
+	 * (or a worker thread, on JVMs without them), are all answered by a small compute pool, the
+	 * same compare running once for the requests that arrive while it runs.
+	 */
+	@Test
+	void testConcurrentRequests()
+	{
+		String methodName = new Object()
+		{}.getClass().getEnclosingMethod().getName();
+
+		Date startDate = DateUtils.rightNowDate();
+
+		TestUtils.logTestStart(methodName, watcher.getLogger());
+
+		ExecutorService clients = Executors.newFixedThreadPool(16);
+		try (CompareServer server = new CompareServer(CompareServer.DEFAULT_HOST, 0, 2, true))
+		{
+			server.start();
+			byte[] body = multipart("./test/OrgSbom.xml", "./test/ModifiedSbom.xml");
+
+			List<Future<Integer>> responses = new ArrayList<>();
+			for (int i = 0; i < 32; i++)
+			{
+				responses.add(clients.submit(() -> {
+					HttpURLConnection connection = post(server, "/compare/diff?format=ndjson",
+							"multipart/form-data; boundary=" + BOUNDARY, body);
+					int lines = 0;
+					for (byte b : read(connection.getInputStream()))
+					{
+						if (b == '\n')
+							lines++;
+					}
+					return lines;
+				}));
+			}
+
+			for (Future<Integer> response : responses)
+				Assert.assertEquals(Integer.valueOf(87), response.get());
+
+			// Every request either ran the compare or joined one already running.
+			RequestCoalescer<String, byte[]> compares = server.getCompares();
+			Assert.assertEquals(32, compares.getStarted() + compares.getCoalesced());
+			Assert.assertEquals(0, compares.getInFlight());
+		}
+		catch (Exception e)
+		{
+			String error = "Unexpected error occured while attempting to send many requests at " +
+					"once!";
+			watcher.getLogger().error(error, e);
+			Assert.fail(error);
+		}
+		finally
+		{
+			clients.shutdownNow();
+			TestUtils.logTestFinish(methodName, startDate, watcher.getLogger());
+		}
+	}
+
+	/**
+	 * (U) This method is used to test submitting a compare to run in the background, polling it
+	 * and fetching its outputs, that the same compare submitted again is not run again, and that
+	 * a job the server stopped before running is run when it starts again.
+	 */
+	@Test
+	void testJobs()
+	{
+		String methodName = new Object()
+		{}.getClass().getEnclosingMethod().getName();
+
+		Date startDate = DateUtils.rightNowDate();
+
+		TestUtils.logTestStart(methodName, watcher.getLogger());
+
+		Path directory = null;
+		try
+		{
+			directory = Files.createTempDirectory("jobs");
+			JobStore store = new JobStore(directory.toString(), 60000);
+			byte[] body = multipart("./test/OrgSbom.xml", "./test/ModifiedSbom.xml");
+			String id;
+			try (CompareServer server = new CompareServer(CompareServer.DEFAULT_HOST, 0, 2,
+					false, 0, Long.MAX_VALUE, store))
+			{
+				server.start();
+
+				HttpURLConnection connection = post(server, "/jobs?bomformat=xml",
+						"multipart/form-data; boundary=" + BOUNDARY, body);
+				Assert.assertEquals(202, connection.getResponseCode());
+				CompareJobStatus job = new ObjectMapper().readValue(read(connection
+						.getInputStream()), CompareJobStatus.class);
+				id = job.getId();
+				Assert.assertEquals("/jobs/" + id, connection.getHeaderField("Location"));
+
+				job = awaitJob(server, id);
+				Assert.assertEquals(CompareJobStatus.STATUS.DONE, job.getStatus());
+				Assert.assertEquals(73, job.getAdded());
+				Assert.assertEquals(2, job.getRemoved());
+				Assert.assertEquals(12, job.getModified());
+
+				connection = get(server, "/jobs/" + id + "/diff");
+				Assert.assertEquals(200, connection.getResponseCode());
+				SBomDiff diff = new ObjectMapper().readValue(read(connection.getInputStream()),
+						SBomDiff.class);
+				Assert.assertEquals(73, diff.getComponentsAdded().size());
+
+				connection = get(server, "/jobs/" + id + "/bom");
+				Assert.assertEquals("application/xml", connection.getContentType());
+				Assert.assertTrue(new String(read(connection.getInputStream()),
+						StandardCharsets.UTF_8).trim().endsWith("</bom>"));
+
+				connection = get(server, "/jobs/" + id + "/html");
+				Assert.assertTrue(new String(read(connection.getInputStream()),
+						StandardCharsets.UTF_8).contains("ModifiedSbom.xml"));
+
+				// Submitted again, the job done is handed back, and not run again.
+				connection = post(server, "/jobs?bomformat=xml", "multipart/form-data; " +
+						"boundary=" + BOUNDARY, body);
+				job = new ObjectMapper().readValue(read(connection.getInputStream()),
+						CompareJobStatus.class);
+				Assert.assertEquals(id, job.getId());
+				Assert.assertEquals(CompareJobStatus.STATUS.DONE, job.getStatus());
+				// Each request is admitted while it is read, and the job once, when it runs.
+				Assert.assertEquals(3, server.getStats().getAdmission().getAdmitted());
+
+				Assert.assertEquals(404, get(server, "/jobs/0123456789abcdef0123456789abcdef")
+						.getResponseCode());
+				Assert.assertEquals(404, get(server, "/jobs/" + id + "/other")
+						.getResponseCode());
+				Assert.assertEquals(400, post(server, "/jobs?format=yaml", "multipart/form-data; " +
+						"boundary=" + BOUNDARY, body).getResponseCode());
+			}
+
+			// A job queued when the server stopped runs when it starts again.
+			CompareJobStatus queued = store.create(new CompareJobStatus(
+					"00000000000000000000000000000001", "OrgSbom.xml", "OrgSbom.json"), Files
+							.readAllBytes(Paths.get("test", "OrgSbom.xml")), Files.readAllBytes(
+									Paths.get("test", "OrgSbom.json")));
+			Assert.assertEquals(CompareJobStatus.STATUS.QUEUED, queued.getStatus());
+			try (CompareServer server = new CompareServer(CompareServer.DEFAULT_HOST, 0, 2,
+					false, 0, Long.MAX_VALUE, store))
+			{
+				server.start();
+				Assert.assertEquals(CompareJobStatus.STATUS.DONE, awaitJob(server, queued.getId())
+						.getStatus());
+				Assert.assertEquals(200, get(server, "/jobs/" + id + "/diff").getResponseCode());
+			}
+		}
+		catch (Exception e)
+		{
+			String error = "Unexpected error occured while attempting to run compares in the " +
+					"background!";
+			watcher.getLogger().error(error, e);
+			Assert.fail(error);
+		}
+		finally
+		{
+			deleteDirectory(directory);
+			TestUtils.logTestFinish(methodName, startDate, watcher.getLogger());
+		}
+	}
+
+	/**
+	 * (U) This method is used to POST a multipart body to the server without a Content-Length.
+	 *
+	 * @param server CompareServer to send it to.
+	 * @param body   byte array holding the body.
+	 * @return HttpURLConnection of the request, its body sent, as far as the server read it.
+	 * @throws IOException in the event we are unable to connect.
+	 */
+	private HttpURLConnection postChunked(CompareServer server, byte[] body) throws IOException
+	{
+		HttpURLConnection connection = (HttpURLConnection) new URL("http://127.0.0.1:" + server
+				.getPort() + "/compare/diff").openConnection();
+		connection.setRequestMethod("POST");
+		connection.setDoOutput(true);
+		connection.setChunkedStreamingMode(8192);
+		connection.setRequestProperty("Content-Type", "multipart/form-data; boundary=" +
+				BOUNDARY);
+		try (OutputStream out = connection.getOutputStream())
+		{
+			out.write(body);
+		}
+		catch (IOException e)
+		{
+			// The server may stop reading once it refuses the upload.
+		}
+		return connection;
+	}
+
+	/**
+	 * (U) This method is used to poll a job until it is done or failed.
+	 *
+	 * @param server CompareServer running the job.
+	 * @param id     String id of the job.
+	 * @return CompareJobStatus the job, once finished.
+	 * @throws IOException          in the event we are unable to poll the job.
+	 * @throws InterruptedException in the event we are interrupted while waiting.
+	 */
+	private CompareJobStatus awaitJob(CompareServer server, String id)
+			throws IOException, InterruptedException
+	{
+		long deadline = System.currentTimeMillis() + 60000;
+		while (true)
+		{
+			CompareJobStatus job = new ObjectMapper().readValue(read(get(server, "/jobs/" + id)
+					.getInputStream()), CompareJobStatus.class);
+			if ((job.getStatus() == CompareJobStatus.STATUS.DONE) ||
+					(job.getStatus() == CompareJobStatus.STATUS.FAILED) ||
+					(System.currentTimeMillis() > deadline))
+				return job;
+			Thread.sleep(50);
+		}
+	}
+
+	/**
+	 * (U) This method is used to delete a test result directory.
+	 *
+	 * @param directory Path of the directory to delete, may be null.
+	 */
+	private void deleteDirectory(Path directory)
+	{
+		if (directory == null)
+			return;
+
+		try (Stream<Path> paths = Files.walk(directory))
+		{
+			paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+		}
+		catch (IOException e)
+		{
+			watcher.getLogger().warn("Failed to cleanup the test directory (" + directory + ").");
+		}
+	}
+
+	/**
+	 * (U) This method is used to GET a path from the server.
+	 *
+	 * @param server CompareServer to send to.
+	 * @param path   String path, and query, to GET.
+	 * @return HttpURLConnection of the request, sent.
+	 * @throws IOException in the event we are unable to send the request.
+	 */
+	private HttpURLConnection get(CompareServer server, String path) throws IOException
+	{
+		return (HttpURLConnection) new URL("http://" + CompareServer.DEFAULT_HOST + ":" +
+				server.getPort() + path).openConnection();
+	}
+
+	/**
+	 * (U) This method is used to build a multipart body holding two SBom files.
+	 *
+	 * @param orgSbom String name of the original SBom file.
+	 * @param newSbom String name of the new SBom file.
+	 * @return byte array holding the body.
+	 * @throws IOException in the event we are unable to read the files.
+	 */
+	private byte[] multipart(String orgSbom, String newSbom) throws IOException
+	{
+		ByteArrayOutputStream body = new ByteArrayOutputStream();
+		String[][] parts = new String[][]
+		{
+				{ CompareServer.ORG_SBOM, orgSbom },
+				{ CompareServer.NEW_SBOM, newSbom } };
+		for (String[] part : parts)
+		{
+			body.write(("--" + BOUNDARY + "\r\nContent-Disposition: form-data; name=\"" +
+					part[0] + "\"; filename=\"" + Paths.get(part[1]).getFileName() +
+					"\"\r\nContent-Type: application/octet-stream\r\n\r\n").getBytes(
+							StandardCharsets.UTF_8));
+			body.write(Files.readAllBytes(Paths.get(part[1])));
+			body.write("\r\n".getBytes(StandardCharsets.UTF_8));
+		}
+		body.write(("--" + BOUNDARY + "--\r\n").getBytes(StandardCharsets.UTF_8));
+		return body.toByteArray();
+	}
+
+	/**
+	 * (U) This method is used to POST a body to the server.
+	 *
+	 * @param server      CompareServer to POST to.
+	 * @param path        String path, and query, to POST to.
+	 * @param contentType String content type of the body.
+	 * @param body        byte array holding the body.
+	 * @return HttpURLConnection the connection, to read the response from.
+	 * @throws IOException in the event we are unable to send the body.
+	 */
+	private HttpURLConnection post(CompareServer server, String path, String contentType,
+			byte[] body) throws IOException
+	{
+		HttpURLConnection connection = (HttpURLConnection) new URL("http://127.0.0.1:" +
+				server.getPort() + path).openConnection();
+		connection.setRequestMethod("POST");
+		connection.setDoOutput(true);
+		connection.setRequestProperty("Content-Type", contentType);
+		try (OutputStream out = connection.getOutputStream())
+		{
+			out.write(body);
+		}
+		return connection;
+	}
+
+	/**
+	 * (U) This method is used to read a response body.
+	 *
+	 * @param in InputStream of the body.
+	 * @return byte array holding the body.
+	 * @throws IOException in the event we are unable to read the body.
+	 */
+	private byte[] read(InputStream in) throws IOException
+	{
+		try (InputStream body = in)
+		{
+			ByteArrayOutputStream out = new ByteArrayOutputStream();
+			byte[] buffer = new byte[8192];
+			int read;
+			while ((read = body.read(buffer)) >= 0)
+				out.write(buffer, 0, read);
+			return out.toByteArray();
+		}
+	}
+}
@@ -0,0 +1,205 @@
+/*
+ * Copyright (c) 2018,2019 Lockheed Martin Corporation.
+ *
+ * This work is owned by Lockheed Martin Corporation. Lockheed Martin personnel are permitted to use and
+ * modify this software.  Lockheed Martin personnel may also deliver this source code to any US Government
+ * customer Agency under a "US Government Purpose Rights" license.
+ *
+ * See the LICENSE file distributed with this work for licensing and distribution terms
+ */
+package com.lmco.efoss.sbom.comparator.server;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.jupiter.api.Test;
+
+import com.lmco.efoss.sbom.commons.test.utils.Log4JTestWatcher;
+import com.lmco.efoss.sbom.commons.test.utils.TestUtils;
+import com.lmco.efoss.sbom.commons.utils.DateUtils;
+import com.lmco.efoss.sbom.comparator.dtos.CompareJobStatus;
+import com.lmco.efoss.sbom.comparator.exceptions.SBomComparatorException;
+
+/**
+ * (U) This class contains the unit tests for the JobStore.
+ *
+ * @author wrgoff
+ * @since 19 October 2026
+ */
+class JobStoreTest
+{
+	private static final String LOG4J_FILE = "JobStoreAppender.xml";
+	private static final String ID = "0123456789abcdef0123456789abcdef";
+
+	@Rule
+	public static Log4JTestWatcher watcher = new Log4JTestWatcher(LOG4J_FILE, "JobStoreTest");
+
+	/**
+	 * (U) This method is used to test that a job is only added once until it fails, that its
+	 * outputs are only in place once it is done, and that finished jobs are cleaned up once
+	 * they are past the retention time.
+	 */
+	@Test
+	void testLifecycle()
+	{
+		String methodName = new Object()
+		{}.getClass().getEnclosingMethod().getName();
+
+		Date startDate = DateUtils.rightNowDate();
+
+		TestUtils.logTestStart(methodName, watcher.getLogger());
+
+		Path directory = null;
+		try
+		{
+			directory = Files.createTempDirectory("jobs");
+			JobStore store = new JobStore(directory.toString(), 0);
+			byte[] sbom = "<bom/>".getBytes(StandardCharsets.UTF_8);
+
+			CompareJobStatus job = new CompareJobStatus(ID, "a.xml", "b.xml");
+			Assert.assertSame(job, store.create(job, sbom, sbom));
+			CompareJobStatus again = store.create(new CompareJobStatus(ID, "a.xml", "b.xml"),
+					sbom, sbom);
+			Assert.assertEquals(CompareJobStatus.STATUS.QUEUED, again.getStatus());
+			Assert.assertEquals(job.getSubmitted(), again.getSubmitted());
+			Assert.assertEquals(1, store.getUnfinished().size());
+
+			// Unfinished jobs are never cleaned up.
+			Assert.assertEquals(0, store.cleanUp());
+
+			store.fail(job, "bad SBom");
+			Assert.assertEquals("bad SBom", store.get(ID).getError());
+			Assert.assertTrue(store.getUnfinished().isEmpty());
+
+			// A failed job is replaced.
+			job = new CompareJobStatus(ID, "a.xml", "b.xml");
+			Assert.assertSame(job, store.create(job, sbom, sbom));
+			Map<CompareService.OUTPUT, OutputStream> results = store.openResults(ID);
+			for (Map.Entry<CompareService.OUTPUT, OutputStream> result : results.entrySet())
+			{
+				result.getValue().write(result.getKey().toString().getBytes(
+						StandardCharsets.UTF_8));
+				result.getValue().close();
+			}
+			Assert.assertFalse(Files.exists(store.getResult(ID, CompareService.OUTPUT.DIFF)));
+			store.finish(job);
+			Assert.assertEquals(CompareJobStatus.STATUS.DONE, store.get(ID).getStatus());
+			Assert.assertEquals("HTML", new String(Files.readAllBytes(store.getResult(ID,
+					CompareService.OUTPUT.HTML)), StandardCharsets.UTF_8));
+			Assert.assertFalse(Files.exists(store.getSbom(ID, JobStore.ORG_SBOM_FILE)));
+
+			Assert.assertNull(store.get("../" + ID));
+			Assert.assertNull(store.get("0123456789ABCDEF0123456789ABCDEF"));
+
+			// Nothing but the jobs' own directories is cleaned up.
+			Path notes = Files.write(directory.resolve("important-notes.txt"), sbom);
+			Path other = Files.createDirectories(directory.resolve(ID.replace('0', 'f'))
+					.resolve("kept"));
+			Thread.sleep(5);
+			Assert.assertEquals(1, store.cleanUp());
+			Assert.assertNull(store.get(ID));
+			Assert.assertTrue(Files.exists(notes));
+			Assert.assertTrue(Files.exists(other));
+		}
+		catch (Exception e)
+		{
+			String error = "Unexpected error occured while attempting to store jobs!";
+			watcher.getLogger().error(error, e);
+			Assert.fail(error);
+		}
+		finally
+		{
+			deleteDirectory(directory);
+			TestUtils.logTestFinish(methodName, startDate, watcher.getLogger());
+		}
+	}
+
+	/**
+	 * (U) This method is used to test that a job stopped after its SBoms were deleted, but before
+	 * it was saved as done, is failed rather than left running forever, and that a negative
+	 * retention is refused.
+	 */
+	@Test
+	void testLostSboms()
+	{
+		String methodName = new Object()
+		{}.getClass().getEnclosingMethod().getName();
+
+		Date startDate = DateUtils.rightNowDate();
+
+		TestUtils.logTestStart(methodName, watcher.getLogger());
+
+		Path directory = null;
+		try
+		{
+			directory = Files.createTempDirectory("jobs");
+			JobStore store = new JobStore(directory.toString(), 0);
+			byte[] sbom = "<bom/>".getBytes(StandardCharsets.UTF_8);
+
+			CompareJobStatus job = new CompareJobStatus(ID, "a.xml", "b.xml");
+			store.create(job, sbom, sbom);
+			job.setStatus(CompareJobStatus.STATUS.RUNNING);
+			store.save(job);
+			Files.delete(store.getSbom(ID, JobStore.NEW_SBOM_FILE));
+
+			Assert.assertTrue(store.getUnfinished().isEmpty());
+			Assert.assertEquals(CompareJobStatus.STATUS.FAILED, store.get(ID).getStatus());
+			Assert.assertFalse(Files.exists(store.getSbom(ID, JobStore.ORG_SBOM_FILE)));
+
+			// Failed, the same compare submitted again is run again.
+			job = new CompareJobStatus(ID, "a.xml", "b.xml");
+			Assert.assertSame(job, store.create(job, sbom, sbom));
+			Assert.assertEquals(1, store.getUnfinished().size());
+
+			try
+			{
+				new JobStore(directory.toString(), -1);
+				Assert.fail("A negative retention was accepted!");
+			}
+			catch (SBomComparatorException e)
+			{
+				Assert.assertTrue(e.getMessage().contains("negative"));
+			}
+		}
+		catch (Exception e)
+		{
+			String error = "Unexpected error occured while attempting to recover lost jobs!";
+			watcher.getLogger().error(error, e);
+			Assert.fail(error);
+		}
+		finally
+		{
+			deleteDirectory(directory);
+			TestUtils.logTestFinish(methodName, startDate, watcher.getLogger());
+		}
+	}
+
+	/**
+	 * (U) This method is used to delete a test result directory.
+	 *
+	 * @param directory Path of the directory to delete, may be null.
+	 */
+	private void deleteDirectory(Path directory)
+	{
+		if (directory == null)
+			return;
+
+		try (Stream<Path> paths = Files.walk(directory))
+		{
+			paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+		}
+		catch (IOException e)
+		{
+			watcher.getLogger().warn("Failed to cleanup the test directory (" + directory + ").");
+		}
+	}
+}
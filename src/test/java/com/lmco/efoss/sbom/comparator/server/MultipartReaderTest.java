@@ -0,0 +1,173 @@
+/*
+ * Copyright (c) 2018,2019 Lockheed Martin Corporation.
+ *
+ * This work is owned by Lockheed Martin Corporation. Lockheed Martin personnel are permitted to use and
+ * modify this software.  Lockheed Martin personnel may also deliver this source code to any US Government
+ * customer Agency under a "US Government Purpose Rights" license.
+ *
+ * See the LICENSE file distributed with this work for licensing and distribution terms
+ */
+package com.lmco.efoss.sbom.comparator.server;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.jupiter.api.Test;
+
+import com.lmco.efoss.sbom.commons.test.utils.Log4JTestWatcher;
+import com.lmco.efoss.sbom.commons.test.utils.TestUtils;
+import com.lmco.efoss.sbom.commons.utils.DateUtils;
+import com.lmco.efoss.sbom.comparator.exceptions.SBomComparatorException;
+
+/**
+ * (U) This class contains the unit tests for the MultipartReader.
+ *
+ * @author wrgoff
+ * @since 19 October 2026
+ */
+class MultipartReaderTest
+{
+	private static final String LOG4J_FILE = "MultipartReaderAppender.xml";
+	private static final String CONTENT_TYPE = "multipart/form-data; boundary=\"xyz\"";
+	private static final String BODY = "preamble\r\n" +
+			"--xyz\r\nContent-Disposition: form-data; name=\"orgSbom\"; filename=\"a.xml\"\r\n" +
+			"Content-Type: application/xml\r\n\r\n<bom>\r\n--xy</bom>\r\n" +
+			"--xyz\r\nContent-Disposition: form-data; name=\"mode\"\r\n\r\ncss\r\n" +
+			"--xyz--\r\n";
+
+	@Rule
+	public static Log4JTestWatcher watcher = new Log4JTestWatcher(LOG4J_FILE,
+			"MultipartReaderTest");
+
+	/**
+	 * (U) This class hands out a body a few bytes at a time, as a slow client sends it, so parts
+	 * and delimiters are split across reads.
+	 */
+	private static class TrickleInputStream extends ByteArrayInputStream
+	{
+		private final int step;
+
+		TrickleInputStream(byte[] body, int step)
+		{
+			super(body);
+			this.step = step;
+		}
+
+		@Override
+		public synchronized int read(byte[] b, int off, int len)
+		{
+			return super.read(b, off, Math.min(len, step));
+		}
+	}
+
+	/**
+	 * (U) This method is used to test that the parts are read the same however the body arrives.
+	 */
+	@Test
+	void testParts()
+	{
+		String methodName = new Object()
+		{}.getClass().getEnclosingMethod().getName();
+
+		Date startDate = DateUtils.rightNowDate();
+
+		TestUtils.logTestStart(methodName, watcher.getLogger());
+
+		try
+		{
+			byte[] body = BODY.getBytes(StandardCharsets.UTF_8);
+			for (int step : new int[] { 1, 2, 7, body.length })
+			{
+				MultipartReader reader = new MultipartReader(new TrickleInputStream(body, step),
+						CONTENT_TYPE);
+				MultipartReader.Part part = reader.next();
+				Assert.assertEquals("orgSbom", part.getName());
+				Assert.assertEquals("a.xml", part.getFileName());
+				Assert.assertEquals("<bom>\r\n--xy</bom>", read(part));
+				Assert.assertEquals(17, part.getSize());
+
+				// The rest of a part NOT read is skipped.
+				part = reader.next();
+				Assert.assertEquals("mode", part.getName());
+				Assert.assertNull(part.getFileName());
+				Assert.assertEquals('c', part.read());
+
+				Assert.assertNull(reader.next());
+				Assert.assertNull(reader.next());
+			}
+		}
+		catch (Exception e)
+		{
+			String error = "Unexpected error occured while attempting to read multipart bodies!";
+			watcher.getLogger().error(error, e);
+			Assert.fail(error);
+		}
+		finally
+		{
+			TestUtils.logTestFinish(methodName, startDate, watcher.getLogger());
+		}
+	}
+
+	/**
+	 * (U) This method is used to test that a body cut off before its closing delimiter is
+	 * refused.
+	 */
+	@Test
+	void testIncomplete()
+	{
+		String methodName = new Object()
+		{}.getClass().getEnclosingMethod().getName();
+
+		Date startDate = DateUtils.rightNowDate();
+
+		TestUtils.logTestStart(methodName, watcher.getLogger());
+
+		try
+		{
+			byte[] body = BODY.substring(0, BODY.indexOf("--xyz\r\nContent-Disposition: " +
+					"form-data; name=\"mode\"") - 4).getBytes(StandardCharsets.UTF_8);
+			MultipartReader reader = new MultipartReader(new TrickleInputStream(body, 3),
+					CONTENT_TYPE);
+			Assert.assertEquals("<bom>\r\n--xy</bo", read(reader.next()));
+			reader.next();
+			Assert.fail("An incomplete body was read!");
+		}
+		catch (SBomComparatorException e)
+		{
+			Assert.assertTrue(e.getMessage().contains("NOT complete"));
+		}
+		catch (Exception e)
+		{
+			String error = "Unexpected error occured while attempting to read an incomplete " +
+					"multipart body!";
+			watcher.getLogger().error(error, e);
+			Assert.fail(error);
+		}
+		finally
+		{
+			TestUtils.logTestFinish(methodName, startDate, watcher.getLogger());
+		}
+	}
+
+	/**
+	 * (U) This method is used to read the rest of a part.
+	 *
+	 * @param part InputStream of the part.
+	 * @return String the rest of the part.
+	 * @throws Exception in the event we are unable to read the part.
+	 */
+	private String read(InputStream part) throws Exception
+	{
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		byte[] buffer = new byte[5];
+		int read;
+		while ((read = part.read(buffer)) >= 0)
+			out.write(buffer, 0, read);
+		return new String(out.toByteArray(), StandardCharsets.UTF_8);
+	}
+}
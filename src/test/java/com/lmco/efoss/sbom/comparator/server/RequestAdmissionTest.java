@@ -0,0 +1,100 @@
+/*
+ * Copyright (c) 2018,2019 Lockheed Martin Corporation.
+ *
+ * This work is owned by Lockheed Martin Corporation. Lockheed Martin personnel are permitted to use and
+ * modify this software.  Lockheed Martin personnel may also deliver this source code to any US Government
+ * customer Agency under a "US Government Purpose Rights" license.
+ *
+ * See the LICENSE file distributed with this work for licensing and distribution terms
+ */
+package com.lmco.efoss.sbom.comparator.server;
+
+import java.io.ByteArrayInputStream;
+import java.util.Date;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.jupiter.api.Test;
+
+import com.lmco.efoss.sbom.commons.test.utils.Log4JTestWatcher;
+import com.lmco.efoss.sbom.commons.test.utils.TestUtils;
+import com.lmco.efoss.sbom.commons.utils.DateUtils;
+import com.lmco.efoss.sbom.comparator.exceptions.SBomAdmissionException;
+
+/**
+ * (U) This class contains the unit tests for the RequestAdmission.
+ *
+ * @author wrgoff
+ * @since 19 October 2026
+ */
+class RequestAdmissionTest
+{
+	private static final String LOG4J_FILE = "RequestAdmissionAppender.xml";
+
+	@Rule
+	public static Log4JTestWatcher watcher = new Log4JTestWatcher(LOG4J_FILE,
+			"RequestAdmissionTest");
+
+	/**
+	 * (U) This method is used to test that a request is admitted for what it reads, counted once,
+	 * that a stream that outgrows the budget is refused once it could never fit, and that all of
+	 * the room is given back when the request is closed.
+	 */
+	@Test
+	void testRead()
+	{
+		String methodName = new Object()
+		{}.getClass().getEnclosingMethod().getName();
+
+		Date startDate = DateUtils.rightNowDate();
+
+		TestUtils.logTestStart(methodName, watcher.getLogger());
+
+		try
+		{
+			// Room for 4 MB of SBoms.
+			AdmissionController admission = new AdmissionController(AdmissionController
+					.estimate(4L * 1024 * 1024), 10000);
+
+			try (RequestAdmission request = new RequestAdmission(admission))
+			{
+				request.admit(100);
+				Assert.assertEquals(100, request.getAdmitted());
+
+				byte[] read = request.read(new ByteArrayInputStream(new byte[300 * 1024]), 100);
+				Assert.assertEquals(300 * 1024, read.length);
+				Assert.assertTrue(request.getAdmitted() >= 100 + read.length);
+
+				request.admit(3L * 1024 * 1024);
+				Assert.assertEquals(3L * 1024 * 1024, request.getAdmitted());
+				Assert.assertEquals(AdmissionController.estimate(3L * 1024 * 1024), admission
+						.getStats().getInUse());
+			}
+			Assert.assertEquals(0, admission.getStats().getInUse());
+
+			try (RequestAdmission request = new RequestAdmission(admission))
+			{
+				request.read(new ByteArrayInputStream(new byte[5 * 1024 * 1024]), 0);
+				Assert.fail("A stream larger than the budget was read!");
+			}
+			catch (SBomAdmissionException e)
+			{
+				Assert.assertFalse(e.isRetryable());
+			}
+			Assert.assertEquals(0, admission.getStats().getInUse());
+
+			Assert.assertEquals(2, admission.getStats().getAdmitted());
+			Assert.assertEquals(1, admission.getStats().getRejected());
+		}
+		catch (Exception e)
+		{
+			String error = "Unexpected error occured while attempting to admit requests!";
+			watcher.getLogger().error(error, e);
+			Assert.fail(error);
+		}
+		finally
+		{
+			TestUtils.logTestFinish(methodName, startDate, watcher.getLogger());
+		}
+	}
+}
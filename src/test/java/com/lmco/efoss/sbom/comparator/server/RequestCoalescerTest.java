@@ -0,0 +1,95 @@
+/*
+ * Copyright (c) 2018,2019 Lockheed Martin Corporation.
+ *
+ * This work is owned by Lockheed Martin Corporation. Lockheed Martin personnel are permitted to use and
+ * modify this software.  Lockheed Martin personnel may also deliver this source code to any US Government
+ * customer Agency under a "US Government Purpose Rights" license.
+ *
+ * See the LICENSE file distributed with this work for licensing and distribution terms
+ */
+package com.lmco.efoss.sbom.comparator.server;
+
+import java.util.Date;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.jupiter.api.Test;
+
+import com.lmco.efoss.sbom.commons.test.utils.Log4JTestWatcher;
+import com.lmco.efoss.sbom.commons.test.utils.TestUtils;
+import com.lmco.efoss.sbom.commons.utils.DateUtils;
+
+/**
+ * (U) This class contains the unit tests for the RequestCoalescer.
+ *
+ * @author wrgoff
+ * @since 19 October 2026
+ */
+class RequestCoalescerTest
+{
+	private static final String LOG4J_FILE = "RequestCoalescerAppender.xml";
+
+	@Rule
+	public static Log4JTestWatcher watcher = new Log4JTestWatcher(LOG4J_FILE,
+			"RequestCoalescerTest");
+
+	/**
+	 * (U) This method is used to test that callers asking for a key while its task runs share
+	 * it, that other keys run on their own, and that a key is run again once its task is done.
+	 */
+	@Test
+	void testSubmit()
+	{
+		String methodName = new Object()
+		{}.getClass().getEnclosingMethod().getName();
+
+		Date startDate = DateUtils.rightNowDate();
+
+		TestUtils.logTestStart(methodName, watcher.getLogger());
+
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+		try
+		{
+			RequestCoalescer<String, Integer> coalescer = new RequestCoalescer<>();
+			CountDownLatch release = new CountDownLatch(1);
+			AtomicInteger runs = new AtomicInteger();
+
+			Future<Integer> first = coalescer.submit("a", executor, () -> {
+				release.await();
+				return runs.incrementAndGet();
+			});
+			Future<Integer> second = coalescer.submit("a", executor, () -> runs.addAndGet(100));
+			Future<Integer> other = coalescer.submit("b", executor, () -> -1);
+
+			Assert.assertSame(first, second);
+			Assert.assertEquals(Integer.valueOf(-1), other.get());
+			release.countDown();
+			Assert.assertEquals(Integer.valueOf(1), first.get());
+			Assert.assertEquals(Integer.valueOf(1), second.get());
+			Assert.assertEquals(2, coalescer.getStarted());
+			Assert.assertEquals(1, coalescer.getCoalesced());
+
+			// Once done, the same key runs again.
+			Future<Integer> again = coalescer.submit("a", executor, () -> runs.incrementAndGet());
+			Assert.assertNotSame(first, again);
+			Assert.assertEquals(Integer.valueOf(2), again.get());
+			Assert.assertEquals(0, coalescer.getInFlight());
+		}
+		catch (Exception e)
+		{
+			String error = "Unexpected error occured while attempting to coalesce requests!";
+			watcher.getLogger().error(error, e);
+			Assert.fail(error);
+		}
+		finally
+		{
+			executor.shutdownNow();
+			TestUtils.logTestFinish(methodName, startDate, watcher.getLogger());
+		}
+	}
+}
@@ -0,0 +1,122 @@
+/*
+ * Copyright (c) 2018,2019 Lockheed Martin Corporation.
+ *
+ * This work is owned by Lockheed Martin Corporation. Lockheed Martin personnel are permitted to use and
+ * modify this software.  Lockheed Martin personnel may also deliver this source code to any US Government
+ * customer Agency under a "US Government Purpose Rights" license.
+ *
+ * See the LICENSE file distributed with this work for licensing and distribution terms
+ */
+package com.lmco.efoss.sbom.comparator.server;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.jupiter.api.Test;
+
+import com.lmco.efoss.sbom.commons.test.utils.Log4JTestWatcher;
+import com.lmco.efoss.sbom.commons.test.utils.TestUtils;
+import com.lmco.efoss.sbom.commons.utils.DateUtils;
+
+/**
+ * (U) This class contains the unit tests for the UploadPipe.
+ *
+ * @author wrgoff
+ * @since 19 October 2026
+ */
+class UploadPipeTest
+{
+	private static final String LOG4J_FILE = "UploadPipeAppender.xml";
+
+	@Rule
+	public static Log4JTestWatcher watcher = new Log4JTestWatcher(LOG4J_FILE, "UploadPipeTest");
+
+	/**
+	 * (U) This method is used to test that the bytes written are read, in order, by another
+	 * thread, that an aborted upload is read as an error, and that writes are dropped once the
+	 * reader closes the pipe.
+	 */
+	@Test
+	void testPipe()
+	{
+		String methodName = new Object()
+		{}.getClass().getEnclosingMethod().getName();
+
+		Date startDate = DateUtils.rightNowDate();
+
+		TestUtils.logTestStart(methodName, watcher.getLogger());
+
+		ExecutorService reader = Executors.newSingleThreadExecutor();
+		try
+		{
+			// More chunks than the pipe holds, so the writer waits on the reader.
+			UploadPipe pipe = new UploadPipe(2);
+			Future<String> read = reader.submit(() -> readAll(pipe));
+			StringBuilder expected = new StringBuilder();
+			for (int i = 0; i < 100; i++)
+			{
+				byte[] chunk = ("chunk " + i + "\n").getBytes(StandardCharsets.UTF_8);
+				Assert.assertTrue(pipe.write(chunk, 0, chunk.length));
+				expected.append("chunk ").append(i).append('\n');
+			}
+			pipe.end();
+			Assert.assertEquals(expected.toString(), read.get());
+
+			UploadPipe aborted = new UploadPipe(2);
+			Future<String> failed = reader.submit(() -> readAll(aborted));
+			aborted.write(new byte[] { 'a' }, 0, 1);
+			aborted.abort();
+			try
+			{
+				failed.get();
+				Assert.fail("An aborted upload should NOT be read to its end!");
+			}
+			catch (ExecutionException e)
+			{
+				Assert.assertTrue(e.getCause() instanceof IOException);
+			}
+
+			UploadPipe closed = new UploadPipe(1);
+			closed.close();
+			Assert.assertFalse(closed.write(new byte[] { 'a' }, 0, 1));
+			Assert.assertFalse(closed.write(new byte[] { 'b' }, 0, 1));
+			Assert.assertEquals(-1, closed.read());
+		}
+		catch (Exception e)
+		{
+			String error = "Unexpected error occured while attempting to pipe an upload!";
+			watcher.getLogger().error(error, e);
+			Assert.fail(error);
+		}
+		finally
+		{
+			reader.shutdownNow();
+			TestUtils.logTestFinish(methodName, startDate, watcher.getLogger());
+		}
+	}
+
+	/**
+	 * (U) This method is used to read the pipe to its end.
+	 *
+	 * @param pipe UploadPipe to read.
+	 * @return String the bytes read.
+	 * @throws IOException in the event the upload was aborted.
+	 */
+	private static String readAll(UploadPipe pipe) throws IOException
+	{
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		byte[] buffer = new byte[5];
+		int count;
+		while ((count = pipe.read(buffer)) >= 0)
+			out.write(buffer, 0, count);
+		return new String(out.toByteArray(), StandardCharsets.UTF_8);
+	}
+}
@@ -0,0 +1,165 @@
+/*
+ * Copyright (c) 2018,2019 Lockheed Martin Corporation.
+ *
+ * This work is owned by Lockheed Martin Corporation. Lockheed Martin personnel are permitted to use and
+ * modify this software.  Lockheed Martin personnel may also deliver this source code to any US Government
+ * customer Agency under a "US Government Purpose Rights" license.
+ *
+ * See the LICENSE file distributed with this work for licensing and distribution terms
+ */
+package com.lmco.efoss.sbom.comparator.utils;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Date;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.jupiter.api.Test;
+
+import com.lmco.efoss.sbom.commons.test.utils.Log4JTestWatcher;
+import com.lmco.efoss.sbom.commons.test.utils.TestUtils;
+import com.lmco.efoss.sbom.commons.utils.DateUtils;
+import com.lmco.efoss.sbom.comparator.dtos.CompareJob;
+import com.lmco.efoss.sbom.comparator.exceptions.SBomComparatorException;
+
+/**
+ * (U) This class contains the unit tests for the CompareManifest.
+ *
+ * @author wrgoff
+ * @since 19 October 2026
+ */
+class CompareManifestTest
+{
+	private static final String LOG4J_FILE = "CompareManifestAppender.xml";
+
+	@Rule
+	public static Log4JTestWatcher watcher = new Log4JTestWatcher(LOG4J_FILE,
+			"CompareManifestTest");
+
+	/**
+	 * (U) This method is used to test reading a CSV manifest, with a heading, comments, blank
+	 * lines and a compare without an output.
+	 */
+	@Test
+	void testReadCsv()
+	{
+		String methodName = new Object()
+		{}.getClass().getEnclosingMethod().getName();
+
+		Date startDate = DateUtils.rightNowDate();
+
+		TestUtils.logTestStart(methodName, watcher.getLogger());
+
+		Path manifest = null;
+		try
+		{
+			manifest = Files.createTempFile("manifest", ".csv");
+			Files.write(manifest, ("orgSbom,newSbom,output\n# nightly\n" +
+					"a/bom.xml, b/bom.xml ,out/ab\r\n\nb/bom.xml,c/bom.xml\n").getBytes(
+							StandardCharsets.UTF_8));
+
+			List<CompareJob> jobs = CompareManifest.read(manifest.toString());
+			Assert.assertEquals(2, jobs.size());
+			Assert.assertEquals("a/bom.xml", jobs.get(0).getOrgSbom());
+			Assert.assertEquals("b/bom.xml", jobs.get(0).getNewSbom());
+			Assert.assertEquals("out/ab", jobs.get(0).getOutput());
+			Assert.assertEquals("c/bom.xml", jobs.get(1).getNewSbom());
+			Assert.assertNull(jobs.get(1).getOutput());
+
+			Files.write(manifest, "a/bom.xml\n".getBytes(StandardCharsets.UTF_8));
+			try
+			{
+				CompareManifest.read(manifest.toString());
+				Assert.fail("A line with one SBom should NOT be read.");
+			}
+			catch (SBomComparatorException e)
+			{
+				Assert.assertTrue(e.getMessage(), e.getMessage().startsWith("Line 1 "));
+			}
+		}
+		catch (Exception e)
+		{
+			String error = "Unexpected error occured while attempting to read a CSV manifest!";
+			watcher.getLogger().error(error, e);
+			Assert.fail(error);
+		}
+		finally
+		{
+			deleteFile(manifest);
+			TestUtils.logTestFinish(methodName, startDate, watcher.getLogger());
+		}
+	}
+
+	/**
+	 * (U) This method is used to test reading a JSon manifest.
+	 */
+	@Test
+	void testReadJson()
+	{
+		String methodName = new Object()
+		{}.getClass().getEnclosingMethod().getName();
+
+		Date startDate = DateUtils.rightNowDate();
+
+		TestUtils.logTestStart(methodName, watcher.getLogger());
+
+		Path manifest = null;
+		try
+		{
+			manifest = Files.createTempFile("manifest", ".json");
+			Files.write(manifest, ("[{\"orgSbom\":\"a/bom.xml\",\"newSbom\":\"b/bom.json\"," +
+					"\"output\":\"out/ab\"},{\"orgSbom\":\"b/bom.json\",\"newSbom\":" +
+					"\"c/bom.json\",\"output\":\" \"}]").getBytes(StandardCharsets.UTF_8));
+
+			List<CompareJob> jobs = CompareManifest.read(manifest.toString());
+			Assert.assertEquals(2, jobs.size());
+			Assert.assertEquals("b/bom.json", jobs.get(0).getNewSbom());
+			Assert.assertEquals("out/ab", jobs.get(0).getOutput());
+			Assert.assertNull(jobs.get(1).getOutput());
+
+			Files.write(manifest, "[{\"orgSbom\":\"a/bom.xml\"}]".getBytes(
+					StandardCharsets.UTF_8));
+			try
+			{
+				CompareManifest.read(manifest.toString());
+				Assert.fail("A compare without a new SBom should NOT be read.");
+			}
+			catch (SBomComparatorException e)
+			{
+				Assert.assertTrue(e.getMessage(), e.getMessage().startsWith("Compare 1 "));
+			}
+		}
+		catch (Exception e)
+		{
+			String error = "Unexpected error occured while attempting to read a JSon manifest!";
+			watcher.getLogger().error(error, e);
+			Assert.fail(error);
+		}
+		finally
+		{
+			deleteFile(manifest);
+			TestUtils.logTestFinish(methodName, startDate, watcher.getLogger());
+		}
+	}
+
+	/**
+	 * (U) This method is used to delete a test manifest.
+	 *
+	 * @param file Path of the manifest to delete, may be null.
+	 */
+	private void deleteFile(Path file)
+	{
+		try
+		{
+			if (file != null)
+				Files.deleteIfExists(file);
+		}
+		catch (Exception e)
+		{
+			watcher.getLogger().warn("Failed to cleanup the test manifest (" + file + ").");
+		}
+	}
+}
@@ -0,0 +1,403 @@
+/*
+ * Copyright (c) 2018,2019 Lockheed Martin Corporation.
+ *
+ * This work is owned by Lockheed Martin Corporation. Lockheed Martin personnel are permitted to use and
+ * modify this software.  Lockheed Martin personnel may also deliver this source code to any US Government
+ * customer Agency under a "US Government Purpose Rights" license.
+ *
+ * See the LICENSE file distributed with this work for licensing and distribution terms
+ */
+package com.lmco.efoss.sbom.comparator.utils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+
+import org.cyclonedx.model.Bom;
+import org.cyclonedx.model.Component;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.jupiter.api.Test;
+
+import com.lmco.efoss.sbom.commons.test.utils.Log4JTestWatcher;
+import com.lmco.efoss.sbom.commons.test.utils.TestUtils;
+import com.lmco.efoss.sbom.commons.utils.DateUtils;
+import com.lmco.efoss.sbom.comparator.dtos.CorpusMatch;
+
+/**
+ * (U) This class contains the unit tests for the CorpusIndex.
+ *
+ * @author wrgoff
+ * @since 19 October 2026
+ */
+class CorpusIndexTest
+{
+	private static final String LOG4J_FILE = "CorpusIndexAppender.xml";
+	private static final String COMPONENT =
+			"org.springframework.boot:spring-boot-starter-security";
+
+	@Rule
+	public static Log4JTestWatcher watcher = new Log4JTestWatcher(LOG4J_FILE, "CorpusIndexTest");
+
+	/**
+	 * (U) This method is used to test that the SBoms holding a component, at any or one version,
+	 * are found once indexed, and that changed and deleted SBoms are no longer returned for what
+	 * they used to hold.
+	 */
+	@Test
+	void testQuery()
+	{
+		String methodName = new Object()
+		{}.getClass().getEnclosingMethod().getName();
+
+		Date startDate = DateUtils.rightNowDate();
+
+		TestUtils.logTestStart(methodName, watcher.getLogger());
+
+		Path directory = null;
+		try
+		{
+			directory = Files.createTempDirectory("corpus");
+			TestUtils testUtils = new TestUtils();
+			Bom original = testUtils.readSbomFile("OrgSbom.xml", watcher.getLogger());
+			Bom modified = testUtils.readSbomFile("ModifiedSbom.xml", watcher.getLogger());
+
+			Path first = directory.resolve("first.xml");
+			Path second = directory.resolve("second.xml");
+			CorpusIndex index = new CorpusIndex(directory.resolve("index").toString());
+			index.add(first, 10, 1, original);
+			index.add(second, 20, 2, modified);
+			index.flush();
+
+			// Reopen, so the query is answered from the files.
+			CorpusIndex reopened = new CorpusIndex(directory.resolve("index").toString());
+			Assert.assertEquals(2, reopened.size());
+			Assert.assertTrue(reopened.isCurrent(first, 10, 1));
+			Assert.assertFalse(reopened.isCurrent(first, 10, 3));
+
+			List<CorpusMatch> matches = reopened.query(COMPONENT, null);
+			Assert.assertEquals(2, matches.size());
+			Assert.assertEquals(CorpusIndex.toIndexPath(first), matches.get(0).getSbom());
+			Assert.assertEquals("2.2.6.RELEASE", matches.get(0).getVersion());
+			Assert.assertEquals("2.2.7.RELEASE", matches.get(1).getVersion());
+
+			matches = reopened.query(COMPONENT, "2.2.7.RELEASE");
+			Assert.assertEquals(1, matches.size());
+			Assert.assertEquals(CorpusIndex.toIndexPath(second), matches.get(0).getSbom());
+			Assert.assertTrue(reopened.query("no.such:component", null).isEmpty());
+
+			// The first SBom changes to the modified one, and the second is deleted.
+			reopened.add(first, 20, 4, modified);
+			reopened.remove(CorpusIndex.toIndexPath(second));
+			reopened.flush();
+
+			reopened = new CorpusIndex(directory.resolve("index").toString());
+			Assert.assertEquals(1, reopened.size());
+			Assert.assertTrue(reopened.query(COMPONENT, "2.2.6.RELEASE").isEmpty());
+			matches = reopened.query(COMPONENT, null);
+			Assert.assertEquals(1, matches.size());
+			Assert.assertEquals(CorpusIndex.toIndexPath(first), matches.get(0).getSbom());
+			Assert.assertEquals("2.2.7.RELEASE", matches.get(0).getVersion());
+		}
+		catch (Exception e)
+		{
+			String error = "Unexpected error occured while attempting to query the corpus index!";
+			watcher.getLogger().error(error, e);
+			Assert.fail(error);
+		}
+		finally
+		{
+			deleteDirectory(directory);
+			TestUtils.logTestFinish(methodName, startDate, watcher.getLogger());
+		}
+	}
+
+	/**
+	 * (U) This method is used to test that the postings of an update that failed part way, after
+	 * writing its postings but before writing its SBoms, are never returned, and that their id
+	 * is not reused.
+	 */
+	@Test
+	void testUnfinishedUpdate()
+	{
+		String methodName = new Object()
+		{}.getClass().getEnclosingMethod().getName();
+
+		Date startDate = DateUtils.rightNowDate();
+
+		TestUtils.logTestStart(methodName, watcher.getLogger());
+
+		Path directory = null;
+		try
+		{
+			directory = Files.createTempDirectory("corpus");
+			TestUtils testUtils = new TestUtils();
+			Bom original = testUtils.readSbomFile("OrgSbom.xml", watcher.getLogger());
+
+			CorpusIndex index = new CorpusIndex(directory.toString());
+			index.add(directory.resolve("first.xml"), 10, 1, original);
+			index.flush();
+
+			// An update that reserved id 2 and wrote its postings, then died.
+			Files.write(directory.resolve(CorpusIndex.NEXT_ID_FILE), "3".getBytes(
+					StandardCharsets.UTF_8));
+			try (Stream<Path> shards = Files.list(directory))
+			{
+				for (Path shard : (Iterable<Path>) shards::iterator)
+				{
+					if (shard.getFileName().toString().startsWith("postings-"))
+						Files.write(shard, (COMPONENT + "\t9.9.9\t2\n").getBytes(
+								StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+				}
+			}
+
+			CorpusIndex reopened = new CorpusIndex(directory.toString());
+			Assert.assertTrue(reopened.query(COMPONENT, "9.9.9").isEmpty());
+
+			reopened.add(directory.resolve("second.xml"), 10, 1, original);
+			reopened.flush();
+			Assert.assertTrue(reopened.query(COMPONENT, "9.9.9").isEmpty());
+			Assert.assertEquals(2, reopened.query(COMPONENT, null).size());
+		}
+		catch (Exception e)
+		{
+			String error = "Unexpected error occured while attempting to skip an unfinished " +
+					"update!";
+			watcher.getLogger().error(error, e);
+			Assert.fail(error);
+		}
+		finally
+		{
+			deleteDirectory(directory);
+			TestUtils.logTestFinish(methodName, startDate, watcher.getLogger());
+		}
+	}
+
+	/**
+	 * (U) This method is used to test that a component with no group and one with an empty group
+	 * are different components, as they are in a compare.
+	 */
+	@Test
+	void testEmptyGroup()
+	{
+		String methodName = new Object()
+		{}.getClass().getEnclosingMethod().getName();
+
+		Date startDate = DateUtils.rightNowDate();
+
+		TestUtils.logTestStart(methodName, watcher.getLogger());
+
+		Path directory = null;
+		try
+		{
+			directory = Files.createTempDirectory("corpus");
+			Bom noGroup = new Bom();
+			noGroup.setComponents(new ArrayList<>(Arrays.asList(newComponent(null, "1.0"))));
+			Bom emptyGroup = new Bom();
+			emptyGroup.setComponents(new ArrayList<>(Arrays.asList(newComponent("", "2.0"))));
+
+			Path first = directory.resolve("first.xml");
+			Path second = directory.resolve("second.xml");
+			CorpusIndex index = new CorpusIndex(directory.resolve("index").toString());
+			index.add(first, 10, 1, noGroup);
+			index.add(second, 20, 2, emptyGroup);
+			index.flush();
+
+			List<CorpusMatch> matches = index.query("widget", null);
+			Assert.assertEquals(1, matches.size());
+			Assert.assertEquals(CorpusIndex.toIndexPath(first), matches.get(0).getSbom());
+			Assert.assertEquals("1.0", matches.get(0).getVersion());
+
+			matches = index.query(":widget", null);
+			Assert.assertEquals(1, matches.size());
+			Assert.assertEquals(CorpusIndex.toIndexPath(second), matches.get(0).getSbom());
+			Assert.assertEquals("2.0", matches.get(0).getVersion());
+		}
+		catch (Exception e)
+		{
+			String error = "Unexpected error occured while attempting to query components with " +
+					"no group!";
+			watcher.getLogger().error(error, e);
+			Assert.fail(error);
+		}
+		finally
+		{
+			deleteDirectory(directory);
+			TestUtils.logTestFinish(methodName, startDate, watcher.getLogger());
+		}
+	}
+
+	/**
+	 * (U) This method is used to test that two indexes open on the same directory, as two runs
+	 * or two daemon clients would have, hand out different ids, so each SBom is returned for
+	 * what it holds, even when they write at the same time.
+	 */
+	@Test
+	void testConcurrentUpdates()
+	{
+		String methodName = new Object()
+		{}.getClass().getEnclosingMethod().getName();
+
+		Date startDate = DateUtils.rightNowDate();
+
+		TestUtils.logTestStart(methodName, watcher.getLogger());
+
+		Path directory = null;
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+		try
+		{
+			directory = Files.createTempDirectory("corpus");
+			TestUtils testUtils = new TestUtils();
+			Bom original = testUtils.readSbomFile("OrgSbom.xml", watcher.getLogger());
+			Bom modified = testUtils.readSbomFile("ModifiedSbom.xml", watcher.getLogger());
+
+			Path first = directory.resolve("first.xml");
+			Path second = directory.resolve("second.xml");
+			CorpusIndex one = new CorpusIndex(directory.resolve("index").toString());
+			CorpusIndex two = new CorpusIndex(directory.resolve("index").toString());
+			one.add(first, 10, 1, original);
+			two.add(second, 20, 2, modified);
+			Future<?> flushed = executor.submit(() -> {
+				one.flush();
+				return null;
+			});
+			two.flush();
+			flushed.get();
+
+			CorpusIndex reopened = new CorpusIndex(directory.resolve("index").toString());
+			Assert.assertEquals(2, reopened.size());
+			List<CorpusMatch> matches = reopened.query(COMPONENT, "2.2.6.RELEASE");
+			Assert.assertEquals(1, matches.size());
+			Assert.assertEquals(CorpusIndex.toIndexPath(first), matches.get(0).getSbom());
+			matches = reopened.query(COMPONENT, "2.2.7.RELEASE");
+			Assert.assertEquals(1, matches.size());
+			Assert.assertEquals(CorpusIndex.toIndexPath(second), matches.get(0).getSbom());
+
+			// Each index sees what the other wrote.
+			Assert.assertEquals(2, one.query(COMPONENT, null).size());
+		}
+		catch (Exception e)
+		{
+			String error = "Unexpected error occured while attempting to update the corpus " +
+					"index from two indexes!";
+			watcher.getLogger().error(error, e);
+			Assert.fail(error);
+		}
+		finally
+		{
+			executor.shutdownNow();
+			deleteDirectory(directory);
+			TestUtils.logTestFinish(methodName, startDate, watcher.getLogger());
+		}
+	}
+
+	/**
+	 * (U) This method is used to test that the partly written last lines an update that died left
+	 * behind are cut off by the next update, rather than joined to its first lines.
+	 */
+	@Test
+	void testTornTail()
+	{
+		String methodName = new Object()
+		{}.getClass().getEnclosingMethod().getName();
+
+		Date startDate = DateUtils.rightNowDate();
+
+		TestUtils.logTestStart(methodName, watcher.getLogger());
+
+		Path directory = null;
+		try
+		{
+			directory = Files.createTempDirectory("corpus");
+			TestUtils testUtils = new TestUtils();
+			Bom original = testUtils.readSbomFile("OrgSbom.xml", watcher.getLogger());
+
+			CorpusIndex index = new CorpusIndex(directory.toString());
+			index.add(directory.resolve("first.xml"), 10, 1, original);
+			index.flush();
+
+			// An update that died part way through a line of each file.
+			try (Stream<Path> files = Files.list(directory))
+			{
+				for (Path file : (Iterable<Path>) files::iterator)
+				{
+					String name = file.getFileName().toString();
+					if (name.startsWith("postings-"))
+						Files.write(file, (COMPONENT + "\t9.").getBytes(StandardCharsets.UTF_8),
+								StandardOpenOption.APPEND);
+					else if (name.equals(CorpusIndex.BOMS_FILE))
+						Files.write(file, "{\"id\":2,\"pa".getBytes(StandardCharsets.UTF_8),
+								StandardOpenOption.APPEND);
+				}
+			}
+
+			CorpusIndex reopened = new CorpusIndex(directory.toString());
+			Assert.assertEquals(1, reopened.size());
+			reopened.add(directory.resolve("second.xml"), 10, 1, original);
+			reopened.flush();
+
+			reopened = new CorpusIndex(directory.toString());
+			Assert.assertEquals(2, reopened.size());
+			Assert.assertEquals(2, reopened.query(COMPONENT, "2.2.6.RELEASE").size());
+		}
+		catch (Exception e)
+		{
+			String error = "Unexpected error occured while attempting to update after a torn " +
+					"line!";
+			watcher.getLogger().error(error, e);
+			Assert.fail(error);
+		}
+		finally
+		{
+			deleteDirectory(directory);
+			TestUtils.logTestFinish(methodName, startDate, watcher.getLogger());
+		}
+	}
+
+	/**
+	 * (U) This method is used to create a "widget" component.
+	 *
+	 * @param group   String group of the component, may be null.
+	 * @param version String version of the component.
+	 * @return Component the component.
+	 */
+	private Component newComponent(String group, String version)
+	{
+		Component component = new Component();
+		component.setGroup(group);
+		component.setName("widget");
+		component.setVersion(version);
+		return component;
+	}
+
+	/**
+	 * (U) This method is used to delete a test corpus.
+	 *
+	 * @param directory Path of the corpus to delete, may be null.
+	 */
+	private void deleteDirectory(Path directory)
+	{
+		if (directory == null)
+			return;
+
+		try (Stream<Path> paths = Files.walk(directory))
+		{
+			paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+		}
+		catch (IOException e)
+		{
+			watcher.getLogger().warn("Failed to cleanup the test corpus (" + directory + ").");
+		}
+	}
+}
@@ -0,0 +1,355 @@
+/*
+ * Copyright (c) 2018,2019 Lockheed Martin Corporation.
+ *
+ * This work is owned by Lockheed Martin Corporation. Lockheed Martin personnel are permitted to use and
+ * modify this software.  Lockheed Martin personnel may also deliver this source code to any US Government
+ * customer Agency under a "US Government Purpose Rights" license.
+ *
+ * See the LICENSE file distributed with this work for licensing and distribution terms
+ */
+package com.lmco.efoss.sbom.comparator.utils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.jupiter.api.Test;
+
+import com.lmco.efoss.sbom.commons.test.utils.Log4JTestWatcher;
+import com.lmco.efoss.sbom.commons.test.utils.TestUtils;
+import com.lmco.efoss.sbom.commons.utils.DateUtils;
+import com.lmco.efoss.sbom.comparator.dtos.ComponentKey;
+import com.lmco.efoss.sbom.comparator.dtos.HistoryBuild;
+import com.lmco.efoss.sbom.comparator.dtos.HistoryEntry;
+import com.lmco.efoss.sbom.comparator.dtos.IndexedBom;
+import com.lmco.efoss.sbom.comparator.dtos.ModifiedComponent;
+import com.lmco.efoss.sbom.comparator.dtos.SBomDiff;
+
+/**
+ * (U) This class contains the unit tests for the DiffHistoryStore.
+ *
+ * @author wrgoff
+ * @since 19 October 2026
+ */
+class DiffHistoryStoreTest
+{
+	private static final String LOG4J_FILE = "DiffHistoryStoreAppender.xml";
+
+	@Rule
+	public static Log4JTestWatcher watcher = new Log4JTestWatcher(LOG4J_FILE,
+			"DiffHistoryStoreTest");
+
+	/**
+	 * (U) This method is used to test that the changes of a component can be found, across
+	 * every compare or only the last few, once the compares are recorded.
+	 */
+	@Test
+	void testQuery()
+	{
+		String methodName = new Object()
+		{}.getClass().getEnclosingMethod().getName();
+
+		Date startDate = DateUtils.rightNowDate();
+
+		TestUtils.logTestStart(methodName, watcher.getLogger());
+
+		Path directory = null;
+		try
+		{
+			directory = Files.createTempDirectory("history");
+			TestUtils testUtils = new TestUtils();
+
+			IndexedBom original = new IndexedBom("OrgSbom.xml", testUtils.readSbomFile(
+					"OrgSbom.xml", watcher.getLogger()));
+			IndexedBom modified = new IndexedBom("ModifiedSbom.xml", testUtils.readSbomFile(
+					"ModifiedSbom.xml", watcher.getLogger()));
+
+			DiffHistoryStore store = new DiffHistoryStore(directory.toString());
+			record(store, original, modified);
+			record(store, modified, original);
+			record(store, original, modified);
+
+			SBomDiffCollector collector = new SBomDiffCollector();
+			SBomCompareUtils.compareComponents(original, modified, collector);
+			SBomDiff diff = collector.getDiff();
+			ModifiedComponent change = diff.getModifiedComponents().get(0);
+			String component = ComponentKey.of(change.getPreviousComponent().getComponent())
+					.toString();
+
+			// Reopen, so the query is answered from the files.
+			DiffHistoryStore reopened = new DiffHistoryStore(directory.toString());
+			Assert.assertEquals(3, reopened.getBuilds("test").size());
+			Assert.assertTrue(reopened.getBuilds("other").isEmpty());
+
+			List<HistoryEntry> changes = reopened.query("test", component, 0);
+			Assert.assertEquals(3, changes.size());
+			Assert.assertEquals(1, changes.get(0).getSequence());
+			Assert.assertEquals("modified", changes.get(0).getChange());
+			Assert.assertEquals(change.getPreviousComponent().getComponent().getVersion(),
+					changes.get(0).getPreviousVersion());
+			Assert.assertEquals(change.getNewComponent().getComponent().getVersion(),
+					changes.get(0).getNewVersion());
+			Assert.assertEquals(change.getNewComponent().getComponent().getVersion(),
+					changes.get(1).getPreviousVersion());
+
+			changes = reopened.query("test", component, 2);
+			Assert.assertEquals(2, changes.size());
+			Assert.assertEquals(2, changes.get(0).getSequence());
+
+			Assert.assertTrue(reopened.query("other", component, 0).isEmpty());
+			Assert.assertTrue(reopened.query(null, "no.such:component", 0).isEmpty());
+		}
+		catch (Exception e)
+		{
+			String error = "Unexpected error occured while attempting to query the diff " +
+					"history!";
+			watcher.getLogger().error(error, e);
+			Assert.fail(error);
+		}
+		finally
+		{
+			deleteDirectory(directory);
+			TestUtils.logTestFinish(methodName, startDate, watcher.getLogger());
+		}
+	}
+
+	/**
+	 * (U) This method is used to test that the changes of a compare that failed part way, after
+	 * writing its changes but before writing its build, are never returned, and that its
+	 * sequence is not reused.
+	 */
+	@Test
+	void testUnfinishedCompare()
+	{
+		String methodName = new Object()
+		{}.getClass().getEnclosingMethod().getName();
+
+		Date startDate = DateUtils.rightNowDate();
+
+		TestUtils.logTestStart(methodName, watcher.getLogger());
+
+		Path directory = null;
+		try
+		{
+			directory = Files.createTempDirectory("history");
+			TestUtils testUtils = new TestUtils();
+
+			IndexedBom original = new IndexedBom("OrgSbom.xml", testUtils.readSbomFile(
+					"OrgSbom.xml", watcher.getLogger()));
+			IndexedBom modified = new IndexedBom("ModifiedSbom.xml", testUtils.readSbomFile(
+					"ModifiedSbom.xml", watcher.getLogger()));
+
+			DiffHistoryStore store = new DiffHistoryStore(directory.toString());
+			record(store, original, modified);
+
+			// A compare that wrote its changes and index, then died.
+			List<String> index = Files.readAllLines(directory.resolve(
+					DiffHistoryStore.INDEX_FILE), StandardCharsets.UTF_8);
+			String component = index.get(0).split("\t", 4)[3];
+			String orphan = "2\t0\t10\t" + component + "\n";
+			Files.write(directory.resolve(DiffHistoryStore.INDEX_FILE), orphan.getBytes(
+					StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+
+			DiffHistoryStore reopened = new DiffHistoryStore(directory.toString());
+			Assert.assertEquals(1, reopened.query(null, component, 0).size());
+
+			HistoryBuild build = record(reopened, modified, original);
+			Assert.assertEquals(3, build.getSequence());
+			Assert.assertEquals(2, reopened.query(null, component, 0).size());
+		}
+		catch (Exception e)
+		{
+			String error = "Unexpected error occured while attempting to skip an unfinished " +
+					"compare!";
+			watcher.getLogger().error(error, e);
+			Assert.fail(error);
+		}
+		finally
+		{
+			deleteDirectory(directory);
+			TestUtils.logTestFinish(methodName, startDate, watcher.getLogger());
+		}
+	}
+
+	/**
+	 * (U) This method is used to test that the partly written last lines a compare that died
+	 * left behind are cut off by the next compare, rather than joined to its first lines.
+	 */
+	@Test
+	void testTornTail()
+	{
+		String methodName = new Object()
+		{}.getClass().getEnclosingMethod().getName();
+
+		Date startDate = DateUtils.rightNowDate();
+
+		TestUtils.logTestStart(methodName, watcher.getLogger());
+
+		Path directory = null;
+		try
+		{
+			directory = Files.createTempDirectory("history");
+			TestUtils testUtils = new TestUtils();
+
+			IndexedBom original = new IndexedBom("OrgSbom.xml", testUtils.readSbomFile(
+					"OrgSbom.xml", watcher.getLogger()));
+			IndexedBom modified = new IndexedBom("ModifiedSbom.xml", testUtils.readSbomFile(
+					"ModifiedSbom.xml", watcher.getLogger()));
+
+			DiffHistoryStore store = new DiffHistoryStore(directory.toString());
+			record(store, original, modified);
+
+			// A compare that died part way through a line of each file.
+			List<String> index = Files.readAllLines(directory.resolve(
+					DiffHistoryStore.INDEX_FILE), StandardCharsets.UTF_8);
+			String component = index.get(0).split("\t", 4)[3];
+			Files.write(directory.resolve(DiffHistoryStore.CHANGES_FILE), "{\"seq".getBytes(
+					StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+			Files.write(directory.resolve(DiffHistoryStore.INDEX_FILE), "2\t12".getBytes(
+					StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+			Files.write(directory.resolve(DiffHistoryStore.BUILDS_FILE), "{\"prod".getBytes(
+					StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+
+			DiffHistoryStore reopened = new DiffHistoryStore(directory.toString());
+			Assert.assertEquals(1, reopened.query(null, component, 0).size());
+
+			HistoryBuild build = record(reopened, modified, original);
+			Assert.assertEquals(2, build.getSequence());
+			Assert.assertEquals(2, reopened.query(null, component, 0).size());
+
+			reopened = new DiffHistoryStore(directory.toString());
+			Assert.assertEquals(2, reopened.getBuilds(null).size());
+			Assert.assertEquals(2, reopened.query(null, component, 0).size());
+		}
+		catch (Exception e)
+		{
+			String error = "Unexpected error occured while attempting to append after a torn " +
+					"line!";
+			watcher.getLogger().error(error, e);
+			Assert.fail(error);
+		}
+		finally
+		{
+			deleteDirectory(directory);
+			TestUtils.logTestFinish(methodName, startDate, watcher.getLogger());
+		}
+	}
+
+	/**
+	 * (U) This method is used to test that two histories open on the same directory in one JVM,
+	 * as two daemon clients would have, record at the same time without failing, and without
+	 * sharing a sequence.
+	 */
+	@Test
+	void testConcurrentAppends()
+	{
+		String methodName = new Object()
+		{}.getClass().getEnclosingMethod().getName();
+
+		Date startDate = DateUtils.rightNowDate();
+
+		TestUtils.logTestStart(methodName, watcher.getLogger());
+
+		Path directory = null;
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try
+		{
+			directory = Files.createTempDirectory("history");
+			TestUtils testUtils = new TestUtils();
+
+			IndexedBom original = new IndexedBom("OrgSbom.xml", testUtils.readSbomFile(
+					"OrgSbom.xml", watcher.getLogger()));
+			IndexedBom modified = new IndexedBom("ModifiedSbom.xml", testUtils.readSbomFile(
+					"ModifiedSbom.xml", watcher.getLogger()));
+
+			DiffHistoryStore one = new DiffHistoryStore(directory.toString());
+			DiffHistoryStore two = new DiffHistoryStore(directory.toString());
+			CountDownLatch start = new CountDownLatch(1);
+			List<Future<HistoryBuild>> builds = new ArrayList<>();
+			for (int i = 0; i < 8; i++)
+			{
+				DiffHistoryStore.Recorder recorder = (((i % 2) == 0) ? one : two).newRecorder(
+						"test", modified.getName() + i, original.getName());
+				SBomCompareUtils.compareComponents(original, modified, recorder);
+				builds.add(executor.submit(() -> {
+					start.await();
+					return recorder.commit();
+				}));
+			}
+			start.countDown();
+			
+			Set<Long> sequences = new HashSet<>();
+			for (Future<HistoryBuild> build : builds)
+				sequences.add(build.get().getSequence());
+			Assert.assertEquals(8, sequences.size());
+			Assert.assertEquals(8, new DiffHistoryStore(directory.toString()).getBuilds(null)
+					.size());
+		}
+		catch (Exception e)
+		{
+			String error = "Unexpected error occured while attempting to record from two " +
+					"histories at once!";
+			watcher.getLogger().error(error, e);
+			Assert.fail(error);
+		}
+		finally
+		{
+			executor.shutdownNow();
+			deleteDirectory(directory);
+			TestUtils.logTestFinish(methodName, startDate, watcher.getLogger());
+		}
+	}
+
+	/**
+	 * (U) This method is used to delete a test history.
+	 *
+	 * @param directory Path of the history to delete, may be null.
+	 */
+	private void deleteDirectory(Path directory)
+	{
+		if (directory == null)
+			return;
+
+		try (Stream<Path> paths = Files.walk(directory))
+		{
+			paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+		}
+		catch (IOException e)
+		{
+			watcher.getLogger().warn("Failed to cleanup the test history (" + directory + ").");
+		}
+	}
+
+	/**
+	 * (U) This method is used to compare two SBoms and record the compare in the history.
+	 *
+	 * @param store    DiffHistoryStore to record in.
+	 * @param original IndexedBom the original SBom.
+	 * @param newBom   IndexedBom the new SBom.
+	 * @return HistoryBuild the compare, as recorded.
+	 * @throws Exception in the event the compare or record fails.
+	 */
+	private HistoryBuild record(DiffHistoryStore store, IndexedBom original, IndexedBom newBom)
+			throws Exception
+	{
+		DiffHistoryStore.Recorder recorder = store.newRecorder("test", newBom.getName(),
+				original.getName());
+		SBomCompareUtils.compareComponents(original, newBom, recorder);
+		return recorder.commit();
+	}
+}
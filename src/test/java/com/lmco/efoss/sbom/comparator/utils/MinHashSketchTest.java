@@ -0,0 +1,133 @@
+/*
+ * Copyright (c) 2018,2019 Lockheed Martin Corporation.
+ *
+ * This work is owned by Lockheed Martin Corporation. Lockheed Martin personnel are permitted to use and
+ * modify this software.  Lockheed Martin personnel may also deliver this source code to any US Government
+ * customer Agency under a "US Government Purpose Rights" license.
+ *
+ * See the LICENSE file distributed with this work for licensing and distribution terms
+ */
+package com.lmco.efoss.sbom.comparator.utils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.jupiter.api.Test;
+
+import com.lmco.efoss.sbom.commons.test.utils.Log4JTestWatcher;
+import com.lmco.efoss.sbom.commons.test.utils.TestUtils;
+import com.lmco.efoss.sbom.commons.utils.DateUtils;
+import com.lmco.efoss.sbom.comparator.dtos.ComponentKey;
+
+/**
+ * (U) This class contains the unit tests for the MinHashSketch.
+ *
+ * @author wrgoff
+ * @since 19 October 2026
+ */
+class MinHashSketchTest
+{
+	private static final String LOG4J_FILE = "MinHashSketchAppender.xml";
+
+	@Rule
+	public static Log4JTestWatcher watcher = new Log4JTestWatcher(LOG4J_FILE, "MinHashSketchTest");
+
+	/**
+	 * (U) This method is used to test that the same, disjoint and empty sets of components get the
+	 * exact similarity.
+	 */
+	@Test
+	void testExactSimilarity()
+	{
+		String methodName = new Object()
+		{}.getClass().getEnclosingMethod().getName();
+
+		Date startDate = DateUtils.rightNowDate();
+
+		TestUtils.logTestStart(methodName, watcher.getLogger());
+
+		try
+		{
+			List<ComponentKey> keys = keys("org.example", 0, 200);
+			List<ComponentKey> reversed = new ArrayList<>(keys);
+			Collections.reverse(reversed);
+			MinHashSketch sketch = new MinHashSketch(keys, MinHashSketch.DEFAULT_SIZE);
+
+			Assert.assertEquals(1.0, sketch.similarity(new MinHashSketch(reversed,
+					MinHashSketch.DEFAULT_SIZE)), 0.0);
+			Assert.assertEquals(0.0, sketch.similarity(new MinHashSketch(keys("com.other", 0, 200),
+					MinHashSketch.DEFAULT_SIZE)), 0.05);
+
+			MinHashSketch empty = new MinHashSketch(Collections.<ComponentKey> emptyList(),
+					MinHashSketch.DEFAULT_SIZE);
+			Assert.assertEquals(0.0, sketch.similarity(empty), 0.0);
+			Assert.assertEquals(1.0, empty.similarity(empty), 0.0);
+		}
+		catch (Exception e)
+		{
+			String error = "Unexpected error occured while attempting to sketch the same sets!";
+			watcher.getLogger().error(error, e);
+			Assert.fail(error);
+		}
+		finally
+		{
+			TestUtils.logTestFinish(methodName, startDate, watcher.getLogger());
+		}
+	}
+
+	/**
+	 * (U) This method is used to test that the estimated similarity of overlapping sets is close
+	 * to their Jaccard similarity.
+	 */
+	@Test
+	void testEstimatedSimilarity()
+	{
+		String methodName = new Object()
+		{}.getClass().getEnclosingMethod().getName();
+
+		Date startDate = DateUtils.rightNowDate();
+
+		TestUtils.logTestStart(methodName, watcher.getLogger());
+
+		try
+		{
+			// 500 in common of 1500 in either, a Jaccard similarity of 1/3.
+			MinHashSketch first = new MinHashSketch(keys("org.example", 0, 1000), 512);
+			MinHashSketch second = new MinHashSketch(keys("org.example", 500, 1500), 512);
+
+			Assert.assertEquals(512, first.size());
+			Assert.assertEquals(1.0 / 3.0, first.similarity(second), 0.08);
+			Assert.assertEquals(first.similarity(second), second.similarity(first), 0.0);
+		}
+		catch (Exception e)
+		{
+			String error = "Unexpected error occured while attempting to estimate a similarity!";
+			watcher.getLogger().error(error, e);
+			Assert.fail(error);
+		}
+		finally
+		{
+			TestUtils.logTestFinish(methodName, startDate, watcher.getLogger());
+		}
+	}
+
+	/**
+	 * (U) This method is used to build a range of component keys.
+	 *
+	 * @param group String group of the components.
+	 * @param from  int first component number.
+	 * @param to    int component number to stop before.
+	 * @return List of ComponentKey.
+	 */
+	private List<ComponentKey> keys(String group, int from, int to)
+	{
+		List<ComponentKey> keys = new ArrayList<>();
+		for (int i = from; i < to; i++)
+			keys.add(new ComponentKey(group, "component-" + i));
+		return keys;
+	}
+}
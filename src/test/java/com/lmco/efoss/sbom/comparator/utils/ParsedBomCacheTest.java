@@ -0,0 +1,208 @@
+/*
+ * Copyright (c) 2018,2019 Lockheed Martin Corporation.
+ *
+ * This work is owned by Lockheed Martin Corporation. Lockheed Martin personnel are permitted to use and
+ * modify this software.  Lockheed Martin personnel may also deliver this source code to any US Government
+ * customer Agency under a "US Government Purpose Rights" license.
+ *
+ * See the LICENSE file distributed with this work for licensing and distribution terms
+ */
+package com.lmco.efoss.sbom.comparator.utils;
+
+import java.io.ByteArrayInputStream;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.security.DigestInputStream;
+import java.util.Date;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.jupiter.api.Test;
+
+import com.lmco.efoss.sbom.commons.test.utils.Log4JTestWatcher;
+import com.lmco.efoss.sbom.commons.test.utils.TestUtils;
+import com.lmco.efoss.sbom.commons.utils.DateUtils;
+import com.lmco.efoss.sbom.comparator.dtos.CacheStats;
+import com.lmco.efoss.sbom.comparator.dtos.IndexedBom;
+
+/**
+ * (U) This class contains the unit tests for the ParsedBomCache.
+ *
+ * @author wrgoff
+ * @since 19 October 2026
+ */
+class ParsedBomCacheTest
+{
+	private static final String LOG4J_FILE = "ParsedBomCacheAppender.xml";
+
+	@Rule
+	public static Log4JTestWatcher watcher = new Log4JTestWatcher(LOG4J_FILE,
+			"ParsedBomCacheTest");
+
+	/**
+	 * (U) This method is used to test that the same bytes are parsed once, whatever name they
+	 * come under, and that the SBom handed back has the name asked for.
+	 */
+	@Test
+	void testHits()
+	{
+		String methodName = new Object()
+		{}.getClass().getEnclosingMethod().getName();
+
+		Date startDate = DateUtils.rightNowDate();
+
+		TestUtils.logTestStart(methodName, watcher.getLogger());
+
+		try
+		{
+			byte[] original = Files.readAllBytes(Paths.get("test", "OrgSbom.xml"));
+			byte[] modified = Files.readAllBytes(Paths.get("test", "ModifiedSbom.json"));
+			ParsedBomCache cache = new ParsedBomCache(ParsedBomCache.DEFAULT_MAX_BYTES);
+
+			IndexedBom first = cache.parse("first.xml", original);
+			IndexedBom second = cache.parse("second.xml", original);
+			IndexedBom json = cache.parse("modified.json", modified);
+
+			Assert.assertEquals("first.xml", first.getName());
+			Assert.assertEquals("second.xml", second.getName());
+			Assert.assertSame(first.getBom(), second.getBom());
+			Assert.assertSame(first.getKeys(), second.getKeys());
+			Assert.assertNotSame(first.getBom(), json.getBom());
+			Assert.assertSame(first, cache.parse("first.xml", original));
+
+			CacheStats stats = cache.getStats();
+			Assert.assertEquals(2, stats.getHits());
+			Assert.assertEquals(2, stats.getMisses());
+			Assert.assertEquals(0, stats.getEvictions());
+			Assert.assertEquals(2, stats.getEntries());
+			Assert.assertEquals(ParsedBomCache.estimateSize(first, original.length) +
+					ParsedBomCache.estimateSize(json, modified.length), stats.getBytes());
+		}
+		catch (Exception e)
+		{
+			String error = "Unexpected error occured while attempting to reuse parsed SBoms!";
+			watcher.getLogger().error(error, e);
+			Assert.fail(error);
+		}
+		finally
+		{
+			TestUtils.logTestFinish(methodName, startDate, watcher.getLogger());
+		}
+	}
+
+	/**
+	 * (U) This method is used to test that the least recently used SBom is dropped to keep the
+	 * cache under its size, and that nothing is kept by a cache of size 0.
+	 */
+	@Test
+	void testEviction()
+	{
+		String methodName = new Object()
+		{}.getClass().getEnclosingMethod().getName();
+
+		Date startDate = DateUtils.rightNowDate();
+
+		TestUtils.logTestStart(methodName, watcher.getLogger());
+
+		try
+		{
+			byte[] original = Files.readAllBytes(Paths.get("test", "OrgSbom.xml"));
+			byte[] modified = Files.readAllBytes(Paths.get("test", "ModifiedSbom.xml"));
+			long originalSize = ParsedBomCache.estimateSize(new IndexedBom("size",
+					ParsedBomCache.parseBom("size", original)), original.length);
+			long modifiedSize = ParsedBomCache.estimateSize(new IndexedBom("size",
+					ParsedBomCache.parseBom("size", modified)), modified.length);
+
+			// Room for either SBom, but not both.
+			ParsedBomCache cache = new ParsedBomCache(Math.max(originalSize, modifiedSize));
+			cache.parse("original.xml", original);
+			cache.parse("modified.xml", modified);
+			CacheStats stats = cache.getStats();
+			Assert.assertEquals(1, stats.getEntries());
+			Assert.assertEquals(1, stats.getEvictions());
+			Assert.assertEquals(modifiedSize, stats.getBytes());
+
+			cache.parse("modified.xml", modified);
+			cache.parse("original.xml", original);
+			stats = cache.getStats();
+			Assert.assertEquals(1, stats.getHits());
+			Assert.assertEquals(3, stats.getMisses());
+			Assert.assertEquals(2, stats.getEvictions());
+
+			ParsedBomCache none = new ParsedBomCache(0);
+			none.parse("original.xml", original);
+			none.parse("original.xml", original);
+			stats = none.getStats();
+			Assert.assertEquals(0, stats.getHits());
+			Assert.assertEquals(2, stats.getMisses());
+			Assert.assertEquals(0, stats.getEntries());
+		}
+		catch (Exception e)
+		{
+			String error = "Unexpected error occured while attempting to evict parsed SBoms!";
+			watcher.getLogger().error(error, e);
+			Assert.fail(error);
+		}
+		finally
+		{
+			TestUtils.logTestFinish(methodName, startDate, watcher.getLogger());
+		}
+	}
+
+	/**
+	 * (U) This method is used to test that an SBom parsed as it is read, as an upload still
+	 * arriving is, is the same as one parsed from its bytes, and is cached by the same hash.
+	 */
+	@Test
+	void testStreamed()
+	{
+		String methodName = new Object()
+		{}.getClass().getEnclosingMethod().getName();
+
+		Date startDate = DateUtils.rightNowDate();
+
+		TestUtils.logTestStart(methodName, watcher.getLogger());
+
+		try
+		{
+			byte[] original = Files.readAllBytes(Paths.get("test", "OrgSbom.xml"));
+			byte[] json = Files.readAllBytes(Paths.get("test", "ModifiedSbom.json"));
+			ParsedBomCache cache = new ParsedBomCache(ParsedBomCache.DEFAULT_MAX_BYTES);
+
+			DigestInputStream in = new DigestInputStream(new ByteArrayInputStream(original),
+					ParsedBomCache.newSha256());
+			IndexedBom streamed = new IndexedBom("streamed.xml", ParsedBomCache.parseBom(
+					"streamed.xml", in));
+			while (in.read() >= 0)
+			{
+				// Hash the rest of the SBom.
+			}
+			String hash = ParsedBomCache.toHex(in.getMessageDigest().digest());
+			Assert.assertEquals(ParsedBomCache.sha256(original), hash);
+			Assert.assertSame(streamed, cache.add(hash, original.length, streamed));
+
+			IndexedBom parsed = cache.parse("parsed.xml", original);
+			Assert.assertSame(streamed.getBom(), parsed.getBom());
+			Assert.assertEquals("again.xml", cache.add(hash, original.length, new IndexedBom(
+					"again.xml", ParsedBomCache.parseBom("again.xml", original))).getName());
+			Assert.assertEquals(new IndexedBom("json", ParsedBomCache.parseBom("json", json))
+					.size(), new IndexedBom("json", ParsedBomCache.parseBom("json",
+							new ByteArrayInputStream(json))).size());
+
+			CacheStats stats = cache.getStats();
+			Assert.assertEquals(2, stats.getHits());
+			Assert.assertEquals(1, stats.getMisses());
+			Assert.assertEquals(1, stats.getEntries());
+		}
+		catch (Exception e)
+		{
+			String error = "Unexpected error occured while attempting to parse streamed SBoms!";
+			watcher.getLogger().error(error, e);
+			Assert.fail(error);
+		}
+		finally
+		{
+			TestUtils.logTestFinish(methodName, startDate, watcher.getLogger());
+		}
+	}
+}
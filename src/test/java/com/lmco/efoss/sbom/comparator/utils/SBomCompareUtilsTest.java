@@ -9,7 +9,11 @@
  */
 package com.lmco.efoss.sbom.comparator.utils;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.Date;
+import java.util.List;
 
 import org.cyclonedx.model.Bom;
 import org.cyclonedx.model.Component;
@@ -21,6 +25,9 @@ import org.junit.jupiter.api.Test;
 import com.lmco.efoss.sbom.commons.test.utils.Log4JTestWatcher;
 import com.lmco.efoss.sbom.commons.test.utils.TestUtils;
 import com.lmco.efoss.sbom.commons.utils.DateUtils;
+import com.lmco.efoss.sbom.comparator.dtos.CompareComponent;
+import com.lmco.efoss.sbom.comparator.dtos.ComponentKey;
+import com.lmco.efoss.sbom.comparator.dtos.ModifiedComponent;
 import com.lmco.efoss.sbom.comparator.dtos.SBomDiff;
 
 
@@ -332,6 +339,131 @@ public class SBomCompareUtilsTest
 		}
 	}
 	
+	/**
+	 * (U) This test case is used to test that composing the diffs of A to B and B to C gives the
+	 * same changes as comparing A to C.
+	 */
+	@Test
+	void testComposeDiffs()
+	{
+		String methodName = new Object() {}.getClass().getEnclosingMethod().getName();
+		Date startDate = DateUtils.rightNowDate();
+		
+		TestUtils.logTestStart(methodName, watcher.getLogger());
+		try
+		{
+			SBomDiff composed = SBomCompareUtils.composeDiffs(
+					SBomCompareUtils.compareComponents(originalSbom, newSbom),
+					SBomCompareUtils.compareComponents(newSbom, modifiedSbom));
+			
+			Assert.assertEquals(describe(SBomCompareUtils.compareComponents(originalSbom,
+					modifiedSbom)), describe(composed));
+			
+			SBomDiff undone = SBomCompareUtils.composeDiffs(
+					SBomCompareUtils.compareComponents(originalSbom, modifiedSbom),
+					SBomCompareUtils.compareComponents(modifiedSbom, originalSbom));
+			Assert.assertTrue(describe(undone).isEmpty());
+		}
+		catch (Exception e)
+		{
+			String error = "Unexpected error occured while attempt to compose " +
+					"2 diffs";
+			watcher.getLogger().error(error, e);
+			Assert.fail(error);
+		}
+		finally
+		{
+			TestUtils.logTestFinish(methodName, startDate, watcher.getLogger());
+		}
+	}
+	
+	/**
+	 * (U) This test case is used to test composing components that were added then removed,
+	 * removed then added back, and whose version changed and changed back.
+	 */
+	@Test
+	void testComposeDiffsRoundTrips()
+	{
+		String methodName = new Object() {}.getClass().getEnclosingMethod().getName();
+		Date startDate = DateUtils.rightNowDate();
+		
+		TestUtils.logTestStart(methodName, watcher.getLogger());
+		try
+		{
+			Bom bomA = newBom("back:1.0", "twice:1", "gone:1", "same:1", "other:1", "late:1");
+			Bom bomB = newBom("back:2.0", "twice:2", "brief:1", "same:1", "late:1");
+			Bom bomC = newBom("back:1.0", "twice:3", "gone:1", "same:1", "other:2");
+			
+			SBomDiff composed = SBomCompareUtils.composeDiffs(
+					SBomCompareUtils.compareComponents(bomA, bomB),
+					SBomCompareUtils.compareComponents(bomB, bomC));
+			
+			Assert.assertEquals(describe(SBomCompareUtils.compareComponents(bomA, bomC)),
+					describe(composed));
+			Assert.assertEquals(Arrays.asList("modified:org.example:other:1:2",
+					"modified:org.example:twice:1:3", "removed:org.example:late:1"),
+					describe(composed));
+		}
+		catch (Exception e)
+		{
+			String error = "Unexpected error occured while attempt to compose " +
+					"round trips";
+			watcher.getLogger().error(error, e);
+			Assert.fail(error);
+		}
+		finally
+		{
+			TestUtils.logTestFinish(methodName, startDate, watcher.getLogger());
+		}
+	}
+	
+	/**
+	 * (U) This method is used to describe the changes of a diff, sorted, so two diffs with the
+	 * same changes in a different order are equal.
+	 * 
+	 * @param diff SBomDiff to describe.
+	 * @return List of String, one for each change.
+	 */
+	private static List<String> describe(SBomDiff diff)
+	{
+		List<String> changes = new ArrayList<>();
+		for (CompareComponent component : diff.getComponentsAdded())
+			changes.add("added:" + ComponentKey.of(component.getComponent()) + ":" +
+					component.getComponent().getVersion());
+		for (CompareComponent component : diff.getComponentsRemoved())
+			changes.add("removed:" + ComponentKey.of(component.getComponent()) + ":" +
+					component.getComponent().getVersion());
+		for (ModifiedComponent component : diff.getModifiedComponents())
+			changes.add("modified:" + ComponentKey.of(component.getNewComponent()
+					.getComponent()) + ":" + component.getPreviousComponent().getComponent()
+							.getVersion() + ":" + component.getNewComponent().getComponent()
+									.getVersion());
+		Collections.sort(changes);
+		return changes;
+	}
+	
+	/**
+	 * (U) This method is used to build an SBom of components in the org.example group.
+	 * 
+	 * @param components String name:version of each component.
+	 * @return Bom holding the components.
+	 */
+	private static Bom newBom(String... components)
+	{
+		Bom bom = new Bom();
+		List<Component> bomComponents = new ArrayList<>();
+		for (String nameVersion : components)
+		{
+			Component component = new Component();
+			component.setGroup("org.example");
+			component.setName(nameVersion.substring(0, nameVersion.indexOf(':')));
+			component.setVersion(nameVersion.substring(nameVersion.indexOf(':') + 1));
+			bomComponents.add(component);
+		}
+		bom.setComponents(bomComponents);
+		return bom;
+	}
+	
 	/**
 	 * (U) This test case is used to test that two components are equal, if
 	 * and only if their group, name, and version match.
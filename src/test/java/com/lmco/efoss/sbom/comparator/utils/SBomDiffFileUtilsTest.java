@@ -97,6 +97,69 @@ class SBomDiffFileUtilsTest
 		}
 	}
 	
+	/**
+	 * (U) This method is used to test reading back a diff written in each format.
+	 */
+	@Test
+	void sBomDiffFileUtilsReadDiffTest()
+	{
+		String methodName = new Object()
+		{}.getClass().getEnclosingMethod().getName();
+		Date startDate = DateUtils.rightNowDate();
+		
+		TestUtils.logTestStart(methodName, watcher.getLogger());
+		String sbomDiffFileName = "./test/tempReadSbomDiff";
+		String[] formats = new String[] { "json", "xml", "ndjson" };
+		try
+		{
+			TestUtils testUtils = new TestUtils();
+			
+			Bom originalSbom = testUtils.readSbomFile("OrgSbom.xml", watcher.getLogger());
+			Bom newSbom = testUtils.readSbomFile("ModifiedSbom.xml", watcher.getLogger());
+			
+			SBomDiff diff = SBomCompareUtils.compareComponents(originalSbom, newSbom);
+			
+			for (String format : formats)
+			{
+				SBomDiffFileUtils.generateOutputFile(diff, format, sbomDiffFileName);
+				SBomDiff readDiff = SBomDiffFileUtils.readDiff(sbomDiffFileName + "." + format);
+				
+				Assert.assertEquals(format, diff.getComponentsAdded().size(),
+						readDiff.getComponentsAdded().size());
+				Assert.assertEquals(format, diff.getComponentsRemoved().size(),
+						readDiff.getComponentsRemoved().size());
+				Assert.assertEquals(format, diff.getModifiedComponents().size(),
+						readDiff.getModifiedComponents().size());
+				Assert.assertEquals(format, diff.getModifiedComponents().get(0)
+						.getNewComponent().getComponent().getVersion(), readDiff
+								.getModifiedComponents().get(0).getNewComponent()
+								.getComponent().getVersion());
+			}
+		}
+		catch (Exception e)
+		{
+			String error = "Unexpected error occurred while attempting to read an SBomDiff from a file!";
+			watcher.getLogger().error(error, e);
+			Assert.fail(error);
+		}
+		finally
+		{
+			for (String format : formats)
+			{
+				try
+				{
+					Files.deleteIfExists(Paths.get(sbomDiffFileName + "." + format));
+				}
+				catch (Exception e)
+				{
+					watcher.getLogger().warn("Failed to cleanup " + sbomDiffFileName + "." +
+							format + ".");
+				}
+			}
+			TestUtils.logTestFinish(methodName, startDate, watcher.getLogger());
+		}
+	}
+	
 	/**
 	 * (U) This method is used to test printing a SBomDiff Object to a file.
 	 */
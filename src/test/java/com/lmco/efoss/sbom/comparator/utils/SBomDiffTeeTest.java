@@ -0,0 +1,292 @@
+/*
+ * Copyright (c) 2018,2019 Lockheed Martin Corporation.
+ *
+ * This work is owned by Lockheed Martin Corporation. Lockheed Martin personnel are permitted to use and
+ * modify this software.  Lockheed Martin personnel may also deliver this source code to any US Government
+ * customer Agency under a "US Government Purpose Rights" license.
+ *
+ * See the LICENSE file distributed with this work for licensing and distribution terms
+ */
+package com.lmco.efoss.sbom.comparator.utils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+
+import org.cyclonedx.model.Bom;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.lmco.efoss.sbom.commons.test.utils.Log4JTestWatcher;
+import com.lmco.efoss.sbom.commons.test.utils.TestUtils;
+import com.lmco.efoss.sbom.commons.utils.DateUtils;
+import com.lmco.efoss.sbom.commons.utils.SBomCommons;
+import com.lmco.efoss.sbom.comparator.builder.ChunkedHtmlWriter;
+import com.lmco.efoss.sbom.comparator.builder.HtmlBuilder;
+import com.lmco.efoss.sbom.comparator.dtos.CompareComponent;
+import com.lmco.efoss.sbom.comparator.dtos.ModifiedComponent;
+import com.lmco.efoss.sbom.comparator.dtos.SBomDiff;
+import com.lmco.efoss.sbom.comparator.exceptions.SBomComparatorException;
+import com.lmco.efoss.sbom.comparator.generator.SBomGenerator;
+import com.lmco.efoss.sbom.comparator.generator.SBomJSonDiffGenerator;
+import com.lmco.efoss.sbom.comparator.generator.SBomJSonDiffWriter;
+import com.lmco.efoss.sbom.comparator.generator.SBomXmlDiffGenerator;
+import com.lmco.efoss.sbom.comparator.generator.SBomXmlDiffWriter;
+
+/**
+ * (U) This class contains the unit tests for the SBomDiffTee, writing the diff in several formats
+ * from one compare.
+ *
+ * @author wrgoff
+ * @since 19 October 2026
+ */
+class SBomDiffTeeTest
+{
+	private static final String LOG4J_FILE = "SBomDiffTeeAppender.xml";
+
+	@Rule
+	public static Log4JTestWatcher watcher = new Log4JTestWatcher(LOG4J_FILE, "SBomDiffTeeTest");
+
+	/**
+	 * (U) This method is used to test that aborting the tee, once a listener fails part way
+	 * through the compare, deletes the outputs written so far rather than finishing them.
+	 */
+	@Test
+	void testAbort()
+	{
+		String methodName = new Object()
+		{}.getClass().getEnclosingMethod().getName();
+
+		Date startDate = DateUtils.rightNowDate();
+
+		TestUtils.logTestStart(methodName, watcher.getLogger());
+
+		List<Path> outputs = Arrays.asList(Paths.get("./test/abortDiff.json"),
+				Paths.get("./test/abortDiff.xml"), Paths.get("./test/abortDiffBom.xml"),
+				Paths.get("./test/abortReport.html"));
+		File dataDir = new File("./test/abortReport_files");
+		try
+		{
+			TestUtils testUtils = new TestUtils();
+
+			Bom originalSbom = testUtils.readSbomFile("OrgSbom.xml", watcher.getLogger());
+			Bom newSbom = testUtils.readSbomFile("ModifiedSbom.xml", watcher.getLogger());
+
+			SBomDiffTee tee = new SBomDiffTee();
+			tee.add(SBomDiffFileUtils.openDiffWriter("json", "./test/abortDiff"));
+			tee.add(SBomDiffFileUtils.openDiffWriter("xml", "./test/abortDiff"));
+			tee.add(new SBomGenerator().openDiffBomWriter(originalSbom, newSbom,
+					"./test/abortDiffBom", SBomCommons.AVAILABLE_FORMATS.XML));
+			tee.add(new ChunkedHtmlWriter(new HtmlBuilder(), "./test/abortReport.html",
+					"./test/OrgSbom.xml", "./test/ModifiedSbom.xml", 5));
+			tee.add(new FailingListener(20));
+
+			SBomComparatorException failure = null;
+			try
+			{
+				SBomCompareUtils.compareComponents(originalSbom, newSbom, tee);
+			}
+			catch (SBomComparatorException e)
+			{
+				failure = e;
+				Assert.assertTrue(Files.exists(outputs.get(0)));
+				Assert.assertTrue(dataDir.exists());
+				tee.abort(e);
+			}
+
+			Assert.assertNotNull(failure);
+			Assert.assertEquals(0, failure.getSuppressed().length);
+			for (Path output : outputs)
+				Assert.assertFalse(output.toString(), Files.exists(output));
+			Assert.assertFalse(dataDir.exists());
+		}
+		catch (Exception e)
+		{
+			String error = "Unexpected error occured while attempt to abort a tee!";
+			watcher.getLogger().error(error, e);
+			Assert.fail(error);
+		}
+		finally
+		{
+			try
+			{
+				for (Path output : outputs)
+					Files.deleteIfExists(output);
+				File[] chunks = dataDir.listFiles();
+				if (chunks != null)
+				{
+					for (File chunk : chunks)
+						Files.deleteIfExists(chunk.toPath());
+				}
+				Files.deleteIfExists(dataDir.toPath());
+			}
+			catch (Exception e)
+			{
+				watcher.getLogger().warn("Failed to cleanup the aborted outputs.");
+			}
+			TestUtils.logTestFinish(methodName, startDate, watcher.getLogger());
+		}
+	}
+
+	/**
+	 * (U) This method is used to test that comparing an SBom with itself still writes all three
+	 * (empty) sections.
+	 */
+	@Test
+	void testEmptyDiff()
+	{
+		String methodName = new Object()
+		{}.getClass().getEnclosingMethod().getName();
+
+		Date startDate = DateUtils.rightNowDate();
+
+		TestUtils.logTestStart(methodName, watcher.getLogger());
+
+		try
+		{
+			TestUtils testUtils = new TestUtils();
+
+			Bom originalSbom = testUtils.readSbomFile("OrgSbom.xml", watcher.getLogger());
+
+			SBomDiff[] diffs = teeCompare(originalSbom, originalSbom);
+			for (SBomDiff diff : diffs)
+			{
+				Assert.assertTrue(diff.getComponentsAdded().isEmpty());
+				Assert.assertTrue(diff.getComponentsRemoved().isEmpty());
+				Assert.assertTrue(diff.getModifiedComponents().isEmpty());
+			}
+		}
+		catch (Exception e)
+		{
+			String error = "Unexpected error occured while attempt to tee an empty diff!";
+			watcher.getLogger().error(error, e);
+			Assert.fail(error);
+		}
+		finally
+		{
+			TestUtils.logTestFinish(methodName, startDate, watcher.getLogger());
+		}
+	}
+
+	/**
+	 * (U) This method is used to test that the streamed JSon and XML diffs hold the same
+	 * differences as the diff collected from the same compare.
+	 */
+	@Test
+	void testTeeFormats()
+	{
+		String methodName = new Object()
+		{}.getClass().getEnclosingMethod().getName();
+
+		Date startDate = DateUtils.rightNowDate();
+
+		TestUtils.logTestStart(methodName, watcher.getLogger());
+
+		try
+		{
+			TestUtils testUtils = new TestUtils();
+
+			Bom originalSbom = testUtils.readSbomFile("OrgSbom.xml", watcher.getLogger());
+			Bom newSbom = testUtils.readSbomFile("ModifiedSbom.xml", watcher.getLogger());
+
+			SBomDiff[] diffs = teeCompare(originalSbom, newSbom);
+
+			ObjectMapper mapper = new SBomJSonDiffGenerator(null).getMapper();
+			String expected = mapper.writeValueAsString(diffs[0]);
+
+			Assert.assertEquals(73, diffs[0].getComponentsAdded().size());
+			Assert.assertEquals(expected, mapper.writeValueAsString(diffs[1]));
+			Assert.assertEquals(expected, mapper.writeValueAsString(diffs[2]));
+		}
+		catch (Exception e)
+		{
+			String error = "Unexpected error occured while attempt to tee a diff!";
+			watcher.getLogger().error(error, e);
+			Assert.fail(error);
+		}
+		finally
+		{
+			TestUtils.logTestFinish(methodName, startDate, watcher.getLogger());
+		}
+	}
+
+	/**
+	 * (U) This method is used to compare the two SBoms once, through a tee of a collector, a JSon
+	 * writer and an XML writer.
+	 *
+	 * @param originalSbom Original SBom.
+	 * @param newSbom      New SBom.
+	 * @return SBomDiff array of the collected diff, the diff read from the JSon, and the diff read
+	 *         from the XML.
+	 * @throws Exception in the event the compare or reading back the outputs fails.
+	 */
+	private SBomDiff[] teeCompare(Bom originalSbom, Bom newSbom) throws Exception
+	{
+		ByteArrayOutputStream jsonOut = new ByteArrayOutputStream();
+		ByteArrayOutputStream xmlOut = new ByteArrayOutputStream();
+
+		SBomDiffCollector collector = new SBomDiffCollector();
+		try (SBomDiffTee tee = new SBomDiffTee())
+		{
+			tee.add(collector).add(new SBomJSonDiffWriter(jsonOut)).add(
+					new SBomXmlDiffWriter(xmlOut));
+			Assert.assertEquals(3, tee.size());
+
+			SBomCompareUtils.compareComponents(originalSbom, newSbom, tee);
+		}
+
+		SBomDiff jsonDiff = new SBomJSonDiffGenerator(null).getMapper().readValue(
+				jsonOut.toByteArray(), SBomDiff.class);
+		SBomDiff xmlDiff = new SBomXmlDiffGenerator().getMapper().readValue(xmlOut.toByteArray(),
+				SBomDiff.class);
+
+		return new SBomDiff[]
+		{ collector.getDiff(), jsonDiff, xmlDiff };
+	}
+
+	/**
+	 * (U) This listener fails once it has been handed the number of differences passed in, as a
+	 * writer that can NOT write would.
+	 */
+	private static class FailingListener implements SBomDiffListener
+	{
+		private final int failAt;
+		private int count = 0;
+
+		FailingListener(int failAt)
+		{
+			this.failAt = failAt;
+		}
+
+		@Override
+		public void componentAdded(CompareComponent component) throws SBomComparatorException
+		{
+			count();
+		}
+
+		@Override
+		public void componentModified(ModifiedComponent component) throws SBomComparatorException
+		{
+			count();
+		}
+
+		@Override
+		public void componentRemoved(CompareComponent component) throws SBomComparatorException
+		{
+			count();
+		}
+
+		private void count() throws SBomComparatorException
+		{
+			if (++count == failAt)
+				throw new SBomComparatorException("Failed on difference " + count + ".");
+		}
+	}
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright (c) 2018,2019 Lockheed Martin Corporation.
+ *
+ * This work is owned by Lockheed Martin Corporation. Lockheed Martin personnel are permitted to use and
+ * modify this software.  Lockheed Martin personnel may also deliver this source code to any US Government
+ * customer Agency under a "US Government Purpose Rights" license.
+ *
+ * See the LICENSE file distributed with this work for licensing and distribution terms
+ */
+package com.lmco.efoss.sbom.comparator.utils;
+
+import java.util.Arrays;
+import java.util.Date;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.jupiter.api.Test;
+
+import com.lmco.efoss.sbom.commons.test.utils.Log4JTestWatcher;
+import com.lmco.efoss.sbom.commons.test.utils.TestUtils;
+import com.lmco.efoss.sbom.commons.utils.DateUtils;
+
+/**
+ * (U) This class contains the unit tests for the VersionTokenizer.
+ *
+ * @author wrgoff
+ * @since 19 October 2026
+ */
+class VersionTokenizerTest
+{
+	private static final String LOG4J_FILE = "VersionTokenizerAppender.xml";
+
+	@Rule
+	public static Log4JTestWatcher watcher = new Log4JTestWatcher(LOG4J_FILE,
+			"VersionTokenizerTest");
+
+	/**
+	 * (U) This method is used to test which segments of a new version are marked as changed.
+	 */
+	@Test
+	void testDiff()
+	{
+		String methodName = new Object()
+		{}.getClass().getEnclosingMethod().getName();
+
+		Date startDate = DateUtils.rightNowDate();
+
+		TestUtils.logTestStart(methodName, watcher.getLogger());
+
+		try
+		{
+			Assert.assertEquals("[1., [13], ., [5]]",
+					VersionTokenizer.diff("1.12.4", "1.13.5").toString());
+			Assert.assertEquals("[2.13.4., [20221013], -SNAPSHOT]",
+					VersionTokenizer.diff("2.13.4.20220915-SNAPSHOT", "2.13.4.20221013-SNAPSHOT")
+							.toString());
+			// A longer segment is marked whole, NOT character by character.
+			Assert.assertEquals("[1., [10], .0]", VersionTokenizer.diff("1.9.0", "1.10.0")
+					.toString());
+			Assert.assertEquals("[1.0, [RC1]]", VersionTokenizer.diff("1.0", "1.0RC1").toString());
+			Assert.assertEquals("[[5.3.1]]", VersionTokenizer.diff(null, "5.3.1").toString());
+			Assert.assertEquals("[5.3.1]", VersionTokenizer.diff("5.3.1", "5.3.1").toString());
+			Assert.assertTrue(VersionTokenizer.diff("5.3.1", null).isEmpty());
+		}
+		catch (Exception e)
+		{
+			String error = "Unexpected error occured while diffing versions!";
+			watcher.getLogger().error(error, e);
+			Assert.fail(error);
+		}
+		finally
+		{
+			TestUtils.logTestFinish(methodName, startDate, watcher.getLogger());
+		}
+	}
+
+	/**
+	 * (U) This method is used to test that versions split on separators and between digits and
+	 * letters, and that the tokens join back into the version.
+	 */
+	@Test
+	void testTokenize()
+	{
+		String methodName = new Object()
+		{}.getClass().getEnclosingMethod().getName();
+
+		Date startDate = DateUtils.rightNowDate();
+
+		TestUtils.logTestStart(methodName, watcher.getLogger());
+
+		try
+		{
+			Assert.assertEquals(Arrays.asList("2", ".", "13", ".", "4", ".", "20221013", "-",
+					"SNAPSHOT"), VersionTokenizer.tokenize("2.13.4.20221013-SNAPSHOT"));
+			Assert.assertEquals(Arrays.asList("1", ".", "0", "RC", "1"),
+					VersionTokenizer.tokenize("1.0RC1"));
+			Assert.assertEquals(Arrays.asList("5", ".", "2", ".", "5", ".", "RELEASE"),
+					VersionTokenizer.tokenize("5.2.5.RELEASE"));
+			Assert.assertTrue(VersionTokenizer.tokenize("").isEmpty());
+			Assert.assertTrue(VersionTokenizer.tokenize(null).isEmpty());
+
+			String version = "1.0.0-beta+exp.sha.5114f85";
+			Assert.assertEquals(version, String.join("", VersionTokenizer.tokenize(version)));
+		}
+		catch (Exception e)
+		{
+			String error = "Unexpected error occured while tokenizing versions!";
+			watcher.getLogger().error(error, e);
+			Assert.fail(error);
+		}
+		finally
+		{
+			TestUtils.logTestFinish(methodName, startDate, watcher.getLogger());
+		}
+	}
+}